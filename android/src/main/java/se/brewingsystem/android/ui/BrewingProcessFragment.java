@@ -296,7 +296,8 @@ public class BrewingProcessFragment extends BaseFragment implements SwipeRefresh
         if (drawableStateMap.containsKey(brewingProcess.getState().getState())) {
             currentStateImage.setImageResource(drawableStateMap.get(brewingProcess.getState().getState()));
         }
-        List<Message> mMessages = brewingProcess.getBrewingLog().getMessages();
+        /* the messages of the log cannot be changed, so they are copied before filtering */
+        List<Message> mMessages = new ArrayList<Message>(brewingProcess.getBrewingLog().getMessages());
         TemperatureGraphModel[] model = GraphUtilities.getGraphModel(mMessages);
         /*
          * after receiving the temperature graph model we can remove all temperature messages
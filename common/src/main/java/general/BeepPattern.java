@@ -0,0 +1,127 @@
+/*
+ *
+ */
+package general;
+
+import java.util.Arrays;
+
+
+/**
+ * A sequence of beeps of the signal, given as alternating durations of beeps and pauses (starting
+ * with a beep). A pattern of a higher priority interrupts a pattern of a lower priority.
+ */
+public final class BeepPattern {
+
+  /** Priority of notifications */
+  public static final int PRIORITY_NOTIFICATION = 1;
+
+  /** Priority of requests the user has to answer */
+  public static final int PRIORITY_REQUEST = 2;
+
+  /** Priority of alarms */
+  public static final int PRIORITY_ALARM = 3;
+
+  /** A short single beep */
+  public static final BeepPattern SINGLE_SHORT = new BeepPattern(PRIORITY_NOTIFICATION, 500);
+
+  /** Two long beeps */
+  public static final BeepPattern DOUBLE_LONG = new BeepPattern(PRIORITY_NOTIFICATION, 1000, 500,
+      1000);
+
+  /** Beeps before a step of the brewing process starts */
+  public static final BeepPattern PRE_NOTIFICATION = DOUBLE_LONG;
+
+  /** A beep which asks the user to confirm a step */
+  public static final BeepPattern CONFIRMATION_REQUEST = new BeepPattern(PRIORITY_REQUEST, 500,
+      250, 150, 250, 150);
+
+  /** Long beeps in case of an emergency */
+  public static final BeepPattern ALARM = new BeepPattern(PRIORITY_ALARM, 1500, 300, 1500, 300,
+      1500);
+
+  /** Priority of the pattern */
+  private final int priority;
+
+  /** Durations of the beeps and pauses in milliseconds */
+  private final long[] durations;
+
+  /**
+   * Creates a pattern.
+   *
+   * @param priority priority of the pattern, a higher priority interrupts a lower one
+   * @param durations alternating durations of beeps and pauses in milliseconds, starting with a
+   *        beep
+   */
+  public BeepPattern(final int priority, final long... durations) {
+    if (durations.length == 0) {
+      throw new IllegalArgumentException("A beep pattern needs at least one beep");
+    }
+    for (long duration : durations) {
+      if (duration <= 0) {
+        throw new IllegalArgumentException("Invalid duration of a beep pattern: " + duration);
+      }
+    }
+    this.priority = priority;
+    this.durations = durations.clone();
+  }
+
+  /**
+   * Gets the priority.
+   *
+   * @return the priority
+   */
+  public int getPriority() {
+    return priority;
+  }
+
+  /**
+   * Gets the number of beeps and pauses.
+   *
+   * @return the number of durations
+   */
+  public int getLength() {
+    return durations.length;
+  }
+
+  /**
+   * Gets the duration of a beep (even index) or pause (odd index).
+   *
+   * @param index index of the beep or pause
+   * @return duration in milliseconds
+   */
+  public long getDuration(final int index) {
+    return durations[index];
+  }
+
+  /**
+   * Whether the signal is switched on during the beep or pause.
+   *
+   * @param index index of the beep or pause
+   * @return true for a beep
+   */
+  public boolean isBeep(final int index) {
+    return index % 2 == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * priority + Arrays.hashCode(durations);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof BeepPattern)) {
+      return false;
+    }
+    BeepPattern other = (BeepPattern) obj;
+    return priority == other.priority && Arrays.equals(durations, other.durations);
+  }
+
+  @Override
+  public String toString() {
+    return "BeepPattern [priority=" + priority + ", durations=" + Arrays.toString(durations) + "]";
+  }
+}
@@ -4,13 +4,16 @@
 package general;
 
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Date;
 import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
 
 import messages.BrewingAbortedMessage;
 import messages.BrewingCompleteMessage;
 import messages.Message;
+import messages.TemperatureMessage;
 
 /**
  * This class saves a possible protocol and messages which were received during
@@ -28,8 +31,35 @@ public class BrewingLog {
 	/** Protocol which can be created through this log-file. */
 	private Protocol protocol;
 
-	/** List of messages which were received during the brewing process. */
-	private List<Message> messages;
+	/**
+	 * The protocol which was created last, it is created again if the
+	 * messages, the readings or the id changed since.
+	 */
+	private transient Protocol cachedProtocol;
+
+	/** the messages the cached protocol was created from */
+	private transient List<Message> cachedMessages;
+
+	/** the readings the cached protocol was created from */
+	private transient TemperatureSeries cachedTemperatures;
+
+	/** the number of messages and readings the cached protocol contains */
+	private transient long cachedSize = -1;
+
+	/** the id of the log the cached protocol was created from */
+	private transient int cachedId;
+
+	/**
+	 * List of messages which were received during the brewing process, except
+	 * for the temperature readings. Ordered by time.
+	 */
+	private MessageLog messages;
+
+	/**
+	 * Temperature readings of the brewing process, serialized by the
+	 * BrewingLogAdapter.
+	 */
+	private transient TemperatureSeries temperatures = new TemperatureSeries();
 
 	/** the unique id of this log */
 	private int id;
@@ -40,7 +70,7 @@ public class BrewingLog {
 	public BrewingLog(final Recipe recipe, final int id) {
 		this.id = id;
 		this.recipe = recipe;
-		messages = new CopyOnWriteArrayList<Message>();
+		messages = new MessageLog();
 	}
 	
 	/**sets the id */
@@ -56,12 +86,196 @@ public class BrewingLog {
 	}
 
 	/**
-	 * Returns every message which was added within the brewing process.
+	 * Returns every message which was added within the brewing process as an
+	 * unmodifiable snapshot ordered by time, messages which are logged
+	 * afterwards do not change the returned list. If temperature readings were
+	 * logged, they are recreated from the temperature series. Callers which
+	 * want to change the list have to copy it, messages are added by
+	 * {@link #log(Message)}.
 	 *
 	 * @return list of messages from the brewing process
 	 */
 	public List<Message> getMessages() {
-		return messages;
+		TemperatureSeries series = getTemperatures();
+		if (series.isEmpty()) {
+			return snapshotMessages();
+		}
+		return Collections.unmodifiableList(merge(snapshotMessages(), 0,
+				series, 0));
+	}
+
+	/**
+	 * Returns all messages (including temperature readings) which are not
+	 * older than the given time. The start of the messages and readings is
+	 * found by binary search, so only the returned messages are visited.
+	 *
+	 * @param since
+	 *            the time
+	 * @return new list of messages ordered by time
+	 */
+	public List<Message> getMessagesSince(final long since) {
+		TemperatureSeries series = getTemperatures();
+		List<Message> snapshot = snapshotMessages();
+		return merge(snapshot, indexOf(snapshot, since), series,
+				series.indexOf(since));
+	}
+
+	/**
+	 * Returns all temperatures (readings and other temperature messages) which
+	 * are not older than the given time, without creating any message. If
+	 * several temperatures have the same time, only the last one is returned.
+	 *
+	 * @param since
+	 *            the time
+	 * @return the temperatures ordered by time
+	 */
+	public TemperatureHistory getTemperaturesSince(final long since) {
+		TemperatureSeries series = getTemperatures();
+		int from = series.indexOf(since);
+		int to = Math.max(from, series.size());
+		List<TemperatureMessage> others = new ArrayList<TemperatureMessage>();
+		List<Message> list = snapshotMessages();
+		if (list != null) {
+			int size = list.size();
+			for (int i = indexOf(list, since); i < size; i++) {
+				Message message = list.get(i);
+				if (message instanceof TemperatureMessage) {
+					others.add((TemperatureMessage) message);
+				}
+			}
+		}
+		int readings = to - from;
+		long[] times = new long[readings + others.size()];
+		float[] temperatures = new float[times.length];
+		series.copyTimes(from, to, times, 0);
+		series.copyTemperatures(from, to, temperatures, 0);
+		int count = readings;
+		for (TemperatureMessage message : others) {
+			/* insert behind readings with the same time, few messages expected */
+			int index = count;
+			while (index > 0 && times[index - 1] > message.getTime()) {
+				times[index] = times[index - 1];
+				temperatures[index] = temperatures[index - 1];
+				index--;
+			}
+			times[index] = message.getTime();
+			temperatures[index] = message.getTemperature();
+			count++;
+		}
+		/* the last temperature of the same time wins */
+		int unique = 0;
+		for (int i = 0; i < count; i++) {
+			if (unique > 0 && times[unique - 1] == times[i]) {
+				unique--;
+			}
+			times[unique] = times[i];
+			temperatures[unique] = temperatures[i];
+			unique++;
+		}
+		if (unique < count) {
+			times = Arrays.copyOf(times, unique);
+			temperatures = Arrays.copyOf(temperatures, unique);
+		}
+		return new TemperatureHistory(times, temperatures);
+	}
+
+	/**
+	 * Finds the first message which is not older than the given time by
+	 * binary search.
+	 *
+	 * @param list
+	 *            messages ordered by time, may be null
+	 * @param since
+	 *            the time
+	 * @return index of the first message with time >= since
+	 */
+	private static int indexOf(final List<Message> list, final long since) {
+		if (list == null) {
+			return 0;
+		}
+		int low = 0;
+		int high = list.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			Message message = list.get(mid);
+			if (message != null && message.getTime() < since) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Merges messages and recreated temperature readings by time.
+	 *
+	 * @param list
+	 *            messages ordered by time, may be null
+	 * @param from
+	 *            index of the first message
+	 * @param series
+	 *            the temperature readings
+	 * @param seriesFrom
+	 *            index of the first reading
+	 * @return new list of the messages and readings
+	 */
+	private static List<Message> merge(final List<Message> list,
+			final int from, final TemperatureSeries series, final int seriesFrom) {
+		int count = series.size();
+		int size = list == null ? 0 : list.size();
+		List<Message> merged = new ArrayList<Message>(Math.max(0, count
+				- seriesFrom)
+				+ Math.max(0, size - from));
+		int index = seriesFrom;
+		for (int i = from; i < size; i++) {
+			Message message = list.get(i);
+			while (index < count && message != null
+					&& series.getTime(index) < message.getTime()) {
+				merged.add(series.getMessage(index++));
+			}
+			merged.add(message);
+		}
+		while (index < count) {
+			merged.add(series.getMessage(index++));
+		}
+		return merged;
+	}
+
+	/**
+	 * Returns the messages of the brewing process which are not stored in the
+	 * temperature series as an unmodifiable snapshot, like
+	 * {@link #getMessages()}.
+	 *
+	 * @return list of messages without temperature readings
+	 */
+	public List<Message> getNonReadingMessages() {
+		return snapshotMessages();
+	}
+
+	/**
+	 * Returns the messages which are not stored in the temperature series as
+	 * they are at the moment, messages which are logged afterwards do not
+	 * change the returned list.
+	 *
+	 * @return unmodifiable snapshot of the messages, may be null
+	 */
+	List<Message> snapshotMessages() {
+		MessageLog list = messages;
+		return list == null ? null : list.snapshot();
+	}
+
+	/**
+	 * Returns the temperature readings of the brewing process.
+	 *
+	 * @return the temperature series
+	 */
+	public TemperatureSeries getTemperatures() {
+		if (temperatures == null) {
+			/* logs which were not created by the constructor (e.g. gson) */
+			temperatures = new TemperatureSeries();
+		}
+		return temperatures;
 	}
 
 	/**
@@ -70,10 +284,17 @@ public class BrewingLog {
 	 * @return the time, or null if no messages have been written yet
 	 */
 	public Long getLatestTime() {
-		if (messages == null || messages.isEmpty()) {
-			return null;
+		Long latest = null;
+		List<Message> list = snapshotMessages();
+		if (list != null && !list.isEmpty()) {
+			latest = list.get(list.size() - 1).getTime();
+		}
+		TemperatureSeries series = getTemperatures();
+		int count = series.size();
+		if (count > 0 && (latest == null || series.getTime(count - 1) > latest)) {
+			latest = series.getTime(count - 1);
 		}
-		return messages.get(messages.size() - 1).getTime();
+		return latest;
 	}
 
 	/**
@@ -82,19 +303,42 @@ public class BrewingLog {
 	 * @return the time, or null if no messages have been written yet
 	 */
 	public Long getStartTime() {
-		if (messages == null || messages.isEmpty()) {
-			return null;
+		Long start = null;
+		List<Message> list = snapshotMessages();
+		if (list != null && !list.isEmpty()) {
+			start = list.get(0).getTime();
 		}
-		return messages.get(0).getTime();
+		TemperatureSeries series = getTemperatures();
+		if (!series.isEmpty() && (start == null || series.getTime(0) < start)) {
+			start = series.getTime(0);
+		}
+		return start;
 	}
 
 	/**
-	 * creates a Protocol of this log
+	 * Returns the Protocol of this log. The protocol is created once and
+	 * returned again as long as no message or reading is added or replaced,
+	 * messages are only appended or inserted, so the number of messages
+	 * tells whether they changed.
 	 *
 	 * @return protocol
 	 */
-	public Protocol getProtocol() {
-		return new Protocol(this);
+	public synchronized Protocol getProtocol() {
+		List<Message> list = messages;
+		TemperatureSeries series = getTemperatures();
+		long size = ((long) (list == null ? 0 : list.size()) << 32)
+				+ series.size();
+		if (cachedProtocol == null || cachedMessages != list
+				|| cachedTemperatures != series || cachedSize != size
+				|| cachedId != id) {
+			/* the protocol may contain messages which are logged meanwhile */
+			cachedProtocol = new Protocol(this);
+			cachedMessages = list;
+			cachedTemperatures = series;
+			cachedSize = size;
+			cachedId = id;
+		}
+		return cachedProtocol;
 	}
 
 	@Override
@@ -107,6 +351,7 @@ public class BrewingLog {
 		result = prime * result
 				+ ((protocol == null) ? 0 : protocol.hashCode());
 		result = prime * result + ((recipe == null) ? 0 : recipe.hashCode());
+		result = prime * result + getTemperatures().hashCode();
 		return result;
 	}
 
@@ -146,18 +391,53 @@ public class BrewingLog {
 		} else if (!recipe.equals(other.recipe)) {
 			return false;
 		}
+		if (!getTemperatures().equals(other.getTemperatures())) {
+			return false;
+		}
 		return true;
 	}
 
 	/**
 	 * Sets messages for the brewing log - usually not required (only for
-	 * mocks/json).
+	 * mocks/json). Temperature readings are moved into a new temperature
+	 * series and the other messages are copied into a new message log ordered
+	 * by time, the given list is never kept.
 	 *
 	 * @param messages
 	 *            list of messages which should be added to the log
 	 */
 	public void setMessages(final List<Message> messages) {
-		this.messages = messages;
+		TemperatureSeries series = new TemperatureSeries();
+		List<Message> filtered = new ArrayList<Message>();
+		if (messages != null) {
+			boolean ordered = true;
+			for (Message message : messages) {
+				if (TemperatureSeries.isReading(message)) {
+					series.add((TemperatureMessage) message);
+				} else if (message != null) {
+					ordered &= filtered.isEmpty()
+							|| filtered.get(filtered.size() - 1).getTime() <= message
+									.getTime();
+					filtered.add(message);
+				}
+			}
+			if (!ordered) {
+				Collections.sort(filtered);
+			}
+		}
+		this.messages = new MessageLog(filtered);
+		this.temperatures = series;
+	}
+
+	/**
+	 * Replaces the temperature readings - only required when the readings are
+	 * stored separately from the log.
+	 *
+	 * @param temperatures
+	 *            the temperature series
+	 */
+	public void setTemperatures(final TemperatureSeries temperatures) {
+		this.temperatures = temperatures;
 	}
 
 	/**
@@ -206,12 +486,31 @@ public class BrewingLog {
 				(recipe == null ? null :recipe.getId()));
 	}
 
-	/** Adds a message to the log */
+	/**
+	 * Adds a message to the log, temperature readings are stored in the
+	 * temperature series and other messages are inserted ordered by time
+	 */
 	public boolean log(final Message message) {
+		if (TemperatureSeries.isReading(message)) {
+			getTemperatures().add((TemperatureMessage) message);
+			return true;
+		}
 		if (messages == null) {
-			messages = new CopyOnWriteArrayList<Message>();
+			messages = new MessageLog();
+		}
+		if (message == null) {
+			return messages.add(message);
 		}
-		return messages.add(message);
+		synchronized (messages) {
+			/* keep the log ordered by time, messages usually arrive in order */
+			int index = messages.size();
+			while (index > 0 && messages.get(index - 1) != null
+					&& messages.get(index - 1).getTime() > message.getTime()) {
+				index--;
+			}
+			messages.add(index, message);
+		}
+		return true;
 	}
 
 }
\ No newline at end of file
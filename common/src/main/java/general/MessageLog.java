@@ -0,0 +1,185 @@
+/*
+ *
+ */
+package general;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.RandomAccess;
+
+import messages.Message;
+
+/**
+ * Append-only list of the messages of a brewing process. The messages are stored in fixed-size
+ * chunks, so appending a message never copies the messages which were logged before (unlike a
+ * CopyOnWriteArrayList). Writers are serialized, readers never lock: every change publishes an
+ * immutable snapshot (the chunks and the size) through a volatile field and iterators always work
+ * on the snapshot they were created from.
+ */
+public class MessageLog extends AbstractList<Message> implements RandomAccess {
+
+  /** Number of messages per chunk (power of two) */
+  private static final int CHUNK_SIZE = 1024;
+
+  /** Shift which converts an index into its chunk */
+  private static final int CHUNK_SHIFT = 10;
+
+  /** Mask which converts an index into its position inside of the chunk */
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  /** The latest published state of the log */
+  private volatile Snapshot current = new Snapshot(new Message[0][], 0);
+
+  /**
+   * Creates an empty log.
+   */
+  public MessageLog() {
+    /* nothing to initialize */
+  }
+
+  /**
+   * Creates a log which contains the given messages.
+   *
+   * @param messages the messages in the order they are logged
+   */
+  public MessageLog(final Collection<? extends Message> messages) {
+    addAll(messages);
+  }
+
+  /**
+   * Returns an immutable view of the messages which are logged at the moment. Messages which are
+   * logged afterwards do not change the view, so it can be searched and iterated consistently
+   * without copying the messages.
+   *
+   * @return the current messages
+   */
+  public List<Message> snapshot() {
+    return current;
+  }
+
+  @Override
+  public Message get(final int index) {
+    return current.get(index);
+  }
+
+  @Override
+  public int size() {
+    return current.size;
+  }
+
+  @Override
+  public Iterator<Message> iterator() {
+    return current.iterator();
+  }
+
+  @Override
+  public ListIterator<Message> listIterator(final int index) {
+    return current.listIterator(index);
+  }
+
+  @Override
+  public List<Message> subList(final int fromIndex, final int toIndex) {
+    return current.subList(fromIndex, toIndex);
+  }
+
+  @Override
+  public synchronized boolean add(final Message message) {
+    append(current, message);
+    return true;
+  }
+
+  /**
+   * Inserts a message. Appending is cheap, inserting before other messages copies the chunks from
+   * the position of the message to the end of the log (the log is meant to be used for messages
+   * which arrive (almost) in order).
+   */
+  @Override
+  public synchronized void add(final int index, final Message message) {
+    Snapshot snapshot = current;
+    int size = snapshot.size;
+    if (index < 0 || index > size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+    if (index == size) {
+      append(snapshot, message);
+      return;
+    }
+    Message[][] chunks = snapshot.chunks;
+    int lastChunk = size >>> CHUNK_SHIFT;
+    if (lastChunk == chunks.length) {
+      chunks = Arrays.copyOf(chunks, lastChunk + 1);
+      chunks[lastChunk] = new Message[CHUNK_SIZE];
+    } else {
+      chunks = chunks.clone();
+    }
+    /* published chunks are never changed below their size, so the affected chunks are copied */
+    for (int chunk = index >>> CHUNK_SHIFT; chunk <= lastChunk; chunk++) {
+      chunks[chunk] = chunks[chunk].clone();
+    }
+    for (int i = size; i > index; i--) {
+      int from = i - 1;
+      chunks[i >>> CHUNK_SHIFT][i & CHUNK_MASK] = chunks[from >>> CHUNK_SHIFT][from & CHUNK_MASK];
+    }
+    chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK] = message;
+    current = new Snapshot(chunks, size + 1);
+  }
+
+  /**
+   * Appends a message behind the given snapshot and publishes the new snapshot.
+   *
+   * @param snapshot the current snapshot
+   * @param message the message
+   */
+  private void append(final Snapshot snapshot, final Message message) {
+    Message[][] chunks = snapshot.chunks;
+    int size = snapshot.size;
+    int chunk = size >>> CHUNK_SHIFT;
+    if (chunk == chunks.length) {
+      chunks = Arrays.copyOf(chunks, chunk + 1);
+      chunks[chunk] = new Message[CHUNK_SIZE];
+    }
+    /* the slot is behind the size of every published snapshot */
+    chunks[chunk][size & CHUNK_MASK] = message;
+    current = new Snapshot(chunks, size + 1);
+  }
+
+  /**
+   * Immutable state of the log.
+   */
+  private static final class Snapshot extends AbstractList<Message> implements RandomAccess {
+
+    /** the chunks, only the first size messages belong to this snapshot */
+    private final Message[][] chunks;
+
+    /** number of messages */
+    private final int size;
+
+    /**
+     * Creates a snapshot.
+     *
+     * @param chunks the chunks
+     * @param size number of messages
+     */
+    Snapshot(final Message[][] chunks, final int size) {
+      this.chunks = chunks;
+      this.size = size;
+    }
+
+    @Override
+    public Message get(final int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      return chunks[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+}
@@ -8,7 +8,6 @@ import general.BrewingState.State;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
@@ -38,7 +37,7 @@ public class Protocol implements Serializable {
   private transient static final long serialVersionUID = -5829154040962718249L;
 
   /** when process was aborted, or -1 if it wasn't */
-  private long abortionTime = -1;
+  private final long abortionTime;
 
   /**
    * returns the start time
@@ -58,104 +57,278 @@ public class Protocol implements Serializable {
 
 
   /** time of completion, or -1 if process wasn't completed */
-  private long completionTime = -1;
+  private final long completionTime;
 
   /** time when process was started */
-  private long startTime = -1;
+  private final long startTime;
+
+  /** time when mashing was started, or -1 if it wasn't */
+  private final long mashingStartTime;
+
+  /** time when hop cooking was started, or -1 if it wasn't */
+  private final long hopCookingStartTime;
 
   /** The recipe that was brewed */
-  private Recipe recipe;
+  private final Recipe recipe;
 
   /** each iodine test with its time */
-  private List<Pair<IodineTest, Long>> iodineTests;
+  private final List<Pair<IodineTest, Long>> iodineTests;
 
   /** all temperature messages that occurred during mashing */
-  private List<TemperatureMessage> mashingTemperatureMessages;
+  private final List<TemperatureMessage> mashingTemperatureMessages;
 
   /** all temperature messages that occurred during hop cooking */
-  private List<TemperatureMessage> hopCookingTemperatureMessages;
+  private final List<TemperatureMessage> hopCookingTemperatureMessages;
 
   /** all temperature level messages */
-  private List<TemperatureLevelMessage> temperatureLevelMessages;
+  private final List<TemperatureLevelMessage> temperatureLevelMessages;
 
   /** maps each request to its confirmation or null if it has not been confirmed */
-  private List<Pair<ConfirmationRequestMessage, ConfirmationMessage>> requests;
+  private final List<Pair<ConfirmationRequestMessage, ConfirmationMessage>> requests;
 
   /**
    * All messages which don't belong into the described messages above
    */
-  private List<Message> unusedMessages;
+  private final List<Message> unusedMessages;
 
-  /** parses all relevant information from the BrewingLog stores them in protocol object */
+  /**
+   * Parses all relevant information from the BrewingLog and stores it in the protocol object. The
+   * messages of the log are visited once: each request is looked up by its brewing step, so a
+   * confirmation is paired without searching the other requests. The lists of the protocol cannot
+   * be modified, so a protocol can be shared once it is created.
+   */
   public Protocol(final BrewingLog brewingLog) {
-    temperatureLevelMessages = new ArrayList<>();
-    mashingTemperatureMessages = new ArrayList<>();
-    hopCookingTemperatureMessages = new ArrayList<>();
-    unusedMessages = new ArrayList<>();
-    iodineTests = new ArrayList<>();
-    requests = new ArrayList<>();
+    this(brewingLog, brewingLog.getTemperatures());
+  }
+
+  /**
+   * Parses all relevant information from the BrewingLog, but adds the given temperature readings
+   * instead of the readings of the log. A protocol which is stored without its readings (i.e. with
+   * an empty series) gets them back with {@link #withReadings(int, TemperatureSeries)}.
+   *
+   * @param brewingLog the log
+   * @param temperatures the temperature readings which are added to the protocol
+   */
+  public Protocol(final BrewingLog brewingLog, final TemperatureSeries temperatures) {
+    List<TemperatureLevelMessage> levels = new ArrayList<>();
+    List<Message> others = new ArrayList<>();
+    List<Pair<IodineTest, Long>> iodine = new ArrayList<>();
+    List<ConfirmationRequestMessage> requestMessages = new ArrayList<>();
+    List<ConfirmationMessage> confirmations = new ArrayList<>();
+    /* the temperature messages are split after all steps are known */
+    List<TemperatureMessage> temperatureMessages = new ArrayList<>();
+    /* the first confirmation of each state and the requests which wait for one */
+    Map<BrewingState, ConfirmationMessage> confirmed = new HashMap<>();
+    Map<BrewingState, List<Integer>> pending = new HashMap<>();
     Map<State, Long> stepTimes = new HashMap<>();
+    long abortion = -1;
+    long completion = -1;
+    long start = -1;
 
     recipe = brewingLog.getRecipe();
-    List<Message> messages = brewingLog.getMessages();
     logId = brewingLog.getId();
-    if (messages != null) {
-      Collections.sort(messages, new MessageTimeComparator());
-      // analyzes all messages that can be processed without information
-      // from rest of log
-      for (Message message : messages) {
-        if (message instanceof BrewingAbortedMessage) {
-          abortionTime = message.getTime();
-        } else if (message instanceof StartMessage) {
-          stepTimes.put(((StartMessage) message).getPosition(), message.getTime());
-        } else if (message instanceof BrewingCompleteMessage) {
-          completionTime = message.getTime();
-        } else if (message instanceof BrewingStartMessage) {
-          startTime = message.getTime();
-        } else if (message instanceof IodineTestMessage) {
-          iodineTests.add(new Pair<>(((IodineTestMessage) message).getIodineTest(), message
-              .getTime()));
-        } else if (message instanceof TemperatureLevelMessage) {
-          temperatureLevelMessages.add((TemperatureLevelMessage) message);
-        } else if (message instanceof ConfirmationRequestMessage) {
-          requests.add(new Pair<ConfirmationRequestMessage, ConfirmationMessage>(
-              (ConfirmationRequestMessage) message, null));
-        } else {
-          /*
-           * The android client only shows messages which therefore need to be saved here
-           */
-          unusedMessages.add(message);
-        }
-      }
-
-      // analyzes messages that depend on information that might occur
-      // later in log
-      for (Message message : messages) {
-        if (message instanceof TemperatureMessage) {
-          if (stepTimes.containsKey(State.HOP_COOKING)
-              && message.getTime() >= stepTimes.get(State.HOP_COOKING)) {
-            hopCookingTemperatureMessages.add((TemperatureMessage) message);
-          } else if (stepTimes.containsKey(State.MASHING)
-              && message.getTime() >= stepTimes.get(State.MASHING)) {
-            mashingTemperatureMessages.add((TemperatureMessage) message);
+    List<Message> messages = brewingLog.snapshotMessages();
+    if (messages == null) {
+      messages = Collections.emptyList();
+    }
+    // the messages of the log are ordered by time
+    for (Message message : messages) {
+      if (message instanceof BrewingAbortedMessage) {
+        abortion = message.getTime();
+      } else if (message instanceof StartMessage) {
+        stepTimes.put(((StartMessage) message).getPosition(), message.getTime());
+      } else if (message instanceof BrewingCompleteMessage) {
+        completion = message.getTime();
+      } else if (message instanceof BrewingStartMessage) {
+        start = message.getTime();
+      } else if (message instanceof IodineTestMessage) {
+        iodine.add(new Pair<>(((IodineTestMessage) message).getIodineTest(), message.getTime()));
+      } else if (message instanceof TemperatureLevelMessage) {
+        levels.add((TemperatureLevelMessage) message);
+      } else if (message instanceof ConfirmationRequestMessage) {
+        ConfirmationRequestMessage request = (ConfirmationRequestMessage) message;
+        /* a request is answered by the first confirmation of its step, even an earlier one */
+        ConfirmationMessage confirmation = confirmed.get(request.getBrewingStep());
+        if (confirmation == null) {
+          List<Integer> waiting = pending.get(request.getBrewingStep());
+          if (waiting == null) {
+            waiting = new ArrayList<>();
+            pending.put(request.getBrewingStep(), waiting);
           }
-
-        } else if (message instanceof ConfirmationMessage) {
-          for (Pair<ConfirmationRequestMessage, ConfirmationMessage> pair : requests) {
-            if (pair.getFirst().getBrewingStep()
-                .equals(((ConfirmationMessage) message).getConfirmedState())
-                && pair.getSecond() == null) {
-              pair.setSecond((ConfirmationMessage) message);
+          waiting.add(requestMessages.size());
+        }
+        requestMessages.add(request);
+        confirmations.add(confirmation);
+      } else if (message != null) {
+        if (message instanceof ConfirmationMessage) {
+          ConfirmationMessage confirmation = (ConfirmationMessage) message;
+          if (!confirmed.containsKey(confirmation.getConfirmedState())) {
+            confirmed.put(confirmation.getConfirmedState(), confirmation);
+            List<Integer> waiting = pending.remove(confirmation.getConfirmedState());
+            if (waiting != null) {
+              for (int index : waiting) {
+                confirmations.set(index, confirmation);
+              }
             }
           }
+        } else if (message instanceof TemperatureMessage) {
+          temperatureMessages.add((TemperatureMessage) message);
         }
+        /*
+         * The android client only shows messages which therefore need to be saved here
+         */
+        others.add(message);
       }
+    }
 
-      Collections.sort(mashingTemperatureMessages, new MessageTimeComparator());
-      Collections.sort(hopCookingTemperatureMessages, new MessageTimeComparator());
-      Collections.sort(temperatureLevelMessages, new MessageTimeComparator());
-      Collections.sort(unusedMessages, new MessageTimeComparator());
+    List<Pair<ConfirmationRequestMessage, ConfirmationMessage>> pairs =
+        new ArrayList<>(requestMessages.size());
+    for (int i = 0; i < requestMessages.size(); i++) {
+      pairs.add(new Pair<>(requestMessages.get(i), confirmations.get(i)));
     }
+
+    Long hopCookingTime = stepTimes.get(State.HOP_COOKING);
+    Long mashingTime = stepTimes.get(State.MASHING);
+    mashingStartTime = mashingTime == null ? -1 : mashingTime;
+    hopCookingStartTime = hopCookingTime == null ? -1 : hopCookingTime;
+    List<TemperatureMessage> mashing = new ArrayList<>();
+    List<TemperatureMessage> hopCooking = new ArrayList<>();
+    split(temperatureMessages, mashingStartTime, hopCookingStartTime, mashing, hopCooking);
+    // the temperature readings are only recreated as messages for the protocol
+    List<TemperatureMessage> readings = toMessages(temperatures);
+    List<TemperatureMessage> mashingReadings = new ArrayList<>();
+    List<TemperatureMessage> hopCookingReadings = new ArrayList<>();
+    split(readings, mashingStartTime, hopCookingStartTime, mashingReadings, hopCookingReadings);
+
+    abortionTime = abortion;
+    completionTime = completion;
+    startTime = start;
+    iodineTests = Collections.unmodifiableList(iodine);
+    temperatureLevelMessages = Collections.unmodifiableList(levels);
+    requests = Collections.unmodifiableList(pairs);
+    /* both parts are ordered by time, so merging them keeps the order */
+    mashingTemperatureMessages = Collections.unmodifiableList(merge(mashing, mashingReadings));
+    hopCookingTemperatureMessages =
+        Collections.unmodifiableList(merge(hopCooking, hopCookingReadings));
+    unusedMessages = Collections.unmodifiableList(merge(others, readings));
+  }
+
+  /**
+   * Creates a copy of a protocol without temperature readings and adds the given readings.
+   *
+   * @param protocol the protocol without readings
+   * @param id the id of the log
+   * @param temperatures the temperature readings of the log
+   */
+  private Protocol(final Protocol protocol, final int id, final TemperatureSeries temperatures) {
+    logId = id;
+    recipe = protocol.recipe;
+    abortionTime = protocol.abortionTime;
+    completionTime = protocol.completionTime;
+    startTime = protocol.startTime;
+    mashingStartTime = protocol.mashingStartTime;
+    hopCookingStartTime = protocol.hopCookingStartTime;
+    List<TemperatureMessage> readings = toMessages(temperatures);
+    List<TemperatureMessage> mashingReadings = new ArrayList<>();
+    List<TemperatureMessage> hopCookingReadings = new ArrayList<>();
+    split(readings, mashingStartTime, hopCookingStartTime, mashingReadings, hopCookingReadings);
+
+    iodineTests = Collections.unmodifiableList(orEmpty(protocol.iodineTests));
+    temperatureLevelMessages =
+        Collections.unmodifiableList(orEmpty(protocol.temperatureLevelMessages));
+    requests = Collections.unmodifiableList(orEmpty(protocol.requests));
+    mashingTemperatureMessages =
+        Collections.unmodifiableList(merge(orEmpty(protocol.mashingTemperatureMessages),
+            mashingReadings));
+    hopCookingTemperatureMessages =
+        Collections.unmodifiableList(merge(orEmpty(protocol.hopCookingTemperatureMessages),
+            hopCookingReadings));
+    unusedMessages =
+        Collections.unmodifiableList(merge(orEmpty(protocol.unusedMessages), readings));
+  }
+
+  /**
+   * Returns a protocol which contains the messages of this protocol and the given temperature
+   * readings. This protocol must not contain readings yet, e.g. because it was stored without
+   * them. Like the protocol of a log, the returned protocol cannot be modified.
+   *
+   * @param id the id of the log, which is not stored with the protocol
+   * @param temperatures the temperature readings of the log
+   * @return the protocol with the readings
+   */
+  public Protocol withReadings(final int id, final TemperatureSeries temperatures) {
+    return new Protocol(this, id, temperatures);
+  }
+
+  /**
+   * Recreates the temperature readings as messages for the protocol.
+   *
+   * @param temperatures the temperature readings
+   * @return the messages of the readings ordered by time
+   */
+  private static List<TemperatureMessage> toMessages(final TemperatureSeries temperatures) {
+    if (temperatures == null || temperatures.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<TemperatureMessage> readings = new ArrayList<TemperatureMessage>(temperatures.size());
+    for (int i = 0; i < temperatures.size(); i++) {
+      readings.add(temperatures.getMessage(i));
+    }
+    return readings;
+  }
+
+  /**
+   * Returns a list of a stored protocol.
+   *
+   * @param list the list, which is null if it was not stored
+   * @return the list or an empty list
+   */
+  private static <T> List<T> orEmpty(final List<T> list) {
+    return list == null ? Collections.<T>emptyList() : list;
+  }
+
+  /**
+   * Adds the temperature messages which occurred during mashing or hop cooking to the lists of the
+   * step.
+   *
+   * @param messages temperature messages ordered by time
+   * @param mashingTime start of mashing or -1
+   * @param hopCookingTime start of hop cooking or -1
+   * @param mashing messages which occurred during mashing
+   * @param hopCooking messages which occurred during hop cooking
+   */
+  private static void split(final List<TemperatureMessage> messages, final long mashingTime,
+      final long hopCookingTime, final List<TemperatureMessage> mashing,
+      final List<TemperatureMessage> hopCooking) {
+    for (TemperatureMessage message : messages) {
+      if (hopCookingTime >= 0 && message.getTime() >= hopCookingTime) {
+        hopCooking.add(message);
+      } else if (mashingTime >= 0 && message.getTime() >= mashingTime) {
+        mashing.add(message);
+      }
+    }
+  }
+
+  /**
+   * Merges two lists of messages which are ordered by time, messages of the first list come first
+   * if they have the same time.
+   *
+   * @param first messages ordered by time
+   * @param second messages ordered by time
+   * @return new list of all messages ordered by time
+   */
+  private static <T extends Message> List<T> merge(final List<? extends T> first,
+      final List<? extends T> second) {
+    List<T> merged = new ArrayList<T>(first.size() + second.size());
+    int index = 0;
+    for (T message : first) {
+      while (index < second.size() && second.get(index).getTime() < message.getTime()) {
+        merged.add(second.get(index++));
+      }
+      merged.add(message);
+    }
+    merged.addAll(second.subList(index, second.size()));
+    return merged;
   }
 
   /**
@@ -302,14 +475,4 @@ public class Protocol implements Serializable {
   public int getLogId() {
     return logId;
   }
-
-  /** used to sort messages by time (ascending) */
-  private class MessageTimeComparator implements Comparator<Message> {
-
-    @Override
-    public int compare(final Message o1, final Message o2) {
-      return Long.valueOf(o1.getTime()).compareTo(o2.getTime());
-    }
-
-  }
 }
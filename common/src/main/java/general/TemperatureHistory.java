@@ -0,0 +1,81 @@
+/*
+ *
+ */
+package general;
+
+import java.util.Arrays;
+
+/**
+ * Temperatures of a brewing process in chronological order, stored in primitive arrays so that the
+ * history can be sent to clients without creating an object per temperature. Every time occurs only
+ * once.
+ */
+public class TemperatureHistory {
+
+  /** times of the temperatures in ascending order */
+  private final long[] times;
+
+  /** the temperatures */
+  private final float[] temperatures;
+
+  /**
+   * Creates a history. The arrays are used as they are, they must have the same length and must not
+   * be modified afterwards.
+   *
+   * @param times times in ascending order, each time only once
+   * @param temperatures the temperatures
+   */
+  public TemperatureHistory(final long[] times, final float[] temperatures) {
+    if (times.length != temperatures.length) {
+      throw new IllegalArgumentException("Every time needs exactly one temperature");
+    }
+    this.times = times;
+    this.temperatures = temperatures;
+  }
+
+  /**
+   * Returns the number of temperatures.
+   *
+   * @return number of temperatures
+   */
+  public int size() {
+    return times.length;
+  }
+
+  /**
+   * Returns the time of a temperature.
+   *
+   * @param index index of the temperature
+   * @return the time
+   */
+  public long getTime(final int index) {
+    return times[index];
+  }
+
+  /**
+   * Returns a temperature.
+   *
+   * @param index index of the temperature
+   * @return the temperature
+   */
+  public float getTemperature(final int index) {
+    return temperatures[index];
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * Arrays.hashCode(times) + Arrays.hashCode(temperatures);
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    TemperatureHistory other = (TemperatureHistory) obj;
+    return Arrays.equals(times, other.times) && Arrays.equals(temperatures, other.temperatures);
+  }
+}
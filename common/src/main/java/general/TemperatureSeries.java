@@ -0,0 +1,437 @@
+/*
+ *
+ */
+package general;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+import messages.Message;
+import messages.TemperatureMessage;
+
+/**
+ * Compact store for the temperature readings of a brewing process. Instead of one
+ * TemperatureMessage object per reading the times and temperatures are kept in chunks of primitive
+ * arrays (12 bytes per reading). Readings are appended by a single writer at a time; readers never
+ * lock, they only see the readings which were completely written before they read the size.
+ *
+ * On disk the series is encoded with delta-of-delta times and XOR-ed float bits, so a reading which
+ * is taken in a regular interval and changed only slightly takes about 2-4 bytes.
+ */
+public class TemperatureSeries {
+
+  /** Format of the message text of temperature readings */
+  public static final String READING_FORMAT = "The current temperature has changed to %f.";
+
+  /** Magic number which starts every encoded series ("TSER") */
+  private static final int MAGIC = 0x54534552;
+
+  /** Version of the encoding */
+  private static final byte VERSION = 1;
+
+  /** Number of readings per chunk (power of two) */
+  private static final int CHUNK_SIZE = 1024;
+
+  /** Shift which converts an index into its chunk */
+  private static final int CHUNK_SHIFT = 10;
+
+  /** Mask which converts an index into its position inside of the chunk */
+  private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+  /** Chunks of the times of the readings */
+  private volatile long[][] times = new long[0][];
+
+  /** Chunks of the temperatures of the readings */
+  private volatile float[][] temperatures = new float[0][];
+
+  /** Number of readings, written after the reading itself so readers see complete readings only */
+  private volatile int size = 0;
+
+  /**
+   * Creates the message text of a temperature reading. The text does not depend on the default
+   * locale, so a reading is recreated with the same text on every machine.
+   *
+   * @param temperature the temperature
+   * @return the message text
+   */
+  public static String describe(final float temperature) {
+    return String.format(Locale.ROOT, READING_FORMAT, temperature);
+  }
+
+  /**
+   * Checks whether a message is a plain temperature reading which can be stored in a series without
+   * losing any information, i.e. it can be recreated by {@link #getMessage(int)}.
+   *
+   * @param message the message
+   * @return true if the message is a plain reading
+   */
+  public static boolean isReading(final Message message) {
+    if (message == null || message.getClass() != TemperatureMessage.class
+        || message.getPriority() != MessagePriority.VERY_LOW) {
+      return false;
+    }
+    return describe(((TemperatureMessage) message).getTemperature()).equals(message.getMessage());
+  }
+
+  /**
+   * Appends a reading.
+   *
+   * @param time time of the reading
+   * @param temperature the temperature
+   */
+  public synchronized void add(final long time, final float temperature) {
+    int index = size;
+    int chunk = index >>> CHUNK_SHIFT;
+    if (chunk == times.length) {
+      long[][] newTimes = Arrays.copyOf(times, chunk + 1);
+      float[][] newTemperatures = Arrays.copyOf(temperatures, chunk + 1);
+      newTimes[chunk] = new long[CHUNK_SIZE];
+      newTemperatures[chunk] = new float[CHUNK_SIZE];
+      times = newTimes;
+      temperatures = newTemperatures;
+    }
+    times[chunk][index & CHUNK_MASK] = time;
+    temperatures[chunk][index & CHUNK_MASK] = temperature;
+    size = index + 1;
+  }
+
+  /**
+   * Appends a temperature message as reading.
+   *
+   * @param message the message
+   */
+  public void add(final TemperatureMessage message) {
+    add(message.getTime(), message.getTemperature());
+  }
+
+  /**
+   * Returns the number of readings.
+   *
+   * @return number of readings
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Checks whether the series contains no readings.
+   *
+   * @return true if empty
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Returns the time of a reading.
+   *
+   * @param index index of the reading
+   * @return the time
+   */
+  public long getTime(final int index) {
+    checkIndex(index);
+    return times[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+  }
+
+  /**
+   * Returns the temperature of a reading.
+   *
+   * @param index index of the reading
+   * @return the temperature
+   */
+  public float getTemperature(final int index) {
+    checkIndex(index);
+    return temperatures[index >>> CHUNK_SHIFT][index & CHUNK_MASK];
+  }
+
+  /**
+   * Recreates the message of a reading.
+   *
+   * @param index index of the reading
+   * @return new temperature message
+   */
+  public TemperatureMessage getMessage(final int index) {
+    float temperature = getTemperature(index);
+    TemperatureMessage message = new TemperatureMessage(temperature);
+    message.setTime(getTime(index));
+    message.setMessage(describe(temperature));
+    return message;
+  }
+
+  /**
+   * Recreates the messages of all readings starting at the given index.
+   *
+   * @param from index of the first reading
+   * @return list of new temperature messages
+   */
+  public List<Message> toMessages(final int from) {
+    int to = size;
+    List<Message> messages = new ArrayList<Message>(Math.max(0, to - from));
+    for (int i = from; i < to; i++) {
+      messages.add(getMessage(i));
+    }
+    return messages;
+  }
+
+  /**
+   * Copies the times of a range of readings chunk by chunk.
+   *
+   * @param from index of the first reading
+   * @param to index after the last reading
+   * @param dest array the times are copied to
+   * @param destPos position of the first time in the array
+   */
+  public void copyTimes(final int from, final int to, final long[] dest, final int destPos) {
+    if (from < to) {
+      checkIndex(to - 1);
+    }
+    long[][] chunks = times;
+    int pos = destPos;
+    for (int i = from; i < to;) {
+      int length = Math.min(to - i, CHUNK_SIZE - (i & CHUNK_MASK));
+      System.arraycopy(chunks[i >>> CHUNK_SHIFT], i & CHUNK_MASK, dest, pos, length);
+      pos += length;
+      i += length;
+    }
+  }
+
+  /**
+   * Copies the temperatures of a range of readings chunk by chunk.
+   *
+   * @param from index of the first reading
+   * @param to index after the last reading
+   * @param dest array the temperatures are copied to
+   * @param destPos position of the first temperature in the array
+   */
+  public void copyTemperatures(final int from, final int to, final float[] dest,
+      final int destPos) {
+    if (from < to) {
+      checkIndex(to - 1);
+    }
+    float[][] chunks = temperatures;
+    int pos = destPos;
+    for (int i = from; i < to;) {
+      int length = Math.min(to - i, CHUNK_SIZE - (i & CHUNK_MASK));
+      System.arraycopy(chunks[i >>> CHUNK_SHIFT], i & CHUNK_MASK, dest, pos, length);
+      pos += length;
+      i += length;
+    }
+  }
+
+  /**
+   * Finds the first reading which is not older than the given time. The readings are expected to
+   * be appended in chronological order.
+   *
+   * @param since the time
+   * @return index of the first reading with time >= since, or size() if there is none
+   */
+  public int indexOf(final long since) {
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (getTime(mid) < since) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Throws an exception if the index does not belong to a reading.
+   *
+   * @param index the index
+   */
+  private void checkIndex(final int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+    }
+  }
+
+  /**
+   * Writes the encoded series.
+   *
+   * @param out stream the series is written to, not closed
+   * @throws IOException if the series could not be written
+   */
+  public void write(final OutputStream out) throws IOException {
+    int count = size;
+    ByteBuffer buffer = ByteBuffer.allocate(21 + 15 * count);
+    buffer.putInt(MAGIC);
+    buffer.put(VERSION);
+    buffer.putInt(count);
+    if (count > 0) {
+      long previousTime = getTime(0);
+      int previousBits = Float.floatToRawIntBits(getTemperature(0));
+      long previousDelta = 0;
+      buffer.putLong(previousTime);
+      buffer.putInt(previousBits);
+      for (int i = 1; i < count; i++) {
+        long time = getTime(i);
+        long delta = time - previousTime;
+        putVarLong(buffer, delta - previousDelta);
+        previousDelta = delta;
+        previousTime = time;
+
+        int bits = Float.floatToRawIntBits(getTemperature(i));
+        putXor(buffer, bits ^ previousBits);
+        previousBits = bits;
+      }
+    }
+    out.write(buffer.array(), 0, buffer.position());
+  }
+
+  /**
+   * Reads an encoded series, e.g. from a memory mapped file.
+   *
+   * @param buffer buffer which contains the encoded series
+   * @return the series
+   * @throws IOException if the buffer does not contain a valid series
+   */
+  public static TemperatureSeries read(final ByteBuffer buffer) throws IOException {
+    try {
+      if (buffer.getInt() != MAGIC || buffer.get() != VERSION) {
+        throw new IOException("Unknown temperature series format");
+      }
+      int count = buffer.getInt();
+      TemperatureSeries series = new TemperatureSeries();
+      if (count > 0) {
+        long time = buffer.getLong();
+        int bits = buffer.getInt();
+        long delta = 0;
+        series.add(time, Float.intBitsToFloat(bits));
+        for (int i = 1; i < count; i++) {
+          delta += getVarLong(buffer);
+          time += delta;
+          bits ^= getXor(buffer);
+          series.add(time, Float.intBitsToFloat(bits));
+        }
+      }
+      return series;
+    } catch (BufferUnderflowException e) {
+      throw new IOException("Temperature series is truncated", e);
+    }
+  }
+
+  /**
+   * Writes a signed value as zig-zag encoded varint (small absolute values take one byte).
+   *
+   * @param buffer target buffer
+   * @param value the value
+   */
+  private static void putVarLong(final ByteBuffer buffer, final long value) {
+    long zigZag = (value << 1) ^ (value >> 63);
+    while ((zigZag & ~0x7FL) != 0) {
+      buffer.put((byte) ((zigZag & 0x7F) | 0x80));
+      zigZag >>>= 7;
+    }
+    buffer.put((byte) zigZag);
+  }
+
+  /**
+   * Reads a value written by {@link #putVarLong(ByteBuffer, long)}.
+   *
+   * @param buffer source buffer
+   * @return the value
+   * @throws IOException if the value is too long
+   */
+  private static long getVarLong(final ByteBuffer buffer) throws IOException {
+    long zigZag = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = buffer.get();
+      zigZag |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+      }
+    }
+    throw new IOException("Malformed time in temperature series");
+  }
+
+  /**
+   * Writes the XOR of two float bit patterns. An unchanged temperature takes one zero byte,
+   * otherwise a control byte (number of leading and trailing zero bytes) is followed by the
+   * remaining bytes.
+   *
+   * @param buffer target buffer
+   * @param xor XOR of the current and the previous bits
+   */
+  private static void putXor(final ByteBuffer buffer, final int xor) {
+    if (xor == 0) {
+      buffer.put((byte) 0);
+      return;
+    }
+    int leading = Integer.numberOfLeadingZeros(xor) >>> 3;
+    int trailing = Integer.numberOfTrailingZeros(xor) >>> 3;
+    buffer.put((byte) (0x80 | (leading << 2) | trailing));
+    for (int i = 3 - leading; i >= trailing; i--) {
+      buffer.put((byte) (xor >>> (i << 3)));
+    }
+  }
+
+  /**
+   * Reads a value written by {@link #putXor(ByteBuffer, int)}.
+   *
+   * @param buffer source buffer
+   * @return the XOR of the current and the previous bits
+   * @throws IOException if the control byte is invalid
+   */
+  private static int getXor(final ByteBuffer buffer) throws IOException {
+    int control = buffer.get() & 0xFF;
+    if (control == 0) {
+      return 0;
+    }
+    int leading = (control >>> 2) & 0x3;
+    int trailing = control & 0x3;
+    if ((control & 0x80) == 0 || leading + trailing > 3) {
+      throw new IOException("Malformed temperature in temperature series");
+    }
+    int xor = 0;
+    for (int i = 3 - leading; i >= trailing; i--) {
+      xor |= (buffer.get() & 0xFF) << (i << 3);
+    }
+    return xor;
+  }
+
+  @Override
+  public int hashCode() {
+    int count = size;
+    int result = 1;
+    for (int i = 0; i < count; i++) {
+      long time = getTime(i);
+      result = 31 * result + (int) (time ^ (time >>> 32));
+      result = 31 * result + Float.floatToIntBits(getTemperature(i));
+    }
+    return result;
+  }
+
+  @Override
+  public boolean equals(final Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    TemperatureSeries other = (TemperatureSeries) obj;
+    int count = size;
+    if (count != other.size) {
+      return false;
+    }
+    for (int i = 0; i < count; i++) {
+      if (getTime(i) != other.getTime(i)
+          || Float.floatToIntBits(getTemperature(i)) != Float.floatToIntBits(other
+              .getTemperature(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -0,0 +1,144 @@
+/*
+ *
+ */
+package gson;
+
+import general.BrewingLog;
+import general.Protocol;
+import general.Recipe;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import messages.Message;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * Json Adapter for BrewingLog. The temperature readings of a log are kept in a temperature series,
+ * this adapter writes them into the "messages" as before so that clients are not affected. Logs
+ * which are stored together with a separate temperature series are written without the readings.
+ * The messages are streamed one by one with the message adapter of the Gson-Instance, so saving a
+ * log does not build a json tree of all its messages first.
+ */
+public class BrewingLogAdapter extends TypeAdapter<BrewingLog> {
+
+  /** Adapter for the recipe */
+  private final TypeAdapter<Recipe> recipeAdapter;
+
+  /** Adapter for the messages, writes them in the message format of the Gson-Instance */
+  private final TypeAdapter<Message> messageAdapter;
+
+  /** Adapter for the protocol */
+  private final TypeAdapter<Protocol> protocolAdapter;
+
+  /** whether the temperature readings are written into the messages */
+  private final boolean includeReadings;
+
+  /**
+   * Creates the adapter.
+   *
+   * @param gson the Gson-Instance whose adapters read and write the parts of the log
+   * @param includeReadings whether the temperature readings are written into the messages
+   */
+  public BrewingLogAdapter(final Gson gson, final boolean includeReadings) {
+    recipeAdapter = gson.getAdapter(Recipe.class);
+    messageAdapter = gson.getAdapter(Message.class);
+    protocolAdapter = gson.getAdapter(Protocol.class);
+    this.includeReadings = includeReadings;
+  }
+
+  /**
+   * Returns a factory which creates the adapter with the adapters of the Gson-Instance it is
+   * registered with.
+   *
+   * @param includeReadings whether the temperature readings are written into the messages
+   * @return the factory
+   */
+  public static TypeAdapterFactory factory(final boolean includeReadings) {
+    return new TypeAdapterFactory() {
+      @SuppressWarnings("unchecked")
+      @Override
+      public <T> TypeAdapter<T> create(final Gson gson, final TypeToken<T> type) {
+        if (type.getRawType() != BrewingLog.class) {
+          return null;
+        }
+        return (TypeAdapter<T>) new BrewingLogAdapter(gson, includeReadings);
+      }
+    };
+  }
+
+  @Override
+  public BrewingLog read(final JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    if (in.peek() != JsonToken.BEGIN_OBJECT) {
+      throw new JsonSyntaxException("BrewingLog has to be an object");
+    }
+    Recipe recipe = null;
+    int id = 0;
+    List<Message> messages = null;
+    Protocol protocol = null;
+    in.beginObject();
+    while (in.hasNext()) {
+      String name = in.nextName();
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+      } else if ("recipe".equals(name)) {
+        recipe = recipeAdapter.read(in);
+      } else if ("id".equals(name)) {
+        id = in.nextInt();
+      } else if ("messages".equals(name)) {
+        messages = new ArrayList<Message>();
+        in.beginArray();
+        while (in.hasNext()) {
+          messages.add(messageAdapter.read(in));
+        }
+        in.endArray();
+      } else if ("protocol".equals(name)) {
+        protocol = protocolAdapter.read(in);
+      } else {
+        in.skipValue();
+      }
+    }
+    in.endObject();
+    BrewingLog log = new BrewingLog(recipe, id);
+    log.setMessages(messages);
+    log.setProtocol(protocol);
+    return log;
+  }
+
+  @Override
+  public void write(final JsonWriter out, final BrewingLog src) throws IOException {
+    if (src == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    out.name("recipe");
+    recipeAdapter.write(out, src.getRecipe());
+    /* the protocol is not written, it is created from the messages on demand */
+    List<Message> messages = includeReadings ? src.getMessages() : src.getNonReadingMessages();
+    if (messages != null) {
+      out.name("messages");
+      out.beginArray();
+      for (Message message : messages) {
+        messageAdapter.write(out, message);
+      }
+      out.endArray();
+    }
+    out.name("id").value(src.getId());
+    out.endObject();
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ *
+ */
+package gson;
+
+import general.BrewingProcessSummary;
+import general.BrewingProcessSummary.TemperatureLevelInfo;
+import general.BrewingState;
+
+import java.io.IOException;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * Json Adapter for BrewingProcessSummary. The summary is requested by the clients all the time,
+ * so it is written by hand with the same output reflection would create.
+ */
+public class BrewingProcessSummaryAdapter extends TypeAdapter<BrewingProcessSummary> {
+
+  /** Adapter for the brewing state of the summary */
+  private final TypeAdapter<BrewingState> brewingStateAdapter = new BrewingStateAdapter();
+
+  @Override
+  public void write(final JsonWriter out, final BrewingProcessSummary value) throws IOException {
+    if (value == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    if (value.getBrewingState() != null) {
+      out.name("brewingState");
+      brewingStateAdapter.write(out, value.getBrewingState());
+    }
+    out.name("startTimeMashing").value(value.getStartTimeMashing());
+    out.name("startTimeHopCooking").value(value.getStartTimeHopCooking());
+    out.name("recipeId").value(value.getRecipeId());
+    out.name("temperatureLevelInfo");
+    out.beginArray();
+    for (TemperatureLevelInfo info : value.getTemperatureLevelInfo()) {
+      if (info == null) {
+        out.nullValue();
+        continue;
+      }
+      out.beginObject();
+      out.name("position").value(info.position);
+      out.name("recipeStartTime").value(info.recipeStartTime);
+      out.name("duration").value(info.duration);
+      /* written like a Float so the output does not change */
+      out.name("temperature").value(Float.valueOf(info.temperature));
+      out.name("alreadyStarted").value(info.alreadyStarted);
+      out.name("startTimeMillis").value(info.startTimeMillis);
+      out.endObject();
+    }
+    out.endArray();
+    out.endObject();
+  }
+
+  @Override
+  public BrewingProcessSummary read(final JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    BrewingProcessSummary summary = new BrewingProcessSummary(null);
+    in.beginObject();
+    while (in.hasNext()) {
+      String name = in.nextName();
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+      } else if ("brewingState".equals(name)) {
+        summary.setBrewingState(brewingStateAdapter.read(in));
+      } else if ("startTimeMashing".equals(name)) {
+        summary.setStartTimeMashing(in.nextLong());
+      } else if ("startTimeHopCooking".equals(name)) {
+        summary.setStartTimeHopCooking(in.nextLong());
+      } else if ("recipeId".equals(name)) {
+        summary.setRecipeId(in.nextString());
+      } else if ("temperatureLevelInfo".equals(name)) {
+        in.beginArray();
+        while (in.hasNext()) {
+          summary.getTemperatureLevelInfo().add(readTemperatureLevelInfo(in));
+        }
+        in.endArray();
+      } else {
+        in.skipValue();
+      }
+    }
+    in.endObject();
+    return summary;
+  }
+
+  /**
+   * Reads the information about a temperature level.
+   *
+   * @param in the reader
+   * @return the information or null
+   * @throws IOException
+   */
+  private static TemperatureLevelInfo readTemperatureLevelInfo(final JsonReader in)
+      throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    int position = 0;
+    long recipeStartTime = 0;
+    long duration = 0;
+    float temperature = 0;
+    boolean alreadyStarted = false;
+    long startTimeMillis = 0;
+    in.beginObject();
+    while (in.hasNext()) {
+      String name = in.nextName();
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+      } else if ("position".equals(name)) {
+        position = in.nextInt();
+      } else if ("recipeStartTime".equals(name)) {
+        recipeStartTime = in.nextLong();
+      } else if ("duration".equals(name)) {
+        duration = in.nextLong();
+      } else if ("temperature".equals(name)) {
+        temperature = (float) in.nextDouble();
+      } else if ("alreadyStarted".equals(name)) {
+        alreadyStarted = in.nextBoolean();
+      } else if ("startTimeMillis".equals(name)) {
+        startTimeMillis = in.nextLong();
+      } else {
+        in.skipValue();
+      }
+    }
+    in.endObject();
+    return new TemperatureLevelInfo(position, recipeStartTime, duration, temperature,
+        alreadyStarted, startTimeMillis);
+  }
+}
@@ -9,28 +9,28 @@ import general.IodineTest;
 import general.MaltAddition;
 import general.TemperatureLevel;
 
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParseException;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
 
 /**
  * Json Adapter for BrewingState
  */
-public class BrewingStateAdapter implements JsonSerializer<BrewingState>,
-    JsonDeserializer<BrewingState> {
+public class BrewingStateAdapter extends TypeAdapter<BrewingState> {
+
+  /** Gson for the data of the brewing states, it is thread-safe and can be shared */
+  private static final Gson DATA_GSON = new Gson();
 
   /** List of all possible brewing-state-data-objects */
   private static Map<String, Type> map = new TreeMap<String, Type>();
@@ -61,39 +61,56 @@ public class BrewingStateAdapter implements JsonSerializer<BrewingState>,
   }
 
   @Override
-  public BrewingState deserialize(final JsonElement json, final Type typeOfT,
-      final JsonDeserializationContext context) throws JsonParseException {
-    Gson gson = new Gson();
+  public BrewingState read(final JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    Integer state = null;
+    String type = null;
+    String data = null;
+    in.beginObject();
+    while (in.hasNext()) {
+      String name = in.nextName();
+      if (in.peek() == JsonToken.NULL) {
+        in.nextNull();
+      } else if ("state".equals(name)) {
+        state = in.nextInt();
+      } else if ("type".equals(name)) {
+        type = in.nextString();
+      } else if ("data".equals(name)) {
+        data = in.nextString();
+      } else {
+        in.skipValue();
+      }
+    }
+    in.endObject();
+    if (state == null) {
+      throw new JsonSyntaxException("BrewingState without state");
+    }
 
     Object mData = null;
-    JsonElement typeElement = json.getAsJsonObject().get("type");
-    JsonElement dataElement = json.getAsJsonObject().get("data");
-    if (typeElement != null && dataElement != null && !typeElement.isJsonNull()
-        && !dataElement.isJsonNull()) {
-      String type = typeElement.getAsString();
-      String data = dataElement.getAsString();
+    if (type != null && data != null) {
       Type clazz = map.get(type);
       if (clazz != null) {
-        mData = gson.fromJson(data, clazz);
+        mData = DATA_GSON.fromJson(data, clazz);
       }
     }
-
-    int state = json.getAsJsonObject().get("state").getAsNumber().intValue();
     BrewingState brewingState = BrewingState.fromValue(state);
     brewingState.setData(mData);
     return brewingState;
   }
 
   @Override
-  public JsonElement serialize(final BrewingState src, final Type typeOfSrc,
-      final JsonSerializationContext context) {
-    Gson gson = new Gson();
-    JsonObject elem = new JsonObject();
-    elem.addProperty("state",
-        src != null ? new JsonPrimitive(BrewingState.toValue(src)).getAsNumber() : null);
-    String simpleName =
-        src != null && src.getData() != null ? src.getData().getClass().getSimpleName() : null;
-    if (src != null && src.getData() != null && src.getData() instanceof List<?>) {
+  public void write(final JsonWriter out, final BrewingState src) throws IOException {
+    if (src == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    out.name("state").value(BrewingState.toValue(src));
+    String simpleName = src.getData() != null ? src.getData().getClass().getSimpleName() : null;
+    if (src.getData() instanceof List<?>) {
       switch (src.getState()) {
         case MASHING:
           simpleName = "MaltAdditionList";
@@ -106,9 +123,8 @@ public class BrewingStateAdapter implements JsonSerializer<BrewingState>,
           break;
       }
     }
-    elem.addProperty("type", simpleName);
-    elem.addProperty("data", src != null && src.getData() != null ? gson.toJson(src.getData())
-        : null);
-    return elem;
+    out.name("type").value(simpleName);
+    out.name("data").value(src.getData() != null ? DATA_GSON.toJson(src.getData()) : null);
+    out.endObject();
   }
 }
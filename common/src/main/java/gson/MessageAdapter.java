@@ -3,7 +3,11 @@
  */
 package gson;
 
-import java.lang.reflect.Type;
+import general.MessagePriority;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -25,19 +29,24 @@ import messages.TemperatureLevelMessage;
 import messages.TemperatureMessage;
 
 import com.google.gson.Gson;
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.google.gson.JsonParseException;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
 
 /**
- * Json Adapter for messages.
+ * Json Adapter for messages. In the legacy format the data of a message is written as json string
+ * ({"type":..., "data":"{...}"}), in the flat format the attributes are written next to the type
+ * ({"type":..., "time":..., ...}). Both formats are read. Plain messages and temperature messages
+ * (most of the messages of a brewing process) are written and read by hand, all other messages by
+ * reflection.
  */
-public class MessageAdapter implements JsonSerializer<Message>, JsonDeserializer<Message> {
+public class MessageAdapter extends TypeAdapter<Message> {
 
   /** List of all possible push-messages. */
   private static Map<String, Class<? extends Message>> map =
@@ -65,18 +74,229 @@ public class MessageAdapter implements JsonSerializer<Message>, JsonDeserializer
     map.put("EndMessage", EndMessage.class);
   }
 
-  /*
-   * (non-Javadoc)
-   * 
-   * @see com.google.gson.JsonDeserializer#deserialize(com.google.gson.JsonElement,
-   * java.lang.reflect.Type, com.google.gson.JsonDeserializationContext)
+  /** Name of the type attribute */
+  private static final String TYPE = "type";
+
+  /** Name of the data attribute of the legacy format */
+  private static final String DATA = "data";
+
+  /** Name of the type attribute of the content of a pre notification in the legacy format */
+  private static final String INNER_TYPE = "innerType";
+
+  /** Name of the data attribute of the content of a pre notification in the legacy format */
+  private static final String INNER_DATA = "innerData";
+
+  /** Parser for messages which have to be buffered */
+  private static final JsonParser PARSER = new JsonParser();
+
+  /** whether messages are written in the flat format */
+  private final boolean flat;
+
+  /**
+   * Creates an adapter which writes messages in the legacy format.
+   */
+  public MessageAdapter() {
+    this(false);
+  }
+
+  /**
+   * Creates the adapter. Both formats are read, the flat format writes the attributes of the
+   * message next to the type instead of writing them as json string in "data".
+   *
+   * @param flat whether messages are written in the flat format
    */
+  public MessageAdapter(final boolean flat) {
+    this.flat = flat;
+  }
+
   @Override
-  public Message deserialize(final JsonElement json, final Type typeOfT,
-      final JsonDeserializationContext context) throws JsonParseException {
-    Message mData = deserializeMessage(json, "type", "data");
+  public Message read(final JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    in.beginObject();
+    if (!in.hasNext()) {
+      in.endObject();
+      return null;
+    }
+    String name = in.nextName();
+    if (!TYPE.equals(name)) {
+      /* the type is needed first, so the message is buffered */
+      return fromTree(readRemaining(in, name, new JsonObject()));
+    }
+    String type = nextString(in);
+    if (!in.hasNext()) {
+      in.endObject();
+      return null;
+    }
+    name = in.nextName();
+    if (isLegacy(name, in.peek())) {
+      return readLegacy(in, type, name);
+    }
+    if (type == null) {
+      readRemaining(in, name, new JsonObject());
+      return null;
+    }
+    Class<?> clazz = getMessageClass(type);
+    if (clazz != Message.class && clazz != TemperatureMessage.class) {
+      JsonObject object = new JsonObject();
+      object.addProperty(TYPE, type);
+      return fromTree(readRemaining(in, name, object));
+    }
+    boolean temperature = clazz == TemperatureMessage.class;
+    Message message = newMessage(temperature);
+    while (name != null) {
+      readField(in, message, temperature, name);
+      name = in.hasNext() ? in.nextName() : null;
+    }
+    in.endObject();
+    return message;
+  }
+
+  /**
+   * Checks whether an attribute belongs to the legacy format.
+   *
+   * @param name name of the attribute
+   * @param token first token of the value
+   * @return true if the attribute belongs to the legacy format
+   */
+  private static boolean isLegacy(final String name, final JsonToken token) {
+    return INNER_TYPE.equals(name) || INNER_DATA.equals(name)
+        || DATA.equals(name) && token != JsonToken.BEGIN_OBJECT;
+  }
+
+  /**
+   * Reads the remaining attributes of a message in the legacy format.
+   *
+   * @param in the reader, the name of the current attribute is already read
+   * @param type the type of the message
+   * @param name name of the current attribute
+   * @return the message
+   * @throws IOException
+   */
+  private Message readLegacy(final JsonReader in, final String type, final String name)
+      throws IOException {
+    String data = null;
+    String innerType = null;
+    String innerData = null;
+    String current = name;
+    while (current != null) {
+      if (DATA.equals(current)) {
+        data = nextString(in);
+      } else if (INNER_TYPE.equals(current)) {
+        innerType = nextString(in);
+      } else if (INNER_DATA.equals(current)) {
+        innerData = nextString(in);
+      } else {
+        in.skipValue();
+      }
+      current = in.hasNext() ? in.nextName() : null;
+    }
+    in.endObject();
+    return createLegacy(type, data, innerType, innerData);
+  }
+
+  /**
+   * Reads the remaining attributes of a message into a json object.
+   *
+   * @param in the reader, the name of the current attribute is already read
+   * @param name name of the current attribute
+   * @param object the object the attributes are added to
+   * @return the object
+   * @throws IOException
+   */
+  private static JsonObject readRemaining(final JsonReader in, final String name,
+      final JsonObject object) throws IOException {
+    String current = name;
+    while (current != null) {
+      object.add(current, PARSER.parse(in));
+      current = in.hasNext() ? in.nextName() : null;
+    }
+    in.endObject();
+    return object;
+  }
+
+  /**
+   * Creates a message from a buffered json object in either format.
+   *
+   * @param object the json object
+   * @return the message
+   * @throws IOException
+   */
+  private Message fromTree(final JsonObject object) throws IOException {
+    String type = asString(object.get(TYPE));
+    JsonElement data = object.get(DATA);
+    if (object.has(INNER_TYPE) || object.has(INNER_DATA) || data != null && !data.isJsonObject()) {
+      return createLegacy(type, asString(data), asString(object.get(INNER_TYPE)),
+          asString(object.get(INNER_DATA)));
+    }
+    if (type == null || object.entrySet().size() == 1) {
+      return null;
+    }
+    Class<? extends Message> clazz = getMessageClass(type);
+    if (clazz == Message.class || clazz == TemperatureMessage.class) {
+      /* the remaining attributes are the same as the data of the legacy format */
+      object.remove(TYPE);
+      return readData(object.toString(), clazz == TemperatureMessage.class);
+    }
+    return getFlatGson().fromJson(object, clazz);
+  }
+
+  /**
+   * Returns the string value of an element which may be null.
+   *
+   * @param element the element
+   * @return the string or null
+   */
+  private static String asString(final JsonElement element) {
+    return element != null && !element.isJsonNull() ? element.getAsString() : null;
+  }
+
+  /**
+   * Reads a string value which may be null.
+   *
+   * @param in the reader
+   * @return the string or null
+   * @throws IOException
+   */
+  private static String nextString(final JsonReader in) throws IOException {
+    if (in.peek() == JsonToken.NULL) {
+      in.nextNull();
+      return null;
+    }
+    return in.nextString();
+  }
+
+  /**
+   * Returns the class of a message type.
+   *
+   * @param type the type of the message
+   * @return the class
+   */
+  private static Class<? extends Message> getMessageClass(final String type) {
+    Class<? extends Message> clazz = map.get(type);
+    if (clazz == null) {
+      throw new JsonParseException(String.format("Class for type: %s is not registered", type));
+    }
+    return clazz;
+  }
+
+  /**
+   * Creates a message from the attributes of the legacy format.
+   *
+   * @param type type of the message
+   * @param data data of the message
+   * @param innerType type of the content of a pre notification
+   * @param innerData data of the content of a pre notification
+   * @return the message
+   * @throws IOException
+   */
+  private Message createLegacy(final String type, final String data, final String innerType,
+      final String innerData) throws IOException {
+    Message mData = deserializeMessage(type, data);
     if (mData instanceof PreNotificationMessage) {
-      Message innerMessage = deserializeMessage(json, "innerType", "innerData");
+      Message innerMessage = deserializeMessage(innerType, innerData);
       PreNotificationMessage preNotificationMessage = (PreNotificationMessage) mData;
       preNotificationMessage.setContent(innerMessage);
       return preNotificationMessage;
@@ -84,50 +304,210 @@ public class MessageAdapter implements JsonSerializer<Message>, JsonDeserializer
     return mData;
   }
 
-  private Message deserializeMessage(final JsonElement json, final String typeString,
-      final String dataString) {
-    Gson gson = Serializer.getBrewingStateAdapterGson();
-    JsonElement typeElement = json.getAsJsonObject().get(typeString);
-    JsonElement dataElement = json.getAsJsonObject().get(dataString);
-    if (typeElement == null || dataElement == null) {
+  private Message deserializeMessage(final String type, final String data) throws IOException {
+    if (type == null || data == null) {
       return null;
     }
-    String type = typeElement.getAsString();
-    String data = dataElement.getAsString();
-    Class<?> clazz = map.get(type);
-    if (clazz == null) {
-      throw new JsonParseException(String.format("Class for type: %s is not registered", type));
+    Class<?> clazz = getMessageClass(type);
+    if (clazz == Message.class || clazz == TemperatureMessage.class) {
+      return readData(data, clazz == TemperatureMessage.class);
     }
-    Object mData = gson.fromJson(data, clazz);
+    Object mData = Serializer.getBrewingStateAdapterGson().fromJson(data, clazz);
     if (mData instanceof Message) {
       return (Message) mData;
     }
     return null;
   }
 
-  /*
-   * (non-Javadoc)
-   * 
-   * @see com.google.gson.JsonSerializer#serialize(java.lang.Object, java.lang.reflect.Type,
-   * com.google.gson.JsonSerializationContext)
+  /**
+   * Reads the data of a plain message or temperature message in the legacy format.
+   *
+   * @param data the data of the message
+   * @param temperature whether it is a temperature message
+   * @return the message
+   * @throws IOException
    */
+  private static Message readData(final String data, final boolean temperature)
+      throws IOException {
+    JsonReader in = new JsonReader(new StringReader(data));
+    in.setLenient(true);
+    if (in.peek() == JsonToken.NULL) {
+      return null;
+    }
+    Message message = newMessage(temperature);
+    in.beginObject();
+    while (in.hasNext()) {
+      readField(in, message, temperature, in.nextName());
+    }
+    in.endObject();
+    if (in.peek() != JsonToken.END_DOCUMENT) {
+      throw new JsonParseException("JSON document was not fully consumed.");
+    }
+    return message;
+  }
+
+  /**
+   * Creates a plain message or temperature message the same way as reflection does, i.e. missing
+   * attributes keep the values a new object would have.
+   *
+   * @param temperature whether it is a temperature message
+   * @return the message
+   */
+  private static Message newMessage(final boolean temperature) {
+    if (!temperature) {
+      return new Message();
+    }
+    /* reflection creates temperature messages without calling a constructor */
+    Message message = new TemperatureMessage(0);
+    message.setTime(0);
+    message.setPriority(null);
+    return message;
+  }
+
+  /**
+   * Reads an attribute of a plain message or temperature message.
+   *
+   * @param in the reader, the name of the attribute is already read
+   * @param message the message
+   * @param temperature whether it is a temperature message
+   * @param name name of the attribute
+   * @throws IOException
+   */
+  private static void readField(final JsonReader in, final Message message,
+      final boolean temperature, final String name) throws IOException {
+    if (in.peek() == JsonToken.NULL && !"message".equals(name) && !"priority".equals(name)) {
+      /* primitives keep their values */
+      in.nextNull();
+    } else if (temperature && "temperature".equals(name)) {
+      ((TemperatureMessage) message).setTemperature((float) in.nextDouble());
+    } else if ("time".equals(name)) {
+      message.setTime(in.nextLong());
+    } else if ("message".equals(name)) {
+      message.setMessage(nextString(in));
+    } else if ("priority".equals(name)) {
+      message.setPriority(toPriority(nextString(in)));
+    } else {
+      in.skipValue();
+    }
+  }
+
+  /**
+   * Converts the name of a priority to the priority.
+   *
+   * @param name name of the priority
+   * @return the priority or null if there is no priority with the name
+   */
+  private static MessagePriority toPriority(final String name) {
+    if (name == null) {
+      return null;
+    }
+    try {
+      return MessagePriority.valueOf(name);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
   @Override
-  public JsonElement serialize(final Message src, final Type typeOfSrc,
-      final JsonSerializationContext context) {
-    Gson gson = Serializer.getBrewingStateAdapterGson();
-    JsonObject elem = new JsonObject();
-    elem.addProperty("type", src != null ? src.getClass().getSimpleName() : null);
-    if (src != null) {
-      if (src instanceof PreNotificationMessage) {
-        PreNotificationMessage preNotificationMessage = (PreNotificationMessage) src;
-        if (preNotificationMessage.getContent() != null) {
-          elem.addProperty("innerType", preNotificationMessage.getContent().getClass()
-              .getSimpleName());
-          elem.addProperty("innerData", gson.toJson(preNotificationMessage.getContent()));
-        }
+  public void write(final JsonWriter out, final Message src) throws IOException {
+    if (src == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    out.name(TYPE).value(src.getClass().getSimpleName());
+    if (flat) {
+      writeFlat(out, src);
+      out.endObject();
+      return;
+    }
+    if (src instanceof PreNotificationMessage) {
+      PreNotificationMessage preNotificationMessage = (PreNotificationMessage) src;
+      if (preNotificationMessage.getContent() != null) {
+        out.name(INNER_TYPE).value(preNotificationMessage.getContent().getClass().getSimpleName());
+        out.name(INNER_DATA).value(toData(preNotificationMessage.getContent()));
       }
     }
-    elem.addProperty("data", src != null ? gson.toJson(src) : null);
-    return elem;
+    out.name(DATA).value(toData(src));
+    out.endObject();
+  }
+
+  /**
+   * Writes the attributes of a message next to its type.
+   *
+   * @param out the writer
+   * @param src the message
+   * @throws IOException
+   */
+  private static void writeFlat(final JsonWriter out, final Message src) throws IOException {
+    if (isHandWritten(src)) {
+      writeFields(out, src);
+      return;
+    }
+    Gson gson = getFlatGson();
+    for (Map.Entry<String, JsonElement> field : gson.toJsonTree(src).getAsJsonObject().entrySet()) {
+      out.name(field.getKey());
+      gson.toJson(field.getValue(), out);
+    }
+  }
+
+  /**
+   * Converts the attributes of a message to a json string (legacy format).
+   *
+   * @param src the message
+   * @return json of the message attributes
+   * @throws IOException
+   */
+  private static String toData(final Message src) throws IOException {
+    if (!isHandWritten(src)) {
+      return Serializer.getBrewingStateAdapterGson().toJson(src);
+    }
+    StringWriter data = new StringWriter();
+    JsonWriter out = new JsonWriter(data);
+    out.setHtmlSafe(true);
+    out.setSerializeNulls(false);
+    out.beginObject();
+    writeFields(out, src);
+    out.endObject();
+    out.close();
+    return data.toString();
+  }
+
+  /**
+   * Checks whether a message is written by hand instead of reflection.
+   *
+   * @param src the message
+   * @return true for plain messages and temperature messages
+   */
+  private static boolean isHandWritten(final Message src) {
+    return src.getClass() == Message.class || src.getClass() == TemperatureMessage.class;
+  }
+
+  /**
+   * Writes the attributes of a plain message or temperature message with the same output
+   * reflection would create.
+   *
+   * @param out the writer
+   * @param src the message
+   * @throws IOException
+   */
+  private static void writeFields(final JsonWriter out, final Message src) throws IOException {
+    if (src.getClass() == TemperatureMessage.class) {
+      /* written like a Float so the output does not change */
+      out.name("temperature").value(Float.valueOf(((TemperatureMessage) src).getTemperature()));
+    }
+    out.name("time").value(src.getTime());
+    out.name("message").value(src.getMessage());
+    out.name("priority").value(src.getPriority() != null ? src.getPriority().name() : null);
+  }
+
+  /**
+   * Returns the Gson-Instance for the attributes of messages in the flat format, it writes nested
+   * messages in the flat format as well.
+   *
+   * @return Gson-Instance for the flat format
+   */
+  private static Gson getFlatGson() {
+    return Serializer.getInstance(Serializer.MESSAGE_FORMAT_FLAT);
   }
 }
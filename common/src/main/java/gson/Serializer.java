@@ -4,7 +4,9 @@
 package gson;
 
 import messages.Message;
+import general.BrewingProcessSummary;
 import general.BrewingState;
+import general.TemperatureHistory;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
@@ -18,6 +20,30 @@ import com.google.gson.GsonBuilder;
  */
 public class Serializer {
 
+  /** Message format in which the data of a message is written as json string */
+  public static final int MESSAGE_FORMAT_LEGACY = 1;
+
+  /** Message format in which the attributes of a message are written next to its type */
+  public static final int MESSAGE_FORMAT_FLAT = 2;
+
+  /** Gson-Instance with all type-adapters, Gson is thread-safe so the instance is shared */
+  private static final Gson INSTANCE = createInstance(false);
+
+  /** Gson-Instance with all type-adapters which writes messages in the flat format */
+  private static final Gson FLAT_INSTANCE = createInstance(true);
+
+  /** Gson-Instance for storing brewing logs without their temperature readings */
+  private static final Gson LOG_STORAGE_INSTANCE = new GsonBuilder()
+      .registerTypeAdapter(Message.class, new MessageAdapter(true))
+      .registerTypeAdapter(BrewingState.class, new BrewingStateAdapter())
+      .registerTypeAdapterFactory(BrewingLogAdapter.factory(false))
+      .enableComplexMapKeySerialization().create();
+
+  /** Gson-Instance with just the brewing state adapter */
+  private static final Gson BREWING_STATE_ADAPTER_INSTANCE = new GsonBuilder()
+      .registerTypeAdapter(BrewingState.class, new BrewingStateAdapter())
+      .enableComplexMapKeySerialization().create();
+
   /**
    * Returns a Gson-Instance which can convert an object to json and back to the object safely
    * Usage: e.g. Message -> getInstance().toJson(MyMessage, Message.class),
@@ -26,10 +52,47 @@ public class Serializer {
    * @return Gson-Instance with type-adapters
    */
   public static Gson getInstance() {
-    return new GsonBuilder().registerTypeAdapter(Message.class, new MessageAdapter())
+    return INSTANCE;
+  }
+
+  /**
+   * Creates a Gson-Instance with all type-adapters.
+   *
+   * @param flat whether messages are written in the flat format
+   * @return Gson-Instance with type-adapters
+   */
+  private static Gson createInstance(final boolean flat) {
+    return new GsonBuilder().registerTypeAdapter(Message.class, new MessageAdapter(flat))
         .registerTypeAdapter(BrewingState.class, new BrewingStateAdapter())
+        .registerTypeAdapterFactory(BrewingLogAdapter.factory(true))
+        .registerTypeAdapter(BrewingProcessSummary.class, new BrewingProcessSummaryAdapter())
+        .registerTypeAdapter(TemperatureHistory.class, new TemperatureHistoryAdapter())
         .enableComplexMapKeySerialization().create();
+  }
+
+  /**
+   * Returns a Gson-Instance which writes messages in the given format, e.g. the format a client
+   * asked for. Messages of both formats are read by every instance.
+   *
+   * @param messageFormat the message format, null for the legacy format
+   * @return Gson-Instance with type-adapters
+   */
+  public static Gson getInstance(final Integer messageFormat) {
+    if (messageFormat != null && messageFormat >= MESSAGE_FORMAT_FLAT) {
+      return FLAT_INSTANCE;
+    }
+    return INSTANCE;
+  }
 
+  /**
+   * Returns a Gson-Instance for storing brewing logs whose temperature readings are saved
+   * separately, i.e. the readings are not written into the messages of the log. Messages are
+   * written in the flat format.
+   *
+   * @return Gson-Instance with type-adapters
+   */
+  public static Gson getLogStorageInstance() {
+    return LOG_STORAGE_INSTANCE;
   }
   
   /**
@@ -40,7 +103,6 @@ public class Serializer {
    * @return Gson-Instance with type-adapters - just the brewing state adapter included
    */
   public static Gson getBrewingStateAdapterGson() {
-    return new GsonBuilder().registerTypeAdapter(BrewingState.class, new BrewingStateAdapter())
-        .enableComplexMapKeySerialization().create();
+    return BREWING_STATE_ADAPTER_INSTANCE;
   }
 }
@@ -0,0 +1,57 @@
+/*
+ *
+ */
+package gson;
+
+import general.TemperatureHistory;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+
+/**
+ * Json Adapter for TemperatureHistory. The history is written in the same format as a map of times
+ * and temperatures ({"time": temperature, ...}), so clients can still read it as map.
+ */
+public class TemperatureHistoryAdapter extends TypeAdapter<TemperatureHistory> {
+
+  @Override
+  public void write(final JsonWriter out, final TemperatureHistory value) throws IOException {
+    if (value == null) {
+      out.nullValue();
+      return;
+    }
+    out.beginObject();
+    int size = value.size();
+    for (int i = 0; i < size; i++) {
+      out.name(Long.toString(value.getTime(i)));
+      /* written like a Float so the output does not change */
+      out.value(Float.valueOf(value.getTemperature(i)));
+    }
+    out.endObject();
+  }
+
+  @Override
+  public TemperatureHistory read(final JsonReader in) throws IOException {
+    Map<Long, Float> map = new TreeMap<Long, Float>();
+    in.beginObject();
+    while (in.hasNext()) {
+      map.put(Long.parseLong(in.nextName()), (float) in.nextDouble());
+    }
+    in.endObject();
+    long[] times = new long[map.size()];
+    float[] temperatures = new float[map.size()];
+    int i = 0;
+    for (Map.Entry<Long, Float> entry : map.entrySet()) {
+      times[i] = entry.getKey();
+      temperatures[i] = entry.getValue();
+      i++;
+    }
+    return new TemperatureHistory(times, temperatures);
+  }
+}
@@ -35,9 +35,11 @@ import general.RecipeSummary;
 import general.TemperatureLevel;
 import general.Unit;
 
-import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
-import java.nio.charset.StandardCharsets;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -46,7 +48,9 @@ import java.util.Map;
 import javax.naming.directory.InvalidAttributesException;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.Characters;
 import javax.xml.stream.events.XMLEvent;
 
@@ -557,15 +561,15 @@ public class RecipeReader {
   /** Global logger to log the interaction with the controller. */
   public static final Logger LOGGER = LogManager.getLogger();
 
-  /** InputFactory for a recipe. */
-  private XMLInputFactory inputFactory;
+  /**
+   * InputFactory for all recipes, the lookup of the implementation is expensive and a configured
+   * factory may create readers concurrently.
+   */
+  private static final XMLInputFactory INPUT_FACTORY = XMLInputFactory.newInstance();
 
   /** Xml-Event reader which will loop through the xml file. */
   private XMLEventReader xmlEventReader;
 
-  /** InputStream for the InputFactory (in our case this is a byte[] (string)). */
-  private InputStream inputStream;
-
   /** Current State of the parsing process for dealing with same names. */
   private ParsingState state;
 
@@ -619,18 +623,110 @@ public class RecipeReader {
    * @throws RecipeParseException if something went wrong during the process
    */
   public RecipeSummary getRecipeSummaryByString(final String content) throws RecipeParseException {
+    if (content == null) {
+      throw new RecipeParseException(new InvalidAttributesException("Content should not be null"));
+    }
     try {
-      init(content);
-      return parseRecipeSummary();
+      return parseRecipeSummary(INPUT_FACTORY.createXMLStreamReader(new StringReader(content)));
     } catch (XMLStreamException e) {
       LOGGER.error(e);
       throw new RecipeParseException(e);
-    } catch (Exception e) {
+    }
+  }
+
+  /**
+   * Gets only the recipe-summary (name, desc, date, id) of a recipe file. Only the beginning of the
+   * file up to the end of the summary is read.
+   *
+   * @param path the recipe file
+   * @return RecipeSummary-Object
+   * @throws IOException if the file could not be read
+   * @throws RecipeParseException if the file is no valid recipe
+   */
+  public RecipeSummary getRecipeSummary(final Path path) throws IOException, RecipeParseException {
+    try (InputStream in = Files.newInputStream(path)) {
+      return getRecipeSummary(in);
+    }
+  }
+
+  /**
+   * Gets only the recipe-summary (name, desc, date, id) from a stream. The stream is only read up
+   * to the end of the summary and not closed. Unlike the other methods of the reader, this method
+   * keeps no state and may be called concurrently.
+   *
+   * @param in the stream of the recipe document
+   * @return RecipeSummary-Object
+   * @throws RecipeParseException if something went wrong during the process
+   */
+  public RecipeSummary getRecipeSummary(final InputStream in) throws RecipeParseException {
+    try {
+      return parseRecipeSummary(INPUT_FACTORY.createXMLStreamReader(in));
+    } catch (XMLStreamException e) {
       LOGGER.error(e);
       throw new RecipeParseException(e);
     }
   }
 
+  /**
+   * Parses the summary with a cursor and stops at its end, the plans behind it are not read.
+   *
+   * @param reader cursor on the recipe document
+   * @return the summary or null if the document contains no recipe
+   * @throws XMLStreamException Thrown if something in the reading-process has failed
+   */
+  private static RecipeSummary parseRecipeSummary(final XMLStreamReader reader)
+      throws XMLStreamException {
+    try {
+      RecipeSummary mySummary = null;
+      boolean inSummary = false;
+      while (reader.hasNext()) {
+        int event = reader.next();
+        if (event == XMLStreamConstants.END_ELEMENT
+            && RECIPE_SUMMARY.equals(reader.getLocalName())) {
+          return mySummary;
+        }
+        if (event != XMLStreamConstants.START_ELEMENT) {
+          continue;
+        }
+        String localPart = reader.getLocalName();
+        if (RECIPE_NODE.equals(localPart)) {
+          mySummary = new RecipeSummary();
+        } else if (RECIPE_SUMMARY.equals(localPart)) {
+          inSummary = true;
+        } else if (inSummary && mySummary != null) {
+          if (NAME_NODE.equals(localPart)) {
+            mySummary.setTitle(getElementText(reader));
+          } else if (DESCRIPTION_NODE.equals(localPart)) {
+            mySummary.setDescription(getElementText(reader));
+          } else if (DATE_NODE.equals(localPart)) {
+            try {
+              mySummary.setDate(Long.parseLong(getElementText(reader)));
+            } catch (NumberFormatException e) {
+              /*
+               * ignore this here and do not set a date at all
+               */
+            }
+          }
+        }
+      }
+      return mySummary;
+    } finally {
+      reader.close();
+    }
+  }
+
+  /**
+   * Reads the text of the current element with the cursor.
+   *
+   * @param reader cursor on a start element
+   * @return text of the element (or null for the null-node)
+   * @throws XMLStreamException Thrown if something in the reading-process has failed
+   */
+  private static String getElementText(final XMLStreamReader reader) throws XMLStreamException {
+    String result = reader.getElementText();
+    return NULL_NODE.equals(result) ? null : result;
+  }
+
   /**
    * Initializes the Reader with a new content-file and resets all states.
    *
@@ -643,10 +739,8 @@ public class RecipeReader {
       throw new RecipeParseException(new InvalidAttributesException("Content should not be null"));
     }
     LOGGER.info("Trying to parse recipe");
-    inputFactory = XMLInputFactory.newInstance();
-    inputStream = new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
     try {
-      xmlEventReader = inputFactory.createXMLEventReader(inputStream);
+      xmlEventReader = INPUT_FACTORY.createXMLEventReader(new StringReader(content));
     } catch (XMLStreamException e) {
       LOGGER.error(e);
       throw new RecipeParseException(e);
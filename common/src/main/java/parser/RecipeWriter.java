@@ -31,8 +31,17 @@ import general.MashingPlan;
 import general.Recipe;
 import general.TemperatureLevel;
 
+import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 
 import javax.xml.stream.XMLEventFactory;
 import javax.xml.stream.XMLEventWriter;
@@ -58,23 +67,26 @@ public class RecipeWriter {
   /** current recipe to parse. */
   private Recipe recipe;
 
+  /** Encoding of the recipe files. */
+  private static final String ENCODING = StandardCharsets.UTF_8.name();
+
+  /**
+   * XMLOutputFactory for all recipes, the lookup of the implementation is expensive and a
+   * configured factory may create writers concurrently.
+   */
+  private static final XMLOutputFactory OUTPUT_FACTORY = XMLOutputFactory.newInstance();
+
   /** create XMLEventWriter. */
   private XMLEventWriter eventWriter;
 
-  /** create an EventFactory. */
-  private XMLEventFactory eventFactory;
+  /** EventFactory for all recipes of this writer. */
+  private final XMLEventFactory eventFactory = XMLEventFactory.newInstance();
 
   /** New-Line-Element. */
-  private XMLEvent end;
+  private final XMLEvent end = eventFactory.createDTD("\n");
 
   /** New-Tab-Element. */
-  private XMLEvent tab;
-
-  /** create an XMLOutputFactory. */
-  private XMLOutputFactory outputFactory;
-
-  /** OutputStream as byte[]. */
-  private ByteArrayOutputStream outputStream;
+  private final XMLEvent tab = eventFactory.createDTD("\t");
 
   /** How many tabs the text should be written in (not relevant for parsing). */
   private int tabPosition = 0;
@@ -158,11 +170,26 @@ public class RecipeWriter {
    * @throws RecipeParseException if something went wrong during the process
    */
   public String convertRecipeToXml(final Recipe recipe) throws RecipeParseException {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    writeRecipe(recipe, outputStream);
+    return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Writes the recipe as UTF-8 encoded XML to a stream, the XML is not built in memory. The stream
+   * is not closed.
+   *
+   * @param recipe Recipe which should be written
+   * @param out stream the XML is written to
+   * @throws RecipeParseException if something went wrong during the process
+   */
+  public void writeRecipe(final Recipe recipe, final OutputStream out)
+      throws RecipeParseException {
     try {
       LOGGER.info(String.format("Convert recipe: %s", recipe.getId()));
-      init(recipe);
+      init(recipe, out);
 
-      eventWriter.add(eventFactory.createStartDocument());
+      eventWriter.add(eventFactory.createStartDocument(ENCODING));
       addEnd();
       addStartElement(RECIPE_NODE);
 
@@ -173,13 +200,72 @@ public class RecipeWriter {
       addEndElement(RECIPE_NODE);
       eventWriter.add(eventFactory.createEndDocument());
       eventWriter.close();
-      return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
     } catch (XMLStreamException e) {
       LOGGER.error(e);
       throw new RecipeParseException(e);
     } catch (Exception e) {
       LOGGER.error(e);
       throw new RecipeParseException(e);
+    } finally {
+      eventWriter = null;
+      this.recipe = null;
+      tabPosition = 0;
+    }
+  }
+
+  /**
+   * Writes the recipe to a file. The recipe is streamed into a temporary file next to it, which is
+   * synced and then moved into place, so the file is either replaced completely or not at all.
+   *
+   * @param recipe Recipe which should be written
+   * @param file the recipe file
+   * @throws IOException if the file could not be written
+   * @throws RecipeParseException if the recipe could not be converted
+   */
+  public void writeRecipe(final Recipe recipe, final Path file) throws IOException,
+      RecipeParseException {
+    Path tempFile = writeTempFile(recipe, file);
+    boolean moved = false;
+    try {
+      Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+      moved = true;
+    } finally {
+      if (!moved) {
+        Files.deleteIfExists(tempFile);
+      }
+    }
+  }
+
+  /**
+   * Streams the recipe into a temporary file next to the recipe file and syncs it, the caller moves
+   * it to the recipe file. The temporary file is deleted if it could not be written completely.
+   *
+   * @param recipe Recipe which should be written
+   * @param file the recipe file
+   * @return the temporary file
+   * @throws IOException if the file could not be written
+   * @throws RecipeParseException if the recipe could not be converted
+   */
+  public Path writeTempFile(final Recipe recipe, final Path file) throws IOException,
+      RecipeParseException {
+    Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+    boolean written = false;
+    try {
+      try (FileChannel channel =
+          FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+              StandardOpenOption.TRUNCATE_EXISTING)) {
+        OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel));
+        writeRecipe(recipe, out);
+        out.flush();
+        channel.force(false);
+      }
+      written = true;
+      return tempFile;
+    } finally {
+      if (!written) {
+        Files.deleteIfExists(tempFile);
+      }
     }
   }
 
@@ -311,18 +397,15 @@ public class RecipeWriter {
    * Inits the Parser.
    *
    * @param recipe recipe which is going to be read from
+   * @param out stream the XML is written to
    * @throws XMLStreamException possible exception during parsing
    */
-  private void init(final Recipe recipe) throws XMLStreamException {
+  private void init(final Recipe recipe, final OutputStream out) throws XMLStreamException {
     if (recipe == null) {
       throw new IllegalArgumentException("Recipe should not be null");
     }
-    outputFactory = XMLOutputFactory.newInstance();
-    outputStream = new ByteArrayOutputStream();
-    eventWriter = outputFactory.createXMLEventWriter(outputStream);
-    eventFactory = XMLEventFactory.newInstance();
-    end = eventFactory.createDTD("\n");
-    tab = eventFactory.createDTD("\t");
+    eventWriter = OUTPUT_FACTORY.createXMLEventWriter(out, ENCODING);
+    tabPosition = 0;
     this.recipe = recipe;
   }
 }
@@ -137,12 +137,17 @@ public class PropertyUtil {
   private static final float ROOM_TEMPERATURE_DEFAULT = 20.0f;
 
   /**
-   * The amount the temperature has to change in order for the new temperature to be written to the
-   * log
+   * The amount the logged temperature curve may differ from the measured temperatures, fewer
+   * temperatures are written to the log for a higher value
+   */
+  public static final String TEMPERATURE_LOGGING_ERROR_BOUND_PROPERTY = "TempLoggingErrorBound";
+  /**
+   * Former name of the error bound (the change of the temperature which was logged), taken over
+   * when the settings file is loaded if the file does not contain the error bound
    */
   public static final String TEMPERATURE_LOGGING_TEMP_DELTA_PROPERTY = "TempLoggingTempDelta";
-  /** Default value is 3°C. */
-  private static final int TEMPERATURE_LOGGING_TEMP_DELTA_DEFAULT = 3;
+  /** Default value is 0.5°C. */
+  private static final float TEMPERATURE_LOGGING_ERROR_BOUND_DEFAULT = 0.5f;
 
   /** The amount of time to pass until the next temperature is logged. */
   public static final String TEMPERATURE_LOGGING_TIME_DELTA_PROPERTY = "TempLoggingTimeDelta";
@@ -159,6 +164,16 @@ public class PropertyUtil {
   /** By default send beeps */
   public static final boolean SEND_CONFIRMATION_REQUEST_BEEP_DEFAULT = true;
   
+  /** Whether the messages of a running brewing process are journaled to disk immediately */
+  public static final String LOG_JOURNAL_PROPERTY = "LogJournal";
+  /** By default journal every message */
+  public static final boolean LOG_JOURNAL_DEFAULT = true;
+
+  /** Time in milliseconds after which journaled messages are synced to disk at latest */
+  public static final String LOG_JOURNAL_SYNC_MILLIS_PROPERTY = "LogJournalSyncMillis";
+  /** Default value is 5 seconds */
+  public static final long LOG_JOURNAL_SYNC_MILLIS_DEFAULT = 5 * 1000;
+
   /** Location of log files. */
   public static final String LOG_PATH = PROJECT_FOLDER_PATH + File.separator + "logs";
 
@@ -177,6 +192,18 @@ public class PropertyUtil {
   /** File extension for log files. */
   public static final String LOG_FILE_EXT = ".log";
 
+  /** File extension for the encoded temperature readings stored next to a log file. */
+  public static final String LOG_TEMPERATURE_FILE_EXT = ".temperatures";
+
+  /** File extension for journals of running brewing processes. */
+  public static final String LOG_JOURNAL_FILE_EXT = ".journal";
+
+  /** Name of the file (inside the log folder) which maps log ids to log files. */
+  public static final String LOG_INDEX_FILE = "logs.index";
+
+  /** Name of the file (inside the log folder) which stores the summaries of the logs. */
+  public static final String LOG_SUMMARY_INDEX_FILE = "logs.summaries";
+
   /** Minimum message priority in protocol */
   public static final MessagePriority PROTOCOL_PRIORITY = MessagePriority.HIGH;
 
@@ -197,6 +224,41 @@ public class PropertyUtil {
 
   public static final String TEMPERATURE_SENSOR_BASE_FOLDER_DEFAULT = "/sys/bus/w1/devices/";
 
+  /** Whether the sensor file is resolved once and read without allocating on every measurement */
+  public static final String TEMPERATURE_SENSOR_FAST_READ_PROPERTY = "TempSensorFastRead";
+  /** By default the fast reader is used */
+  public static final boolean TEMPERATURE_SENSOR_FAST_READ_DEFAULT = true;
+
+  /** Minimal time a relais stays switched on or off, to protect the mechanical relais */
+  public static final String RELAIS_MIN_DWELL_MILLIS_PROPERTY = "RelaisMinDwellMillis";
+  /** By default 2 seconds */
+  public static final long RELAIS_MIN_DWELL_MILLIS_DEFAULT = 2000;
+
+  /** Whether the PID controller of the heater tunes its gains with the first rest */
+  public static final String HEATER_AUTO_TUNING_PROPERTY = "HeaterAutoTuning";
+  /** By default the default gains are used */
+  public static final boolean HEATER_AUTO_TUNING_DEFAULT = false;
+
+  /** Age after which the last measured temperature is not returned any more */
+  public static final String TEMPERATURE_MAX_SAMPLE_AGE_MILLIS_PROPERTY = "TempMaxSampleAgeMillis";
+  /**
+   * By default a measurement is returned until three measurements were missed, but at least for
+   * twice the maximal interval of the sampling strategy
+   */
+  public static final long TEMPERATURE_MAX_SAMPLE_AGE_MILLIS_DEFAULT = 6000;
+
+  /** Minimal interval between two temperature measurements near a border */
+  public static final String TEMPERATURE_SAMPLING_MIN_INTERVAL_MILLIS_PROPERTY =
+      "TempSamplingMinIntervalMillis";
+  /** By default as fast as the sensor converts a temperature */
+  public static final long TEMPERATURE_SAMPLING_MIN_INTERVAL_MILLIS_DEFAULT = 750;
+
+  /** Maximal interval between two temperature measurements while the temperature is stable */
+  public static final String TEMPERATURE_SAMPLING_MAX_INTERVAL_MILLIS_PROPERTY =
+      "TempSamplingMaxIntervalMillis";
+  /** By default 12 seconds */
+  public static final long TEMPERATURE_SAMPLING_MAX_INTERVAL_MILLIS_DEFAULT = 12000;
+
 
   /**
    * Cached map of all properties
@@ -242,18 +304,33 @@ public class PropertyUtil {
         String.valueOf(HOPCK_PRENOTIF_TIME_DEFAULT));
     properties.setProperty(HOPCK_COOKING_TEMPERATURE_PROPERTY,
         String.valueOf(HOPCK_COOKING_TEMPERATURE_DEFAULT));
-    properties.setProperty(TEMPERATURE_LOGGING_TEMP_DELTA_PROPERTY,
-        String.valueOf(TEMPERATURE_LOGGING_TEMP_DELTA_DEFAULT));
+    properties.setProperty(TEMPERATURE_LOGGING_ERROR_BOUND_PROPERTY,
+        String.valueOf(TEMPERATURE_LOGGING_ERROR_BOUND_DEFAULT));
     properties.setProperty(TEMPERATURE_LOGGING_TIME_DELTA_PROPERTY,
         String.valueOf(TEMPERATURE_LOGGING_TIME_DELTA_DEFAULT));
     properties.setProperty(ROOM_TEMPERATURE_PROPERTY, String.valueOf(ROOM_TEMPERATURE_DEFAULT));
     properties.setProperty(TEMPERATURE_SENSOR_FILE_PROPERTY, TEMPERATURE_SENSOR_FILE_DEFAULT);
     properties.setProperty(TEMPERATURE_SENSOR_BASE_FOLDER_PROPERTY,
         TEMPERATURE_SENSOR_BASE_FOLDER_DEFAULT);
+    properties.setProperty(TEMPERATURE_SENSOR_FAST_READ_PROPERTY,
+        String.valueOf(TEMPERATURE_SENSOR_FAST_READ_DEFAULT));
+    properties.setProperty(RELAIS_MIN_DWELL_MILLIS_PROPERTY,
+        String.valueOf(RELAIS_MIN_DWELL_MILLIS_DEFAULT));
+    properties.setProperty(HEATER_AUTO_TUNING_PROPERTY,
+        String.valueOf(HEATER_AUTO_TUNING_DEFAULT));
+    properties.setProperty(TEMPERATURE_MAX_SAMPLE_AGE_MILLIS_PROPERTY,
+        String.valueOf(TEMPERATURE_MAX_SAMPLE_AGE_MILLIS_DEFAULT));
+    properties.setProperty(TEMPERATURE_SAMPLING_MIN_INTERVAL_MILLIS_PROPERTY,
+        String.valueOf(TEMPERATURE_SAMPLING_MIN_INTERVAL_MILLIS_DEFAULT));
+    properties.setProperty(TEMPERATURE_SAMPLING_MAX_INTERVAL_MILLIS_PROPERTY,
+        String.valueOf(TEMPERATURE_SAMPLING_MAX_INTERVAL_MILLIS_DEFAULT));
     properties.setProperty(SEND_PRENOTIFICATION_BEEP_PROPERTY, 
     		String.valueOf(SEND_PRENOTIFICATION_BEEP_DEFAULT));
     properties.setProperty(SEND_CONFIRMATION_REQUEST_BEEP_PROPERTY, 
     		String.valueOf(SEND_CONFIRMATION_REQUEST_BEEP_DEFAULT));
+    properties.setProperty(LOG_JOURNAL_PROPERTY, String.valueOf(LOG_JOURNAL_DEFAULT));
+    properties.setProperty(LOG_JOURNAL_SYNC_MILLIS_PROPERTY,
+        String.valueOf(LOG_JOURNAL_SYNC_MILLIS_DEFAULT));
 
     return properties;
   }
@@ -354,17 +431,16 @@ public class PropertyUtil {
   }
 
   /**
-   * The amount the temperature has to change in order for the new temperature to be written to the
-   * log.
+   * The amount the logged temperature curve may differ from the measured temperatures.
    * 
-   * @return
+   * @return The error bound in °C.
    */
-  public static int getTemperatureLoggingTemperatureDelta() {
+  public static float getTemperatureLoggingErrorBound() {
     try {
-      return Integer.parseInt(getProperty(PropertyUtil.TEMPERATURE_LOGGING_TEMP_DELTA_PROPERTY));
+      return Float.parseFloat(getProperty(PropertyUtil.TEMPERATURE_LOGGING_ERROR_BOUND_PROPERTY));
     } catch (Throwable t) {
-      LOGGER.error("Cannot read HOPCK_COOKING_TEMPERATURE_PROPERTY from settings file!", t);
-      return PropertyUtil.TEMPERATURE_LOGGING_TEMP_DELTA_DEFAULT;
+      LOGGER.error("Cannot read TEMPERATURE_LOGGING_ERROR_BOUND_PROPERTY from settings file!", t);
+      return PropertyUtil.TEMPERATURE_LOGGING_ERROR_BOUND_DEFAULT;
     }
   }
 
@@ -401,6 +477,122 @@ public class PropertyUtil {
   	}
   }
 
+  /**
+   * Whether the messages of a running brewing process should be journaled to disk immediately.
+   * 
+   * @return true if a journal should be written
+   */
+  public static boolean getLogJournal() {
+    try {
+      return Boolean.parseBoolean(getProperty(PropertyUtil.LOG_JOURNAL_PROPERTY));
+    } catch (Throwable t) {
+      LOGGER.error("Cannot read LOG_JOURNAL_PROPERTY from settings file!", t);
+      return PropertyUtil.LOG_JOURNAL_DEFAULT;
+    }
+  }
+
+  /**
+   * Time in milliseconds after which journaled messages are synced to disk at latest.
+   * 
+   * @return sync interval in milliseconds
+   */
+  public static long getLogJournalSyncMillis() {
+    try {
+      return Long.parseLong(getProperty(PropertyUtil.LOG_JOURNAL_SYNC_MILLIS_PROPERTY));
+    } catch (Throwable t) {
+      LOGGER.error("Cannot read LOG_JOURNAL_SYNC_MILLIS_PROPERTY from settings file!", t);
+      return PropertyUtil.LOG_JOURNAL_SYNC_MILLIS_DEFAULT;
+    }
+  }
+
+  /**
+   * Whether the temperature sensor file should be resolved once and read without allocating.
+   * 
+   * @return true if the fast reader should be used
+   */
+  public static boolean getTemperatureSensorFastRead() {
+    try {
+      return Boolean.parseBoolean(getProperty(PropertyUtil.TEMPERATURE_SENSOR_FAST_READ_PROPERTY));
+    } catch (Throwable t) {
+      LOGGER.error("Cannot read TEMPERATURE_SENSOR_FAST_READ_PROPERTY from settings file!", t);
+      return PropertyUtil.TEMPERATURE_SENSOR_FAST_READ_DEFAULT;
+    }
+  }
+
+  /**
+   * Returns the minimal time a relais stays switched on or off.
+   * 
+   * @return The minimal dwell time in milliseconds.
+   */
+  public static long getRelaisMinDwellMillis() {
+    try {
+      return Long.parseLong(getProperty(PropertyUtil.RELAIS_MIN_DWELL_MILLIS_PROPERTY));
+    } catch (Throwable t) {
+      LOGGER.error("Cannot read RELAIS_MIN_DWELL_MILLIS_PROPERTY from settings file!", t);
+      return PropertyUtil.RELAIS_MIN_DWELL_MILLIS_DEFAULT;
+    }
+  }
+
+  /**
+   * Whether the PID controller of the heater tunes its gains with the first rest.
+   * 
+   * @return true if the gains should be tuned
+   */
+  public static boolean getHeaterAutoTuning() {
+    try {
+      return Boolean.parseBoolean(getProperty(PropertyUtil.HEATER_AUTO_TUNING_PROPERTY));
+    } catch (Throwable t) {
+      LOGGER.error("Cannot read HEATER_AUTO_TUNING_PROPERTY from settings file!", t);
+      return PropertyUtil.HEATER_AUTO_TUNING_DEFAULT;
+    }
+  }
+
+  /**
+   * Returns the age after which the last measured temperature is not returned any more.
+   * 
+   * @return The maximal age of a measurement in milliseconds.
+   */
+  public static long getTemperatureMaxSampleAgeMillis() {
+    try {
+      return Long.parseLong(getProperty(PropertyUtil.TEMPERATURE_MAX_SAMPLE_AGE_MILLIS_PROPERTY));
+    } catch (Throwable t) {
+      LOGGER.error("Cannot read TEMPERATURE_MAX_SAMPLE_AGE_MILLIS_PROPERTY from settings file!", t);
+      return PropertyUtil.TEMPERATURE_MAX_SAMPLE_AGE_MILLIS_DEFAULT;
+    }
+  }
+
+  /**
+   * Returns the minimal interval between two temperature measurements.
+   * 
+   * @return The minimal interval in milliseconds.
+   */
+  public static long getTemperatureSamplingMinIntervalMillis() {
+    try {
+      return Long.parseLong(getProperty(
+          PropertyUtil.TEMPERATURE_SAMPLING_MIN_INTERVAL_MILLIS_PROPERTY));
+    } catch (Throwable t) {
+      LOGGER.error(
+          "Cannot read TEMPERATURE_SAMPLING_MIN_INTERVAL_MILLIS_PROPERTY from settings file!", t);
+      return PropertyUtil.TEMPERATURE_SAMPLING_MIN_INTERVAL_MILLIS_DEFAULT;
+    }
+  }
+
+  /**
+   * Returns the maximal interval between two temperature measurements.
+   * 
+   * @return The maximal interval in milliseconds.
+   */
+  public static long getTemperatureSamplingMaxIntervalMillis() {
+    try {
+      return Long.parseLong(getProperty(
+          PropertyUtil.TEMPERATURE_SAMPLING_MAX_INTERVAL_MILLIS_PROPERTY));
+    } catch (Throwable t) {
+      LOGGER.error(
+          "Cannot read TEMPERATURE_SAMPLING_MAX_INTERVAL_MILLIS_PROPERTY from settings file!", t);
+      return PropertyUtil.TEMPERATURE_SAMPLING_MAX_INTERVAL_MILLIS_DEFAULT;
+    }
+  }
+
   /**
    * To get the properties object.
    *
@@ -511,6 +703,23 @@ public class PropertyUtil {
         getProperty(HTTP_PORT_PROPERTY), getProperty(RESOURCE_PROPERTY));
   }
 
+  /**
+   * Takes over the values of renamed properties which are still set under their former name in
+   * the settings file. Must be called on the properties read from the file before any default
+   * value is added, otherwise the new name would already be set to its default.
+   *
+   * @param properties the properties read from the file
+   */
+  static void migrateLegacyProperties(final Properties properties) {
+    String legacy = properties.getProperty(TEMPERATURE_LOGGING_TEMP_DELTA_PROPERTY);
+    if (legacy != null
+        && properties.getProperty(TEMPERATURE_LOGGING_ERROR_BOUND_PROPERTY) == null) {
+      LOGGER.info("Take over " + TEMPERATURE_LOGGING_TEMP_DELTA_PROPERTY + " as "
+          + TEMPERATURE_LOGGING_ERROR_BOUND_PROPERTY + ": " + legacy);
+      properties.setProperty(TEMPERATURE_LOGGING_ERROR_BOUND_PROPERTY, legacy);
+    }
+  }
+
   /**
    * to load a properties file.
    *
@@ -524,6 +733,7 @@ public class PropertyUtil {
           new BufferedInputStream(new FileInputStream(PROPERTIES_FILE_PATH));
       property.load(stream);
       stream.close();
+      migrateLegacyProperties(property);
       return property;
 
     } catch (FileNotFoundException e) {
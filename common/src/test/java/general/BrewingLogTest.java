@@ -1,7 +1,12 @@
 package general;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import junit.framework.Assert;
 import messages.Message;
+import messages.TemperatureMessage;
 
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -41,4 +46,138 @@ public class BrewingLogTest {
 		Assert.assertNotNull(log1.getSummary());
 	}
 
+	/**
+	 * tests that temperature readings are kept in the temperature series but
+	 * still returned as messages
+	 */
+	@Category(UnitTest.class)
+	@Test
+	public void testTemperatureReadings() {
+		Recipe recipe = DummyBuilder.getRealisticRecipe();
+		BrewingLog log = new BrewingLog(recipe, 1);
+		Message message = new Message("test", 2000);
+		TemperatureMessage reading = new TemperatureMessage(42.5f);
+		reading.setTime(1000);
+		reading.setMessage(TemperatureSeries.describe(42.5f));
+		TemperatureMessage laterReading = new TemperatureMessage(43f);
+		laterReading.setTime(3000);
+		laterReading.setMessage(TemperatureSeries.describe(43f));
+
+		Assert.assertTrue(log.log(message));
+		Assert.assertTrue(log.log(reading));
+		Assert.assertTrue(log.log(laterReading));
+		Assert.assertEquals(1, log.getNonReadingMessages().size());
+		Assert.assertEquals(2, log.getTemperatures().size());
+		Assert.assertEquals(Arrays.asList(reading, message, laterReading),
+				log.getMessages());
+		Assert.assertEquals(Long.valueOf(1000), log.getStartTime());
+		Assert.assertEquals(Long.valueOf(3000), log.getLatestTime());
+
+		BrewingLog copy = new BrewingLog(recipe, 1);
+		copy.setMessages(log.getMessages());
+		Assert.assertEquals(log, copy);
+		Assert.assertEquals(log.hashCode(), copy.hashCode());
+		Assert.assertEquals(2, copy.getTemperatures().size());
+	}
+
+	/**
+	 * tests that the log is kept ordered by time and that messages and
+	 * temperatures since a time are found
+	 */
+	@Category(UnitTest.class)
+	@Test
+	public void testSince() {
+		BrewingLog log = new BrewingLog(DummyBuilder.getRealisticRecipe(), 1);
+		for (int i = 0; i < 100; i++) {
+			float temperature = 20 + i;
+			TemperatureMessage reading = new TemperatureMessage(temperature);
+			reading.setTime(i * 1000);
+			reading.setMessage(TemperatureSeries.describe(temperature));
+			log.log(reading);
+		}
+		Message late = new Message("late", 50500);
+		Message early = new Message("early", 20500);
+		log.log(late);
+		log.log(early);
+		TemperatureMessage other = new TemperatureMessage(99f);
+		other.setTime(60000);
+		other.setMessage("Temperature reached");
+		log.log(other);
+		Assert.assertEquals(Arrays.asList(early, late, other),
+				log.getNonReadingMessages());
+
+		List<Message> since = log.getMessagesSince(50000);
+		Assert.assertEquals(52, since.size());
+		Assert.assertEquals(50000, since.get(0).getTime());
+		Assert.assertEquals(late, since.get(1));
+		for (int i = 1; i < since.size(); i++) {
+			Assert.assertTrue(since.get(i - 1).getTime() <= since.get(i)
+					.getTime());
+		}
+		Assert.assertEquals(log.getMessages().size(), log.getMessagesSince(0)
+				.size());
+		Assert.assertTrue(log.getMessagesSince(100000).isEmpty());
+
+		TemperatureHistory history = log.getTemperaturesSince(59000);
+		Assert.assertEquals(41, history.size());
+		Assert.assertEquals(59000, history.getTime(0));
+		Assert.assertEquals(60000, history.getTime(1));
+		/* the other temperature message replaces the reading of the same time */
+		Assert.assertEquals(99f, history.getTemperature(1));
+		Assert.assertEquals(99000, history.getTime(40));
+		Assert.assertEquals(0, log.getTemperaturesSince(100000).size());
+	}
+
+	/**
+	 * tests that the messages are returned as an unmodifiable snapshot, with
+	 * and without temperature readings and also if they were set unordered
+	 */
+	@Category(UnitTest.class)
+	@Test
+	public void testMessagesUnmodifiable() {
+		BrewingLog log = new BrewingLog(DummyBuilder.getRealisticRecipe(), 1);
+		Message late = new Message("late", 2000);
+		Message early = new Message("early", 1000);
+		List<Message> unordered = new ArrayList<Message>(Arrays.asList(late,
+				early));
+		log.setMessages(unordered);
+		unordered.clear();
+		List<Message> messages = log.getMessages();
+		Assert.assertEquals(Arrays.asList(early, late), messages);
+		assertUnmodifiable(messages);
+		assertUnmodifiable(log.getNonReadingMessages());
+
+		/* the snapshot does not change if further messages are logged */
+		log.log(new Message("latest", 3000));
+		Assert.assertEquals(2, messages.size());
+
+		TemperatureMessage reading = new TemperatureMessage(42.5f);
+		reading.setTime(1500);
+		reading.setMessage(TemperatureSeries.describe(42.5f));
+		log.log(reading);
+		Assert.assertEquals(4, log.getMessages().size());
+		assertUnmodifiable(log.getMessages());
+	}
+
+	/**
+	 * asserts that a list of messages cannot be changed
+	 *
+	 * @param messages
+	 *            the list
+	 */
+	private void assertUnmodifiable(final List<Message> messages) {
+		try {
+			messages.add(new Message("added"));
+			Assert.fail("messages could be added");
+		} catch (UnsupportedOperationException e) {
+			/* expected */
+		}
+		try {
+			messages.remove(0);
+			Assert.fail("messages could be removed");
+		} catch (UnsupportedOperationException e) {
+			/* expected */
+		}
+	}
+
 }
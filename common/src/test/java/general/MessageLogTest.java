@@ -0,0 +1,151 @@
+/*
+ *
+ */
+package general;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import junit.framework.Assert;
+import messages.Message;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import categories.PerformanceTest;
+import categories.UnitTest;
+
+/**
+ * Tests the segmented message log of brewing logs.
+ */
+public class MessageLogTest {
+
+  /** Logger which reports the measured times */
+  private static final Logger LOGGER = LogManager.getLogger();
+
+  /** Number of messages of a six hour brewing process with a message every 1.5 seconds */
+  private static final int BREWING_MESSAGES = 6 * 60 * 40;
+
+  /**
+   * Creates messages with ascending times.
+   *
+   * @param count number of messages
+   * @return the messages
+   */
+  private List<Message> createMessages(final int count) {
+    List<Message> messages = new ArrayList<Message>(count);
+    for (int i = 0; i < count; i++) {
+      messages.add(new Message("Message " + i, i * 1500L));
+    }
+    return messages;
+  }
+
+  /**
+   * Tests that appended and inserted messages are stored in order across several chunks.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testAddAndInsert() {
+    List<Message> expected = createMessages(3000);
+    MessageLog log = new MessageLog(expected.subList(0, 2500));
+    for (Message message : expected.subList(2500, 3000)) {
+      Assert.assertTrue(log.add(message));
+    }
+    Assert.assertEquals(expected, log);
+    Assert.assertEquals(expected.hashCode(), log.hashCode());
+
+    Message inserted = new Message("inserted", 1000 * 1500L + 1);
+    log.add(1001, inserted);
+    expected.add(1001, inserted);
+    log.add(0, inserted);
+    expected.add(0, inserted);
+    log.add(log.size(), inserted);
+    expected.add(inserted);
+    Assert.assertEquals(expected, log);
+    Assert.assertEquals(3003, log.size());
+  }
+
+  /**
+   * Tests that snapshots and iterators are not changed by messages which are logged afterwards.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testSnapshots() {
+    MessageLog log = new MessageLog(createMessages(2000));
+    List<Message> snapshot = log.snapshot();
+    Iterator<Message> iterator = log.iterator();
+    List<Message> before = new ArrayList<Message>(log);
+
+    log.add(new Message("appended", Long.MAX_VALUE));
+    log.add(5, new Message("inserted", 5));
+    Assert.assertEquals(2002, log.size());
+    Assert.assertEquals(before, snapshot);
+    int count = 0;
+    while (iterator.hasNext()) {
+      Assert.assertEquals(before.get(count++), iterator.next());
+    }
+    Assert.assertEquals(2000, count);
+  }
+
+  /**
+   * Tests that the log cannot be changed other than by adding messages.
+   */
+  @Category(UnitTest.class)
+  @Test(expected = UnsupportedOperationException.class)
+  public void testAppendOnly() {
+    MessageLog log = new MessageLog(createMessages(10));
+    log.remove(0);
+  }
+
+  /**
+   * Tests that the messages of a whole brewing process are appended in the same order as to the
+   * CopyOnWriteArrayList which was used before.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testAppendBrewingProcess() {
+    List<Message> messages = createMessages(BREWING_MESSAGES);
+    List<Message> copyOnWrite = new CopyOnWriteArrayList<Message>();
+    List<Message> messageLog = new MessageLog();
+    for (Message message : messages) {
+      copyOnWrite.add(message);
+      messageLog.add(message);
+    }
+    Assert.assertEquals(copyOnWrite, messageLog);
+  }
+
+  /**
+   * Compares appending the messages of a whole brewing process to the message log and to the
+   * CopyOnWriteArrayList which was used before, and reports the best time of several runs. Only a
+   * report, the times depend on the machine.
+   */
+  @Category(PerformanceTest.class)
+  @Test
+  public void testAppendPerformance() {
+    List<Message> messages = createMessages(BREWING_MESSAGES);
+    long copyOnWriteTime = Long.MAX_VALUE;
+    long messageLogTime = Long.MAX_VALUE;
+    for (int run = 0; run < 5; run++) {
+      long start = System.nanoTime();
+      List<Message> copyOnWrite = new CopyOnWriteArrayList<Message>();
+      for (Message message : messages) {
+        copyOnWrite.add(message);
+      }
+      copyOnWriteTime = Math.min(copyOnWriteTime, System.nanoTime() - start);
+
+      start = System.nanoTime();
+      List<Message> messageLog = new MessageLog();
+      for (Message message : messages) {
+        messageLog.add(message);
+      }
+      messageLogTime = Math.min(messageLogTime, System.nanoTime() - start);
+    }
+    LOGGER.info(String.format(
+        "Appending %d messages: CopyOnWriteArrayList %.2f ms, MessageLog %.2f ms",
+        BREWING_MESSAGES, copyOnWriteTime / 1e6, messageLogTime / 1e6));
+  }
+}
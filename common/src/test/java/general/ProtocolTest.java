@@ -13,6 +13,7 @@ import messages.BrewingStartMessage;
 import messages.ConfirmationMessage;
 import messages.ConfirmationRequestMessage;
 import messages.Message;
+import messages.TemperatureMessage;
 
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -77,4 +78,55 @@ public class ProtocolTest {
     Assert.assertFalse(protocol.getCompletionTime() == -1);
 
   }
+
+  /**
+   * Verifies that a confirmation answers every unconfirmed request of its step and that requests
+   * of other steps stay unconfirmed
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testConfirmationPairing() {
+    BrewingLog log = new BrewingLog(DummyBuilder.getRealisticRecipe(), 1);
+    BrewingState mashing = new BrewingState(Type.REQUEST, State.MASHING, Position.ADDING);
+    BrewingState hopCooking = new BrewingState(Type.REQUEST, State.HOP_COOKING, Position.ADDING);
+    log.log(new ConfirmationRequestMessage(mashing));
+    log.log(new ConfirmationRequestMessage(hopCooking));
+    log.log(new ConfirmationRequestMessage(mashing));
+    ConfirmationMessage confirmation =
+        new ConfirmationMessage(new BrewingState(Type.NORMAL, State.LAUTERING, Position.ONGOING),
+            mashing);
+    log.log(confirmation);
+    Protocol protocol = new Protocol(log);
+    Assert.assertEquals(3, protocol.getRequests().size());
+    Assert.assertSame(confirmation, protocol.getRequests().get(0).getSecond());
+    Assert.assertNull(protocol.getRequests().get(1).getSecond());
+    Assert.assertSame(confirmation, protocol.getRequests().get(2).getSecond());
+  }
+
+  /**
+   * Verifies that the protocol of a log is only created again if the log changed and that it
+   * cannot be modified
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testProtocolCache() {
+    BrewingLog log = new BrewingLog(DummyBuilder.getRealisticRecipe(), 1);
+    log.log(new BrewingStartMessage("beer"));
+    Protocol protocol = log.getProtocol();
+    Assert.assertSame(protocol, log.getProtocol());
+    Assert.assertEquals(protocol, new Protocol(log));
+
+    log.log(new TemperatureMessage(50));
+    Protocol changed = log.getProtocol();
+    Assert.assertNotSame(protocol, changed);
+    Assert.assertEquals(protocol.getAllMessages().size() + 1, changed.getAllMessages().size());
+    Assert.assertSame(changed, log.getProtocol());
+
+    try {
+      changed.getRequests().add(null);
+      Assert.fail("the requests of a protocol must not be modifiable");
+    } catch (UnsupportedOperationException e) {
+      /* expected */
+    }
+  }
 }
@@ -0,0 +1,163 @@
+/*
+ *
+ */
+package general;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+
+import junit.framework.Assert;
+import messages.Message;
+import messages.TemperatureMessage;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import categories.UnitTest;
+
+/**
+ * Tests the storage, lookup and encoding of temperature series.
+ */
+public class TemperatureSeriesTest {
+
+  /**
+   * Creates a series with regular readings and a few irregular ones (changed interval, repeated and
+   * negative temperatures).
+   *
+   * @param count number of readings
+   * @return the series
+   */
+  private TemperatureSeries createSeries(final int count) {
+    TemperatureSeries series = new TemperatureSeries();
+    long time = 1418000000000L;
+    for (int i = 0; i < count; i++) {
+      time += i % 100 == 0 ? 1337 : 2000;
+      float temperature = i % 7 == 0 ? -5.5f : 20 + (i % 1000) * 0.0625f;
+      series.add(time, temperature);
+    }
+    return series;
+  }
+
+  /**
+   * Tests that readings are stored in order across several chunks and that the search for the
+   * first reading since a time works.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testAddAndIndexOf() {
+    TemperatureSeries series = createSeries(3000);
+    Assert.assertEquals(3000, series.size());
+    for (int i = 1; i < series.size(); i++) {
+      Assert.assertTrue(series.getTime(i) > series.getTime(i - 1));
+    }
+    Assert.assertEquals(0, series.indexOf(0));
+    Assert.assertEquals(2500, series.indexOf(series.getTime(2500)));
+    Assert.assertEquals(2501, series.indexOf(series.getTime(2500) + 1));
+    Assert.assertEquals(3000, series.indexOf(Long.MAX_VALUE));
+    Assert.assertEquals(0, new TemperatureSeries().indexOf(0));
+  }
+
+  /**
+   * Tests that ranges of readings are copied correctly across chunk borders.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testCopyRange() {
+    TemperatureSeries series = createSeries(3000);
+    long[] times = new long[2500];
+    float[] temperatures = new float[2501];
+    series.copyTimes(400, 2900, times, 0);
+    series.copyTemperatures(400, 2900, temperatures, 1);
+    for (int i = 0; i < 2500; i++) {
+      Assert.assertEquals(series.getTime(400 + i), times[i]);
+      Assert.assertEquals(series.getTemperature(400 + i), temperatures[i + 1]);
+    }
+  }
+
+  /**
+   * Tests that the encoded series is read back without any loss and that it is much smaller than
+   * the readings themselves.
+   *
+   * @throws IOException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testEncoding() throws IOException {
+    for (int count : Arrays.asList(0, 1, 2, 3000)) {
+      TemperatureSeries series = createSeries(count);
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      series.write(out);
+      TemperatureSeries read = TemperatureSeries.read(ByteBuffer.wrap(out.toByteArray()));
+      Assert.assertEquals(series, read);
+      Assert.assertEquals(series.hashCode(), read.hashCode());
+      if (count > 100) {
+        Assert.assertTrue(out.size() < count * 5);
+      }
+    }
+  }
+
+  /**
+   * Tests that a broken encoding is detected.
+   */
+  @Category(UnitTest.class)
+  @Test(expected = IOException.class)
+  public void testTruncatedEncoding() throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    createSeries(10).write(out);
+    TemperatureSeries.read(ByteBuffer.wrap(Arrays.copyOf(out.toByteArray(), out.size() - 3)));
+  }
+
+  /**
+   * Tests that only plain readings are detected as readings and that they are recreated exactly.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testReadings() {
+    TemperatureMessage reading = new TemperatureMessage(63.5f);
+    reading.setMessage(TemperatureSeries.describe(63.5f));
+    Assert.assertTrue(TemperatureSeries.isReading(reading));
+
+    TemperatureSeries series = new TemperatureSeries();
+    series.add(reading);
+    Message recreated = series.getMessage(0);
+    Assert.assertEquals(reading, recreated);
+    Assert.assertEquals(63.5f, ((TemperatureMessage) recreated).getTemperature());
+    Assert.assertEquals(1, series.toMessages(0).size());
+    Assert.assertEquals(0, series.toMessages(1).size());
+
+    TemperatureMessage other = new TemperatureMessage(63.5f);
+    other.setMessage("Boiling soon");
+    Assert.assertFalse(TemperatureSeries.isReading(other));
+    reading.setPriority(MessagePriority.HIGH);
+    Assert.assertFalse(TemperatureSeries.isReading(reading));
+    Assert.assertFalse(TemperatureSeries.isReading(new Message("test")));
+  }
+
+  /**
+   * Tests that readings are detected and recreated with the same text whatever the default locale
+   * is, e.g. when a log is written with a German locale and read with an English one.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testReadingsIndependentOfLocale() {
+    Locale defaultLocale = Locale.getDefault();
+    try {
+      Locale.setDefault(Locale.GERMANY);
+      TemperatureMessage reading = new TemperatureMessage(63.5f);
+      reading.setMessage(TemperatureSeries.describe(63.5f));
+      Assert.assertEquals("The current temperature has changed to 63.500000.",
+          reading.getMessage());
+
+      Locale.setDefault(Locale.US);
+      Assert.assertTrue(TemperatureSeries.isReading(reading));
+      TemperatureSeries series = new TemperatureSeries();
+      series.add(reading);
+      Assert.assertEquals(reading, series.getMessage(0));
+    } finally {
+      Locale.setDefault(defaultLocale);
+    }
+  }
+}
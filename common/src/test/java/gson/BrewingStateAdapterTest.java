@@ -181,9 +181,9 @@ public class BrewingStateAdapterTest extends SerializerTest {
         .getArrayListOfBrewingStatesSortedByTime(maltAdditions));
 
     BrewingStateAdapter bsa = new BrewingStateAdapter();
-    JsonElement requestJson = bsa.serialize(maltAdditionRequest, null, null);
+    JsonElement requestJson = bsa.toJsonTree(maltAdditionRequest);
 
-    BrewingState maltAdditionResponse = bsa.deserialize(requestJson, null, null);
+    BrewingState maltAdditionResponse = bsa.fromJsonTree(requestJson);
     Object data = maltAdditionResponse.getData();
 
     Collection<MaltAddition> responseMaltAdditions =
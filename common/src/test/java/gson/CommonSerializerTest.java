@@ -3,20 +3,39 @@ package gson;
 import junit.framework.Assert;
 import general.BrewingLog;
 import general.BrewingProcess;
+import general.BrewingProcessSummary;
+import general.BrewingProcessSummary.TemperatureLevelInfo;
+import general.BrewingState;
 import general.HopAddition;
 import general.MaltAddition;
 import general.Protocol;
 import general.Recipe;
+import general.TemperatureHistory;
+import general.TemperatureSeries;
 import messages.BrewingAbortedMessage;
+import messages.Message;
+import messages.TemperatureMessage;
 
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.rules.ExpectedException;
 
 import utilities.DummyBuilder;
+import categories.PerformanceTest;
 import categories.UnitTest;
 
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.reflect.TypeToken;
+
 /**
  * This class tests a few objects from the common project which might not have an own
  * serialization-adapter but still need to be send via network
@@ -26,6 +45,9 @@ import categories.UnitTest;
  */
 public class CommonSerializerTest extends SerializerTest {
 
+  /** Logger which reports the measured times */
+  private static final Logger LOGGER = LogManager.getLogger();
+
   /**
    * Exception which should occur
    */
@@ -59,7 +81,7 @@ public class CommonSerializerTest extends SerializerTest {
   @Test
   public void testNullPointerExceptionBrewingProcess() {
     BrewingProcess process = DummyBuilder.getBrewingProcess();
-    process.getBrewingLog().getMessages().add(new BrewingAbortedMessage("Test reason"));
+    process.getBrewingLog().log(new BrewingAbortedMessage("Test reason"));
     String nullPointerThrough = Serializer.getInstance().toJson(process);
     BrewingProcess newProcess =
         Serializer.getInstance().fromJson(nullPointerThrough, BrewingProcess.class);
@@ -75,6 +97,51 @@ public class CommonSerializerTest extends SerializerTest {
     genericTest(DummyBuilder.getBrewingLog(), BrewingLog.class);
   }
 
+  /**
+   * Tests that the temperature readings of a brewing log are still sent within the messages, but
+   * left out if the log is stored together with its temperature series.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testLogWithReadings() {
+    BrewingLog log = DummyBuilder.getBrewingLog();
+    for (int i = 0; i < 10; i++) {
+      TemperatureMessage reading = new TemperatureMessage(20 + i);
+      reading.setMessage(TemperatureSeries.describe(20 + i));
+      log.log(reading);
+    }
+    genericTest(log, BrewingLog.class);
+    JsonObject json = gson.toJsonTree(log, BrewingLog.class).getAsJsonObject();
+    Assert.assertEquals(log.getMessages().size(), json.get("messages").getAsJsonArray().size());
+
+    Gson storageGson = Serializer.getLogStorageInstance();
+    BrewingLog stored = storageGson.fromJson(storageGson.toJson(log), BrewingLog.class);
+    Assert.assertEquals(log.getNonReadingMessages(), stored.getMessages());
+    Assert.assertTrue(stored.getTemperatures().isEmpty());
+  }
+
+  /**
+   * Tests that a temperature history is sent in the same format as a map of times and
+   * temperatures.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testTemperatureHistory() {
+    TemperatureHistory history =
+        new TemperatureHistory(new long[] {1000, 2000, 3000}, new float[] {20.1f, 63.4375f, -1});
+    Map<Long, Float> map = new TreeMap<Long, Float>();
+    for (int i = 0; i < history.size(); i++) {
+      map.put(history.getTime(i), history.getTemperature(i));
+    }
+    Type mapType = new TypeToken<Map<Long, Float>>() {
+      /* Needs to be an empty block */
+    }.getType();
+    String json = gson.toJson(history, TemperatureHistory.class);
+    Assert.assertEquals(gson.toJson(map, mapType), json);
+    Assert.assertEquals(map, gson.fromJson(json, mapType));
+    genericTest(history, TemperatureHistory.class);
+  }
+
   /**
    * Test to serialize and deserialize a hop addition.
    */
@@ -110,4 +177,100 @@ public class CommonSerializerTest extends SerializerTest {
   public void testRecipe() {
     genericTest(DummyBuilder.getRecipe(), Recipe.class);
   }
+
+  /**
+   * Tests that the brewing process summary is written the same way as by reflection and read back
+   * without any loss.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testBrewingProcessSummary() {
+    BrewingProcessSummary summary = new BrewingProcessSummary(BrewingState.fromValue(212));
+    summary.setStartTimeMashing(1418000000000L);
+    summary.setRecipeId("recipe <1>");
+    summary.getTemperatureLevelInfo().add(
+        new TemperatureLevelInfo(0, 0, 60000, 63.1f, true, 1418000000000L));
+    summary.getTemperatureLevelInfo().add(new TemperatureLevelInfo(1, 60000, 1000, 72, false, -1));
+
+    Gson reflection = Serializer.getBrewingStateAdapterGson();
+    String json = gson.toJson(summary, BrewingProcessSummary.class);
+    Assert.assertEquals(reflection.toJson(summary), json);
+    BrewingProcessSummary read = gson.fromJson(json, BrewingProcessSummary.class);
+    Assert.assertEquals(summary.getBrewingState(), read.getBrewingState());
+    Assert.assertEquals(json, gson.toJson(read, BrewingProcessSummary.class));
+    Assert.assertEquals(json, gson.toJson(reflection.fromJson(json, BrewingProcessSummary.class),
+        BrewingProcessSummary.class));
+  }
+
+  /**
+   * Tests that the Gson-Instances are shared instead of being created for every request and every
+   * message.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testSharedInstances() {
+    Assert.assertSame(Serializer.getInstance(), Serializer.getInstance());
+    Assert.assertSame(Serializer.getInstance(), Serializer.getInstance(null));
+    Assert.assertSame(Serializer.getInstance(Serializer.MESSAGE_FORMAT_FLAT),
+        Serializer.getInstance(Serializer.MESSAGE_FORMAT_FLAT));
+    Assert.assertSame(Serializer.getLogStorageInstance(), Serializer.getLogStorageInstance());
+    Assert.assertSame(Serializer.getBrewingStateAdapterGson(),
+        Serializer.getBrewingStateAdapterGson());
+  }
+
+  /**
+   * Compares serializing a brewing log and brewing process summaries with the shared Gson-Instance
+   * to creating a Gson-Instance for each of them (as it was done before for every request and
+   * every message), and reports how fast a log is written for storage. Only a report, the times
+   * depend on the machine.
+   */
+  @Category(PerformanceTest.class)
+  @Test
+  public void testSerializationPerformance() {
+    BrewingLog log = DummyBuilder.getBrewingLog();
+    for (int i = 0; i < 20000; i++) {
+      TemperatureMessage message = new TemperatureMessage(20 + (i % 500) * 0.1f);
+      message.setMessage(TemperatureSeries.describe(message.getTemperature()));
+      log.log(message);
+    }
+    BrewingProcessSummary summary = new BrewingProcessSummary(BrewingState.fromValue(212));
+    summary.getTemperatureLevelInfo().add(new TemperatureLevelInfo(0, 0, 60000, 63, true, 0));
+
+    long start = System.nanoTime();
+    for (Message message : log.getMessages()) {
+      new GsonBuilder().registerTypeAdapter(BrewingState.class, new BrewingStateAdapter()).create()
+          .toJson(message);
+    }
+    for (int i = 0; i < 1000; i++) {
+      new GsonBuilder().registerTypeAdapter(BrewingState.class, new BrewingStateAdapter()).create()
+          .toJson(summary);
+    }
+    long perInstanceTime = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    Serializer.getInstance().toJson(log, BrewingLog.class);
+    for (int i = 0; i < 1000; i++) {
+      Serializer.getInstance().toJson(summary, BrewingProcessSummary.class);
+    }
+    long sharedTime = System.nanoTime() - start;
+    LOGGER.info(String.format("Serializing: Gson per object %.2f ms, shared Gson %.2f ms",
+        perInstanceTime / 1e6, sharedTime / 1e6));
+
+    /* readings are stored separately, so the stored log consists of other messages */
+    BrewingLog stored = DummyBuilder.getBrewingLog();
+    long time = System.currentTimeMillis();
+    for (int i = 0; i < 20000; i++) {
+      stored.log(new Message("Message " + i, time + i * 1500L));
+    }
+    Gson storageGson = Serializer.getLogStorageInstance();
+    long storageTime = Long.MAX_VALUE;
+    int length = 0;
+    for (int run = 0; run < 5; run++) {
+      start = System.nanoTime();
+      length = storageGson.toJson(stored, BrewingLog.class).length();
+      storageTime = Math.min(storageTime, System.nanoTime() - start);
+    }
+    LOGGER.info(String.format("Storing a log with %d messages: %.2f ms for %d kB",
+        stored.getNonReadingMessages().size(), storageTime / 1e6, length / 1024));
+  }
 }
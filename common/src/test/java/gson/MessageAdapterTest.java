@@ -3,14 +3,19 @@ package gson;
 import general.BrewingState;
 import general.BrewingState.State;
 import general.HopAddition;
+import general.MessagePriority;
 import general.Unit;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+
+import junit.framework.Assert;
 
 import messages.ConfirmationRequestMessage;
 import messages.Message;
 import messages.PreNotificationMessage;
+import messages.TemperatureMessage;
 
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
@@ -18,6 +23,10 @@ import org.junit.experimental.categories.Category;
 import utilities.DummyBuilder;
 import categories.UnitTest;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
 /**
  * Tests the correct serialization and deserialization of the message-object
  * 
@@ -76,4 +85,81 @@ public class MessageAdapterTest extends SerializerTest {
     genericTest(m, Message.class);
     
   }
+
+  /**
+   * Tests that plain messages and temperature messages are written and read the same way as by
+   * reflection.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testHandWrittenMessages() {
+    Gson reflection = Serializer.getBrewingStateAdapterGson();
+    TemperatureMessage temperature = new TemperatureMessage(63.1f);
+    temperature.setMessage("<b>\"63.1\" & rising</b>");
+    TemperatureMessage withoutText = new TemperatureMessage(-0.5f);
+    withoutText.setPriority(null);
+    Message message = new Message("Mashing 'started'", 1418000000000L);
+    message.setPriority(MessagePriority.HIGH);
+    for (Message m : new Message[] {temperature, withoutText, message, new Message()}) {
+      genericTest(m, Message.class);
+      JsonObject json = gson.toJsonTree(m, Message.class).getAsJsonObject();
+      Assert.assertEquals(reflection.toJson(m), json.get("data").getAsString());
+      Assert.assertEquals(reflection.fromJson(json.get("data").getAsString(), m.getClass()),
+          gson.fromJson(json, Message.class));
+    }
+
+    PreNotificationMessage preNotification =
+        new PreNotificationMessage(BrewingState.fromValue(333), temperature, 0);
+    genericTest(preNotification, Message.class);
+
+    String partial = "{\"type\":\"TemperatureMessage\",\"data\":\"{\\\"temperature\\\":20.5}\"}";
+    Assert.assertEquals(reflection.fromJson("{\"temperature\":20.5}", TemperatureMessage.class),
+        gson.fromJson(partial, Message.class));
+    Assert.assertNull(gson.fromJson("{\"type\":\"Message\"}", Message.class));
+  }
+
+  /**
+   * Tests that messages are written in the flat format without nested json strings and that both
+   * formats are read.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testFlatFormat() {
+    Gson flatGson = Serializer.getInstance(Serializer.MESSAGE_FORMAT_FLAT);
+    List<Message> messages = new ArrayList<Message>();
+    for (int i = 0; i < 7; i++) {
+      messages.add(DummyBuilder.getMessage(i));
+    }
+    TemperatureMessage temperature = new TemperatureMessage(63.1f);
+    temperature.setMessage("<b>\"63.1\" & rising</b>");
+    messages.add(temperature);
+    messages.add(new Message("Mashing 'started'", 1418000000000L));
+    messages.add(new PreNotificationMessage(BrewingState.fromValue(333), temperature, 0));
+    messages.add(DummyBuilder.getConfirmationRequestMessage());
+
+    for (Message m : messages) {
+      String flat = flatGson.toJson(m, Message.class);
+      String legacy = gson.toJson(m, Message.class);
+      JsonObject flatJson = flatGson.toJsonTree(m, Message.class).getAsJsonObject();
+      Assert.assertEquals(m.getClass().getSimpleName(), flatJson.get("type").getAsString());
+      Assert.assertFalse(flatJson.has("data"));
+      Assert.assertTrue(flat.length() < legacy.length());
+      Assert.assertEquals(m, flatGson.fromJson(flat, Message.class));
+      Assert.assertEquals(m, gson.fromJson(flat, Message.class));
+      Assert.assertEquals(m, flatGson.fromJson(legacy, Message.class));
+      Assert.assertEquals(flat, flatGson.toJson(flatGson.fromJson(flat, Message.class), Message.class));
+
+      /* the type does not have to be the first attribute */
+      JsonObject reordered = new JsonObject();
+      for (Map.Entry<String, JsonElement> entry : flatJson.entrySet()) {
+        if (!"type".equals(entry.getKey())) {
+          reordered.add(entry.getKey(), entry.getValue());
+        }
+      }
+      reordered.add("type", flatJson.get("type"));
+      Assert.assertEquals(m, flatGson.fromJson(reordered.toString(), Message.class));
+    }
+    Assert.assertEquals(temperature, ((PreNotificationMessage) flatGson.fromJson(
+        flatGson.toJson(messages.get(9), Message.class), Message.class)).getContent());
+  }
 }
@@ -3,15 +3,20 @@
  */
 package parser;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 
 import junit.framework.Assert;
 
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
 import utilities.DummyBuilder;
+import categories.PerformanceTest;
 import categories.UnitTest;
 import exceptions.RecipeParseException;
 import general.HopAddition;
@@ -29,6 +34,9 @@ import general.RecipeSummary;
  */
 public class RecipeWriterReaderTest {
 
+  /** Logger which reports the measured throughput */
+  private static final Logger LOGGER = LogManager.getLogger();
+
   /** The writer which is used to write recipes. */
   private RecipeWriter writer;
 
@@ -165,4 +173,88 @@ public class RecipeWriterReaderTest {
     testRecipe(myRecipe);
   }
 
+  /**
+   * Tests that the summary is read from a stream and that the document is only read up to the end
+   * of the summary.
+   *
+   * @throws RecipeParseException Thrown if parsing / converting failed
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testSummaryFromStream() throws RecipeParseException {
+    Recipe myRecipe = DummyBuilder.getRealisticRecipe();
+    String recipeString = writer.convertRecipeToXml(myRecipe);
+    RecipeSummary summary =
+        reader.getRecipeSummary(new ByteArrayInputStream(recipeString
+            .getBytes(StandardCharsets.UTF_8)));
+    summary.setId(myRecipe.getId());
+    testRecipeWithSummary(myRecipe, summary);
+
+    /* the plans behind the summary are not needed, even if they are broken */
+    String truncated =
+        recipeString.substring(0, recipeString.indexOf("</" + RecipeConstants.RECIPE_SUMMARY))
+            + "</" + RecipeConstants.RECIPE_SUMMARY + "><" + RecipeConstants.MASHPLAN_NODE + ">";
+    summary = reader.getRecipeSummaryByString(truncated);
+    summary.setId(myRecipe.getId());
+    testRecipeWithSummary(myRecipe, summary);
+  }
+
+  /**
+   * Tests reading the summary and the full recipe of a large recipe.
+   *
+   * @throws RecipeParseException Thrown if parsing / converting failed
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testLargeRecipe() throws RecipeParseException {
+    Recipe myRecipe = DummyBuilder.getRealisticRecipe();
+    for (int i = 0; i < 2000; i++) {
+      myRecipe.getMashingPlan().getMaltAdditions().add(DummyBuilder.getMaltAddition());
+      myRecipe.getHopCookingPlan().getHopAdditions().add(DummyBuilder.getHopAddition());
+    }
+    byte[] recipeBytes = writer.convertRecipeToXml(myRecipe).getBytes(StandardCharsets.UTF_8);
+
+    RecipeSummary summary = reader.getRecipeSummary(new ByteArrayInputStream(recipeBytes));
+    summary.setId(myRecipe.getId());
+    testRecipeWithSummary(myRecipe, summary);
+
+    Recipe recipe = reader.getRecipeByString(new String(recipeBytes, StandardCharsets.UTF_8));
+    Assert.assertEquals(myRecipe.getMashingPlan().getMaltAdditions().size(), recipe
+        .getMashingPlan().getMaltAdditions().size());
+    Assert.assertEquals(myRecipe.getHopCookingPlan().getHopAdditions().size(), recipe
+        .getHopCookingPlan().getHopAdditions().size());
+  }
+
+  /**
+   * Compares the throughput of reading the summaries and the full recipes of large recipes. Only
+   * a report, the throughput depends on the machine.
+   *
+   * @throws RecipeParseException Thrown if parsing / converting failed
+   */
+  @Category(PerformanceTest.class)
+  @Test
+  public void testSummaryParsePerformance() throws RecipeParseException {
+    Recipe myRecipe = DummyBuilder.getRealisticRecipe();
+    for (int i = 0; i < 2000; i++) {
+      myRecipe.getMashingPlan().getMaltAdditions().add(DummyBuilder.getMaltAddition());
+      myRecipe.getHopCookingPlan().getHopAdditions().add(DummyBuilder.getHopAddition());
+    }
+    byte[] recipeBytes = writer.convertRecipeToXml(myRecipe).getBytes(StandardCharsets.UTF_8);
+    String recipeString = new String(recipeBytes, StandardCharsets.UTF_8);
+    int runs = 50;
+
+    long start = System.nanoTime();
+    for (int i = 0; i < runs; i++) {
+      reader.getRecipeByString(recipeString);
+    }
+    long recipeTime = System.nanoTime() - start;
+
+    start = System.nanoTime();
+    for (int i = 0; i < runs; i++) {
+      reader.getRecipeSummary(new ByteArrayInputStream(recipeBytes));
+    }
+    long summaryTime = System.nanoTime() - start;
+    LOGGER.info(String.format("Parsing %d kB: full recipe %.0f/s, summary %.0f/s",
+        recipeBytes.length / 1024, runs / (recipeTime / 1e9), runs / (summaryTime / 1e9)));
+  }
 }
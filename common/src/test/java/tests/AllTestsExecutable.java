@@ -2,7 +2,9 @@ package tests;
 
 import general.HopCookingPlanTest;
 import general.MashingPlanTest;
+import general.MessageLogTest;
 import general.RecipeTest;
+import general.TemperatureSeriesTest;
 import gson.BrewingStateAdapterTest;
 import gson.CommonSerializerTest;
 import gson.MessageAdapterTest;
@@ -21,7 +23,8 @@ import utilities.CollectionUtilTest;
 @RunWith(Categories.class)
 @SuiteClasses({BrewingStateAdapterTest.class, CommonSerializerTest.class, MessageAdapterTest.class,
     CollectionUtilTest.class, RecipeWriterReaderTest.class, SerializerTest.class,
-    HopCookingPlanTest.class, MashingPlanTest.class, RecipeTest.class})
+    HopCookingPlanTest.class, MashingPlanTest.class, RecipeTest.class,
+    TemperatureSeriesTest.class, MessageLogTest.class})
 public class AllTestsExecutable {
   /*
    * has to be empty
@@ -0,0 +1,57 @@
+package utilities;
+
+import java.util.Properties;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import categories.UnitTest;
+
+/**
+ * Tests the migration of renamed properties of the property-util class
+ */
+public class PropertyUtilTest {
+
+  /**
+   * Tests that the former temperature delta is taken over as the error bound of the temperature
+   * logging if the settings file does not contain the error bound.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testLegacyTemperatureDelta() {
+    Properties properties = new Properties();
+    properties.setProperty(PropertyUtil.TEMPERATURE_LOGGING_TEMP_DELTA_PROPERTY, "3");
+    PropertyUtil.migrateLegacyProperties(properties);
+    Assert.assertEquals("3", PropertyUtil.getProperty(
+        PropertyUtil.TEMPERATURE_LOGGING_ERROR_BOUND_PROPERTY, properties));
+  }
+
+  /**
+   * Tests that an error bound which is set explicitly is kept although the former temperature
+   * delta is set as well.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testExplicitErrorBound() {
+    Properties properties = new Properties();
+    properties.setProperty(PropertyUtil.TEMPERATURE_LOGGING_TEMP_DELTA_PROPERTY, "3");
+    properties.setProperty(PropertyUtil.TEMPERATURE_LOGGING_ERROR_BOUND_PROPERTY, "1");
+    PropertyUtil.migrateLegacyProperties(properties);
+    Assert.assertEquals("1", PropertyUtil.getProperty(
+        PropertyUtil.TEMPERATURE_LOGGING_ERROR_BOUND_PROPERTY, properties));
+  }
+
+  /**
+   * Tests that nothing is taken over if the former temperature delta is not set.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testWithoutLegacyProperty() {
+    Properties properties = new Properties();
+    PropertyUtil.migrateLegacyProperties(properties);
+    Assert.assertNull(properties
+        .getProperty(PropertyUtil.TEMPERATURE_LOGGING_ERROR_BOUND_PROPERTY));
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ *
+ */
+package components;
+
+import general.BeepPattern;
+import interfaces.IRelaisOutput;
+
+import java.util.LinkedList;
+import java.util.ListIterator;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+
+/**
+ * Plays beep patterns one after another on a single thread, so beeps never overlap on the pin. The
+ * pending patterns are queued by priority (in the order they were sent within a priority). A
+ * pattern which is already pending is not queued again, and if the queue is full the newest
+ * pattern of the lowest priority is dropped. A pattern of a higher priority than the playing one
+ * interrupts it; the interrupted pattern is not continued.
+ */
+public class BeepSequencer {
+
+  /** Global logger to log the interaction with the sequencer. */
+  public static final Logger LOGGER = LogManager.getLogger();
+
+  /** Default number of pending patterns */
+  public static final int DEFAULT_CAPACITY = 8;
+
+  /** Pause between two patterns in milliseconds */
+  public static final long PATTERN_PAUSE = 500;
+
+  /** Output which switches the beeper */
+  private final IRelaisOutput output;
+
+  /** Maximal number of pending patterns */
+  private final int capacity;
+
+  /** The pending patterns, the highest priority first */
+  private final LinkedList<BeepPattern> queue = new LinkedList<BeepPattern>();
+
+  /** The playing pattern (or null) */
+  private BeepPattern playing = null;
+
+  /** Whether the playing pattern has to stop */
+  private boolean interrupted = false;
+
+  /** Number of patterns which were not queued because they were already pending */
+  private long merged = 0;
+
+  /** Number of patterns which were dropped because the queue was full */
+  private long dropped = 0;
+
+  /** Number of patterns which were interrupted */
+  private long preempted = 0;
+
+  /**
+   * Creates a sequencer and starts its thread.
+   *
+   * @param output output which switches the beeper
+   * @param capacity maximal number of pending patterns
+   */
+  public BeepSequencer(final IRelaisOutput output, final int capacity) {
+    this.output = output;
+    this.capacity = capacity;
+    Thread thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        playPatterns();
+      }
+    }, "BeepSequencer");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Queues a pattern.
+   *
+   * @param pattern the pattern
+   * @return true if the pattern was queued, false if it was already pending or dropped
+   */
+  public synchronized boolean submit(final BeepPattern pattern) {
+    if (queue.contains(pattern)) {
+      merged++;
+      return false;
+    }
+    if (queue.size() >= capacity) {
+      BeepPattern lowest = queue.getLast();
+      if (lowest.getPriority() >= pattern.getPriority()) {
+        dropped++;
+        LOGGER.warn("Beep queue full, dropped {}", pattern);
+        return false;
+      }
+      queue.removeLast();
+      dropped++;
+      LOGGER.warn("Beep queue full, dropped {}", lowest);
+    }
+    ListIterator<BeepPattern> position = queue.listIterator();
+    while (position.hasNext()) {
+      if (position.next().getPriority() < pattern.getPriority()) {
+        position.previous();
+        break;
+      }
+    }
+    position.add(pattern);
+    if (playing != null && !interrupted && pattern.getPriority() > playing.getPriority()) {
+      interrupted = true;
+      preempted++;
+    }
+    notifyAll();
+    return true;
+  }
+
+  /**
+   * Stops the playing pattern and forgets the pending ones.
+   */
+  public synchronized void cancel() {
+    queue.clear();
+    if (playing != null) {
+      interrupted = true;
+    }
+    notifyAll();
+  }
+
+  /**
+   * Plays the queued patterns until the thread is interrupted.
+   */
+  private void playPatterns() {
+    try {
+      while (true) {
+        BeepPattern pattern;
+        synchronized (this) {
+          while (queue.isEmpty()) {
+            wait();
+          }
+          pattern = queue.removeFirst();
+          playing = pattern;
+          interrupted = false;
+        }
+        try {
+          boolean completed = true;
+          for (int i = 0; i < pattern.getLength() && completed; i++) {
+            /* stops if interrupted by a pattern of a higher priority or cancelled */
+            completed = pause(pattern.getDuration(i), pattern.isBeep(i));
+          }
+          if (completed) {
+            /* the pause to the next pattern may also be interrupted */
+            pause(PATTERN_PAUSE, false);
+          }
+        } finally {
+          output.write(false);
+        }
+        synchronized (this) {
+          playing = null;
+          interrupted = false;
+        }
+      }
+    } catch (InterruptedException e) {
+      LOGGER.info("BeepSequencer stopped");
+    }
+  }
+
+  /**
+   * Switches the beeper and waits until the duration is over or the pattern is interrupted.
+   *
+   * @param duration duration in milliseconds
+   * @param beep whether the beeper is switched on
+   * @return true if the duration is over, false if the pattern was interrupted
+   * @throws InterruptedException if the thread is interrupted
+   */
+  private boolean pause(final long duration, final boolean beep) throws InterruptedException {
+    output.write(beep);
+    long end = System.currentTimeMillis() + duration;
+    synchronized (this) {
+      long remaining = duration;
+      while (!interrupted && remaining > 0) {
+        wait(remaining);
+        remaining = end - System.currentTimeMillis();
+      }
+      return !interrupted;
+    }
+  }
+
+  /**
+   * Returns the number of patterns which were not queued because they were already pending.
+   *
+   * @return number of patterns
+   */
+  public synchronized long getMerged() {
+    return merged;
+  }
+
+  /**
+   * Returns the number of patterns which were dropped because the queue was full.
+   *
+   * @return number of patterns
+   */
+  public synchronized long getDropped() {
+    return dropped;
+  }
+
+  /**
+   * Returns the number of patterns which were interrupted by a pattern of a higher priority.
+   *
+   * @return number of patterns
+   */
+  public synchronized long getPreempted() {
+    return preempted;
+  }
+
+  /**
+   * Returns the number of pending patterns.
+   *
+   * @return number of patterns
+   */
+  public synchronized int getPending() {
+    return queue.size();
+  }
+}
@@ -0,0 +1,245 @@
+/*
+ *
+ */
+package components;
+
+import interfaces.IMultiThermometerReader;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import utilities.PropertyUtil;
+import exceptions.TemperatureNotReadableException;
+
+
+/**
+ * Thermometer-Reader for all DS18B20 sensors in the sensor folder. The sensors are read at the
+ * same time on a small executor, so a measurement takes as long as the slowest conversion instead
+ * of the sum of all conversions. A sensor which fails or does not answer in time is left out of
+ * the measurement; the measurement only fails if no sensor could be read. The sensors are resolved
+ * again after a sensor failed.
+ */
+public class MultiThermometerReader implements IMultiThermometerReader {
+
+  /**
+   * How the temperatures of the sensors are combined into one temperature.
+   */
+  public enum Aggregation {
+    /** median of all temperatures */
+    MEDIAN,
+    /** mean of all temperatures */
+    MEAN,
+    /** mean of the temperatures which are close to the median */
+    OUTLIER_REJECTED_MEAN
+  }
+
+  /** The logger which saves all the information into log files */
+  private static final Logger LOGGER = LogManager.getLogger();
+
+  /** Maximal number of threads which read the sensors */
+  private static final int MAX_THREADS = 4;
+
+  /** Time a sensor may take for a measurement (a conversion takes up to 750 ms) */
+  private static final long SENSOR_TIMEOUT_MILLIS = 1000;
+
+  /** Temperatures which differ more than this from the median are rejected as outliers */
+  public static final float OUTLIER_DELTA = 2.0f;
+
+  /** Folder which contains the sensor devices */
+  private final String tempSensorBaseFolderName;
+
+  /** How the temperatures are combined */
+  private final Aggregation aggregation;
+
+  /** The executor which reads the sensors */
+  private final ExecutorService executor;
+
+  /** Reader of every sensor by sensor id */
+  private Map<String, ThermometerReader> readers = Collections.emptyMap();
+
+  /** Whether the sensors have to be resolved before the next measurement */
+  private boolean resolve = true;
+
+  /** Temperatures of the sensors of the last measurement */
+  private volatile Map<String, Float> sensorTemperatures = Collections.emptyMap();
+
+  /**
+   * Instantiates the reader for the sensor folder of the properties, which rejects outliers.
+   */
+  public MultiThermometerReader() {
+    this(PropertyUtil.getProperty(PropertyUtil.TEMPERATURE_SENSOR_BASE_FOLDER_PROPERTY),
+        Aggregation.OUTLIER_REJECTED_MEAN);
+  }
+
+  /**
+   * Instantiates the reader.
+   *
+   * @param tempSensorBaseFolderName folder which contains the sensor devices
+   * @param aggregation how the temperatures of the sensors are combined
+   */
+  public MultiThermometerReader(final String tempSensorBaseFolderName,
+      final Aggregation aggregation) {
+    this.tempSensorBaseFolderName = tempSensorBaseFolderName;
+    this.aggregation = aggregation;
+    final AtomicInteger threadNumber = new AtomicInteger();
+    executor = Executors.newFixedThreadPool(MAX_THREADS, new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable runnable) {
+        Thread thread = new Thread(runnable, "ThermometerReader-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+  /**
+   * Finds the w1_slave files of all sensors, the readers of known sensors are kept.
+   *
+   * @return reader by sensor id
+   * @throws FileNotFoundException if there is no sensor
+   */
+  private Map<String, ThermometerReader> resolveSensors() throws FileNotFoundException {
+    File[] files = new File(tempSensorBaseFolderName).listFiles();
+    if (files == null) {
+      throw new FileNotFoundException("Sensor folder not found: " + tempSensorBaseFolderName);
+    }
+    Arrays.sort(files);
+    Map<String, ThermometerReader> sensors = new LinkedHashMap<String, ThermometerReader>();
+    for (File subFile : files) {
+      if (subFile.getName().startsWith("28-")) {
+        ThermometerReader reader = readers.get(subFile.getName());
+        if (reader == null) {
+          reader = new ThermometerReader(new File(subFile, "w1_slave"));
+        }
+        sensors.put(subFile.getName(), reader);
+      }
+    }
+    if (sensors.isEmpty()) {
+      throw new FileNotFoundException("No temperature sensor found");
+    }
+    return sensors;
+  }
+
+  @Override
+  public synchronized float getTemperature() throws TemperatureNotReadableException {
+    try {
+      if (resolve) {
+        readers = resolveSensors();
+        resolve = false;
+      }
+    } catch (FileNotFoundException e) {
+      throw new TemperatureNotReadableException(e);
+    }
+
+    /*
+     * read all sensors at the same time
+     */
+    Map<String, Future<Float>> measurements = new LinkedHashMap<String, Future<Float>>();
+    for (Map.Entry<String, ThermometerReader> sensor : readers.entrySet()) {
+      final ThermometerReader reader = sensor.getValue();
+      measurements.put(sensor.getKey(), executor.submit(new Callable<Float>() {
+        @Override
+        public Float call() throws TemperatureNotReadableException {
+          return reader.getTemperature();
+        }
+      }));
+    }
+
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(SENSOR_TIMEOUT_MILLIS);
+    Map<String, Float> temperatures = new LinkedHashMap<String, Float>();
+    Throwable lastFailure = null;
+    for (Map.Entry<String, Future<Float>> measurement : measurements.entrySet()) {
+      try {
+        temperatures.put(measurement.getKey(),
+            measurement.getValue().get(Math.max(deadline - System.nanoTime(), 0),
+                TimeUnit.NANOSECONDS));
+      } catch (ExecutionException | TimeoutException e) {
+        measurement.getValue().cancel(true);
+        lastFailure = e instanceof ExecutionException ? e.getCause() : e;
+        LOGGER.warn("Temperature sensor " + measurement.getKey() + " could not be read", e);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new TemperatureNotReadableException(e);
+      }
+    }
+    if (temperatures.size() < readers.size()) {
+      /* a sensor may have been removed or added, look for the sensors again next time */
+      resolve = true;
+    }
+    sensorTemperatures = Collections.unmodifiableMap(temperatures);
+    if (temperatures.isEmpty()) {
+      throw new TemperatureNotReadableException(lastFailure);
+    }
+    return aggregate(new ArrayList<Float>(temperatures.values()), aggregation);
+  }
+
+  @Override
+  public Map<String, Float> getSensorTemperatures() {
+    return sensorTemperatures;
+  }
+
+  /**
+   * Combines the temperatures of several sensors into one temperature.
+   *
+   * @param temperatures the temperatures (at least one)
+   * @param aggregation how the temperatures are combined
+   * @return the combined temperature
+   */
+  static float aggregate(final List<Float> temperatures, final Aggregation aggregation) {
+    List<Float> sorted = new ArrayList<Float>(temperatures);
+    Collections.sort(sorted);
+    int size = sorted.size();
+    float median = sorted.get(size / 2);
+    if (size % 2 == 0) {
+      median = (sorted.get(size / 2 - 1) + median) / 2;
+    }
+    switch (aggregation) {
+      case MEDIAN:
+        return median;
+      case MEAN:
+        return mean(sorted, median, Float.POSITIVE_INFINITY);
+      case OUTLIER_REJECTED_MEAN:
+      default:
+        return mean(sorted, median, OUTLIER_DELTA);
+    }
+  }
+
+  /**
+   * Computes the mean of the temperatures which are close to the median.
+   *
+   * @param temperatures the temperatures
+   * @param median the median of the temperatures
+   * @param maxDelta maximal difference of a temperature to the median
+   * @return the mean (or the median if every temperature differs too much)
+   */
+  private static float mean(final List<Float> temperatures, final float median,
+      final float maxDelta) {
+    float sum = 0;
+    int count = 0;
+    for (float temperature : temperatures) {
+      if (Math.abs(temperature - median) <= maxDelta) {
+        sum += temperature;
+        count++;
+      }
+    }
+    return count == 0 ? median : sum / count;
+  }
+}
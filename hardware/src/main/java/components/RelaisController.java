@@ -1,75 +1,132 @@
 /*
- * 
+ *
  */
 package components;
 
-import java.util.HashMap;
-import java.util.Map;
+import interfaces.IRelaisOutput;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import utilities.PropertyUtil;
 
-import com.pi4j.io.gpio.GpioController;
-import com.pi4j.io.gpio.GpioFactory;
-import com.pi4j.io.gpio.GpioPinDigitalOutput;
 import com.pi4j.io.gpio.Pin;
 import com.pi4j.io.gpio.PinState;
-import com.pi4j.io.gpio.RaspiPin;
 
 
 /**
- * RelaisController which interacts with the hardware connected to the raspberry-pi.
+ * RelaisController which interacts with the hardware connected to the raspberry-pi. The controller
+ * remembers the state of the relais and only writes changes to the output, so switching a relais
+ * on (or off) which is already on (or off) costs nothing. To protect a mechanical relais it is
+ * switched on at the earliest after the minimal dwell time since the last switch; a switch-on which
+ * is requested earlier is applied when the dwell time is over, and only the latest requested state
+ * is applied. Switching off is never delayed, so e.g. the heater stops at once when the heating is
+ * stopped or the server shuts down. The last switch events, the number of switches and the duty
+ * cycle are kept for every relais.
  */
 public class RelaisController {
 
+  /**
+   * A switch of the relais.
+   */
+  public static final class SwitchEvent {
+
+    /** Time of the switch in milliseconds */
+    private final long timeMillis;
+
+    /** Whether the relais was switched on */
+    private final boolean switchedOn;
+
+    /**
+     * Creates a switch event.
+     *
+     * @param timeMillis time of the switch in milliseconds
+     * @param switchedOn whether the relais was switched on
+     */
+    SwitchEvent(final long timeMillis, final boolean switchedOn) {
+      this.timeMillis = timeMillis;
+      this.switchedOn = switchedOn;
+    }
+
+    /**
+     * Gets the time of the switch.
+     *
+     * @return time in milliseconds
+     */
+    public long getTimeMillis() {
+      return timeMillis;
+    }
+
+    /**
+     * Whether the relais was switched on.
+     *
+     * @return true if it was switched on, false if it was switched off
+     */
+    public boolean isSwitchedOn() {
+      return switchedOn;
+    }
+  }
+
   /** Global logger to log the interaction with the controller. */
   public static final Logger LOGGER = LogManager.getLogger();
 
-  /** Pin which this controller is interacting with. */
-  private final GpioPinDigitalOutput pin;
+  /** Number of switch events which are kept */
+  public static final int EVENT_CAPACITY = 128;
+
+  /** Applies the changes which were requested during the dwell time of a relais */
+  private static final ScheduledExecutorService DWELL_SCHEDULER = Executors
+      .newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable runnable) {
+          Thread thread = new Thread(runnable, "RelaisDwell");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+
+  /** Output which switches the relais. */
+  private final IRelaisOutput output;
 
   /** Name of the pin. */
   private final String name;
 
-  /**
-   * Whether the pin states need to be inverted.
-   * 
-   * In our example, when controlling Relais: The pin state high means that the relais is switched
-   * off and the pin state low means that the reials is switched on. This is called inverse
-   * behavior.
-   * 
-   * However when controlling the beeper the behavior is not inverse!
-   */
-  private final boolean isInverse; // os220215
-
-  /** The Constant pinMap. */
-  protected static final Map<String, Pin> PIN_MAP;
-  static {
-    PIN_MAP = new HashMap<>();
-    PIN_MAP.put("00", RaspiPin.GPIO_00);
-    PIN_MAP.put("01", RaspiPin.GPIO_01);
-    PIN_MAP.put("02", RaspiPin.GPIO_02);
-    PIN_MAP.put("03", RaspiPin.GPIO_03);
-    PIN_MAP.put("04", RaspiPin.GPIO_04);
-    PIN_MAP.put("05", RaspiPin.GPIO_05);
-    PIN_MAP.put("06", RaspiPin.GPIO_06);
-    PIN_MAP.put("07", RaspiPin.GPIO_07);
-    PIN_MAP.put("08", RaspiPin.GPIO_08);
-    PIN_MAP.put("09", RaspiPin.GPIO_09);
-    PIN_MAP.put("10", RaspiPin.GPIO_10);
-    PIN_MAP.put("11", RaspiPin.GPIO_11);
-    PIN_MAP.put("12", RaspiPin.GPIO_12);
-    PIN_MAP.put("13", RaspiPin.GPIO_13);
-    PIN_MAP.put("14", RaspiPin.GPIO_14);
-    PIN_MAP.put("15", RaspiPin.GPIO_15);
-    PIN_MAP.put("16", RaspiPin.GPIO_16);
-    PIN_MAP.put("17", RaspiPin.GPIO_17);
-    PIN_MAP.put("18", RaspiPin.GPIO_18);
-    PIN_MAP.put("19", RaspiPin.GPIO_19);
-    PIN_MAP.put("20", RaspiPin.GPIO_20);
-  }
+  /** Minimal time between the last switch and switching on in milliseconds */
+  private final long minDwellMillis;
+
+  /** Whether the relais is switched on */
+  private boolean on;
+
+  /** Time of the last switch (or of the creation) */
+  private long lastSwitchMillis;
+
+  /** Time of the creation */
+  private final long createdMillis;
+
+  /** The change which is applied after the dwell time (or null if there is none) */
+  private ScheduledFuture<?> pendingChange = null;
+
+  /** Time the relais was switched on until the last switch */
+  private long onMillis = 0;
+
+  /** Number of switches */
+  private long switches = 0;
+
+  /** Number of requests which did not change the state */
+  private long skippedWrites = 0;
+
+  /** Times of the last switches (ring) */
+  private final long[] eventTimes = new long[EVENT_CAPACITY];
+
+  /** States of the last switches (ring) */
+  private final boolean[] eventStates = new boolean[EVENT_CAPACITY];
 
   /**
    * Creates a new RelaisController to interact with the specified pin. The initial state of this
@@ -85,26 +142,54 @@ public class RelaisController {
   }
 
   /**
-   * Creates a new RelaisController to interact with the specified pin. The initial state of this
-   * pin will be HIGH.
-   * 
+   * Creates a new RelaisController to interact with the specified pin, which stays in a state for
+   * the RelaisMinDwellMillis of the properties.
+   *
    * @param propertyName The property from which to read the pin.
    * @param defaultPin The default pin to be used if no property exists.
    * @param name The name of the pin.
+   * @param isInverse If true, the pinstate high means that the pin is switched off and vice versa.
    * @param initialState The initial state of the pin.
    */
   public RelaisController(final String propertyName, final Pin defaultPin, final String name,
       final boolean isInverse, final PinState initialState) {
-    /*
-     * Get the GPI-Controller which contros the relais
-     */
-    GpioController gpio = GpioFactory.getInstance();
-    // Initialize the pin
-    this.pin = gpio.provisionDigitalOutputPin(getPin(propertyName, defaultPin), name, initialState);
+    this(propertyName, defaultPin, name, isInverse, initialState, PropertyUtil
+        .getRelaisMinDwellMillis());
+  }
+
+  /**
+   * Creates a new RelaisController to interact with the specified pin.
+   *
+   * @param propertyName The property from which to read the pin.
+   * @param defaultPin The default pin to be used if no property exists.
+   * @param name The name of the pin.
+   * @param isInverse If true, the pinstate high means that the pin is switched off and vice versa.
+   * @param initialState The initial state of the pin.
+   * @param minDwellMillis Minimal time before the relais is switched on again in milliseconds.
+   */
+  public RelaisController(final String propertyName, final Pin defaultPin, final String name,
+      final boolean isInverse, final PinState initialState, final long minDwellMillis) {
+    this(name, new GpioRelaisOutput(propertyName, defaultPin, name, isInverse, initialState),
+        initialState.isHigh() != isInverse, minDwellMillis);
+  }
+
+  /**
+   * Creates a new RelaisController which switches the given output.
+   *
+   * @param name The name of the relais.
+   * @param output The output which switches the relais.
+   * @param initiallyOn Whether the relais is switched on initially.
+   * @param minDwellMillis Minimal time before the relais is switched on again in milliseconds.
+   */
+  public RelaisController(final String name, final IRelaisOutput output,
+      final boolean initiallyOn, final long minDwellMillis) {
     this.name = name;
+    this.output = output;
+    this.on = initiallyOn;
+    this.minDwellMillis = minDwellMillis;
+    this.createdMillis = System.currentTimeMillis();
+    this.lastSwitchMillis = createdMillis;
     LOGGER.info(String.format("RelaisController for %s created.", name));
-
-    this.isInverse = isInverse; // os220215
   }
 
   /**
@@ -112,51 +197,139 @@ public class RelaisController {
    *
    * @return boolean value which declares if the pin has the status HIGH (on) or LOW (off)
    */
-  public boolean isSwitchedOn() {
-    if (isInverse) { // os220215
-      // Needs to be inverted.
-      return pin.getState().isLow(); // os220215
-    } else { // os220215
-      return pin.getState().isHigh(); // os220215
-    } // os220215
+  public synchronized boolean isSwitchedOn() {
+    return on;
   }
 
   /**
    * Set the power for the pin to "low".
    */
   public void switchOff() {
-    LOGGER.info(String.format("switchOff pin: %s", name));
-    if (isInverse) { // os220215
-      // needs to be inverted.
-      pin.high(); // os220215
-    } else { // os220215
-      pin.low(); // os220215
-    } // os220215
+    request(false);
   }
 
   /**
    * Set the power for the pin to "high".
    */
   public void switchOn() {
-    LOGGER.info(String.format("switchOn pin: %s", name));
-    if (isInverse) { // os220215
-      // needs to be inverted.
-      pin.low(); // os220215
-    } else { // os220215
-      pin.high(); // os220215
-    } // os220215
+    request(true);
+  }
+
+  /**
+   * Switches the relais if the state changes, switching on waits until the dwell time of the last
+   * switch is over.
+   *
+   * @param state the requested state
+   */
+  private synchronized void request(final boolean state) {
+    if (pendingChange != null) {
+      /* the latest request wins */
+      pendingChange.cancel(false);
+      pendingChange = null;
+    }
+    if (state == on) {
+      skippedWrites++;
+      return;
+    }
+    long now = System.currentTimeMillis();
+    long dwellEnd = lastSwitchMillis + minDwellMillis;
+    if (state && now < dwellEnd) {
+      pendingChange = DWELL_SCHEDULER.schedule(new Runnable() {
+        @Override
+        public void run() {
+          synchronized (RelaisController.this) {
+            pendingChange = null;
+            if (on != state) {
+              apply(state, System.currentTimeMillis());
+            }
+          }
+        }
+      }, dwellEnd - now, TimeUnit.MILLISECONDS);
+      return;
+    }
+    apply(state, now);
+  }
+
+  /**
+   * Writes the state to the output and records the switch.
+   *
+   * @param state the new state
+   * @param now the current time
+   */
+  private void apply(final boolean state, final long now) {
+    output.write(state);
+    if (on) {
+      onMillis += now - lastSwitchMillis;
+    }
+    on = state;
+    lastSwitchMillis = now;
+    int event = (int) (switches % EVENT_CAPACITY);
+    eventTimes[event] = now;
+    eventStates[event] = state;
+    switches++;
+    LOGGER.info("{} pin: {}", state ? "switchOn" : "switchOff", name);
+  }
+
+  /**
+   * Returns the name of the relais.
+   *
+   * @return the name
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Returns how often the relais was switched.
+   *
+   * @return number of switches
+   */
+  public synchronized long getSwitchCount() {
+    return switches;
+  }
+
+  /**
+   * Returns how often the relais was requested to switch into the state it already had.
+   *
+   * @return number of skipped writes
+   */
+  public synchronized long getSkippedWrites() {
+    return skippedWrites;
   }
 
   /**
-   * Initializing the pin with a given property and otherwise a default-pin
+   * Returns the share of the time the relais was switched on since it was created.
    *
-   * @return the pin
+   * @return duty cycle between 0 and 1
    */
-  private static Pin getPin(final String property, final Pin defaultPin) {
-    Pin pin = PIN_MAP.get(PropertyUtil.getProperty(property));
-    if (pin == null) {
-      pin = defaultPin;
+  public synchronized double getDutyCycle() {
+    long now = System.currentTimeMillis();
+    long total = now - createdMillis;
+    long onTotal = onMillis + (on ? now - lastSwitchMillis : 0);
+    if (total <= 0) {
+      return on ? 1 : 0;
     }
-    return pin;
+    return (double) onTotal / total;
+  }
+
+  /**
+   * Returns the last switches of the relais (at most EVENT_CAPACITY).
+   *
+   * @return the switch events, the oldest first
+   */
+  public synchronized List<SwitchEvent> getSwitchEvents() {
+    int size = (int) Math.min(switches, EVENT_CAPACITY);
+    List<SwitchEvent> events = new ArrayList<SwitchEvent>(size);
+    for (long i = switches - size; i < switches; i++) {
+      int event = (int) (i % EVENT_CAPACITY);
+      events.add(new SwitchEvent(eventTimes[event], eventStates[event]));
+    }
+    return events;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("%s: %d switches, %d skipped writes, duty cycle %.1f%%", name,
+        getSwitchCount(), getSkippedWrites(), getDutyCycle() * 100);
   }
 }
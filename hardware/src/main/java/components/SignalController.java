@@ -3,6 +3,8 @@
  */
 package components;
 
+import general.BeepPattern;
+import interfaces.IRelaisOutput;
 import interfaces.ISignalControl;
 
 import org.apache.logging.log4j.LogManager;
@@ -24,90 +26,71 @@ public class SignalController extends RelaisController implements ISignalControl
   /** Global logger to log the interaction with the controller. */
   public static final Logger LOGGER = LogManager.getLogger();
 
-  /**
-   * The duration of a short beep signal.
-   */
-  private static final long BEEP_DURATION_SHORT = 500;
-  /**
-   * The duration of a long beep signal.
-   */
-  private static final long BEEP_DURATION_LONG = 1000;
-
-  /**
-   * The pause between two beep signals.
-   */
-  private static final long BEEP_PAUSE = 500;
+  /** Plays the beep patterns one after another on the pin. */
+  private final BeepSequencer sequencer = new BeepSequencer(new IRelaisOutput() {
+    @Override
+    public void write(final boolean on) {
+      if (on) {
+        SignalController.super.switchOn();
+      } else {
+        SignalController.super.switchOff();
+      }
+    }
+  }, BeepSequencer.DEFAULT_CAPACITY);
 
   /**
    * Instantiates the HeaterController and sets the correct pin.
    */
   public SignalController() {
-    /* the pin is NOT controlled inverse! -> <- */
-    super(PropertyUtil.SIGNAL_PIN_PROPERTY, RaspiPin.GPIO_05, "signal", false, PinState.LOW);
+    /* the pin is NOT controlled inverse! -> <- and the beeper is no mechanical relais */
+    super(PropertyUtil.SIGNAL_PIN_PROPERTY, RaspiPin.GPIO_05, "signal", false, PinState.LOW, 0);
     LOGGER.info("SignalController created");
   }
 
   /**
    * Override the switchOn-method for security reasons, so that we can control that no one switches
-   * on the beeper without switching it off.
+   * on the beeper without switching it off. Switching the signal on sounds the alarm, which
+   * interrupts every other beep.
    * 
    * The class internals use the swichOn method of the super class RelaisController.
    */
   @Override
   public void switchOn() {
-    this.sendSingleBeep();
+    sendPattern(BeepPattern.ALARM);
+  }
+
+  /**
+   * Stops the playing beeps, forgets the pending ones and switches the beeper off.
+   */
+  @Override
+  public void switchOff() {
+    sequencer.cancel();
+    super.switchOff();
   }
 
   @Override
   public void sendDoubleBeep() {
     LOGGER.info("Send long double beep");
-
-    Runnable doubleBeeper = new Runnable() {
-      @Override
-      public void run() {
-        synchronized (SignalController.this) {
-          try {
-            sendBeep(BEEP_DURATION_LONG);
-            Thread.sleep(BEEP_PAUSE);
-            sendBeep(BEEP_DURATION_LONG);
-          } catch (InterruptedException e) {
-            switchOff();
-            return;
-          }
-        }
-      }
-    };
-
-    Thread asyncBeeper = new Thread(doubleBeeper);
-    asyncBeeper.start();
+    sendPattern(BeepPattern.DOUBLE_LONG);
   }
 
   @Override
   public void sendSingleBeep() {
     LOGGER.info("Send short single beep");
-
-    Runnable singleBeeper = new Runnable() {
-      @Override
-      public void run() {
-        synchronized (SignalController.this) {
-          try {
-            sendBeep(BEEP_DURATION_SHORT);
-          } catch (InterruptedException e) {
-            switchOff();
-            return;
-          }
-        }
-      }
-    };
-
-    Thread asyncBeeper = new Thread(singleBeeper);
-    asyncBeeper.start();
+    sendPattern(BeepPattern.SINGLE_SHORT);
   }
 
-  private void sendBeep(final long duration) throws InterruptedException {
-    super.switchOn();
-    Thread.sleep(duration);
-    super.switchOff();
+  @Override
+  public void sendPattern(final BeepPattern pattern) {
+    sequencer.submit(pattern);
   }
 
+  /**
+   * Returns the sequencer which plays the beeps (e.g. for its statistics).
+   *
+   * @return the sequencer
+   */
+  public BeepSequencer getSequencer() {
+    return sequencer;
+  }
 }
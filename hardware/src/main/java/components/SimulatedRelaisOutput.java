@@ -0,0 +1,60 @@
+/*
+ *
+ */
+package components;
+
+import interfaces.IRelaisOutput;
+
+
+/**
+ * Relais output without hardware which only remembers its state, so the RelaisController can be
+ * used without pi4j (e.g. in tests on a plain Linux box).
+ */
+public class SimulatedRelaisOutput implements IRelaisOutput {
+
+  /** Whether the simulated relais is switched on */
+  private volatile boolean on;
+
+  /** Number of writes */
+  private volatile int writes = 0;
+
+  /**
+   * Creates a simulated relais which is switched off.
+   */
+  public SimulatedRelaisOutput() {
+    this(false);
+  }
+
+  /**
+   * Creates a simulated relais.
+   *
+   * @param on whether the relais is switched on initially
+   */
+  public SimulatedRelaisOutput(final boolean on) {
+    this.on = on;
+  }
+
+  @Override
+  public synchronized void write(final boolean on) {
+    this.on = on;
+    writes++;
+  }
+
+  /**
+   * Whether the simulated relais is switched on.
+   *
+   * @return true if it is switched on
+   */
+  public boolean isOn() {
+    return on;
+  }
+
+  /**
+   * Returns how often the relais was written.
+   *
+   * @return number of writes
+   */
+  public int getWrites() {
+    return writes;
+  }
+}
@@ -11,6 +11,9 @@ import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
 import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 
 import utilities.PropertyUtil;
 import exceptions.TemperatureNotReadableException;
@@ -20,6 +23,10 @@ import exceptions.TemperatureNotReadableException;
  * Thermometer-Reader which loads the relevant config from properties and parses temperatures out of
  * the written file based on the example-file we've got.
  * 
+ * In the fast reader mode the sensor file is only resolved once (and again after a failed read),
+ * its channel is kept open and the file is read into a reused buffer and parsed without allocating.
+ * Both modes only accept a measurement whose CRC was reported as valid ("YES").
+ * 
  * @author Daniel Langerenken
  *
  */
@@ -34,14 +41,54 @@ public class ThermometerReader implements IThermometerReader {
   /** Temperature-sensor-file name which is not used as the name is calculated. */
   private final String tempSensorFileName;
 
+  /** Size of the buffer for the sensor file, which has two lines of about 40 characters. */
+  private static final int BUFFER_SIZE = 256;
+
+  /** Whether the fast reader mode is used. */
+  private final boolean fastRead;
+
+  /** Buffer the sensor file is read into in the fast reader mode. */
+  private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+  /** Channel of the resolved sensor file (or null if it has to be resolved). */
+  private FileChannel channel;
+
+  /** The sensor file if the reader reads one given sensor (or null to use the first sensor). */
+  private final File sensorFile;
+
   /**
    * Instantiates the ThermometerReader and sets the folder for the temperature-savings as well as
-   * the file-name from properties
+   * the file-name and the reader mode from properties
    */
   public ThermometerReader() {
-    tempSensorBaseFolderName =
-        PropertyUtil.getProperty(PropertyUtil.TEMPERATURE_SENSOR_BASE_FOLDER_PROPERTY);
+    this(PropertyUtil.getProperty(PropertyUtil.TEMPERATURE_SENSOR_BASE_FOLDER_PROPERTY),
+        PropertyUtil.getTemperatureSensorFastRead());
+  }
+
+  /**
+   * Instantiates the ThermometerReader with the folder of the sensor devices and the reader mode.
+   *
+   * @param tempSensorBaseFolderName folder which contains the sensor devices
+   * @param fastRead whether the fast reader mode should be used
+   */
+  public ThermometerReader(final String tempSensorBaseFolderName, final boolean fastRead) {
+    this.tempSensorBaseFolderName = tempSensorBaseFolderName;
+    this.fastRead = fastRead;
     tempSensorFileName = PropertyUtil.getProperty(PropertyUtil.TEMPERATURE_SENSOR_FILE_PROPERTY);
+    sensorFile = null;
+  }
+
+  /**
+   * Instantiates a ThermometerReader in the fast reader mode which reads one given sensor (e.g. one
+   * of several sensors in a kettle).
+   *
+   * @param sensorFile the w1_slave file of the sensor
+   */
+  public ThermometerReader(final File sensorFile) {
+    tempSensorBaseFolderName = sensorFile.getParentFile().getParent();
+    fastRead = true;
+    tempSensorFileName = sensorFile.getPath();
+    this.sensorFile = sensorFile;
   }
 
   /**
@@ -50,6 +97,9 @@ public class ThermometerReader implements IThermometerReader {
    * @return name of the file to read from
    */
   protected File getDS18B20TemperatureFile() throws FileNotFoundException {
+    if (sensorFile != null) {
+      return sensorFile;
+    }
     File tempSensorBaseFolderFile = new File(tempSensorBaseFolderName);
     if (!tempSensorBaseFolderFile.exists()) {
       throw new FileNotFoundException();
@@ -110,6 +160,9 @@ public class ThermometerReader implements IThermometerReader {
    */
   @Override
   public float getTemperature() throws TemperatureNotReadableException {
+    if (fastRead) {
+      return getTemperatureFast();
+    }
     try {
       /*
        * parse file content and round the temperature
@@ -131,6 +184,10 @@ public class ThermometerReader implements IThermometerReader {
    * @return float value of temperature sensor.
    */
   private float parseSensorFileContent(final String filecontent) {
+    int firstLineEnd = filecontent.indexOf('\n');
+    if (firstLineEnd < 0 || !filecontent.substring(0, firstLineEnd).trim().endsWith("YES")) {
+      throw new IllegalStateException("CRC of the temperature sensor is invalid");
+    }
     String temperatureBeginningConstant = "t=";
     int requiredIndex =
         filecontent.toLowerCase().lastIndexOf(temperatureBeginningConstant)
@@ -159,4 +216,98 @@ public class ThermometerReader implements IThermometerReader {
     float tempRounded = new BigDecimal(temp).setScale(1, BigDecimal.ROUND_HALF_UP).floatValue();
     return tempRounded;
   }
+
+  /**
+   * Reads the temperature in the fast reader mode.
+   *
+   * @return temperature
+   * @throws TemperatureNotReadableException thrown if reading failed
+   */
+  private synchronized float getTemperatureFast() throws TemperatureNotReadableException {
+    try {
+      if (channel == null) {
+        File file = getDS18B20TemperatureFile();
+        if (file == null) {
+          throw new FileNotFoundException("No temperature sensor found");
+        }
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+      }
+      buffer.clear();
+      /* every read from the start makes the sensor measure again */
+      while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) > 0) {
+        /* read until the end of the file */
+      }
+      buffer.flip();
+      int milliDegrees = parseSensorBuffer(buffer);
+      return (float) Math.floor(milliDegrees / 100.0 + 0.5) / 10;
+    } catch (Throwable t) {
+      /* resolve the sensor file again with the next measurement */
+      closeChannel();
+      throw new TemperatureNotReadableException(t);
+    }
+  }
+
+  /**
+   * Parses the content of the sensor file without allocating: the first line has to end with the
+   * CRC flag "YES", the second line contains the temperature in thousandths of a degree after "t=".
+   *
+   * @param content content of the sensor file
+   * @return temperature in thousandths of a degree
+   * @throws IOException if the content is invalid
+   */
+  static int parseSensorBuffer(final ByteBuffer content) throws IOException {
+    int limit = content.limit();
+    int lineEnd = 0;
+    while (lineEnd < limit && content.get(lineEnd) != '\n') {
+      lineEnd++;
+    }
+    int flagEnd = lineEnd;
+    while (flagEnd > 0 && content.get(flagEnd - 1) <= ' ') {
+      flagEnd--;
+    }
+    if (lineEnd == limit || flagEnd < 3 || content.get(flagEnd - 3) != 'Y'
+        || content.get(flagEnd - 2) != 'E' || content.get(flagEnd - 1) != 'S') {
+      throw new IOException("CRC of the temperature sensor is invalid");
+    }
+    int index = limit - 1;
+    while (index > lineEnd && !(content.get(index - 1) == 't' && content.get(index) == '=')) {
+      index--;
+    }
+    if (index <= lineEnd) {
+      throw new IOException("No temperature found");
+    }
+    index++;
+    boolean negative = index < limit && content.get(index) == '-';
+    if (negative) {
+      index++;
+    }
+    int digits = 0;
+    int value = 0;
+    while (index < limit && content.get(index) >= '0' && content.get(index) <= '9') {
+      value = value * 10 + content.get(index) - '0';
+      index++;
+      digits++;
+    }
+    while (index < limit && content.get(index) <= ' ') {
+      index++;
+    }
+    if (digits == 0 || digits > 9 || index != limit) {
+      throw new IOException("Invalid temperature");
+    }
+    return negative ? -value : value;
+  }
+
+  /**
+   * Closes the channel of the sensor file, so it is resolved again.
+   */
+  private void closeChannel() {
+    if (channel != null) {
+      try {
+        channel.close();
+      } catch (IOException e) {
+        // nothing to do here
+      }
+      channel = null;
+    }
+  }
 }
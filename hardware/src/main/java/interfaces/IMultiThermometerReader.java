@@ -0,0 +1,22 @@
+/*
+ *
+ */
+package interfaces;
+
+import java.util.Map;
+
+
+/**
+ * Thermometer-Reader for several sensors. getTemperature() returns the aggregated temperature of
+ * all sensors which could be read.
+ */
+public interface IMultiThermometerReader extends IThermometerReader {
+
+  /**
+   * Gets the temperatures of the single sensors of the last measurement. Sensors which could not be
+   * read are missing.
+   *
+   * @return temperature by sensor id (e.g. 28-0000056291e6)
+   */
+  Map<String, Float> getSensorTemperatures();
+}
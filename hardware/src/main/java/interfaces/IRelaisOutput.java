@@ -0,0 +1,19 @@
+/*
+ *
+ */
+package interfaces;
+
+
+/**
+ * Output which switches a relais (e.g. a GPIO pin). The output has no state of its own, the
+ * RelaisController remembers the state and only writes changes.
+ */
+public interface IRelaisOutput {
+
+  /**
+   * Switches the relais.
+   *
+   * @param on true to switch the relais on, false to switch it off
+   */
+  void write(boolean on);
+}
@@ -3,6 +3,8 @@
  */
 package interfaces;
 
+import general.BeepPattern;
+
 /**
  * The Interface ISignalController.
  */
@@ -17,5 +19,12 @@ public interface ISignalControl extends IRelaisController {
    * Sends a single short beep signal.
    */
   void sendSingleBeep();
-	
+
+  /**
+   * Sends a beep pattern. The patterns are played one after another, a pattern of a higher
+   * priority interrupts the playing one.
+   *
+   * @param pattern the pattern
+   */
+  void sendPattern(BeepPattern pattern);
 }
@@ -0,0 +1,137 @@
+/*
+ *
+ */
+package components;
+
+import general.BeepPattern;
+import interfaces.IRelaisOutput;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import categories.UnitTest;
+
+
+/**
+ * Tests the order, merging and preemption of the beep patterns with a recording beeper.
+ */
+public class BeepSequencerTest {
+
+  /**
+   * Beeper which records the durations of its beeps.
+   */
+  private static class RecordingBeeper implements IRelaisOutput {
+
+    /** Durations of the finished beeps */
+    private final List<Long> beeps = new ArrayList<Long>();
+
+    /** Start of the current beep (or -1) */
+    private long beepStart = -1;
+
+    @Override
+    public synchronized void write(final boolean on) {
+      long now = System.currentTimeMillis();
+      if (on && beepStart < 0) {
+        beepStart = now;
+      } else if (!on && beepStart >= 0) {
+        beeps.add(now - beepStart);
+        beepStart = -1;
+      }
+    }
+
+    /**
+     * Returns the durations of the finished beeps.
+     *
+     * @return durations in milliseconds
+     */
+    public synchronized List<Long> getBeeps() {
+      return new ArrayList<Long>(beeps);
+    }
+  }
+
+  /** A short beep of a notification */
+  private static final BeepPattern SHORT = new BeepPattern(BeepPattern.PRIORITY_NOTIFICATION, 50);
+
+  /** A long beep of a notification */
+  private static final BeepPattern LONG = new BeepPattern(BeepPattern.PRIORITY_NOTIFICATION, 150);
+
+  /** A beep of an alarm */
+  private static final BeepPattern ALARM = new BeepPattern(BeepPattern.PRIORITY_ALARM, 100);
+
+  /**
+   * Tests that identical pending patterns are merged and patterns are played one after another.
+   *
+   * @throws InterruptedException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testIdenticalPatternsAreMerged() throws InterruptedException {
+    RecordingBeeper beeper = new RecordingBeeper();
+    BeepSequencer sequencer = new BeepSequencer(beeper, BeepSequencer.DEFAULT_CAPACITY);
+    sequencer.submit(LONG);
+    Thread.sleep(50);
+    /* the long beep plays, the short beeps are pending */
+    Assert.assertTrue(sequencer.submit(SHORT));
+    Assert.assertFalse(sequencer.submit(SHORT));
+    Assert.assertFalse(sequencer.submit(SHORT));
+    Assert.assertEquals(2, sequencer.getMerged());
+    Thread.sleep(150 + BeepSequencer.PATTERN_PAUSE + 50 + 300);
+
+    List<Long> beeps = beeper.getBeeps();
+    Assert.assertEquals(2, beeps.size());
+    Assert.assertTrue(beeps.get(0) >= 140);
+    Assert.assertTrue(beeps.get(1) >= 40 && beeps.get(1) < 140);
+  }
+
+  /**
+   * Tests that an alarm interrupts a notification and is played before the pending notifications.
+   *
+   * @throws InterruptedException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testAlarmPreemptsNotifications() throws InterruptedException {
+    RecordingBeeper beeper = new RecordingBeeper();
+    BeepSequencer sequencer = new BeepSequencer(beeper, BeepSequencer.DEFAULT_CAPACITY);
+    sequencer.submit(new BeepPattern(BeepPattern.PRIORITY_NOTIFICATION, 5000));
+    sequencer.submit(SHORT);
+    Thread.sleep(50);
+    sequencer.submit(ALARM);
+    Thread.sleep(100 + 50);
+
+    /* the notification was interrupted, the alarm played */
+    List<Long> beeps = beeper.getBeeps();
+    Assert.assertEquals(1, sequencer.getPreempted());
+    Assert.assertEquals(2, beeps.size());
+    Assert.assertTrue(beeps.get(0) < 1000);
+    Assert.assertTrue(beeps.get(1) >= 90);
+    Assert.assertEquals(1, sequencer.getPending());
+  }
+
+  /**
+   * Tests that the queue is bounded and a full queue only takes patterns of a higher priority.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testQueueIsBounded() {
+    BeepSequencer sequencer = new BeepSequencer(new RecordingBeeper(), 2);
+    sequencer.submit(new BeepPattern(BeepPattern.PRIORITY_NOTIFICATION, 5000));
+    long deadline = System.currentTimeMillis() + 1000;
+    while (sequencer.getPending() > 0 && System.currentTimeMillis() < deadline) {
+      Thread.yield();
+    }
+    Assert.assertTrue(sequencer.submit(SHORT));
+    Assert.assertTrue(sequencer.submit(LONG));
+    Assert.assertFalse(sequencer.submit(new BeepPattern(BeepPattern.PRIORITY_NOTIFICATION, 75)));
+    Assert.assertTrue(sequencer.submit(new BeepPattern(BeepPattern.PRIORITY_REQUEST, 75)));
+    Assert.assertEquals(2, sequencer.getPending());
+    Assert.assertEquals(2, sequencer.getDropped());
+    sequencer.cancel();
+    Assert.assertEquals(0, sequencer.getPending());
+  }
+}
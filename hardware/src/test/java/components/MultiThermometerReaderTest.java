@@ -0,0 +1,115 @@
+/*
+ *
+ */
+package components;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Map;
+
+import junit.framework.Assert;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import categories.UnitTest;
+
+import components.MultiThermometerReader.Aggregation;
+
+import exceptions.TemperatureNotReadableException;
+
+
+/**
+ * Tests reading several temperature sensors from a stand-in sysfs folder.
+ */
+public class MultiThermometerReaderTest {
+
+  /**
+   * Stand-in for the sysfs folder of the 1-wire devices
+   */
+  @Rule
+  public TemporaryFolder devices = new TemporaryFolder();
+
+  /**
+   * Writes the sensor file of a device.
+   *
+   * @param device name of the device folder
+   * @param crc the CRC flag of the first line
+   * @param temperature the temperature value of the second line
+   * @throws IOException
+   */
+  private void writeSensorFile(final String device, final String crc, final String temperature)
+      throws IOException {
+    File folder = new File(devices.getRoot(), device);
+    folder.mkdirs();
+    String content =
+        "46 01 4b 46 7f ff 0a 10 85 : crc=85 " + crc + "\n46 01 4b 46 7f ff 0a 10 85 t="
+            + temperature + "\n";
+    Files.write(new File(folder, "w1_slave").toPath(), content.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /**
+   * Tests the aggregations of the temperatures.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testAggregation() {
+    Assert.assertEquals(62.0f,
+        MultiThermometerReader.aggregate(Arrays.asList(62.0f, 61.0f, 70.0f), Aggregation.MEDIAN));
+    Assert.assertEquals(61.5f,
+        MultiThermometerReader.aggregate(Arrays.asList(62.0f, 61.0f), Aggregation.MEDIAN));
+    Assert.assertEquals(64.0f,
+        MultiThermometerReader.aggregate(Arrays.asList(62.0f, 60.0f, 70.0f), Aggregation.MEAN));
+    Assert.assertEquals(61.0f, MultiThermometerReader.aggregate(
+        Arrays.asList(62.0f, 60.0f, 70.0f), Aggregation.OUTLIER_REJECTED_MEAN));
+    Assert.assertEquals(20.0f, MultiThermometerReader.aggregate(Arrays.asList(20.0f),
+        Aggregation.OUTLIER_REJECTED_MEAN));
+  }
+
+  /**
+   * Tests that the outlier and the failed sensor are left out of the measurement.
+   *
+   * @throws IOException
+   * @throws TemperatureNotReadableException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testFailedSensorAndOutlier() throws IOException, TemperatureNotReadableException {
+    new File(devices.getRoot(), "w1_bus_master1").mkdirs();
+    writeSensorFile("28-000000000001", "YES", "62000");
+    writeSensorFile("28-000000000002", "YES", "63000");
+    writeSensorFile("28-000000000003", "YES", "85000");
+    writeSensorFile("28-000000000004", "NO", "62500");
+    MultiThermometerReader reader =
+        new MultiThermometerReader(devices.getRoot().getPath(), Aggregation.OUTLIER_REJECTED_MEAN);
+    Assert.assertEquals(62.5f, reader.getTemperature(), 0.001f);
+    Map<String, Float> sensorTemperatures = reader.getSensorTemperatures();
+    Assert.assertEquals(3, sensorTemperatures.size());
+    Assert.assertEquals(85.0f, sensorTemperatures.get("28-000000000003"));
+    Assert.assertFalse(sensorTemperatures.containsKey("28-000000000004"));
+
+    /* the failed sensor is read again with the next measurement */
+    writeSensorFile("28-000000000004", "YES", "62500");
+    Assert.assertEquals(62.5f, reader.getTemperature(), 0.001f);
+    Assert.assertEquals(4, reader.getSensorTemperatures().size());
+  }
+
+  /**
+   * Tests that the measurement fails if no sensor can be read.
+   *
+   * @throws IOException
+   * @throws TemperatureNotReadableException
+   */
+  @Category(UnitTest.class)
+  @Test(expected = TemperatureNotReadableException.class)
+  public void testAllSensorsFailed() throws IOException, TemperatureNotReadableException {
+    writeSensorFile("28-000000000001", "NO", "62000");
+    writeSensorFile("28-000000000002", "YES", "XYZ");
+    new MultiThermometerReader(devices.getRoot().getPath(), Aggregation.MEDIAN).getTemperature();
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ *
+ */
+package components;
+
+import java.util.List;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import categories.UnitTest;
+
+import components.RelaisController.SwitchEvent;
+
+
+/**
+ * Tests the state cache, the dwell time and the statistics of the RelaisController with a
+ * simulated relais.
+ */
+public class RelaisControllerTest {
+
+  /**
+   * Tests that requests which do not change the state are not written.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testRedundantWritesAreSkipped() {
+    SimulatedRelaisOutput output = new SimulatedRelaisOutput();
+    RelaisController relais = new RelaisController("heater", output, false, 0);
+    relais.switchOff();
+    relais.switchOn();
+    relais.switchOn();
+    relais.switchOn();
+    Assert.assertTrue(output.isOn());
+    Assert.assertTrue(relais.isSwitchedOn());
+    Assert.assertEquals(1, output.getWrites());
+    Assert.assertEquals(1, relais.getSwitchCount());
+    Assert.assertEquals(3, relais.getSkippedWrites());
+  }
+
+  /**
+   * Tests that the relais is switched on at the earliest after the dwell time, that only the latest
+   * requested state is applied afterwards and that switching off is never delayed.
+   *
+   * @throws InterruptedException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testMinimalDwellTime() throws InterruptedException {
+    SimulatedRelaisOutput output = new SimulatedRelaisOutput();
+    RelaisController relais = new RelaisController("heater", output, false, 300);
+    /* the relais was just created */
+    relais.switchOn();
+    Assert.assertFalse(output.isOn());
+    Thread.sleep(500);
+    Assert.assertTrue(output.isOn());
+
+    /* switching off is applied at once, even within the dwell time */
+    relais.switchOff();
+    Assert.assertFalse(output.isOn());
+
+    /* switched on, off and on again within the dwell time, only the last request is applied */
+    relais.switchOn();
+    relais.switchOff();
+    relais.switchOn();
+    Assert.assertFalse(output.isOn());
+    Thread.sleep(500);
+    Assert.assertTrue(output.isOn());
+    Assert.assertEquals(3, output.getWrites());
+
+    relais.switchOff();
+    Assert.assertFalse(output.isOn());
+    List<SwitchEvent> events = relais.getSwitchEvents();
+    Assert.assertEquals(4, events.size());
+    Assert.assertTrue(events.get(0).isSwitchedOn());
+    Assert.assertFalse(events.get(1).isSwitchedOn());
+    Assert.assertTrue(events.get(2).isSwitchedOn());
+    Assert.assertTrue(events.get(2).getTimeMillis() - events.get(1).getTimeMillis() >= 300);
+    /* switched off right after it was switched on */
+    Assert.assertTrue(events.get(3).getTimeMillis() - events.get(2).getTimeMillis() < 300);
+  }
+
+  /**
+   * Tests that only the last switch events are kept.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testSwitchEventsAreBounded() {
+    RelaisController relais =
+        new RelaisController("stirrer", new SimulatedRelaisOutput(), false, 0);
+    for (int i = 0; i < 3 * RelaisController.EVENT_CAPACITY + 1; i++) {
+      relais.switchOn();
+      relais.switchOff();
+    }
+    relais.switchOn();
+    List<SwitchEvent> events = relais.getSwitchEvents();
+    Assert.assertEquals(RelaisController.EVENT_CAPACITY, events.size());
+    Assert.assertTrue(events.get(events.size() - 1).isSwitchedOn());
+    Assert.assertEquals(6 * RelaisController.EVENT_CAPACITY + 3, relais.getSwitchCount());
+  }
+
+  /**
+   * Tests the share of the time the relais was switched on.
+   *
+   * @throws InterruptedException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testDutyCycle() throws InterruptedException {
+    RelaisController relais = new RelaisController("heater", new SimulatedRelaisOutput(), false, 0);
+    Thread.sleep(200);
+    relais.switchOn();
+    Thread.sleep(200);
+    relais.switchOff();
+    Assert.assertEquals(0.5, relais.getDutyCycle(), 0.15);
+  }
+}
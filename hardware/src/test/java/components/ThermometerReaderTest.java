@@ -6,6 +6,9 @@ package components;
 import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 
 import junit.framework.Assert;
 
@@ -14,10 +17,12 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import utilities.PropertyUtil;
 import categories.UnitTest;
 import exceptions.TemperatureNotReadableException;
 
@@ -38,6 +43,12 @@ public class ThermometerReaderTest {
   @Rule
   public ExpectedException expectedException = ExpectedException.none();
 
+  /**
+   * Stand-in for the sysfs folder of the 1-wire devices
+   */
+  @Rule
+  public TemporaryFolder devices = new TemporaryFolder();
+
   /**
    * Parameterless constructor needed as test will start multiple times.
    */
@@ -48,7 +59,9 @@ public class ThermometerReaderTest {
    */
   @BeforeClass
   public static void init() {
-    reader = Mockito.spy(new ThermometerReader());
+    reader =
+        Mockito.spy(new ThermometerReader(
+            PropertyUtil.getProperty(PropertyUtil.TEMPERATURE_SENSOR_BASE_FOLDER_PROPERTY), false));
   }
 
   /**
@@ -105,4 +118,109 @@ public class ThermometerReaderTest {
     expectedException.expect(TemperatureNotReadableException.class);
     reader.getTemperature();
   }
+
+  /**
+   * Writes the sensor file of a device into the stand-in sysfs folder (in place, like the kernel
+   * does on every read).
+   *
+   * @param device name of the device folder
+   * @param crc the CRC flag of the first line
+   * @param temperature the temperature value of the second line
+   * @throws IOException
+   */
+  private void writeSensorFile(final String device, final String crc, final String temperature)
+      throws IOException {
+    File folder = new File(devices.getRoot(), device);
+    folder.mkdirs();
+    String content =
+        "46 01 4b 46 7f ff 0a 10 85 : crc=85 " + crc + "\n46 01 4b 46 7f ff 0a 10 85 t="
+            + temperature + "\n";
+    Files.write(new File(folder, "w1_slave").toPath(), content.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  /**
+   * Tests that the fast reader reads every measurement of the resolved sensor file
+   *
+   * @throws TemperatureNotReadableException
+   * @throws IOException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testFastReader() throws TemperatureNotReadableException, IOException {
+    new File(devices.getRoot(), "w1_bus_master1").mkdirs();
+    writeSensorFile("28-0000056291e6", "YES", "20375");
+    ThermometerReader fastReader = new ThermometerReader(devices.getRoot().getPath(), true);
+    Assert.assertEquals(20.4f, fastReader.getTemperature(), 0.001f);
+    writeSensorFile("28-0000056291e6", "YES", "64937");
+    Assert.assertEquals(64.9f, fastReader.getTemperature(), 0.001f);
+    writeSensorFile("28-0000056291e6", "YES", "-1250");
+    Assert.assertEquals(-1.2f, fastReader.getTemperature(), 0.001f);
+  }
+
+  /**
+   * Tests that the fast reader rejects a measurement with an invalid CRC and recovers afterwards
+   *
+   * @throws TemperatureNotReadableException
+   * @throws IOException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testFastReaderInvalidCrc() throws TemperatureNotReadableException, IOException {
+    writeSensorFile("28-0000056291e6", "NO", "85000");
+    ThermometerReader fastReader = new ThermometerReader(devices.getRoot().getPath(), true);
+    try {
+      fastReader.getTemperature();
+      Assert.fail("Invalid CRC was accepted");
+    } catch (TemperatureNotReadableException e) {
+      // expected
+    }
+    writeSensorFile("28-0000056291e6", "YES", "20375");
+    Assert.assertEquals(20.4f, fastReader.getTemperature(), 0.001f);
+  }
+
+  /**
+   * Tests that the fast reader resolves the sensor again after it was not found
+   *
+   * @throws TemperatureNotReadableException
+   * @throws IOException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testFastReaderResolvesSensorAgain() throws TemperatureNotReadableException,
+      IOException {
+    new File(devices.getRoot(), "w1_bus_master1").mkdirs();
+    ThermometerReader fastReader = new ThermometerReader(devices.getRoot().getPath(), true);
+    try {
+      fastReader.getTemperature();
+      Assert.fail("Temperature without a sensor");
+    } catch (TemperatureNotReadableException e) {
+      // expected
+    }
+    writeSensorFile("28-0000056291e6", "YES", "20375");
+    Assert.assertEquals(20.4f, fastReader.getTemperature(), 0.001f);
+  }
+
+  /**
+   * Tests that the fast reader rejects invalid temperature values
+   *
+   * @throws IOException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testParseSensorBuffer() throws IOException {
+    String valid = "46 01 4b 46 7f ff 0a 10 85 : crc=85 YES\n46 01 4b 46 7f ff 0a 10 85 t=20375\n";
+    Assert.assertEquals(20375, ThermometerReader.parseSensorBuffer(ByteBuffer.wrap(valid
+        .getBytes(StandardCharsets.US_ASCII))));
+    for (String invalid : new String[] {"", valid.replace("YES", "NO"),
+        valid.replace("20375", "XYZ"), valid.replace("t=20375", "t="),
+        valid.substring(0, valid.indexOf('\n'))}) {
+      try {
+        ThermometerReader.parseSensorBuffer(ByteBuffer.wrap(invalid
+            .getBytes(StandardCharsets.US_ASCII)));
+        Assert.fail("Invalid content was accepted: " + invalid);
+      } catch (IOException e) {
+        // expected
+      }
+    }
+  }
 }
@@ -4,14 +4,18 @@ import org.junit.experimental.categories.Categories;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite.SuiteClasses;
 
+import components.BeepSequencerTest;
 import components.GPIOTest;
+import components.MultiThermometerReaderTest;
+import components.RelaisControllerTest;
 import components.ThermometerReaderTest;
 
 /**
  * Runs all tests of the common-project
  */
 @RunWith(Categories.class)
-@SuiteClasses({GPIOTest.class, ThermometerReaderTest.class})
+@SuiteClasses({GPIOTest.class, ThermometerReaderTest.class, MultiThermometerReaderTest.class,
+    RelaisControllerTest.class, BeepSequencerTest.class})
 public class AllTestsExecutable {
   /*
    * has to be empty
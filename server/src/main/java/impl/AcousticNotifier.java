@@ -1,5 +1,6 @@
 package impl;
 
+import general.BeepPattern;
 import interfaces.IAcousticNotifier;
 import interfaces.ISignalControl;
 
@@ -45,16 +46,16 @@ public class AcousticNotifier implements IAcousticNotifier {
   @Override
   public void sendPreNotificationBeep() {
     if (this.doSendPreNotificationBeep) {
-      signaller.sendDoubleBeep();
-      LOGGER.info("DoubleBeep sent");
+      signaller.sendPattern(BeepPattern.PRE_NOTIFICATION);
+      LOGGER.info("PreNotification beep sent");
     }
   }
 
   @Override
   public void sendConfirmationRequestBeep() {
     if (this.doSendConfirmationRequestBeep) {
-      signaller.sendSingleBeep();
-      LOGGER.info("SingleBeep sent");
+      signaller.sendPattern(BeepPattern.CONFIRMATION_REQUEST);
+      LOGGER.info("ConfirmationRequest beep sent");
     }
   }
 
@@ -0,0 +1,107 @@
+/*
+ *
+ */
+package impl;
+
+import interfaces.ISamplingStrategy;
+import utilities.PropertyUtil;
+
+
+/**
+ * Measures the temperature in the minimal interval near the desired temperature or a border of a
+ * subscribed range and doubles the interval up to the maximal interval while the temperature is
+ * stable and far away from them (e.g. during a long rest). While the temperature changes, the
+ * interval is halved and it never exceeds half the time the temperature would need at its current
+ * rate to reach the nearest border, so a border is not passed unnoticed.
+ */
+public class AdaptiveSamplingStrategy implements ISamplingStrategy {
+
+  /** Distance to a border (in degrees) below which the minimal interval is used */
+  public static final float NEAR_DISTANCE = 3.0f;
+
+  /** Change between two measurements (in degrees) up to which the temperature counts as stable */
+  public static final float STABLE_DELTA = 0.25f;
+
+  /** the minimal interval in milliseconds */
+  private final long minInterval;
+
+  /** the maximal interval in milliseconds */
+  private final long maxInterval;
+
+  /** the current interval in milliseconds */
+  private long interval;
+
+  /** the previous temperature (NaN if there is none) */
+  private float lastTemperature = Float.NaN;
+
+  /** time of the previous measurement */
+  private long lastTimeMillis;
+
+  /**
+   * Creates the strategy with the intervals of the settings.
+   */
+  public AdaptiveSamplingStrategy() {
+    this(PropertyUtil.getTemperatureSamplingMinIntervalMillis(), PropertyUtil
+        .getTemperatureSamplingMaxIntervalMillis());
+  }
+
+  /**
+   * Creates the strategy.
+   *
+   * @param minInterval the minimal interval in milliseconds
+   * @param maxInterval the maximal interval in milliseconds
+   */
+  public AdaptiveSamplingStrategy(final long minInterval, final long maxInterval) {
+    if (minInterval <= 0 || maxInterval < minInterval) {
+      throw new IllegalArgumentException("Invalid sampling intervals: " + minInterval + " - "
+          + maxInterval);
+    }
+    this.minInterval = minInterval;
+    this.maxInterval = maxInterval;
+    this.interval = minInterval;
+  }
+
+  @Override
+  public long nextInterval(final float temperature, final float distance, final long timeMillis) {
+    if (Float.isNaN(lastTemperature) || distance <= NEAR_DISTANCE) {
+      interval = minInterval;
+    } else {
+      float change = Math.abs(temperature - lastTemperature);
+      if (change > STABLE_DELTA) {
+        /* ramping */
+        interval = Math.max(minInterval, interval / 2);
+      } else {
+        interval = Math.min(maxInterval, interval * 2);
+      }
+      long elapsed = timeMillis - lastTimeMillis;
+      if (change > 0 && elapsed > 0) {
+        /* time until the border is reached at the current rate */
+        long arrival = (long) (distance / change * elapsed);
+        interval = Math.max(minInterval, Math.min(interval, arrival / 2));
+      }
+    }
+    lastTemperature = temperature;
+    lastTimeMillis = timeMillis;
+    return interval;
+  }
+
+  @Override
+  public long getMaxInterval() {
+    return maxInterval;
+  }
+
+  @Override
+  public void reset() {
+    interval = minInterval;
+    lastTemperature = Float.NaN;
+  }
+
+  /**
+   * Returns the current interval.
+   *
+   * @return the interval in milliseconds
+   */
+  public long getInterval() {
+    return interval;
+  }
+}
@@ -20,6 +20,7 @@ import general.Recipe;
 import interfaces.IAcousticNotifier;
 import interfaces.IBrewingController;
 import interfaces.IBrewingLogService;
+import interfaces.IClock;
 import interfaces.IStirrerService;
 import interfaces.ITemperatureLogger;
 import interfaces.ITemperatureService;
@@ -28,10 +29,8 @@ import interfaces.IUserFacadeService;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 
 import messages.BrewingAbortedMessage;
 import messages.BrewingCompleteMessage;
@@ -50,6 +49,8 @@ import org.apache.logging.log4j.Logger;
 import persistence.PersistenceHandler;
 import utilities.CollectionUtil;
 import utilities.PropertyUtil;
+import utilities.TimeoutScheduler;
+import utilities.TimeoutScheduler.TimeoutHandler;
 
 import com.google.inject.Inject;
 import com.google.inject.Provider;
@@ -103,10 +104,13 @@ public class BrewingController implements IBrewingController {
   private final IAcousticNotifier acousticNotifier; // os220215
 
   /**
-   * The thread for checking whether a request has not received a response in the given timeout
-   * interval
+   * Timeouts of the requests which have not received a response yet, the brewing process is
+   * terminated if one of them is reached
    */
-  private ResposeWaitingThread responseWaitingTread;
+  private TimeoutScheduler<IngredientAddition> responseTimeouts;
+
+  /** maximum amount of time a request can remain unanswered */
+  private long maximalWaitingTimeMillis;
 
   /**
    * UserFacade as Provider to avoid cycles within the dependency injection
@@ -116,6 +120,9 @@ public class BrewingController implements IBrewingController {
   /** persistence handler */
   private final PersistenceHandler persistenceHandler;
 
+  /** The clock of the brewing process */
+  private final IClock clock;
+
 
   /**
    * Instantiates a new brewing controller.
@@ -127,6 +134,7 @@ public class BrewingController implements IBrewingController {
    * @param userFacadeService the user facade service
    * @param masher the masher
    * @param hopCooker the hop cooker
+   * @param clock the clock of the brewing process
    */
   @Inject
   public BrewingController(final ITemperatureService temperatureService,
@@ -134,7 +142,8 @@ public class BrewingController implements IBrewingController {
       final @Named("Masher") BrewingPart masher, final @Named("HopCooker") BrewingPart hopCooker,
       final ITemperatureLogger temperatureLogger, final IAcousticNotifier acousticNotifier,
       final Provider<IUserFacadeService> userFacadeProvider,
-      final PersistenceHandler persistenceHandler) {
+      final PersistenceHandler persistenceHandler, final IClock clock) {
+    this.clock = clock;
     this.persistenceHandler = persistenceHandler;
     this.temperatureLogger = temperatureLogger;
     this.temperatureService = temperatureService;
@@ -149,11 +158,20 @@ public class BrewingController implements IBrewingController {
   }
 
   /**
-   * Creates a new ResponseWaiting Thread, BrewingProcessSummary, initiated the subsriber set and
-   * the state maps.
+   * Creates new response timeouts, BrewingProcessSummary, initiated the subsriber set and the state
+   * maps.
    */
   private void init() {
-    this.responseWaitingTread = new ResposeWaitingThread();
+    maximalWaitingTimeMillis =
+        PropertyUtil.getPropertyLong(PropertyUtil.MILLIS_TO_REQUEST_CONFIRMATION_TIMEOUT_PROPERTY);
+    responseTimeouts =
+        new TimeoutScheduler<IngredientAddition>("ResponseTimeouts",
+            new TimeoutHandler<IngredientAddition>() {
+              @Override
+              public void timeout(final IngredientAddition request) {
+                responseTimedOut(request);
+              }
+            });
     brewingProcessSummary = new BrewingProcessSummary(null);
     pushedMessages = new ArrayList<>();
     initStateMap();
@@ -213,7 +231,7 @@ public class BrewingController implements IBrewingController {
   }
 
   /**
-   * Ends the current brewing process, finishes the log, interrupts the response waiting thread and
+   * Ends the current brewing process, finishes the log, stops the response timeouts and
    * unsubscribes the temperature logger
    * 
    * @param success whether the process was ended regulary or not
@@ -222,7 +240,7 @@ public class BrewingController implements IBrewingController {
   private void exitBrewingProcess(final boolean success) throws BrewingProcessNotFoundException {
     LOGGER
         .info("The brewing process has exited " + (success ? "successfully." : "unsuccessfully."));
-    responseWaitingTread.interrupt();
+    responseTimeouts.shutdown();
     temperatureLogger.unsubscribe();
     if (success || currentBrewingProcess == null) {
       resetBrewingRessources();
@@ -243,10 +261,7 @@ public class BrewingController implements IBrewingController {
     } catch (BrewingProcessNotFoundException e) {
       LOGGER.error("Could not finish brewing process.", e);
     }
-    if (responseWaitingTread != null && responseWaitingTread.isAlive()) {
-      responseWaitingTread.interrupt();
-      responseWaitingTread = null;
-    }
+    responseTimeouts.shutdown();
     try {
       logService.finishLog();
     } catch (BrewingProcessNotFoundException e) {
@@ -388,11 +403,7 @@ public class BrewingController implements IBrewingController {
         Collection<IngredientAddition> requests =
             CollectionUtil.getTypedCollectionFromObject(confirmationRequestMessage.getBrewingStep()
                 .getData(), IngredientAddition.class);
-        if (responseWaitingTread != null && responseWaitingTread.isAlive()) {
-          responseWaitingTread.requestSent(requests);
-        } else {
-          LOGGER.warn("ResponseWaitingThread is null");
-        }
+        requestSent(requests);
       }
     }
     userFacade.get().notify(confirmationRequestMessage);
@@ -493,7 +504,6 @@ public class BrewingController implements IBrewingController {
         logService.log(new BrewingStartMessage(currentBrewingProcess.getRecipe().getName()));
         // os200215: Move this Method-Call to MashingStateHandler, HopCookingStateHandler.
         // temperatureLogger.subscribeToTemperatureController(temperatureService);
-        responseWaitingTread.start();
         /* tell the user the current state and ask for start confirmation */
         sendMashingStartRequest();
       }
@@ -568,13 +578,61 @@ public class BrewingController implements IBrewingController {
   }
 
   /**
-   * Changes the maximalWaitingTimeMillis for the responsWaitingThread
+   * Changes the maximalWaitingTimeMillis for the requests which are sent afterwards
    * 
    * @param maximalWaitingTimeMillis
    */
   public void setMaximalWaitingTimeMillis(final long maximalWaitingTimeMillis) {
-    if (responseWaitingTread != null) {
-      responseWaitingTread.setMaximalWaitingTimeMillis(maximalWaitingTimeMillis);
+    this.maximalWaitingTimeMillis = maximalWaitingTimeMillis;
+  }
+
+  /**
+   * Starts the timeouts of requests which are sent to the user.
+   * 
+   * @param requests the requests
+   */
+  private void requestSent(final Collection<IngredientAddition> requests) {
+    if (requests == null) {
+      return;
+    }
+    if (responseTimeouts.isShutdown()) {
+      LOGGER.warn("Response timeouts are already stopped");
+      return;
+    }
+    for (IngredientAddition request : requests) {
+      LOGGER.info("Request sent: " + request);
+      responseTimeouts.schedule(request, clock.toRealMillis(maximalWaitingTimeMillis));
+    }
+  }
+
+  /**
+   * Cancels the timeouts of requests after they have been confirmed.
+   * 
+   * @param responses the confirmed requests
+   */
+  private void responseReceived(final Collection<IngredientAddition> responses) {
+    if (responses != null) {
+      for (IngredientAddition response : responses) {
+        LOGGER.info("Response received: " + response);
+        responseTimeouts.cancel(response);
+      }
+    }
+  }
+
+  /**
+   * Terminates the brewing process as a request has not been answered in time. Called once by the
+   * response timeouts, the other pending timeouts are cancelled.
+   * 
+   * @param request the request which was not answered
+   */
+  private void responseTimedOut(final IngredientAddition request) {
+    responseTimeouts.cancelAll();
+    LOGGER.log(Level.WARN, "The time for the confirmation of " + request
+        + " has run out. The brewing process will be canceled.");
+    try {
+      terminate(false);
+    } catch (BrewingProcessNotFoundException e) {
+      LOGGER.warn("Could not log terminate the brewing process.", e);
     }
   }
 
@@ -610,126 +668,6 @@ public class BrewingController implements IBrewingController {
     void confirmState(final BrewingState state) throws InvalidBrewingStepException;
   }
 
-  /**
-   * This class manages the time between a request is sent to the user and its response arrives and
-   * terminates the brewing process if this exceeds a maximum threshold.
-   * 
-   * @author Patrick
-   *
-   */
-  private final class ResposeWaitingThread extends Thread {
-    /* time to sleep between checking of extended waiting time */
-    private final long sleepingIntervalMillis = 100;
-
-    /* maximum amount of time a request can remain unanswered */
-    private long maximalWaitingTimeMillis;
-    /* stores the request sent times for the different ingredients */
-    private final Map<IngredientAddition, Long> ingredientAdditionRequestSentAt;
-    private boolean brewing;
-
-    /**
-     * creates a new ResposeWaitingThread and gets the maximum waiting time from the properties file
-     */
-    public ResposeWaitingThread() {
-      maximalWaitingTimeMillis =
-          PropertyUtil
-              .getPropertyLong(PropertyUtil.MILLIS_TO_REQUEST_CONFIRMATION_TIMEOUT_PROPERTY);
-      brewing = true;
-      ingredientAdditionRequestSentAt = new HashMap<IngredientAddition, Long>();
-    }
-
-    /**
-     * Sets the maximumg waiting time
-     * 
-     * @param maximalWaitingTimeMillis
-     */
-    void setMaximalWaitingTimeMillis(final long maximalWaitingTimeMillis) {
-      this.maximalWaitingTimeMillis = maximalWaitingTimeMillis;
-    }
-
-    /**
-     * Adds a list of requests to the monitored ones.
-     * 
-     * @param requests
-     */
-    void requestSent(final Collection<IngredientAddition> requests) {
-      if (requests != null) {
-        Long time = Long.valueOf(System.currentTimeMillis());
-        for (IngredientAddition request : requests) {
-          LOGGER.info("Request sent: " + request);
-          if (!ingredientAdditionRequestSentAt.containsKey(request)) {
-            ingredientAdditionRequestSentAt.put(request, time);
-          }
-        }
-      }
-    }
-
-    /**
-     * Removes a list of requests after they have been confirmed.
-     * 
-     * @param responses
-     */
-    void responseReceived(final Collection<IngredientAddition> responses) {
-      if (responses != null) {
-        for (IngredientAddition response : responses) {
-          LOGGER.info("Response received: " + response);
-          ingredientAdditionRequestSentAt.remove(response);
-        }
-      }
-    }
-
-    /**
-     * Checks if there is one request that exists for more than the maximum amount of time allowed
-     * and terminates the brewing if so.
-     */
-    void checkTimeout() {
-      /*
-       * if no ingredient addition request is sent, we can skip the timeout check
-       */
-      if (ingredientAdditionRequestSentAt.isEmpty()) {
-        return;
-      }
-      /*
-       * check for every ingredient addition with response pending if it has reached the maximum
-       * timeout
-       */
-      for (Iterator<Entry<IngredientAddition, Long>> iterator =
-          ingredientAdditionRequestSentAt.entrySet().iterator(); iterator.hasNext();) {
-        Entry<IngredientAddition, Long> ingredient = iterator.next();
-        long timePassed = System.currentTimeMillis() - ingredient.getValue().longValue();
-        /*
-         * If the maximal waiting period is not reached yet, skip this element and continue with the
-         * next ingredient
-         */
-        if (timePassed < maximalWaitingTimeMillis) {
-          continue;
-        }
-        brewing = false;
-        LOGGER
-            .log(Level.WARN,
-                "The time for a request confirmation has run out. The brewing process will be canceled.");
-        try {
-          terminate(false);
-        } catch (BrewingProcessNotFoundException e) {
-          LOGGER.warn("Could not log terminate the brewing process.", e);
-        }
-        break;
-      }
-    }
-
-    @Override
-    public void run() {
-      while (brewing) {
-        try {
-          Thread.sleep(sleepingIntervalMillis);
-        } catch (InterruptedException e) {
-          LOGGER.warn("ResponseWaitingThread could not sleep.", e);
-        }
-        checkTimeout();
-      }
-    }
-  }
-
   /**
    * This class deals with all actions within the finished state
    */
@@ -788,7 +726,7 @@ public class BrewingController implements IBrewingController {
             brewingProcessSummary.clearTemperatureLevelInfo();
 
             hopCooker.startAction(currentBrewingProcess.getRecipe().getHopCookingPlan());
-            brewingProcessSummary.setStartTimeHopCooking(System.currentTimeMillis());
+            brewingProcessSummary.setStartTimeHopCooking(clock.currentTimeMillis());
             logService.log(new StartMessage(State.HOP_COOKING));
           } catch (BrewingProcessException e) {
             throw new InvalidBrewingStepException(
@@ -803,7 +741,7 @@ public class BrewingController implements IBrewingController {
            * are valid
            */
           changeStateToNormal();
-          responseWaitingTread.responseReceived(CollectionUtil.getTypedCollectionFromObject(
+          responseReceived(CollectionUtil.getTypedCollectionFromObject(
               state.getData(), IngredientAddition.class));
           break;
         case END:
@@ -907,7 +845,7 @@ public class BrewingController implements IBrewingController {
             temperatureLogger.subscribeToTemperatureController(temperatureService);
 
             masher.startAction(currentBrewingProcess.getRecipe().getMashingPlan());
-            brewingProcessSummary.setStartTimeMashing(System.currentTimeMillis());
+            brewingProcessSummary.setStartTimeMashing(clock.currentTimeMillis());
             logService.log(new StartMessage(State.MASHING));
           } catch (BrewingProcessException e) {
             throw new InvalidBrewingStepException(
@@ -921,7 +859,7 @@ public class BrewingController implements IBrewingController {
            * these statements are only reached of no exception is thrown, so all confirmed states
            * are valid
            */
-          responseWaitingTread.responseReceived(CollectionUtil.getTypedCollectionFromObject(
+          responseReceived(CollectionUtil.getTypedCollectionFromObject(
               state.getData(), IngredientAddition.class));
           break;
         case ONGOING:
@@ -18,6 +18,8 @@ import messages.Message;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import utilities.PropertyUtil;
+
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
@@ -49,6 +51,12 @@ public class BrewingLogger implements IBrewingLogService {
   /** BrewingLog of the current brewing process. */
   private BrewingLog brewingLog;
 
+  /** Whether the messages should be journaled to the log storage immediately. */
+  private final boolean journalEnabled;
+
+  /** Whether the log of the current brewing process is journaled. */
+  private boolean journaling;
+
   /**
    * Creates a BrewingLogger which waits until startLog() is called to initialize its content.
    *
@@ -57,6 +65,7 @@ public class BrewingLogger implements IBrewingLogService {
   @Inject
   public BrewingLogger(final ILogStorage logStorage) {
     this.logStorage = logStorage;
+    journalEnabled = PropertyUtil.getLogJournal();
     LOGGER.info("RecipeManagement constructed");
   }
 
@@ -66,11 +75,29 @@ public class BrewingLogger implements IBrewingLogService {
     if (currentBrewingProcess == null || brewingLog == null) {
       throw new BrewingProcessNotFoundException("brewingProcess should not be null");
     }
-    saveLog();
+    if (journaling) {
+      closeJournal();
+    } else {
+      saveLog();
+    }
     LOGGER.info(String.format("finish log for brewing process %s called",
         currentBrewingProcess.toString()));
     currentBrewingProcess = null;
     brewingLog = null;
+    journaling = false;
+  }
+
+  /**
+   * Closes the journal which compacts it into the saved log (if it fails -> save the whole log)
+   */
+  private void closeJournal() {
+    journaling = false;
+    try {
+      logStorage.closeJournal(brewingLog.getId());
+    } catch (LogSavingException e) {
+      LOGGER.error("Closing the journal failed, saving the whole log instead", e);
+      saveLog();
+    }
   }
 
   /**
@@ -113,7 +140,11 @@ public class BrewingLogger implements IBrewingLogService {
       throw new BrewingProcessNotFoundException("brewingProcess should not be null");
     }
     List<Message> prioritizedMessages = new ArrayList<>();
-    for (Message m : brewingLog.getMessages()) {
+    /* temperature readings have the lowest priority, they are only recreated if requested */
+    Collection<Message> messages =
+        priority == MessagePriority.VERY_LOW ? brewingLog.getMessages() : brewingLog
+            .getNonReadingMessages();
+    for (Message m : messages) {
       if (m.getPriority().getValue() <= priority.getValue()) {
         prioritizedMessages.add(m);
       }
@@ -128,6 +159,19 @@ public class BrewingLogger implements IBrewingLogService {
       throw new BrewingProcessNotFoundException("startLog needs to be called first");
     }
     brewingLog.log(m);
+    if (journaling) {
+      try {
+        logStorage.appendToJournal(brewingLog.getId(), m);
+      } catch (LogSavingException e) {
+        /*
+         * the message is still part of the log in memory, which is saved completely at the end,
+         * so the incomplete journal is dropped instead of being recovered as a second log
+         */
+        LOGGER.error("Journaling failed, the log will be saved when it is finished", e);
+        journaling = false;
+        logStorage.abortJournal(brewingLog.getId());
+      }
+    }
   }
 
 
@@ -143,5 +187,13 @@ public class BrewingLogger implements IBrewingLogService {
     LOGGER.info(String.format("startLog for brewing process %s called", brewingProcess.toString()));
     currentBrewingProcess = brewingProcess;
     brewingLog = currentBrewingProcess.getBrewingLog();
+    if (journalEnabled) {
+      try {
+        logStorage.openJournal(brewingLog);
+        journaling = true;
+      } catch (LogSavingException e) {
+        LOGGER.error("Journal could not be opened, the log will be saved when it is finished", e);
+      }
+    }
   }
 }
@@ -6,6 +6,7 @@ import general.BrewingState.Type;
 import interfaces.IBrewingController;
 import interfaces.IBrewingLogService;
 import interfaces.IBrewingPartPlan;
+import interfaces.IBrewingScheduler;
 import interfaces.ITemperatureService;
 import messages.Message;
 
@@ -32,20 +33,25 @@ public abstract class BrewingPart {
 
   protected Provider<IBrewingController> brewingController;
 
+  /** The scheduler which runs the delayed steps of the process. */
+  protected final IBrewingScheduler scheduler;
+
   /**
    * Instantiates a BrewingPart.
    *
    * @param temperatureService the temperature service
    * @param brewingLogService the brewing log service
    * @param brewingService the brewing service
+   * @param scheduler the scheduler which runs the delayed steps
    */
   @Inject
   public BrewingPart(final ITemperatureService temperatureService,
       final IBrewingLogService brewingLogService,
-      final Provider<IBrewingController> brewingController) {
+      final Provider<IBrewingController> brewingController, final IBrewingScheduler scheduler) {
     this.temperatureService = temperatureService;
     this.logService = brewingLogService;
     this.brewingController = brewingController;
+    this.scheduler = scheduler;
   }
 
   /**
@@ -0,0 +1,105 @@
+/*
+ *
+ */
+package impl;
+
+import interfaces.IBrewingScheduler;
+import interfaces.IClock;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+
+/**
+ * Scheduler which is shared by the Masher and the HopCooker. The tasks are run by a small pool of
+ * daemon threads, so no thread is created per brewing step and waiting does not block a thread.
+ */
+@Singleton
+public class BrewingScheduler implements IBrewingScheduler {
+
+  /** The logger which saves all the information into log files */
+  private static final Logger LOGGER = LogManager.getLogger();
+
+  /**
+   * Number of threads, more than one so a listener which blocks while it is notified does not
+   * delay the other brewing part
+   */
+  private static final int THREADS = 2;
+
+  /** The executor which runs the tasks */
+  private final ScheduledExecutorService executor;
+
+  /** The clock which the delays are measured in */
+  private final IClock clock;
+
+  /**
+   * Creates the scheduler and its executor.
+   *
+   * @param clock the clock which the delays are measured in
+   */
+  @Inject
+  public BrewingScheduler(final IClock clock) {
+    this.clock = clock;
+    final AtomicInteger threadNumber = new AtomicInteger();
+    ScheduledThreadPoolExecutor scheduledExecutor =
+        new ScheduledThreadPoolExecutor(THREADS, new ThreadFactory() {
+          @Override
+          public Thread newThread(final Runnable runnable) {
+            Thread thread =
+                new Thread(runnable, "BrewingScheduler-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+          }
+        });
+    /* cancelled steps (e.g. of a terminated brewing process) are dropped immediately */
+    scheduledExecutor.setRemoveOnCancelPolicy(true);
+    executor = scheduledExecutor;
+  }
+
+  @Override
+  public Future<?> schedule(final Runnable task, final long delayMillis) {
+    return clock.schedule(executor, new LoggingTask(task), delayMillis);
+  }
+
+  @Override
+  public long currentTimeMillis() {
+    return clock.currentTimeMillis();
+  }
+
+  /**
+   * Logs the exceptions of a task, which the executor would only store in the future of the task.
+   */
+  private static final class LoggingTask implements Runnable {
+
+    /** the task */
+    private final Runnable task;
+
+    /**
+     * Wraps a task.
+     *
+     * @param task the task
+     */
+    LoggingTask(final Runnable task) {
+      this.task = task;
+    }
+
+    @Override
+    public void run() {
+      try {
+        task.run();
+      } catch (RuntimeException e) {
+        LOGGER.error("Scheduled brewing step failed", e);
+        throw e;
+      }
+    }
+  }
+}
@@ -0,0 +1,47 @@
+/*
+ *
+ */
+package impl;
+
+import interfaces.ISamplingStrategy;
+
+
+/**
+ * Measures the temperature in a constant interval.
+ */
+public class FixedSamplingStrategy implements ISamplingStrategy {
+
+  /** the interval in milliseconds */
+  private final long interval;
+
+  /**
+   * Creates the strategy with the MEASUREMENT_INTERVAL of the TemperatureController.
+   */
+  public FixedSamplingStrategy() {
+    this(TemperatureController.MEASUREMENT_INTERVAL);
+  }
+
+  /**
+   * Creates the strategy.
+   *
+   * @param interval the interval in milliseconds
+   */
+  public FixedSamplingStrategy(final long interval) {
+    this.interval = interval;
+  }
+
+  @Override
+  public long nextInterval(final float temperature, final float distance, final long timeMillis) {
+    return interval;
+  }
+
+  @Override
+  public long getMaxInterval() {
+    return interval;
+  }
+
+  @Override
+  public void reset() {
+    /* no state */
+  }
+}
@@ -17,12 +17,14 @@ import interfaces.IAcousticNotifier;
 import interfaces.IBrewingController;
 import interfaces.IBrewingLogService;
 import interfaces.IBrewingPartPlan;
+import interfaces.IBrewingScheduler;
 import interfaces.ITemperatureEvent;
 import interfaces.ITemperatureService;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.Future;
 
 import messages.ConfirmationRequestMessage;
 import messages.HopAdditionMessage;
@@ -49,6 +51,9 @@ public class HopCooker extends BrewingPart {
   /** The logger which saves all the information into log files */
   private static final Logger LOGGER = LogManager.getLogger();
 
+  /** Interval in which is checked whether the last hop addition has been confirmed */
+  private static final long CONFIRMATION_CHECK_INTERVAL_MILLIS = 1500;
+
   /** The hop cooking plan. */
   private HopCookingPlan hopCookingPlan;
 
@@ -68,18 +73,21 @@ public class HopCooker extends BrewingPart {
   /* amount of milliseconds to wait until timeout */
   private final long maximalWaitingTimeMillis;
 
-  private Thread hopCookingThread;
+  /** The next pending step of the hop cooking process */
+  private Future<?> nextStep;
 
   /**
    * Instantiates a new hop cooker.
    *
    * @param temperatureService the temperature service
    * @param brewingLogService the brewing log service
+   * @param scheduler the scheduler which runs the delayed steps
    */
   @Inject
   public HopCooker(final ITemperatureService temperatureService,
-      final IBrewingLogService brewingLogService, final Provider<IBrewingController> listener) {
-    super(temperatureService, brewingLogService, listener);
+      final IBrewingLogService brewingLogService, final Provider<IBrewingController> listener,
+      final IBrewingScheduler scheduler) {
+    super(temperatureService, brewingLogService, listener, scheduler);
     maximalWaitingTimeMillis =
         PropertyUtil.getPropertyLong(PropertyUtil.MILLIS_TO_REQUEST_CONFIRMATION_TIMEOUT_PROPERTY);
 
@@ -217,19 +225,17 @@ public class HopCooker extends BrewingPart {
   }
 
   /**
-   * Makes the calling thread sleep for the specified time in milliseconds if it is not zero. Errors
-   * will be logged.
+   * Schedules the next step of the hop cooking process and cancels the step which was pending
+   * before.
    *
-   * @param timeMillis
+   * @param step the next step or null to only cancel the pending one
+   * @param timeMillis time to wait until the step is performed
    */
-  private void sleepIfNotZero(final long timeMillis) {
-    if (timeMillis > 0) {
-      try {
-        Thread.sleep(timeMillis);
-      } catch (InterruptedException e) {
-        LOGGER.error("Cannot sleep!", e);
-      }
+  private synchronized void scheduleNextStep(final Runnable step, final long timeMillis) {
+    if (nextStep != null) {
+      nextStep.cancel(false);
     }
+    nextStep = step == null ? null : scheduler.schedule(step, timeMillis);
   }
 
   /**
@@ -254,12 +260,12 @@ public class HopCooker extends BrewingPart {
         temperatureService.subscribe(hopcookingTemperature, hopcookingPrenotifTemperature,
             new PrenotifyHopcookingStart(this));
 
-        // Start hop cooking in new thread as soon as temperature is reached.
+        // Start hop cooking on the scheduler as soon as temperature is reached.
         temperatureService.subscribe(hopcookingTemperature, 1, new PerformHopcookingStart());
 
         brewingController.get().actualizeTemperatureLevel(
             new TemperatureLevelInfo(1, 0, ((HopCookingPlan) hopCookingPlan).getDuration(), 100,
-                false, System.currentTimeMillis()));
+                false, scheduler.currentTimeMillis()));
 
         // Heat up to the hop cooking temperature.
         temperatureService.heatUp(hopcookingTemperature);
@@ -287,11 +293,7 @@ public class HopCooker extends BrewingPart {
     @Override
     public SubscribeStatus temperatureReached(final float temperature) {
 
-      if (hopCookingThread != null && hopCookingThread.isAlive()) {
-        hopCookingThread.interrupt();
-        hopCookingThread = null;
-      }
-      hopCookingThread = new Thread(new Runnable() {
+      scheduler.schedule(new Runnable() {
         @Override
         public void run() {
           TemperatureMessage tempMsg = new TemperatureMessage(temperature);
@@ -300,15 +302,14 @@ public class HopCooker extends BrewingPart {
 
           parent.notifyListener(tempMsg);
         }
-      });
+      }, 0);
 
-      hopCookingThread.start();
       return SubscribeStatus.UNSUBSCRIBE;
     }
   }
 
   /**
-   * TemperatureEvent listener that starts hop cooking in a new thread, when the temperature is
+   * TemperatureEvent listener that starts hop cooking on the scheduler, when the temperature is
    * reached.
    *
    */
@@ -316,109 +317,138 @@ public class HopCooker extends BrewingPart {
 
     @Override
     public SubscribeStatus temperatureReached(final float temperature) {
-      hopCookingThread = new Thread(new Runnable() {
+      scheduleNextStep(new Runnable() {
 
         @Override
         public void run() {
           brewingController.get().actualizeTemperatureLevel(
-              new TemperatureLevelInfo(1, 0, hopCookingPlan.getDuration(), 100, true, System
+              new TemperatureLevelInfo(1, 0, hopCookingPlan.getDuration(), 100, true, scheduler
                   .currentTimeMillis()));
-          controlHopAdditions();
+          controlHopAdditions(0, 0);
         }
-      });
-
-      hopCookingThread.start();
+      }, 0);
 
       return SubscribeStatus.UNSUBSCRIBE;
     }
 
     /**
-     * Controls hop additions. Notifies user when he has to add hop.
+     * Controls hop additions. Notifies user when he has to add hop. Every call handles the hop
+     * additions with the next input time and schedules the call for the following ones.
+     *
+     * @param index index of the next hop addition in the hop cooking plan
+     * @param currentTime the current time in the hop addition sequence
      */
-    private void controlHopAdditions() {
-
-      // The current time in the hop addition sequence.
-      long currentTime = 0;
-      int i = 0;
-
-      while (i < hopCookingPlan.getHopAdditions().size()) {
-        // --Collect all hop additions that have the same input time-------------//
-        HopAddition currHA = hopCookingPlan.getHopAdditions().get(i);
-        synchronized (expectedHopAdditions) {
-          // currHA wird auch erst in der Schleife hinzugefügt.
-          while (i < hopCookingPlan.getHopAdditions().size()) {
-            HopAddition nextHA = hopCookingPlan.getHopAdditions().get(i);
-            if (nextHA.getInputTime() == currHA.getInputTime()) {
-              expectedHopAdditions.add(nextHA);
-              i++;
-            } else {
-              break;
-            }
+    private void controlHopAdditions(final int index, final long currentTime) {
+      if (index >= hopCookingPlan.getHopAdditions().size()) {
+        waitForHopCookingEnd(currentTime);
+        return;
+      }
+      // --Collect all hop additions that have the same input time-------------//
+      final HopAddition currHA = hopCookingPlan.getHopAdditions().get(index);
+      int i = index;
+      synchronized (expectedHopAdditions) {
+        // currHA wird auch erst in der Schleife hinzugefügt.
+        while (i < hopCookingPlan.getHopAdditions().size()) {
+          HopAddition nextHA = hopCookingPlan.getHopAdditions().get(i);
+          if (nextHA.getInputTime() == currHA.getInputTime()) {
+            expectedHopAdditions.add(nextHA);
+            i++;
+          } else {
+            break;
           }
         }
-        // ---------------------------------------------------------------------//
-
-        // Sleep until input time minus prenotification time.
-        long sleepingTime =
-            Math.max(currHA.getInputTime() - hopcookingPrenotifTime - currentTime, 0);
-        sleepIfNotZero(sleepingTime);
-        // Advance the amount of time that we have slept.
-        currentTime += sleepingTime;
-
-        // Calculate distance to next input time.
-        sleepingTime = Math.max(currHA.getInputTime() - currentTime, 0);
-        
-        // Time to send the prenotification.
-        // --> Pass a copy of the list to ensure thread-safety.
-        // --> sleeping time is the time to the next input time.
-        prenotifyHopAddition(new ArrayList<HopAddition>(expectedHopAdditions), sleepingTime);
-
-        // Sleep until the actual input time.
-        sleepIfNotZero(sleepingTime);
-        // Advance the amount of time that we have slept.
-        currentTime += sleepingTime;
-
-        // Now hop addition has to be performed, send final request message!
-        // --> Pass a copy of the list to ensure thread-safety.
-        requestHopAdditionConfirmation(new ArrayList<HopAddition>(expectedHopAdditions));
       }
+      final int nextIndex = i;
+      // ---------------------------------------------------------------------//
+
+      // Wait until input time minus prenotification time.
+      final long sleepingTime =
+          Math.max(currHA.getInputTime() - hopcookingPrenotifTime - currentTime, 0);
+      scheduleNextStep(new Runnable() {
+
+        @Override
+        public void run() {
+          // Advance the amount of time that we have waited.
+          long timeOfPrenotification = currentTime + sleepingTime;
+
+          // Calculate distance to next input time.
+          long timeToAddition = Math.max(currHA.getInputTime() - timeOfPrenotification, 0);
+
+          // Time to send the prenotification.
+          // --> Pass a copy of the list to ensure thread-safety.
+          // --> sleeping time is the time to the next input time.
+          prenotifyHopAddition(new ArrayList<HopAddition>(expectedHopAdditions), timeToAddition);
+
+          // Wait until the actual input time.
+          requestHopAdditionAt(nextIndex, timeOfPrenotification + timeToAddition, timeToAddition);
+        }
+      }, sleepingTime);
+    }
+
+    /**
+     * Requests the confirmation of the expected hop additions after the given time and continues
+     * with the next hop additions.
+     *
+     * @param nextIndex index of the next hop addition in the hop cooking plan
+     * @param timeOfAddition the time of the hop addition in the hop addition sequence
+     * @param sleepingTime time to wait until the hop addition
+     */
+    private void requestHopAdditionAt(final int nextIndex, final long timeOfAddition,
+        final long sleepingTime) {
+      scheduleNextStep(new Runnable() {
+
+        @Override
+        public void run() {
+          // Now hop addition has to be performed, send final request message!
+          // --> Pass a copy of the list to ensure thread-safety.
+          requestHopAdditionConfirmation(new ArrayList<HopAddition>(expectedHopAdditions));
+          controlHopAdditions(nextIndex, timeOfAddition);
+        }
+      }, sleepingTime);
+    }
 
-      long timeAfterLastHopAdditionRequest = System.currentTimeMillis();
+    /**
+     * Waits until the cooking time of the last hop is over (again minus prenotification time) and
+     * the last hop addition has been confirmed or the time for the confirmation has run out.
+     *
+     * @param currentTime the current time in the hop addition sequence
+     */
+    private void waitForHopCookingEnd(final long currentTime) {
+      final long timeAfterLastHopAdditionRequest = scheduler.currentTimeMillis();
       // Respect the cooking time of the last hop that is currently in the brewing,
       // again minus prenotification time.
-      long sleepingTime =
+      final long sleepingTime =
           Math.max(hopCookingPlan.getDuration() - hopcookingPrenotifTime - currentTime, 0);
-      sleepIfNotZero(sleepingTime);
-      currentTime += sleepingTime;
+      scheduleNextStep(new Runnable() {
 
-      /* while there is still an open request and the time has not run out, wait */
-      while (System.currentTimeMillis() - timeAfterLastHopAdditionRequest < maximalWaitingTimeMillis
-          && !expectedHopAdditions.isEmpty()) {
-        try {
-          Thread.sleep(1500);
-        } catch (InterruptedException e) {
-          LOGGER.error("Hop Cooker could not sleep to wait for hop addition confirmation.", e);
-        }
-      }
+        @Override
+        public void run() {
+          /* while there is still an open request and the time has not run out, wait */
+          if (scheduler.currentTimeMillis() - timeAfterLastHopAdditionRequest
+              < maximalWaitingTimeMillis && !expectedHopAdditions.isEmpty()) {
+            scheduleNextStep(this, CONFIRMATION_CHECK_INTERVAL_MILLIS);
+            return;
+          }
 
-      prenotifyHopcookingEnd(); // Prenotify the end of hop cooking.
+          prenotifyHopcookingEnd(); // Prenotify the end of hop cooking.
 
-      // Now sleep until the final end of the hop cooking process.
-      sleepingTime = Math.max(hopCookingPlan.getDuration() - currentTime, 0);
-      sleepIfNotZero(sleepingTime);
-      currentTime += sleepingTime;
+          // Now wait until the final end of the hop cooking process.
+          scheduleNextStep(new Runnable() {
 
-      // Perform final steps.
-      endHopcookingProcess();
+            @Override
+            public void run() {
+              // Perform final steps.
+              endHopcookingProcess();
+            }
+          }, Math.max(hopCookingPlan.getDuration() - currentTime - sleepingTime, 0));
+        }
+      }, sleepingTime);
     }
   }
 
   @Override
   public void finish() {
-    if (hopCookingThread != null && hopCookingThread.isAlive()) {
-      hopCookingThread.interrupt();
-      hopCookingThread = null;
-    }
+    scheduleNextStep(null, 0);
     try {
       super.finish();
     } catch (BrewingProcessNotFoundException e) {
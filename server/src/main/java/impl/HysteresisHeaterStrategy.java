@@ -0,0 +1,50 @@
+/*
+ *
+ */
+package impl;
+
+import interfaces.IHeaterStrategy;
+import utilities.PropertyUtil;
+
+
+/**
+ * Switches the heater on below and off above a band of +- TempcHeatupDelta around the desired
+ * temperature and keeps its state inside the band (a bang-bang controller with hysteresis).
+ */
+public class HysteresisHeaterStrategy implements IHeaterStrategy {
+
+  /** half the width of the band around the desired temperature */
+  private final float delta;
+
+  /**
+   * Creates the strategy with the TempcHeatupDelta of the settings.
+   */
+  public HysteresisHeaterStrategy() {
+    this(PropertyUtil.getTempcHeatupDelta());
+  }
+
+  /**
+   * Creates the strategy.
+   *
+   * @param delta half the width of the band around the desired temperature
+   */
+  public HysteresisHeaterStrategy(final float delta) {
+    this.delta = delta;
+  }
+
+  @Override
+  public boolean isHeating(final float temperature, final float targetTemperature,
+      final boolean heating, final long timeMillis) {
+    if (temperature < targetTemperature - delta) {
+      return true;
+    } else if (temperature > targetTemperature + delta) {
+      return false;
+    }
+    return heating;
+  }
+
+  @Override
+  public void reset() {
+    /* no state */
+  }
+}
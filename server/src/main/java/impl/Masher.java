@@ -17,6 +17,7 @@ import general.TemperatureLevel;
 import interfaces.IBrewingController;
 import interfaces.IBrewingLogService;
 import interfaces.IBrewingPartPlan;
+import interfaces.IBrewingScheduler;
 import interfaces.IStirrerService;
 import interfaces.ITemperatureEvent;
 import interfaces.ITemperatureService;
@@ -28,6 +29,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.concurrent.Future;
 
 import messages.ConfirmationRequestMessage;
 import messages.IodineTestMessage;
@@ -76,53 +78,6 @@ public class Masher extends BrewingPart {
     PrenotifyMalt, NotifyMalt, NextTemp
   }
 
-  /**
-   * Parallel thread which deals with a delayed iodine-test
-   */
-  private class IodineTestWaiter extends Thread {
-    
-    /**
-     * time to wait until the next iodine test can be done
-     */
-    final long timeToWait;
-
-    /**
-     * Initializes the Thread with a time to wait
-     * @param timeToWait the time in milliseconds to wait
-     */
-    IodineTestWaiter(final long timeToWait) {
-      this.timeToWait = timeToWait;
-    }
-
-    @Override
-    public void run() {
-      sleepMasher(timeToWait);
-      startIodineTest();
-    }
-  }
-
-  private class NextActionWaiter extends Thread {
-    final long timeToWait;
-    final MaltAddition maltAdditionToRequest;
-    final ListIterator<ActionAndTime> actionIterator;
-
-    NextActionWaiter(final long timeToWait, final MaltAddition maltAdditionToRequest,
-        final ListIterator<ActionAndTime> actionIterator) {
-      this.timeToWait = timeToWait;
-      this.maltAdditionToRequest = maltAdditionToRequest;
-      this.actionIterator = actionIterator;
-    }
-
-    @Override
-    public void run() {
-      sleepMasher(timeToWait);
-      requestedMaltAdditions.add(maltAdditionToRequest);
-      notifyListener(new MaltAdditionMessage(
-          CollectionUtil.getArrayListOfBrewingStatesSortedByTime(requestedMaltAdditions)));
-      controlMaltAdditions(actionIterator);
-    }
-  }
-
   private class ActionAndTime {
     NextAction nextAction;
     Long time;
@@ -135,15 +90,19 @@ public class Masher extends BrewingPart {
     }
   }
 
-  private static class Timer {
-    private static boolean running = false;
-    private static long startTime = -1;
-    private static long alreadyPassedTime = 0;
+  /**
+   * Stopwatch of the mashing process in the time of the scheduler, which can be stopped while a
+   * temperature level is heated up
+   */
+  private class Timer {
+    private boolean running = false;
+    private long startTime = -1;
+    private long alreadyPassedTime = 0;
 
     /**
      * resets the Timer
      */
-    static void reset() {
+    void reset() {
       startTime = -1;
       alreadyPassedTime = 0;
       running = false;
@@ -152,9 +111,9 @@ public class Masher extends BrewingPart {
     /**
      * starts or resstarts a timer
      */
-    static void start() {
+    void start() {
       if (!running) {
-        startTime = System.currentTimeMillis();
+        startTime = scheduler.currentTimeMillis();
         running = true;
       }
     }
@@ -163,9 +122,9 @@ public class Masher extends BrewingPart {
      * stops the timer and saves the time passed to the given point in time, so that it can be
      * restarted
      */
-    static void stop() {
+    void stop() {
       if (running) {
-        alreadyPassedTime += System.currentTimeMillis() - startTime;
+        alreadyPassedTime += scheduler.currentTimeMillis() - startTime;
         running = false;
       }
     }
@@ -173,8 +132,8 @@ public class Masher extends BrewingPart {
     /**
      * @return the passed time since the timer was reseted not counting the time it was stoped
      */
-    static long getTimeMillis() {
-      return running ? (System.currentTimeMillis() - startTime + alreadyPassedTime)
+    long getTimeMillis() {
+      return running ? (scheduler.currentTimeMillis() - startTime + alreadyPassedTime)
           : alreadyPassedTime;
     }
   }
@@ -183,6 +142,8 @@ public class Masher extends BrewingPart {
   public static final Logger LOGGER = LogManager.getLogger();
 
   private final BrewingState brewingState;
+  /** The stopwatch of the mashing process */
+  private final Timer timer = new Timer();
   private final LinkedList<ActionAndTime> sortedActions;
   private TemperatureLevel lastTempLevel;
   private ITemperatureEvent currentTempEvent;
@@ -191,9 +152,10 @@ public class Masher extends BrewingPart {
   private final Set<MaltAddition> requestedMaltAdditions;
   private boolean maltAdditionsFinished = false;
   private long millisToNotification;
-  private IodineTestWaiter iodineTestWaiter;
-  private NextActionWaiter nextActionWaiter;
-  private Thread mashingThread;
+  /** The next pending step of the malt additions and temperature levels */
+  private Future<?> nextStep;
+  /** The pending start of the next iodine test */
+  private Future<?> iodineTestStep;
 
   /**
    * Instantiates a new Masher.
@@ -201,12 +163,13 @@ public class Masher extends BrewingPart {
    * @param temperatureService the temperature service
    * @param brewingLogService the brewing log service
    * @param brewingService the brewing service
+   * @param scheduler the scheduler which runs the delayed steps
    */
   @Inject
   public Masher(final ITemperatureService temperatureService, final IStirrerService stirrer,
       final IBrewingLogService brewingLogService,
-      final Provider<IBrewingController> brewingController) {
-    super(temperatureService, brewingLogService, brewingController);
+      final Provider<IBrewingController> brewingController, final IBrewingScheduler scheduler) {
+    super(temperatureService, brewingLogService, brewingController, scheduler);
     this.stirrer = stirrer;
     sortedActions = new LinkedList<ActionAndTime>();
     requestedMaltAdditions = new HashSet<MaltAddition>();
@@ -237,18 +200,8 @@ public class Masher extends BrewingPart {
     if (stirrer != null) {
       stirrer.stopStirring();
     }
-    if (mashingThread != null && mashingThread.isAlive()) {
-      mashingThread.interrupt();
-      mashingThread = null;
-    }
-    if (iodineTestWaiter != null && iodineTestWaiter.isAlive()) {
-      iodineTestWaiter.interrupt();
-      iodineTestWaiter = null;
-    }
-    if (nextActionWaiter != null && nextActionWaiter.isAlive()) {
-      nextActionWaiter.interrupt();
-      nextActionWaiter = null;
-    }
+    scheduleNextStep(null, 0);
+    scheduleIodineTest(null, 0);
     super.finish();
     init();
   }
@@ -291,7 +244,7 @@ public class Masher extends BrewingPart {
       if (maltAdditionsFinished) {
         LOGGER.info("Masher: Mashing time finished");
         sleepUntilIodineTest(lastTempLevel.getStartTime() + lastTempLevel.getDuration()
-            - Timer.getTimeMillis());
+            - timer.getTimeMillis());
       } else {
         try {
           proceedConfirmation(Position.ONGOING);
@@ -395,7 +348,7 @@ public class Masher extends BrewingPart {
         } catch (BrewingProcessNotFoundException e) {
           LOGGER.error("Could proceed to brewing state position \"ONGOING\".", e.getMessage());
         }
-        Timer.reset();
+        timer.reset();
         controlTemperatureLevel(mashingPlan.getTemperatureLevels().get(0),
             sortedActions.listIterator()); // the first element
         // always exists
@@ -503,7 +456,7 @@ public class Masher extends BrewingPart {
       final ListIterator<ActionAndTime> iterator) {
     lastTempLevel = currentTempLevel;
     int tempInt = Math.round(currentTempLevel.getTemperature());
-    Timer.stop();
+    timer.stop();
     if (currentTempEvent != null) {
       temperatureService.unsubscribe(currentTempEvent);
     }
@@ -519,7 +472,7 @@ public class Masher extends BrewingPart {
     brewingController.get().actualizeTemperatureLevel(
         new TemperatureLevelInfo(mashingPlan.getTemperatureLevels().indexOf(currentTempLevel) + 1,
             currentTempLevel.getStartTime(), currentTempLevel.getDuration(), currentTempLevel
-                .getTemperature(), false, System.currentTimeMillis()));
+                .getTemperature(), false, scheduler.currentTimeMillis()));
     temperatureService.heatUp(tempInt);
   }
 
@@ -554,91 +507,45 @@ public class Masher extends BrewingPart {
       return;
     }
 
-    Timer.start();
+    timer.start();
     brewingController.get().actualizeTemperatureLevel(
         new TemperatureLevelInfo(mashingPlan.getTemperatureLevels().indexOf(currentTempLevel) + 1,
             currentTempLevel.getStartTime(), currentTempLevel.getDuration(), currentTempLevel
-                .getTemperature(), true, System.currentTimeMillis()));
+                .getTemperature(), true, scheduler.currentTimeMillis()));
     try {
       logService.log(new TemperatureLevelMessage(currentTempLevel));
     } catch (BrewingProcessNotFoundException e) {
       LOGGER.warn("Could not log the temperature level reached.", e);
     }
-    /* there is at max one mashingThread running, to control the malt addition requests */
-    if (mashingThread != null && mashingThread.isAlive()) {
-      mashingThread.interrupt();
-      try {
-        mashingThread.join();
-      } catch (InterruptedException e) {
-        LOGGER.error("MashingThread failed while join()", e);
-      }
-    }
-    mashingThread = new Thread(new Runnable() {
+    /* there is at max one pending step, to control the malt addition requests */
+    scheduleNextStep(new Runnable() {
 
       @Override
       public void run() {
         controlMaltAdditions(iterator);
       }
-    });
-
-    mashingThread.start();
+    }, 0);
   }
 
   /**
-   * Loops over the remaining notifications in sortedActions and performs the malt addition
-   * notifications and prenotifications. Steps back to controlTemperatureLevel if the time of a new
-   * heating level has come. Waits for a user confirmation if a malt addition level has come.
+   * Performs the next of the remaining notifications in sortedActions. Malt addition notifications
+   * and prenotifications are scheduled for their time and continue with the following action. Steps
+   * back to controlTemperatureLevel if the time of a new heating level has come.
    * 
    * @param iterator represents sortedActions
    */
   private void controlMaltAdditions(final ListIterator<ActionAndTime> iterator) {
-    Timer.start();
-    ActionAndTime nextActionAndTime = iterator.hasNext() ? iterator.next() : null;
-    while (nextActionAndTime != null && NextAction.NextTemp != nextActionAndTime.nextAction) {
-      /* handle malt addition notification and prenotifications here */
-      if (NextAction.PrenotifyMalt == nextActionAndTime.nextAction) {
-        /* prenotificiation */
-        long timeToSleep = nextActionAndTime.time - Timer.getTimeMillis();
-        PreNotificationMessage preNotification =
-            new PreNotificationMessage(brewingState, new MaltAdditionMessage(
-                Arrays.asList(nextActionAndTime.maltAddition)), millisToNotification);
-        if (timeToSleep < 0) { // the notification is late
-          if (timeToSleep + millisToNotification >= 0) {
-            // it can be safed by sending a notification with less than the default delay
-            preNotification.setMillisToNotification(timeToSleep + millisToNotification);
-            notifyListener(preNotification);
-          }
-          nextActionAndTime = iterator.hasNext() ? iterator.next() : null;
-        } else {
-          try {
-            Thread.sleep(timeToSleep);
-          } catch (InterruptedException e) {
-            // if the thread can not be put to sleep, send the pre-notification message earlier
-            preNotification.setMillisToNotification(millisToNotification + timeToSleep);
-            // skip the already sent notification
-          } finally {
-            notifyListener(preNotification);
-            nextActionAndTime = iterator.hasNext() ? iterator.next() : null;
-          }
-        }
-      } else {
-        sleepUntilNextAction(nextActionAndTime.time - Timer.getTimeMillis(),
-            nextActionAndTime.maltAddition, iterator);
-        return;
-      }
-    }
-    if (nextActionAndTime != null) {
-      sleepMasher(nextActionAndTime.time - Timer.getTimeMillis());
-      controlTemperatureLevel(nextActionAndTime.tempLevel, iterator);
-    } else { /* the last mashing step has been performed */
+    timer.start();
+    final ActionAndTime nextActionAndTime = iterator.hasNext() ? iterator.next() : null;
+    if (nextActionAndTime == null) { /* the last mashing step has been performed */
       LOGGER.info("Masher: no more temp levels");
       if (requestedMaltAdditions.isEmpty()) {
         LOGGER.info("Masher: sleeping for "
-            + (lastTempLevel.getStartTime() + lastTempLevel.getDuration() - Timer.getTimeMillis())
+            + (lastTempLevel.getStartTime() + lastTempLevel.getDuration() - timer.getTimeMillis())
             + "millis");
         /* wait until end of temperature level, then start iodine test */
         sleepUntilIodineTest(lastTempLevel.getStartTime() + lastTempLevel.getDuration()
-            - Timer.getTimeMillis());
+            - timer.getTimeMillis());
       } else /* there are still malt additions requested */{
         LOGGER.info("Masher: mashing requests pending");
         maltAdditionsFinished = true;
@@ -646,63 +553,97 @@ public class Masher extends BrewingPart {
         notifyListener(new MaltAdditionMessage(
             CollectionUtil.getArrayListOfBrewingStatesSortedByTime(requestedMaltAdditions)));
       }
+      return;
+    }
+    long timeToWait = nextActionAndTime.time - timer.getTimeMillis();
+    switch (nextActionAndTime.nextAction) {
+      case PrenotifyMalt:
+        /* prenotificiation */
+        final PreNotificationMessage preNotification =
+            new PreNotificationMessage(brewingState, new MaltAdditionMessage(
+                Arrays.asList(nextActionAndTime.maltAddition)), millisToNotification);
+        if (timeToWait < 0) { // the notification is late
+          if (timeToWait + millisToNotification >= 0) {
+            // it can be safed by sending a notification with less than the default delay
+            preNotification.setMillisToNotification(timeToWait + millisToNotification);
+            notifyListener(preNotification);
+          }
+          controlMaltAdditions(iterator);
+        } else {
+          scheduleNextStep(new Runnable() {
+
+            @Override
+            public void run() {
+              notifyListener(preNotification);
+              controlMaltAdditions(iterator);
+            }
+          }, timeToWait);
+        }
+        break;
+      case NotifyMalt:
+        scheduleNextStep(new Runnable() {
+
+          @Override
+          public void run() {
+            requestedMaltAdditions.add(nextActionAndTime.maltAddition);
+            notifyListener(new MaltAdditionMessage(
+                CollectionUtil.getArrayListOfBrewingStatesSortedByTime(requestedMaltAdditions)));
+            controlMaltAdditions(iterator);
+          }
+        }, timeToWait);
+        break;
+      default:
+        scheduleNextStep(new Runnable() {
+
+          @Override
+          public void run() {
+            controlTemperatureLevel(nextActionAndTime.tempLevel, iterator);
+          }
+        }, timeToWait);
+        break;
     }
   }
 
   /**
-   * Tries to sleep for the given amount of time with a maximum of 50 failed tries
+   * Schedules the next step of the malt additions and temperature levels and cancels the step which
+   * was pending before.
    * 
-   * @param timeToSleep
+   * @param step the next step or null to only cancel the pending one
+   * @param timeToWait time to wait until the step is performed
    */
-  private void sleepMasher(final long timeToSleep) {
-    long sleepTime = timeToSleep;
-    long systemTime;
-    int counter = 1;
-    while (sleepTime > 0 && counter < 50) {
-      systemTime = System.currentTimeMillis();
-      try {
-        Thread.sleep(timeToSleep);
-        sleepTime = 0; // exit loop
-      } catch (InterruptedException e) {
-        LOGGER.warn("Failed sleep try: " + counter++, e);
-        /* subtract the passed time from the new sleeping time */
-        sleepTime -= (System.currentTimeMillis() - systemTime);
-        counter++;
-      }
-    }
-    if (counter >= 50) {
-      LOGGER.error("Can not put threads to sleep. Brewing process speed up.");
+  private synchronized void scheduleNextStep(final Runnable step, final long timeToWait) {
+    if (nextStep != null) {
+      nextStep.cancel(false);
     }
+    nextStep = step == null ? null : scheduler.schedule(step, timeToWait);
   }
 
   /**
-   * Puts the thread to sleep until the next action is performed.
+   * Waits until the next iodine test is performed without blocking the calling thread.
    * 
    * @param timeToWait time to wait
-   * @param maltAddition the next malt addition to be requested
-   * @param iterator the iterator of the sorted list of actions to perform to save the current state
-   *        of the iteration
    */
-  private void sleepUntilNextAction(final long timeToWait, final MaltAddition maltAddition,
-      final ListIterator<ActionAndTime> iterator) {
-    if (nextActionWaiter != null && nextActionWaiter.isAlive()) {
-      nextActionWaiter.interrupt();
-    }
-    nextActionWaiter = new NextActionWaiter(timeToWait, maltAddition, iterator);
-    nextActionWaiter.start();
+  private void sleepUntilIodineTest(final long timeToWait) {
+    scheduleIodineTest(new Runnable() {
+
+      @Override
+      public void run() {
+        startIodineTest();
+      }
+    }, timeToWait);
   }
 
   /**
-   * Puts the thread to sleep until the next iodine test is performed.
+   * Schedules the start of the next iodine test and cancels the one which was pending before.
    * 
-   * @param timeToWait time to wait
+   * @param start the start of the iodine test or null to only cancel the pending one
+   * @param timeToWait time to wait until the test is started
    */
-  private void sleepUntilIodineTest(final long timeToWait) {
-    if (iodineTestWaiter != null && iodineTestWaiter.isAlive()) {
-      iodineTestWaiter.interrupt();
+  private synchronized void scheduleIodineTest(final Runnable start, final long timeToWait) {
+    if (iodineTestStep != null) {
+      iodineTestStep.cancel(false);
     }
-    iodineTestWaiter = new IodineTestWaiter(timeToWait);
-    iodineTestWaiter.start();
+    iodineTestStep = start == null ? null : scheduler.schedule(start, timeToWait);
   }
 
   /**
@@ -0,0 +1,292 @@
+/*
+ *
+ */
+package impl;
+
+import interfaces.IHeaterStrategy;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import utilities.PropertyUtil;
+
+
+/**
+ * PID controller for the heater. As the heater can only be switched on or off, the output of the
+ * controller (0 to 1) is the share of a fixed time window in which the heater is switched on
+ * (time-proportional output). The output is updated with every measurement, so the heater is
+ * switched off as soon as the temperature gets close to the target. The integral is limited to the
+ * range of the output and stops growing while the output is saturated (anti-windup), so heating up
+ * to a rest does not overshoot it.
+ *
+ * The gains can be found with the auto-tuning mode: the heater is switched on below and off above
+ * the desired temperature until the temperature oscillated a few times, and the gains are computed
+ * by the Ziegler-Nichols rules from the amplitude and the period of the oscillation (relay method).
+ * The controller which is bound in the BrewingModule tunes its gains with the first rest if the
+ * HeaterAutoTuning property is set.
+ */
+public class PidHeaterStrategy implements IHeaterStrategy {
+
+  /** The logger which saves all the information into log files */
+  private static final Logger LOGGER = LogManager.getLogger();
+
+  /** Default proportional gain (output per degree) */
+  public static final double PROPORTIONAL_GAIN_DEFAULT = 0.2;
+
+  /** Default integral gain (output per degree and second) */
+  public static final double INTEGRAL_GAIN_DEFAULT = 0.005;
+
+  /** Default derivative gain (output per degree per second) */
+  public static final double DERIVATIVE_GAIN_DEFAULT = 0;
+
+  /** Default length of the time window of the output */
+  public static final long WINDOW_MILLIS_DEFAULT = 10 * TemperatureController.MEASUREMENT_INTERVAL;
+
+  /** Number of oscillations which are measured by the auto-tuning */
+  private static final int TUNING_CYCLES = 3;
+
+  /** Output amplitude of the relay during the auto-tuning (half the output range) */
+  private static final double TUNING_RELAY_AMPLITUDE = 0.5;
+
+  /** Proportional gain */
+  private double proportionalGain;
+
+  /** Integral gain */
+  private double integralGain;
+
+  /** Derivative gain */
+  private double derivativeGain;
+
+  /** Length of the time window of the output */
+  private final long windowMillis;
+
+  /** Sum of the errors over time (degree seconds) */
+  private double integral;
+
+  /** The last measured temperature (or NaN) */
+  private float lastTemperature = Float.NaN;
+
+  /** Time of the last measurement */
+  private long lastTime;
+
+  /** Start of the current time window (or -1 if none was started) */
+  private long windowStart = -1;
+
+  /** Output of the last measurement */
+  private double output;
+
+  /** Whether the gains are currently tuned */
+  private boolean tuning;
+
+  /** Number of times the temperature rose above the target during the tuning */
+  private int tuningCrossings;
+
+  /** Time of the first crossing which is measured */
+  private long tuningStart;
+
+  /** Highest temperature of the current half oscillation */
+  private float tuningMax;
+
+  /** Lowest temperature of the current half oscillation */
+  private float tuningMin;
+
+  /** Sum of the highest temperatures of the measured oscillations */
+  private double tuningMaxSum;
+
+  /** Sum of the lowest temperatures of the measured oscillations */
+  private double tuningMinSum;
+
+  /**
+   * Creates a PID controller with the default gains, which starts the auto-tuning if the
+   * HeaterAutoTuning property is set.
+   */
+  public PidHeaterStrategy() {
+    this(PROPORTIONAL_GAIN_DEFAULT, INTEGRAL_GAIN_DEFAULT, DERIVATIVE_GAIN_DEFAULT,
+        WINDOW_MILLIS_DEFAULT);
+    if (PropertyUtil.getHeaterAutoTuning()) {
+      startAutoTuning();
+    }
+  }
+
+  /**
+   * Creates a PID controller.
+   *
+   * @param proportionalGain proportional gain (output per degree)
+   * @param integralGain integral gain (output per degree and second)
+   * @param derivativeGain derivative gain (output per degree per second)
+   * @param windowMillis length of the time window of the output
+   */
+  public PidHeaterStrategy(final double proportionalGain, final double integralGain,
+      final double derivativeGain, final long windowMillis) {
+    if (windowMillis <= 0) {
+      throw new IllegalArgumentException("The window has to be > 0");
+    }
+    this.proportionalGain = proportionalGain;
+    this.integralGain = integralGain;
+    this.derivativeGain = derivativeGain;
+    this.windowMillis = windowMillis;
+  }
+
+  /**
+   * Starts the auto-tuning, the gains are replaced once the temperature oscillated around the
+   * desired temperature a few times.
+   */
+  public synchronized void startAutoTuning() {
+    tuning = true;
+    tuningCrossings = 0;
+    tuningMaxSum = 0;
+    tuningMinSum = 0;
+    tuningMax = Float.NEGATIVE_INFINITY;
+    tuningMin = Float.POSITIVE_INFINITY;
+    LOGGER.info("Auto-tuning of the heater started");
+  }
+
+  /**
+   * Checks whether the gains are currently tuned.
+   *
+   * @return true while the auto-tuning is running
+   */
+  public synchronized boolean isTuning() {
+    return tuning;
+  }
+
+  /**
+   * Returns the proportional gain.
+   *
+   * @return output per degree
+   */
+  public synchronized double getProportionalGain() {
+    return proportionalGain;
+  }
+
+  /**
+   * Returns the integral gain.
+   *
+   * @return output per degree and second
+   */
+  public synchronized double getIntegralGain() {
+    return integralGain;
+  }
+
+  /**
+   * Returns the derivative gain.
+   *
+   * @return output per degree per second
+   */
+  public synchronized double getDerivativeGain() {
+    return derivativeGain;
+  }
+
+  /**
+   * Returns the output of the last measurement.
+   *
+   * @return share of the window in which the heater is switched on (0 to 1)
+   */
+  public synchronized double getOutput() {
+    return output;
+  }
+
+  @Override
+  public synchronized boolean isHeating(final float temperature, final float targetTemperature,
+      final boolean heating, final long timeMillis) {
+    if (tuning) {
+      return tune(temperature, targetTemperature, heating, timeMillis);
+    }
+    double seconds = Float.isNaN(lastTemperature) ? 0 : (timeMillis - lastTime) / 1000.0;
+    double error = targetTemperature - temperature;
+    double derivative =
+        seconds > 0 ? derivativeGain * (temperature - lastTemperature) / seconds : 0;
+    double unlimited = proportionalGain * error + integralGain * integral - derivative;
+    if ((unlimited < 1 || error < 0) && (unlimited > 0 || error > 0)) {
+      /* only integrate while the output is not saturated in the direction of the error */
+      integral += error * seconds;
+    }
+    if (integralGain > 0) {
+      integral = Math.max(0, Math.min(integral, 1 / integralGain));
+    }
+    output =
+        Math.max(0, Math.min(1, proportionalGain * error + integralGain * integral - derivative));
+    lastTemperature = temperature;
+    lastTime = timeMillis;
+
+    /*
+     * the output is updated with every measurement, the window only decides when the heater is
+     * switched on
+     */
+    if (windowStart < 0) {
+      windowStart = timeMillis;
+    } else if (timeMillis - windowStart >= windowMillis) {
+      windowStart += (timeMillis - windowStart) / windowMillis * windowMillis;
+    }
+    return timeMillis - windowStart < output * windowMillis;
+  }
+
+  /**
+   * Switches the heater like a relay around the desired temperature and measures the oscillation.
+   *
+   * @param temperature the measured temperature
+   * @param targetTemperature the desired temperature
+   * @param heating whether the heater is currently switched on
+   * @param timeMillis time of the measurement
+   * @return whether the heater has to be switched on
+   */
+  private boolean tune(final float temperature, final float targetTemperature,
+      final boolean heating, final long timeMillis) {
+    tuningMax = Math.max(tuningMax, temperature);
+    tuningMin = Math.min(tuningMin, temperature);
+    if (temperature > targetTemperature && heating) {
+      /* the temperature rose above the target, one oscillation is complete */
+      if (tuningCrossings == 0) {
+        tuningStart = timeMillis;
+      } else {
+        tuningMinSum += tuningMin;
+      }
+      tuningCrossings++;
+      tuningMax = temperature;
+      if (tuningCrossings > TUNING_CYCLES) {
+        finishTuning(timeMillis);
+      }
+      return false;
+    } else if (temperature < targetTemperature && !heating) {
+      if (tuningCrossings > 0) {
+        tuningMaxSum += tuningMax;
+      }
+      tuningMin = temperature;
+      return true;
+    }
+    return heating;
+  }
+
+  /**
+   * Computes the gains from the measured oscillation (Ziegler-Nichols) and switches to the PID
+   * control.
+   *
+   * @param timeMillis time of the last measurement
+   */
+  private void finishTuning(final long timeMillis) {
+    double period = (timeMillis - tuningStart) / 1000.0 / TUNING_CYCLES;
+    double amplitude = (tuningMaxSum - tuningMinSum) / TUNING_CYCLES / 2;
+    tuning = false;
+    if (period <= 0 || amplitude <= 0) {
+      LOGGER.warn("Auto-tuning of the heater failed, the gains are kept");
+      return;
+    }
+    double ultimateGain = 4 * TUNING_RELAY_AMPLITUDE / (Math.PI * amplitude);
+    proportionalGain = 0.6 * ultimateGain;
+    integralGain = 1.2 * ultimateGain / period;
+    derivativeGain = 0.075 * ultimateGain * period;
+    integral = 0;
+    windowStart = -1;
+    LOGGER.info(String.format(
+        "Auto-tuning of the heater finished (period %.1f s, amplitude %.2f°C): Kp=%.4f Ki=%.5f "
+            + "Kd=%.4f", period, amplitude, proportionalGain, integralGain, derivativeGain));
+  }
+
+  @Override
+  public synchronized void reset() {
+    integral = 0;
+    lastTemperature = Float.NaN;
+    windowStart = -1;
+    output = 0;
+  }
+}
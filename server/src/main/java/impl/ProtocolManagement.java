@@ -4,7 +4,6 @@ import exceptions.LogNotFoundException;
 import exceptions.LogParseException;
 import exceptions.ProtocolNotFoundException;
 import exceptions.ProtocolParsingException;
-import general.BrewingLog;
 import general.LogSummary;
 import general.Protocol;
 import interfaces.ILogStorage;
@@ -12,7 +11,10 @@ import interfaces.IProtocolService;
 
 import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -21,7 +23,9 @@ import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 /**
- * Management of Protocols
+ * Management of Protocols. The index holds one protocol per log id: a log which is saved with the
+ * id of an existing log replaces it, and logs which do not exist any more are removed from the index
+ * when it is updated.
  *
  * @author matthias
  *
@@ -32,8 +36,11 @@ public class ProtocolManagement implements IProtocolService {
   /** The last time the cache has been refreshed */
   private long lastRefresh = 0;
 
-  /** Cache of summaries of logs */
-  private final List<LogSummary> summaryCache = new ArrayList<LogSummary>();
+  /** Update time of the log storage up to which the cache includes the summaries */
+  private long mergedUpdateTime = 0;
+
+  /** Cache of summaries of logs by log id */
+  private final Map<Integer, LogSummary> summaryCache = new TreeMap<Integer, LogSummary>();
 
   /** The Constant LOGGER. */
   public static final Logger LOGGER = LogManager.getLogger();
@@ -61,8 +68,7 @@ public class ProtocolManagement implements IProtocolService {
   public Protocol getProtocolContent(final int id) throws ProtocolNotFoundException,
   ProtocolParsingException {
     try {
-      BrewingLog log = logStorage.getLogById(id);
-      return log.getProtocol();
+      return logStorage.getProtocol(id);
     } catch (LogNotFoundException e) {
       LOGGER.error(e);
       throw new ProtocolNotFoundException(e);
@@ -72,27 +78,34 @@ public class ProtocolManagement implements IProtocolService {
     }
   }
 
-  /** updates the cache of log summaries */
-  private void updateCache() {
-    List<BrewingLog> logs = logStorage.getLogs();
-    summaryCache.clear();
-    for (BrewingLog log : logs) {
-      LogSummary summary = log.getSummary();
-      summaryCache.add(summary);
+  /**
+   * Merges the summaries of the logs which were added since the last update into the cache and
+   * drops the summaries of removed logs.
+   *
+   * @param updateTime the update time of the log storage before the summaries are read
+   */
+  private void updateCache(final long updateTime) {
+    for (LogSummary summary : logStorage.getLogSummaries(mergedUpdateTime)) {
+      summaryCache.put(summary.getId(), summary);
     }
-    lastRefresh = (new Date()).getTime();
+    summaryCache.keySet().retainAll(new HashSet<Integer>(logStorage.getUsedIds()));
+    mergedUpdateTime = updateTime;
+    long now = (new Date()).getTime();
+    /* the refresh includes every update up to the update time */
+    lastRefresh = updateTime < now || updateTime == Long.MAX_VALUE ? now : updateTime + 1;
   }
 
   /**
    * Gets a list of all logSummaries
    */
   @Override
-  public List<LogSummary> getProtocolIndex() {
-    if (lastRefresh < logStorage.getLastLogUpdateTime()) {
-      updateCache();
+  public synchronized List<LogSummary> getProtocolIndex() {
+    long updateTime = logStorage.getLastLogUpdateTime();
+    if (mergedUpdateTime < updateTime) {
+      updateCache(updateTime);
     }
 
-    return summaryCache;
+    return new ArrayList<LogSummary>(summaryCache.values());
   }
 
   /** time of last cache refresh */
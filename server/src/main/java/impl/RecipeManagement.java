@@ -88,6 +88,24 @@ public class RecipeManagement implements IRecipeService {
     return id;
   }
 
+  @Override
+  public List<String> importRecipes(final List<Recipe> recipes) throws RecipeParseException,
+      RecipeSavingException {
+    for (Recipe recipe : recipes) {
+      String errorMessage = recipe.getErrorMessage();
+      if (errorMessage != null) {
+        throw new RecipeSavingException(String.format("The imported recipe is not valid: %s",
+            errorMessage));
+      }
+    }
+    List<String> ids = recipeStorage.saveRecipes(recipes);
+    for (int i = 0; i < ids.size(); i++) {
+      recipes.get(i).setId(ids.get(i));
+    }
+    LOGGER.info("Recipes imported: " + ids);
+    return ids;
+  }
+
   @Override
   public List<RecipeSummary> selectRecipe() throws RecipeParseException {
     List<RecipeSummary> recipes = null;
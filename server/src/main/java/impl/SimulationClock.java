@@ -0,0 +1,551 @@
+/*
+ *
+ */
+package impl;
+
+import interfaces.IClock;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+
+/**
+ * Clock which simulates a brewing process faster than real time (e.g. a dry run of a recipe against
+ * the MockHeatableThermometer). The clock runs faster than real time by a constant factor. If it
+ * advances to deadlines, it also skips the time until the next deadline of a sleeping thread or a
+ * scheduled task as soon as every thread which sleeps on the clock is sleeping and no task of the
+ * clock is queued or running, so a simulation only takes the time its threads need to compute.
+ * Threads which are woken up by other threads instead of the clock (e.g. the consumers of the
+ * temperature readings) have to run their work through submit(), so the clock knows that they are
+ * busy. The clock starts at the real time when it is created and has to be closed after the
+ * simulation.
+ */
+public class SimulationClock implements IClock, AutoCloseable {
+
+  /** how many times faster than real time the clock runs */
+  private final double speed;
+
+  /** whether the clock skips the time until the next deadline while the simulation waits */
+  private final boolean advanceToDeadlines;
+
+  /** time of the clock when it was created */
+  private final long startMillis;
+
+  /** real time (System.nanoTime()) when the clock was created */
+  private final long startNanos;
+
+  /** guards the deadlines and the threads of the simulation */
+  private final ReentrantLock lock = new ReentrantLock();
+
+  /**
+   * Signalled whenever the state of the clock changes, waits in nanoseconds (unlike Object.wait,
+   * which waits at least a millisecond)
+   */
+  private final Condition changed = lock.newCondition();
+
+  /** time of the clock which was skipped by advancing to a deadline, only changed under the lock */
+  private volatile long skippedMillis = 0;
+
+  /** deadlines of the sleeping threads */
+  private final PriorityQueue<Deadline> sleeps = new PriorityQueue<Deadline>();
+
+  /** deadlines of the scheduled tasks */
+  private final PriorityQueue<Timer> timers = new PriorityQueue<Timer>();
+
+  /** threads which have slept on the clock and are part of the simulation */
+  private final Set<Thread> sleepers = Collections
+      .newSetFromMap(new WeakHashMap<Thread, Boolean>());
+
+  /** number of threads which sleep on the clock right now */
+  private int sleeping = 0;
+
+  /** number of tasks which are due but not finished yet */
+  private int runningTasks = 0;
+
+  /** orders the deadlines of the same time */
+  private long sequence = 0;
+
+  /** thread which runs due tasks and advances the clock, started on first use */
+  private Thread advancer;
+
+  /** whether the clock was closed, guarded by the lock */
+  private boolean closed = false;
+
+  /**
+   * Creates a clock which runs faster than real time by a constant factor.
+   *
+   * @param speed how many times faster than real time the clock runs (e.g. 1000)
+   */
+  public SimulationClock(final double speed) {
+    this(speed, false);
+  }
+
+  /**
+   * Creates a clock which runs faster than real time.
+   *
+   * @param speed how many times faster than real time the clock runs at least (e.g. 1000)
+   * @param advanceToDeadlines whether the clock skips the time until the next deadline while the
+   *        simulation only waits for the clock
+   */
+  public SimulationClock(final double speed, final boolean advanceToDeadlines) {
+    if (speed <= 0) {
+      throw new IllegalArgumentException("The speed of the clock has to be > 0");
+    }
+    this.speed = speed;
+    this.advanceToDeadlines = advanceToDeadlines;
+    startMillis = System.currentTimeMillis();
+    startNanos = System.nanoTime();
+  }
+
+  /**
+   * Returns how many times faster than real time the clock runs at least.
+   *
+   * @return the speed of the clock
+   */
+  public double getSpeed() {
+    return speed;
+  }
+
+  @Override
+  public long currentTimeMillis() {
+    return now();
+  }
+
+  /**
+   * Returns the current time of the clock.
+   *
+   * @return the current time in milliseconds
+   */
+  private long now() {
+    return startMillis + skippedMillis
+        + (long) ((System.nanoTime() - startNanos) * speed / 1000000);
+  }
+
+  /**
+   * Converts a time span of the clock into the real time span in which it passes at the latest.
+   *
+   * @param millis time span in milliseconds of the clock
+   * @return the real time span in nanoseconds
+   */
+  private long toRealNanos(final long millis) {
+    return Math.max((long) (TimeUnit.MILLISECONDS.toNanos(millis) / speed), 1);
+  }
+
+  @Override
+  public void sleep(final long millis) throws InterruptedException {
+    if (millis <= 0) {
+      return;
+    }
+    lock.lock();
+    try {
+      startAdvancer();
+      Deadline deadline = new Deadline(now() + millis, sequence++);
+      sleeps.add(deadline);
+      sleepers.add(Thread.currentThread());
+      sleeping++;
+      /* the advancer checks whether every thread sleeps now */
+      changed.signalAll();
+      try {
+        long remaining;
+        while ((remaining = deadline.timeMillis - now()) > 0) {
+          changed.awaitNanos(toRealNanos(remaining));
+        }
+      } finally {
+        sleeping--;
+        sleeps.remove(deadline);
+        changed.signalAll();
+      }
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public Future<?> schedule(final ScheduledExecutorService executor, final Runnable task,
+      final long delayMillis) {
+    lock.lock();
+    try {
+      if (closed) {
+        throw new RejectedExecutionException("The clock was closed");
+      }
+      startAdvancer();
+      Timer timer = new Timer(now() + Math.max(delayMillis, 0), sequence++, executor, task);
+      timers.add(timer);
+      changed.signalAll();
+      return timer;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * {@inheritDoc} The clock does not advance to a deadline from now on until the task has finished
+   * or was cancelled.
+   */
+  @Override
+  public Future<?> submit(final ExecutorService executor, final Runnable task) {
+    FutureTask<Object> future = new FutureTask<Object>(task, null) {
+      @Override
+      protected void done() {
+        taskFinished();
+      }
+    };
+    lock.lock();
+    try {
+      runningTasks++;
+    } finally {
+      lock.unlock();
+    }
+    try {
+      executor.execute(future);
+    } catch (RejectedExecutionException e) {
+      future.cancel(false);
+      throw e;
+    }
+    return future;
+  }
+
+  /**
+   * {@inheritDoc} The clock runs at least as fast as its speed, so the real time span is an upper
+   * bound: the time span passes earlier if the clock advances to a deadline.
+   */
+  @Override
+  public long toRealMillis(final long millis) {
+    if (millis <= 0) {
+      return millis;
+    }
+    return (long) Math.ceil(millis / speed);
+  }
+
+  /**
+   * Stops the thread which runs due tasks and advances the clock and cancels the tasks which are
+   * not due yet. Threads which sleep on the clock still wake up at their deadline, but the clock
+   * only runs at its speed from now on.
+   */
+  @Override
+  public void close() {
+    Thread thread;
+    lock.lock();
+    try {
+      closed = true;
+      for (Timer timer : timers) {
+        timer.cancelled = true;
+      }
+      timers.clear();
+      changed.signalAll();
+      thread = advancer;
+    } finally {
+      lock.unlock();
+    }
+    if (thread != null && thread != Thread.currentThread()) {
+      try {
+        thread.join();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  /**
+   * Starts the thread which runs due tasks and advances the clock, if it is not running yet and
+   * the clock is not closed.
+   */
+  private void startAdvancer() {
+    if (advancer != null || closed) {
+      return;
+    }
+    advancer = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        try {
+          advance();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    }, "SimulationClock");
+    advancer.setDaemon(true);
+    advancer.start();
+  }
+
+  /**
+   * Runs the due tasks and advances the clock to the next deadline whenever the simulation waits
+   * only for the clock.
+   *
+   * @throws InterruptedException if the thread is interrupted
+   */
+  private void advance() throws InterruptedException {
+    lock.lock();
+    try {
+      advanceLocked();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Runs the due tasks and advances the clock, called with the lock.
+   *
+   * @throws InterruptedException if the thread is interrupted
+   */
+  private void advanceLocked() throws InterruptedException {
+    while (!closed) {
+      while (!timers.isEmpty() && timers.peek().timeMillis <= now()) {
+        timers.poll().submit();
+      }
+      long next = Long.MAX_VALUE;
+      if (!sleeps.isEmpty()) {
+        next = sleeps.peek().timeMillis;
+      }
+      if (!timers.isEmpty()) {
+        next = Math.min(next, timers.peek().timeMillis);
+      }
+      if (next == Long.MAX_VALUE) {
+        changed.await();
+        continue;
+      }
+      if (next <= now()) {
+        /* a thread has to wake up first, it signals the clock when it does */
+        changed.signalAll();
+        changed.await();
+        continue;
+      }
+      if (advanceToDeadlines && isWaitingForClock()) {
+        skippedMillis += Math.max(next - now(), 0);
+        changed.signalAll();
+        continue;
+      }
+      changed.awaitNanos(toRealNanos(next - now()));
+    }
+  }
+
+  /**
+   * Checks whether the simulation waits only for the clock, i.e. every thread which ever slept on
+   * the clock sleeps and no task of the clock is queued or running.
+   *
+   * @return true if the clock can advance to the next deadline
+   */
+  private boolean isWaitingForClock() {
+    if (runningTasks > 0) {
+      return false;
+    }
+    int alive = 0;
+    for (Iterator<Thread> iterator = sleepers.iterator(); iterator.hasNext();) {
+      if (iterator.next().isAlive()) {
+        alive++;
+      } else {
+        iterator.remove();
+      }
+    }
+    return sleeping == alive;
+  }
+
+  /**
+   * Called when a task of the clock finished or was cancelled before it ran.
+   */
+  private void taskFinished() {
+    lock.lock();
+    try {
+      runningTasks--;
+      changed.signalAll();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  /**
+   * Deadline of a sleeping thread.
+   */
+  private static class Deadline implements Comparable<Deadline> {
+
+    /** time of the clock when the deadline is reached */
+    final long timeMillis;
+
+    /** orders deadlines of the same time */
+    private final long number;
+
+    /**
+     * Creates a deadline.
+     *
+     * @param timeMillis time of the clock when the deadline is reached
+     * @param number orders deadlines of the same time
+     */
+    Deadline(final long timeMillis, final long number) {
+      this.timeMillis = timeMillis;
+      this.number = number;
+    }
+
+    @Override
+    public int compareTo(final Deadline other) {
+      int result = Long.compare(timeMillis, other.timeMillis);
+      return result != 0 ? result : Long.compare(number, other.number);
+    }
+  }
+
+  /**
+   * A task which is submitted to its executor when its deadline is reached.
+   */
+  private final class Timer extends Deadline implements Future<Object>, Runnable {
+
+    /** the executor which runs the task */
+    private final ScheduledExecutorService executor;
+
+    /** the task */
+    private final Runnable task;
+
+    /** whether the task was started or cancelled after it was submitted */
+    private final AtomicBoolean started = new AtomicBoolean();
+
+    /** the submitted task or null if the deadline is not reached yet, guarded by the lock */
+    private Future<?> submitted;
+
+    /** whether the task was cancelled before it was submitted, guarded by the lock */
+    private boolean cancelled;
+
+    /**
+     * Creates a timer.
+     *
+     * @param timeMillis time of the clock when the task is run
+     * @param number orders deadlines of the same time
+     * @param executor the executor which runs the task
+     * @param task the task
+     */
+    Timer(final long timeMillis, final long number, final ScheduledExecutorService executor,
+        final Runnable task) {
+      super(timeMillis, number);
+      this.executor = executor;
+      this.task = task;
+    }
+
+    /**
+     * Submits the task to its executor, called with the lock of the clock.
+     */
+    void submit() {
+      try {
+        submitted = executor.submit(this);
+        runningTasks++;
+      } catch (RejectedExecutionException e) {
+        /* the executor was shut down */
+        cancelled = true;
+      }
+      changed.signalAll();
+    }
+
+    @Override
+    public void run() {
+      if (!started.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        task.run();
+      } finally {
+        taskFinished();
+      }
+    }
+
+    @Override
+    public boolean cancel(final boolean mayInterruptIfRunning) {
+      Future<?> future;
+      lock.lock();
+      try {
+        if (submitted == null) {
+          if (cancelled) {
+            return false;
+          }
+          cancelled = true;
+          timers.remove(this);
+          changed.signalAll();
+          return true;
+        }
+        future = submitted;
+      } finally {
+        lock.unlock();
+      }
+      boolean result = future.cancel(mayInterruptIfRunning);
+      if (result && started.compareAndSet(false, true)) {
+        /* the task will never run */
+        taskFinished();
+      }
+      return result;
+    }
+
+    @Override
+    public boolean isCancelled() {
+      lock.lock();
+      try {
+        return cancelled || submitted != null && submitted.isCancelled();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public boolean isDone() {
+      lock.lock();
+      try {
+        return cancelled || submitted != null && submitted.isDone();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    @Override
+    public Object get() throws InterruptedException, ExecutionException {
+      try {
+        return awaitSubmission(-1).get();
+      } catch (TimeoutException e) {
+        throw new IllegalStateException(e);
+      }
+    }
+
+    @Override
+    public Object get(final long timeout, final TimeUnit unit) throws InterruptedException,
+        ExecutionException, TimeoutException {
+      long end = System.nanoTime() + unit.toNanos(timeout);
+      return awaitSubmission(end).get(end - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Waits until the deadline of the task is reached and the task is submitted.
+     *
+     * @param endNanos real time (System.nanoTime()) when waiting times out or -1 to wait forever
+     * @return the submitted task
+     * @throws InterruptedException if the thread is interrupted
+     * @throws TimeoutException if the task was not submitted in time
+     */
+    private Future<?> awaitSubmission(final long endNanos) throws InterruptedException,
+        TimeoutException {
+      lock.lock();
+      try {
+        while (submitted == null) {
+          if (cancelled) {
+            throw new CancellationException();
+          }
+          if (endNanos == -1) {
+            changed.await();
+          } else if (changed.awaitNanos(endNanos - System.nanoTime()) <= 0) {
+            throw new TimeoutException();
+          }
+        }
+        return submitted;
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
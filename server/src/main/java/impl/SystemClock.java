@@ -0,0 +1,47 @@
+/*
+ *
+ */
+package impl;
+
+import interfaces.IClock;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.google.inject.Singleton;
+
+
+/**
+ * The real time of the system.
+ */
+@Singleton
+public class SystemClock implements IClock {
+
+  @Override
+  public long currentTimeMillis() {
+    return System.currentTimeMillis();
+  }
+
+  @Override
+  public void sleep(final long millis) throws InterruptedException {
+    Thread.sleep(millis);
+  }
+
+  @Override
+  public Future<?> schedule(final ScheduledExecutorService executor, final Runnable task,
+      final long delayMillis) {
+    return executor.schedule(task, Math.max(delayMillis, 0), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public Future<?> submit(final ExecutorService executor, final Runnable task) {
+    return executor.submit(task);
+  }
+
+  @Override
+  public long toRealMillis(final long millis) {
+    return millis;
+  }
+}
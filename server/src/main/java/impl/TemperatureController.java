@@ -5,14 +5,21 @@ package impl;
 
 import exceptions.TemperatureNotReadableException;
 import general.HardwareStatus;
+import interfaces.IClock;
 import interfaces.IHeaterControl;
+import interfaces.IHeaterStrategy;
+import interfaces.IMultiThermometerReader;
+import interfaces.ISamplingStrategy;
 import interfaces.ITemperatureEvent;
 import interfaces.ITemperatureService;
 import interfaces.IThermometerReader;
 
 import java.util.ArrayList;
-import java.util.Iterator;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -20,7 +27,10 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import utilities.PropertyUtil;
+import utilities.ReadingRingBuffer;
 import utilities.TemperatureListener;
+import utilities.TemperatureListenerIndex;
+import utilities.TemperatureSample;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -33,7 +43,7 @@ import com.google.inject.Singleton;
 public class TemperatureController implements ITemperatureService {
 
   /**
-   * Responsible for holding a temperature level.
+   * Samples the temperature sensor and, while heating is active, holds a temperature level.
    * 
    * @author max
    *
@@ -47,73 +57,61 @@ public class TemperatureController implements ITemperatureService {
     /** The heatup temperature. */
     private float heatupTemperature;
 
-    /**
-     * The delta which is allowed to inform listeners (even though the actual desired temperature is
-     * not reached yet)
-     */
-    private final float temperatureHeatUpDelta;
+    /** Whether the heater is controlled to hold the heatup temperature. */
+    private boolean heating = false;
+
+    /** The readings, published while heating and read by the consumers. */
+    private final ReadingRingBuffer readings = new ReadingRingBuffer(READINGS_CAPACITY, clock);
+
+    /** Whether the sensor is still sampled, the interrupt may be swallowed by the sensor. */
+    private volatile boolean running = true;
 
     /**
      * Instantiates a new temperature maintainer.
-     *
-     * @param heatupTemperature the heatup temperature
      */
-    public TemperatureMaintainer(final float newTemperature) {
-      updateTemperature(newTemperature);
-      temperatureHeatUpDelta = PropertyUtil.getTempcHeatupDelta();
+    public TemperatureMaintainer() {
+      super("TemperatureMaintainer");
+      setDaemon(true);
     }
 
     /**
-     * updates the current desired temperature
+     * updates the current desired temperature and starts heating if not already active
      * 
      * @param newTemperature new temperature which should be reached
      */
-    public void updateTemperature(final float newTemperature) {
+    public synchronized void updateTemperature(final float newTemperature) {
+      if (!heating) {
+        heaterStrategy.reset();
+        heating = true;
+      }
       heatupTemperature = newTemperature;
     }
 
     /**
-     * Notifies listener which are waiting for the current temperature
-     * 
-     * @param currentTemperature the current temperature given by the thermometer
+     * Stops heating, the sensor is still sampled.
      */
-    private void broadcastNotifications() {
-      subscribersLock.lock();
-
-      for (final Iterator<TemperatureListener> iterator = subscribers.iterator(); iterator
-          .hasNext();) {
-        TemperatureListener listener = iterator.next();
-        /*
-         * calculate min and maximum temperature range
-         */
-        int lowerLimit = listener.getTemperature() - listener.getDelta();
-        int upperLimit = listener.getTemperature() + listener.getDelta();
+    public synchronized void stopHeating() {
+      heating = false;
+      heaterControl.switchOff();
+    }
 
-        /*
-         * check if the current temperature is inside the limit
-         */
+    /**
+     * Returns the distance of the temperature to the heatup temperature.
+     * 
+     * @param temperature the temperature
+     * @return the distance in degrees (infinite if heating is not active)
+     */
+    public synchronized float distanceToHeatupTemperature(final float temperature) {
+      return heating ? Math.abs(temperature - heatupTemperature) : Float.POSITIVE_INFINITY;
+    }
 
-        if (lowerLimit <= currentTemperature && currentTemperature <= upperLimit) {
-          ITemperatureEvent.SubscribeStatus subscribeStatus =
-              listener.getNotify().temperatureReached(currentTemperature);
-
-          switch (subscribeStatus) {
-            case SUBSCRIBE:
-              /*
-               * do nothing as the listener still wants to get notifications
-               */
-              break;
-            case UNSUBSCRIBE:
-              /*
-               * remove listener from subscribers as it does not want to receive any further
-               * notifications
-               */
-              iterator.remove();
-              break;
-          }
-        }
-      }
-      subscribersLock.unlock();
+    /**
+     * Whether the heater is controlled to hold the heatup temperature.
+     * 
+     * @return true if heating is active
+     */
+    public synchronized boolean isHeating() {
+      return heating;
     }
 
     /**
@@ -121,20 +119,28 @@ public class TemperatureController implements ITemperatureService {
      *
      * @param currentTemperature the current temperature
      */
-    void controlHeater() {
+    synchronized void controlHeater() {
+      if (!heating) {
+        /* stopped while the temperature was measured */
+        return;
+      }
       /*
-       * if temperature is lower than expected, we need to turn on the heater (turn off otherwise)
+       * the strategy decides whether the heater has to be switched on (switched off otherwise)
        */
-      if (currentTemperature < heatupTemperature - temperatureHeatUpDelta) {
-        if (!heaterControl.isSwitchedOn()) {
+      boolean switchedOn = heaterControl.isSwitchedOn();
+      boolean heaterOn =
+          heaterStrategy.isHeating(currentTemperature, heatupTemperature, switchedOn,
+              clock.currentTimeMillis());
+      if (heaterOn) {
+        if (!switchedOn) {
           // Log notification that we turned on the heater.
           LOGGER.info("Switched ON heater, temp. " + String.valueOf(currentTemperature) + " ->> "
               + String.valueOf(heatupTemperature));
         }
         heaterControl.switchOn();
-      } else if (currentTemperature > heatupTemperature + temperatureHeatUpDelta) {
-        if (!heaterControl.isSwitchedOn()) {
-          // Log notification that we turned on the heater.
+      } else {
+        if (switchedOn) {
+          // Log notification that we turned off the heater.
           LOGGER.info("Switched OFF heater, temp. " + String.valueOf(currentTemperature) + " ->> "
               + String.valueOf(heatupTemperature));
         }
@@ -142,6 +148,39 @@ public class TemperatureController implements ITemperatureService {
       }
     }
 
+    /**
+     * Publishes the result of a measurement as the latest sample.
+     * 
+     * @param temperature the measured temperature (or null if the sensor could not be read)
+     */
+    private void publishSample(final Float temperature) {
+      /* the numbering continues after the sampling was restarted */
+      TemperatureSample last = latestSample;
+      latestSample =
+          new TemperatureSample(temperature, clock.currentTimeMillis(), temperatureStatus,
+              last == null ? 1 : last.getSequence() + 1);
+    }
+
+    /**
+     * Waits until the next measurement, but measures earlier if the heatup temperature or the
+     * subscribers changed. The flag is checked at least every MEASUREMENT_INTERVAL.
+     * 
+     * @param interval the interval until the next measurement in milliseconds
+     * @throws InterruptedException if the thread is interrupted while sleeping
+     */
+    private void waitForNextMeasurement(final long interval) throws InterruptedException {
+      long nextMeasurement = clock.currentTimeMillis() + interval;
+      long remaining = interval;
+      while (remaining > 0) {
+        /* the flag is cleared when it is consumed, so a later request is not lost */
+        if (measureNow.getAndSet(false)) {
+          return;
+        }
+        clock.sleep(Math.min(remaining, TemperatureController.MEASUREMENT_INTERVAL));
+        remaining = nextMeasurement - clock.currentTimeMillis();
+      }
+    }
+
     /**
      * Checks the temperature and controls the heater/notifies observers
      */
@@ -149,34 +188,52 @@ public class TemperatureController implements ITemperatureService {
     public void run() {
       int readerErrors = 0;
 
-      while (true) {
+      while (running) {
+        long interval = TemperatureController.MEASUREMENT_INTERVAL;
         try {
           currentTemperature = thermometerReader.getTemperature();
           temperatureStatus = HardwareStatus.ENABLED;
           readerErrors = 0;
-          controlHeater();
-          broadcastNotifications();
+          publishSample(currentTemperature);
+          if (isHeating()) {
+            controlHeater();
+            /*
+             * the subscribers are notified by the consumer of the readings, so a slow subscriber
+             * does not delay the next measurement
+             */
+            readings.publish(currentTemperature);
+          }
+          float distance =
+              Math.min(distanceToHeatupTemperature(currentTemperature),
+                  subscribers.distanceToBorder(currentTemperature));
+          interval =
+              samplingStrategy.nextInterval(currentTemperature, distance,
+                  clock.currentTimeMillis());
         } catch (TemperatureNotReadableException e1) {
           readerErrors += 1;
-          TemperatureController.LOGGER.error(String.format(
-              "Temperature could not be read. This is the %d time in a row", readerErrors), e1);
-          temperatureStatus = HardwareStatus.DISABLED;
+          if (readerErrors <= 10) {
+            TemperatureController.LOGGER.error(String.format(
+                "Temperature could not be read. This is the %d time in a row", readerErrors), e1);
+          }
+          samplingStrategy.reset();
+          temperatureStatus =
+              readerErrors < 10 ? HardwareStatus.DISABLED : HardwareStatus.NOT_FOUND;
 
           /*
-           * interrupt heater control if it fails to read ten times in a row
+           * interrupt heater control if it fails to read ten times in a row, the sensor is still
+           * sampled so the status recovers when the sensor can be read again
            */
-          if (readerErrors >= 10) {
-            heaterControl.switchOff();
-            temperatureStatus = HardwareStatus.NOT_FOUND;
+          if (readerErrors == 10 && isHeating()) {
+            stopHeating();
             TemperatureController.LOGGER.error(String.format(
                 "Unable to read temperature %d times in a row! Stopping Heater Process.",
                 readerErrors), e1);
-            return;
           }
+          publishSample(null);
         }
 
         try {
-          Thread.sleep(TemperatureController.MEASUREMENT_INTERVAL);
+          waitForNextMeasurement(interval);
         } catch (InterruptedException e) {
           // Nicht loggen, weil beim stop()en des TemperatureControllers wird
           // die interruptedexception zwangsweise aufgerufen.
@@ -194,27 +251,61 @@ public class TemperatureController implements ITemperatureService {
    */
   public static final int MEASUREMENT_INTERVAL = 1500;
 
+  /**
+   * Number of readings the subscribers may fall behind before readings are dropped.
+   */
+  private static final int READINGS_CAPACITY = 64;
+
   /** The heater control. */
   private final IHeaterControl heaterControl;
 
   /** The thermometer reader. */
   private final IThermometerReader thermometerReader;
+
+  /** The clock which measures the interval between two measurements. */
+  private final IClock clock;
+
+  /** The strategy which decides whether the heater has to be switched on. */
+  private final IHeaterStrategy heaterStrategy;
+
+  /** The strategy which decides when the temperature is measured next. */
+  private final ISamplingStrategy samplingStrategy;
+
+  /** Whether the next measurement should be taken without waiting for the interval. */
+  private final AtomicBoolean measureNow = new AtomicBoolean();
+  /**
+   * The Thread that samples the sensor and controls the temperature, started with the first use
+   * and ended by stop().
+   */
+  private volatile TemperatureMaintainer temperatureMaintainerThread = null;
+
+  /** The latest sample, only written by the temperature maintainer. */
+  private volatile TemperatureSample latestSample = null;
+
+  /** Age after which the latest sample is too old to be returned (in milliseconds of the clock). */
+  private final long maxSampleAgeMillis;
+
+  /** The consumer of the readings of the last sampling which notifies the subscribers. */
+  private volatile ReadingRingBuffer.Consumer subscriberNotifications = null;
+
   /**
-   * The Thread that is currently being used to control the temperature.
+   * The further consumers of the readings (e.g. the logging) with the names of their threads,
+   * added to the readings of every sampling, guarded by this.
    */
-  private TemperatureMaintainer temperatureMaintainerThread = null;
+  private final Map<ReadingRingBuffer.ReadingHandler, String> readingConsumers =
+      new LinkedHashMap<>();
 
-  /** The subscribers lock. */
+  /** The subscribers lock, only held while the subscribers are replaced. */
   private final Lock subscribersLock = new ReentrantLock();
 
-  /** The subscribers. */
-  private final List<TemperatureListener> subscribers = new ArrayList<>();
+  /** The subscribers, replaced by a new index on every change. */
+  private volatile TemperatureListenerIndex subscribers = TemperatureListenerIndex.EMPTY;
 
   /** The heater status. */
   private final HardwareStatus heaterStatus = HardwareStatus.DISABLED;
 
   /** The temperature status. */
-  private HardwareStatus temperatureStatus = HardwareStatus.DISABLED;
+  private volatile HardwareStatus temperatureStatus = HardwareStatus.DISABLED;
 
   /**
    * Instantiates a new temperature controller.
@@ -222,14 +313,122 @@ public class TemperatureController implements ITemperatureService {
    * @param thermometerReader the thermometer reader
    * @param heaterControl the heater control
    */
-  @Inject
   public TemperatureController(final IThermometerReader thermometerReader,
       final IHeaterControl heaterControl) {
+    this(thermometerReader, heaterControl, new SystemClock());
+  }
+
+  /**
+   * Instantiates a new temperature controller which measures the temperature in the interval of
+   * the given clock.
+   *
+   * @param thermometerReader the thermometer reader
+   * @param heaterControl the heater control
+   * @param clock the clock
+   */
+  public TemperatureController(final IThermometerReader thermometerReader,
+      final IHeaterControl heaterControl, final IClock clock) {
+    this(thermometerReader, heaterControl, clock, new HysteresisHeaterStrategy());
+  }
+
+  /**
+   * Instantiates a new temperature controller which measures the temperature in the interval of
+   * the given clock and controls the heater by the given strategy.
+   *
+   * @param thermometerReader the thermometer reader
+   * @param heaterControl the heater control
+   * @param clock the clock
+   * @param heaterStrategy the strategy which decides whether the heater has to be switched on
+   */
+  public TemperatureController(final IThermometerReader thermometerReader,
+      final IHeaterControl heaterControl, final IClock clock,
+      final IHeaterStrategy heaterStrategy) {
+    this(thermometerReader, heaterControl, clock, heaterStrategy, new FixedSamplingStrategy());
+  }
+
+  /**
+   * Instantiates a new temperature controller which controls the heater by the given strategy and
+   * measures the temperature in the intervals of the given sampling strategy.
+   *
+   * @param thermometerReader the thermometer reader
+   * @param heaterControl the heater control
+   * @param clock the clock
+   * @param heaterStrategy the strategy which decides whether the heater has to be switched on
+   * @param samplingStrategy the strategy which decides when the temperature is measured next
+   */
+  @Inject
+  public TemperatureController(final IThermometerReader thermometerReader,
+      final IHeaterControl heaterControl, final IClock clock,
+      final IHeaterStrategy heaterStrategy, final ISamplingStrategy samplingStrategy) {
+    this.samplingStrategy = samplingStrategy;
     this.heaterControl = heaterControl;
     this.thermometerReader = thermometerReader;
+    this.clock = clock;
+    this.heaterStrategy = heaterStrategy;
+    /* a sample must not expire while the sampling strategy backs off */
+    this.maxSampleAgeMillis =
+        Math.max(PropertyUtil.getTemperatureMaxSampleAgeMillis(),
+            2 * samplingStrategy.getMaxInterval());
     LOGGER.info("TemperatureController constructed");
   }
 
+  /**
+   * Notifies listener which are waiting for the current temperature, called by the consumer of the
+   * readings.
+   * 
+   * @param currentTemperature the current temperature given by the thermometer
+   */
+  private void broadcastNotifications(final float currentTemperature) {
+    /*
+     * only the listeners whose range contains the current temperature are looked up, the
+     * listeners are notified without holding the lock so they may (un)subscribe themselves
+     */
+    List<TemperatureListener> reached = subscribers.find(currentTemperature);
+    List<TemperatureListener> finished = null;
+
+    for (TemperatureListener listener : reached) {
+      if (!listener.isSubscribed()) {
+        /*
+         * unsubscribed by an earlier listener of this notification
+         */
+        continue;
+      }
+      ITemperatureEvent.SubscribeStatus subscribeStatus =
+          listener.getNotify().temperatureReached(currentTemperature);
+
+      switch (subscribeStatus) {
+        case SUBSCRIBE:
+          /*
+           * do nothing as the listener still wants to get notifications
+           */
+          break;
+        case UNSUBSCRIBE:
+          /*
+           * remove listener from subscribers as it does not want to receive any further
+           * notifications
+           */
+          if (finished == null) {
+            finished = new ArrayList<>();
+          }
+          finished.add(listener);
+          break;
+      }
+    }
+    if (finished != null) {
+      removeSubscribers(finished);
+    }
+  }
+
+  /**
+   * Returns the consumer of the readings which notifies the subscribers (e.g. for its backpressure
+   * metrics), the consumer of the last sampling is kept after the sampling was shut down.
+   *
+   * @return the consumer or null if the sensor was never sampled
+   */
+  public ReadingRingBuffer.Consumer getSubscriberNotifications() {
+    return subscriberNotifications;
+  }
+
   /**
    * Destructor that ensures that heating process is cancelled if temperatur controller is
    * destroyed.
@@ -257,22 +456,123 @@ public class TemperatureController implements ITemperatureService {
   }
 
 
+  /**
+   * Returns the last measured temperature without reading the sensor, so the caller never waits
+   * for a measurement.
+   * 
+   * @return the temperature or null if the last measurement failed or is too old
+   */
   @Override
   public Float getTemperature() {
-    try {
-      return this.thermometerReader.getTemperature();
-    } catch (TemperatureNotReadableException e) {
+    TemperatureSample sample = getLatestSample();
+    if (sample == null || clock.currentTimeMillis() - sample.getTimeMillis() > maxSampleAgeMillis) {
       /*
-       * No temperature received, return null to let the caller no that no temperature is available
+       * No temperature received yet or the sensor hangs, return null to let the caller know that
+       * no temperature is available
        */
-      LOGGER.error(e);
       return null;
     }
+    return sample.getTemperature();
+  }
+
+  /**
+   * Returns the latest measurement of the sensor, the sampling of the sensor is started with the
+   * first call (and again with the first call after stop()).
+   * 
+   * @return the sample or null if the sensor was not measured yet
+   */
+  public TemperatureSample getLatestSample() {
+    ensureSampling();
+    return latestSample;
+  }
+
+  /**
+   * Returns the temperature maintainer, while the sensor is sampled this is a plain read without
+   * locking.
+   * 
+   * @return the temperature maintainer
+   */
+  private TemperatureMaintainer ensureSampling() {
+    TemperatureMaintainer maintainer = temperatureMaintainerThread;
+    if (maintainer != null && maintainer.isAlive()) {
+      return maintainer;
+    }
+    return startSampling();
+  }
+
+  /**
+   * Starts the temperature maintainer and the consumers of its readings if they do not run yet.
+   * 
+   * @return the temperature maintainer
+   */
+  private synchronized TemperatureMaintainer startSampling() {
+    if (temperatureMaintainerThread == null || !temperatureMaintainerThread.isAlive()) {
+      if (temperatureMaintainerThread != null) {
+        /* the maintainer died (e.g. by an exception of a strategy) */
+        temperatureMaintainerThread.readings.shutdown();
+      }
+      TemperatureMaintainer maintainer = new TemperatureMaintainer();
+      subscriberNotifications =
+          maintainer.readings.addConsumer("TemperatureSubscribers",
+              new ReadingRingBuffer.ReadingHandler() {
+                @Override
+                public void handle(final float reading) {
+                  broadcastNotifications(reading);
+                }
+              });
+      for (Map.Entry<ReadingRingBuffer.ReadingHandler, String> consumer : readingConsumers
+          .entrySet()) {
+        maintainer.readings.addConsumer(consumer.getValue(), consumer.getKey());
+      }
+      /* the control loop must not wait for the consumers of the readings */
+      maintainer.setPriority(Thread.MAX_PRIORITY);
+      maintainer.start();
+      temperatureMaintainerThread = maintainer;
+    }
+    return temperatureMaintainerThread;
+  }
+
+  /**
+   * Ends the sampling of the sensor: the temperature maintainer is interrupted and joined and the
+   * consumers of its readings are shut down. The heater is not switched off, see stop(). The
+   * sampling is started again by the next use of the controller.
+   */
+  public void shutdown() {
+    TemperatureMaintainer maintainer;
+    synchronized (this) {
+      maintainer = temperatureMaintainerThread;
+      temperatureMaintainerThread = null;
+    }
+    if (maintainer == null) {
+      return;
+    }
+    maintainer.running = false;
+    maintainer.interrupt();
+    if (maintainer != Thread.currentThread()) {
+      try {
+        /* a hanging sensor must not block the caller for long */
+        maintainer.join(MEASUREMENT_INTERVAL);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      if (maintainer.isAlive()) {
+        LOGGER.warn("TemperatureMaintainer did not end in time");
+      }
+    }
+    maintainer.readings.shutdown();
   }
 
+  @Override
+  public Map<String, Float> getSensorTemperatures() {
+    if (thermometerReader instanceof IMultiThermometerReader) {
+      return ((IMultiThermometerReader) thermometerReader).getSensorTemperatures();
+    }
+    return Collections.emptyMap();
+  }
 
   @Override
   public HardwareStatus getTemperatureSensorStatus() {
+    ensureSampling();
     return temperatureStatus;
   }
 
@@ -285,36 +585,39 @@ public class TemperatureController implements ITemperatureService {
   @Override
   public void heatUp(final int temperature) {
     /*
-     * starts a new thread if the heater thread is not alive, updates temperature otherwise
+     * starts the sampling if it does not run yet, starts heating or updates the temperature. The
+     * lock keeps a concurrent stop() from shutting down the maintainer before it is updated
      */
-    if (temperatureMaintainerThread != null && temperatureMaintainerThread.isAlive()) {
-      temperatureMaintainerThread.updateTemperature(temperature);
-    } else {
-      if (temperatureMaintainerThread != null) {
-        // Thread exists but not alive.
-        temperatureMaintainerThread.interrupt();
-      }
-      temperatureMaintainerThread = new TemperatureMaintainer(temperature);
-      temperatureMaintainerThread.start();
+    synchronized (this) {
+      ensureSampling().updateTemperature(temperature);
     }
+    measureNow.set(true);
   }
 
   /**
-   * Terminates the heating/cooling process if still running.
+   * Terminates the heating/cooling process if still running and shuts down the sampling of the
+   * sensor until the controller is used again.
    */
   @Override
   public void stop() {
     LOGGER.info("Temperature Controller stopped");
-    if (temperatureMaintainerThread != null) {
-      temperatureMaintainerThread.interrupt();
-      temperatureMaintainerThread = null;
+    TemperatureMaintainer maintainer = temperatureMaintainerThread;
+    if (maintainer != null) {
+      maintainer.stopHeating();
     }
     subscribersLock.lock();
-    subscribers.clear();
-    subscribersLock.unlock();
+    try {
+      for (TemperatureListener listener : subscribers.getListeners()) {
+        listener.markUnsubscribed();
+      }
+      subscribers = TemperatureListenerIndex.EMPTY;
+    } finally {
+      subscribersLock.unlock();
+    }
 
     // Ensure that the heater is also turned off.
     heaterControl.switchOff();
+    shutdown();
   }
 
   /**
@@ -328,8 +631,12 @@ public class TemperatureController implements ITemperatureService {
   @Override
   public void subscribe(final int temperature, final int delta, final ITemperatureEvent notify) {
     subscribersLock.lock();
-    subscribers.add(new TemperatureListener(temperature, delta, notify));
-    subscribersLock.unlock();
+    try {
+      subscribers = subscribers.with(new TemperatureListener(temperature, delta, notify));
+    } finally {
+      subscribersLock.unlock();
+    }
+    measureNow.set(true);
   }
 
   /**
@@ -340,18 +647,51 @@ public class TemperatureController implements ITemperatureService {
   @Override
   public void unsubscribe(final ITemperatureEvent notify) {
     if (notify != null) {
-      subscribersLock.lock();
-
       /*
        * remove corresponding temperature listener
        */
-      for (final Iterator<TemperatureListener> iterator = subscribers.iterator(); iterator
-          .hasNext();) {
-        TemperatureListener listener = iterator.next();
-        if (listener.getNotify() == notify) {
-          iterator.remove();
-        }
+      subscribersLock.lock();
+      try {
+        removeSubscribers(subscribers.find(notify));
+      } finally {
+        subscribersLock.unlock();
+      }
+    }
+  }
+
+  @Override
+  public synchronized void addReadingConsumer(final String name,
+      final ReadingRingBuffer.ReadingHandler handler) {
+    if (readingConsumers.containsKey(handler)) {
+      return;
+    }
+    readingConsumers.put(handler, name);
+    if (temperatureMaintainerThread != null) {
+      temperatureMaintainerThread.readings.addConsumer(name, handler);
+    }
+  }
+
+  @Override
+  public synchronized void removeReadingConsumer(final ReadingRingBuffer.ReadingHandler handler) {
+    if (readingConsumers.remove(handler) != null && temperatureMaintainerThread != null) {
+      temperatureMaintainerThread.readings.removeConsumer(handler);
+    }
+  }
+
+  /**
+   * Removes listeners from the subscribers, they are not notified any more even if a notification
+   * is currently in progress.
+   *
+   * @param listeners the listeners to remove
+   */
+  private void removeSubscribers(final List<TemperatureListener> listeners) {
+    subscribersLock.lock();
+    try {
+      for (TemperatureListener listener : listeners) {
+        listener.markUnsubscribed();
       }
+      subscribers = subscribers.without(listeners);
+    } finally {
       subscribersLock.unlock();
     }
   }
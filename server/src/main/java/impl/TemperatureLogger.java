@@ -1,15 +1,21 @@
 package impl;
 
+import general.TemperatureSeries;
 import interfaces.IBrewingLogService;
-import interfaces.ITemperatureEvent;
 import interfaces.ITemperatureLogger;
 import interfaces.ITemperatureService;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
 import messages.TemperatureMessage;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import utilities.PropertyUtil;
+import utilities.ReadingRingBuffer;
+import utilities.SwingingDoorDownsampler;
 
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
@@ -18,7 +24,8 @@ import exceptions.BrewingProcessNotFoundException;
 
 /**
  * Provides functionality to peridiodically log the current temperature reported by the temperature
- * sensor into the brewing log.
+ * sensor into the brewing log. The temperatures are read by an own consumer of the readings of the
+ * temperature service, so writing the log neither delays the heater control nor the subscribers.
  * 
  * @author max
  *
@@ -45,15 +52,25 @@ public class TemperatureLogger implements ITemperatureLogger {
   private TemperatureListener currentTempListener;
 
   /**
-   * Delta of the logging temperature which is allowed to differ from the real value
+   * The amount the logged temperature curve may differ from the measured temperatures
    */
-  private final int loggingTempDelta;
+  private final float loggingErrorBound;
 
   /**
    * Delta of the logging time which is allowed to differ from the real value
    */
   private final long loggingTimeDelta;
 
+  /**
+   * Number of temperatures which were written to the log
+   */
+  private final AtomicLong keptTemperatures = new AtomicLong();
+
+  /**
+   * Number of temperatures which were not written to the log
+   */
+  private final AtomicLong suppressedTemperatures = new AtomicLong();
+
   /**
    * Creates a new temperature logger.
    * 
@@ -61,7 +78,7 @@ public class TemperatureLogger implements ITemperatureLogger {
    */
   @Inject
   public TemperatureLogger(final IBrewingLogService brewingLogService) {
-    loggingTempDelta = PropertyUtil.getTemperatureLoggingTemperatureDelta();
+    loggingErrorBound = PropertyUtil.getTemperatureLoggingErrorBound();
     loggingTimeDelta =
         PropertyUtil.getPropertyLong(PropertyUtil.TEMPERATURE_LOGGING_TIME_DELTA_PROPERTY);
     this.brewingLogService = brewingLogService;
@@ -76,74 +93,119 @@ public class TemperatureLogger implements ITemperatureLogger {
 
     tempService = tc;
     currentTempListener = new TemperatureListener();
-
-    /*
-     * Register for any temperature between -50° to 150° so that every notification is handled
-     */
-    tc.subscribe(50, 100, currentTempListener);
+    tc.addReadingConsumer("TemperatureLogger", currentTempListener);
   }
 
 
   @Override
   public void unsubscribe() {
-    if (tempService != null) {
-      tempService.unsubscribe(currentTempListener);
+    if (tempService != null && currentTempListener != null) {
+      tempService.removeReadingConsumer(currentTempListener);
+    }
+    if (currentTempListener != null) {
+      /* also if the temperature service already removed the listener when it stopped */
+      currentTempListener.flush();
     }
     currentTempListener = null;
   }
 
   /**
-   * Log temperature changes
+   * Returns the number of temperatures which were written to the log.
+   *
+   * @return number of temperatures
+   */
+  public long getKeptTemperatures() {
+    return keptTemperatures.get();
+  }
+
+  /**
+   * Returns the number of temperatures which were not written to the log, because the logged
+   * temperature curve is within the error bound without them.
+   *
+   * @return number of temperatures
+   */
+  public long getSuppressedTemperatures() {
+    return suppressedTemperatures.get();
+  }
+
+  /**
+   * Log temperature changes, the temperatures are downsampled so only the points of the curve are
+   * logged
    *
    * @author max
    *
    */
-  private class TemperatureListener implements ITemperatureEvent {
+  private class TemperatureListener implements ReadingRingBuffer.ReadingHandler {
 
     /**
-     * The last received temperature (or null, if no message was received yet)
+     * Downsampler of the temperatures of this subscription
      */
-    private Float lastTemperature;
+    private final SwingingDoorDownsampler downsampler = new SwingingDoorDownsampler(
+        loggingErrorBound, loggingTimeDelta);
 
     /**
-     * The time when the last log was received
+     * Number of suppressed temperatures which are already counted
      */
-    private long lastLog = -1;
+    private long suppressed = 0;
 
     /**
-     * Instantiates the temperature listener and sets the last temperature to null
+     * Whether the end of the curve was written, readings which the consumer still handles after
+     * the logger unsubscribed are ignored
      */
-    public TemperatureListener() {
-      lastTemperature = null;
-    }
+    private boolean flushed = false;
 
     @Override
-    public SubscribeStatus temperatureReached(final float temperature) {
-      LOGGER.info(String.format("Temp: %.2f°C", temperature));
-      long currentTime = System.currentTimeMillis();
-      if (lastTemperature != null && Math.abs(temperature - lastTemperature) < loggingTempDelta
-          && lastLog >= 0 && currentTime - lastLog < loggingTimeDelta) {
-        /*
-         * Temperature did not change significantly and time passed since last log is less than the
-         * threshold, keep subscribed
-         */
-        return SubscribeStatus.SUBSCRIBE;
+    public synchronized void handle(final float temperature) {
+      if (flushed) {
+        return;
       }
-      lastTemperature = temperature;
-      lastLog = currentTime;
-      TemperatureMessage temperatureMessage = new TemperatureMessage(temperature);
-      temperatureMessage.setMessage(String.format("The current temperature has changed to %f.",
-          lastTemperature));
+      if (LOGGER.isDebugEnabled()) {
+        Map<String, Float> sensorTemperatures = tempService.getSensorTemperatures();
+        if (sensorTemperatures.isEmpty()) {
+          LOGGER.debug(String.format("Temp: %.2f°C", temperature));
+        } else {
+          LOGGER.debug(String.format("Temp: %.2f°C %s", temperature, sensorTemperatures));
+        }
+      }
+      boolean store = downsampler.offer(System.currentTimeMillis(), temperature);
+      if (downsampler.getSuppressed() != suppressed) {
+        suppressedTemperatures.addAndGet(downsampler.getSuppressed() - suppressed);
+        suppressed = downsampler.getSuppressed();
+      }
+      if (store) {
+        logStoreValue();
+      }
+    }
+
+    /**
+     * Writes the end of the logged curve to the log when the subscription ends, so the last
+     * temperatures are within the error bound as well.
+     */
+    public synchronized void flush() {
+      if (flushed) {
+        return;
+      }
+      flushed = true;
+      if (downsampler.flush()) {
+        logStoreValue();
+      }
+    }
+
+    /**
+     * Writes the point the downsampler has to store to the log.
+     */
+    private void logStoreValue() {
+      keptTemperatures.incrementAndGet();
+      float keptTemperature = downsampler.getStoreValue();
+      LOGGER.info(String.format("Temp: %.2f°C", keptTemperature));
+      TemperatureMessage temperatureMessage = new TemperatureMessage(keptTemperature);
+      temperatureMessage.setTime(downsampler.getStoreTime());
+      temperatureMessage.setMessage(TemperatureSeries.describe(keptTemperature));
       try {
         brewingLogService.log(temperatureMessage);
       } catch (BrewingProcessNotFoundException e) {
         LOGGER.error("BrewingProcess was not found", e);
       }
-
-      /*
-       * keep subscribed
-       */
-      return SubscribeStatus.SUBSCRIBE;
     }
   }
 }
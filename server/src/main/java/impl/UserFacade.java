@@ -15,20 +15,20 @@ import general.LogSummary;
 import general.Protocol;
 import general.Recipe;
 import general.RecipeSummary;
+import general.TemperatureHistory;
 import interfaces.IBrewingController;
 import interfaces.IMessageService;
 import interfaces.IProtocolService;
 import interfaces.IRecipeService;
 import interfaces.IUserFacadeService;
 
-import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.TreeMap;
 
 import javax.inject.Inject;
 
 import messages.Message;
-import messages.TemperatureMessage;
 
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
@@ -155,6 +155,12 @@ public class UserFacade implements IMessageService, IUserFacadeService {
     return recipeService.importRecipe(recipe);
   }
 
+  @Override
+  public List<String> importRecipes(final List<Recipe> recipes) throws RecipeParseException,
+      RecipeSavingException {
+    return recipeService.importRecipes(recipes);
+  }
+
 
   @Override
   public void notify(final Message m) {
@@ -222,19 +228,16 @@ public class UserFacade implements IMessageService, IUserFacadeService {
       throws BrewingProcessNotFoundException {
     BrewingProcess process = brewingService.getCurrentBrewingProcess();
     if (process != null) {
-      List<Message> messages = new ArrayList<Message>();
       long sinceLong = since != null ? since.longValue() : -1;
-      for (Message message : process.getBrewingLog().getMessages()) {
-        if (message == null) {
+      /* the log is ordered by time, older messages are skipped by binary search */
+      List<Message> messages = process.getBrewingLog().getMessagesSince(sinceLong);
+      for (Iterator<Message> iterator = messages.iterator(); iterator.hasNext();) {
+        if (iterator.next() == null) {
           LOGGER.log(Level.ERROR, "A message in the current brewing log was null. "
               + "This should never happen, as adding null messages to the log via "
               + "method \"add(Message m)\" would cause an exception. "
               + "So something went wrong here.");
-          continue;
-        }
-        /* ignore older messages */
-        if (message.getTime() >= sinceLong) {
-          messages.add(message);
+          iterator.remove();
         }
       }
       return messages;
@@ -245,17 +248,22 @@ public class UserFacade implements IMessageService, IUserFacadeService {
   @Override
   public TreeMap<Long, Float> getTemperaturesSince(final Long since)
       throws BrewingProcessNotFoundException {
+    TemperatureHistory history = getTemperatureHistorySince(since);
+    TreeMap<Long, Float> tempMap = new TreeMap<Long, Float>();
+    int size = history.size();
+    for (int i = 0; i < size; i++) {
+      tempMap.put(history.getTime(i), history.getTemperature(i));
+    }
+    return tempMap;
+  }
+
+  @Override
+  public TemperatureHistory getTemperatureHistorySince(final Long since)
+      throws BrewingProcessNotFoundException {
     BrewingProcess process = brewingService.getCurrentBrewingProcess();
     if (process != null) {
-      TreeMap<Long, Float> tempMap = new TreeMap<Long, Float>();
-      List<Message> messagesSince = getCurrentMessagesSince(since);
-      for (Message message : messagesSince) {
-        if (message instanceof TemperatureMessage) {
-          TemperatureMessage tempMessage = (TemperatureMessage) message;
-          tempMap.put(tempMessage.getTime(), tempMessage.getTemperature());
-        }
-      }
-      return tempMap;
+      long sinceLong = since != null ? since.longValue() : -1;
+      return process.getBrewingLog().getTemperaturesSince(sinceLong);
     }
     throw new BrewingProcessNotFoundException("No BrewingProcess currently ongoing");
   }
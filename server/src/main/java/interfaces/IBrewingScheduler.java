@@ -0,0 +1,32 @@
+/*
+ *
+ */
+package interfaces;
+
+import java.util.concurrent.Future;
+
+
+/**
+ * Runs the delayed steps of the brewing parts (e.g. malt and hop pre-notifications or the waiting
+ * period until the next iodine test) without a thread per step.
+ */
+public interface IBrewingScheduler {
+
+  /**
+   * Runs a task after the given delay. The task should not block, as it shares the threads of the
+   * scheduler with the other brewing parts.
+   *
+   * @param task the task
+   * @param delayMillis time in milliseconds until the task is run (0 or less runs it as soon as
+   *        possible)
+   * @return the pending task, which can be cancelled
+   */
+  Future<?> schedule(Runnable task, long delayMillis);
+
+  /**
+   * Returns the current time of the scheduler, which all delays are relative to.
+   *
+   * @return the current time in milliseconds
+   */
+  long currentTimeMillis();
+}
@@ -0,0 +1,63 @@
+/*
+ *
+ */
+package interfaces;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Time source of the brewing process. The brewing parts and the temperature control only measure
+ * and wait for time through the clock, so a brewing process can be simulated faster than real time
+ * (e.g. to validate a recipe in a dry run).
+ */
+public interface IClock {
+
+  /**
+   * Returns the current time of the clock.
+   *
+   * @return the current time in milliseconds
+   */
+  long currentTimeMillis();
+
+  /**
+   * Lets the calling thread sleep for the given time of the clock.
+   *
+   * @param millis time to sleep in milliseconds of the clock
+   * @throws InterruptedException if the thread is interrupted while sleeping
+   */
+  void sleep(long millis) throws InterruptedException;
+
+  /**
+   * Runs a task on the executor after the given time span of the clock.
+   *
+   * @param executor the executor which runs the task
+   * @param task the task
+   * @param delayMillis time span in milliseconds of the clock (0 or less runs the task as soon as
+   *        possible)
+   * @return the pending task, which can be cancelled
+   */
+  Future<?> schedule(ScheduledExecutorService executor, Runnable task, long delayMillis);
+
+  /**
+   * Runs a task on the executor as soon as possible as part of the work of the brewing process, for
+   * threads which are woken up by other threads instead of the clock (e.g. the consumers of the
+   * temperature readings). A simulated clock does not skip time while the task is queued or
+   * running.
+   *
+   * @param executor the executor which runs the task
+   * @param task the task
+   * @return the pending task, which can be cancelled
+   */
+  Future<?> submit(ExecutorService executor, Runnable task);
+
+  /**
+   * Converts a time span of the clock into real milliseconds, e.g. for timeouts which are measured
+   * by other means than the clock.
+   *
+   * @param millis time span in milliseconds of the clock
+   * @return the time span in real milliseconds
+   */
+  long toRealMillis(long millis);
+}
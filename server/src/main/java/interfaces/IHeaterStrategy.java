@@ -0,0 +1,30 @@
+/*
+ *
+ */
+package interfaces;
+
+
+/**
+ * Decides after every temperature measurement whether the heater has to be switched on to reach
+ * and hold the desired temperature. The TemperatureController only switches the relay; how the
+ * decision is made (e.g. a hysteresis or a PID controller) is chosen in the BrewingModule. A
+ * strategy keeps the state of one heater and is not shared between temperature controllers.
+ */
+public interface IHeaterStrategy {
+
+  /**
+   * Decides whether the heater has to be switched on.
+   *
+   * @param temperature the measured temperature
+   * @param targetTemperature the temperature which should be reached and held
+   * @param heating whether the heater is currently switched on
+   * @param timeMillis time of the measurement in milliseconds
+   * @return true if the heater has to be switched on, false if it has to be switched off
+   */
+  boolean isHeating(float temperature, float targetTemperature, boolean heating, long timeMillis);
+
+  /**
+   * Forgets the state of the previous heating process (e.g. when the heater was stopped).
+   */
+  void reset();
+}
@@ -10,6 +10,9 @@ import exceptions.LogNotFoundException;
 import exceptions.LogParseException;
 import exceptions.LogSavingException;
 import general.BrewingLog;
+import general.LogSummary;
+import general.Protocol;
+import messages.Message;
 
 
 /**
@@ -26,6 +29,41 @@ public interface ILogStorage {
    */
   File saveLog(BrewingLog log) throws LogSavingException;
 
+  /**
+   * Opens an append-only journal for the log of a running brewing process, the messages which
+   * were already logged are written immediately.
+   *
+   * @param log the log of the running brewing process
+   * @throws LogSavingException the journal could not be created
+   */
+  void openJournal(BrewingLog log) throws LogSavingException;
+
+  /**
+   * Appends a message to the journal of the log with the given id.
+   *
+   * @param id id of the journaled log
+   * @param message the message which was logged
+   * @throws LogSavingException the message could not be written
+   */
+  void appendToJournal(int id, Message message) throws LogSavingException;
+
+  /**
+   * Closes the journal of the log with the given id and compacts it into a saved log.
+   *
+   * @param id id of the journaled log
+   * @return the file of the saved log
+   * @throws LogSavingException the journal could not be compacted
+   */
+  File closeJournal(int id) throws LogSavingException;
+
+  /**
+   * Closes the journal of the log with the given id without compacting it and deletes it, e.g.
+   * because appending to it failed and the whole log is saved instead.
+   *
+   * @param id id of the journaled log
+   */
+  void abortJournal(int id);
+
   /**
    * Returns the given brewing log by id
    *
@@ -35,6 +73,25 @@ public interface ILogStorage {
    */
   BrewingLog getLogById(int id) throws LogNotFoundException, LogParseException;
 
+  /**
+   * Returns the protocol of the given brewing log, which is stored next to the log so that it is
+   * only created once
+   *
+   * @param id id of the brewing log
+   * @return the protocol of the log
+   * @throws LogNotFoundException log does not exist
+   * @throws LogParseException log could not be parsed
+   */
+  Protocol getProtocol(int id) throws LogNotFoundException, LogParseException;
+
+  /**
+   * Checks whether a log with the given id exists without reading it
+   *
+   * @param id id of the brewing log
+   * @return true if the log exists
+   */
+  boolean containsLog(int id);
+
   /**
    * Returns a list of logs
    *
@@ -42,6 +99,15 @@ public interface ILogStorage {
    */
   List<BrewingLog> getLogs();
 
+  /**
+   * Returns the summaries of the logs which were added at or after the given time, without reading
+   * the logs whose summaries are known.
+   *
+   * @param since time in milliseconds (0 for the summaries of all logs)
+   * @return list of log summaries
+   */
+  List<LogSummary> getLogSummaries(long since);
+
   /** the last time the log files have been modified */
   long getLastLogUpdateTime();
   
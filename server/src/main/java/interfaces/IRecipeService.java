@@ -28,6 +28,18 @@ public interface IRecipeService extends IGetRecipe {
    */
   String importRecipe(Recipe recipe) throws RecipeParseException, RecipeSavingException;
 
+  /**
+   * Imports several recipes at once, none of them is imported if one is not valid or cannot be
+   * saved.
+   *
+   * @param recipes recipes to save
+   * @return ids of the newly created recipes in the order of the recipes
+   * @throws RecipeParseException the recipe parse exception
+   * @throws RecipeSavingException the recipe saving exception
+   */
+  List<String> importRecipes(List<Recipe> recipes) throws RecipeParseException,
+      RecipeSavingException;
+
   /**
    * Returns a list of recipe-summaries.
    *
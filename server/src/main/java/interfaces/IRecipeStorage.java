@@ -44,4 +44,15 @@ public interface IRecipeStorage {
    * @throws RecipeSavingException the recipe saving exception
    */
   String saveRecipe(Recipe recipe) throws RecipeParseException, RecipeSavingException;
+
+  /**
+   * Saves several recipes in one pass, none of them is saved if one cannot be saved.
+   *
+   * @param recipes the recipes
+   * @return the ids of the saved recipes in the order of the recipes
+   * @throws RecipeParseException the recipe parse exception
+   * @throws RecipeSavingException the recipe saving exception
+   */
+  List<String> saveRecipes(List<Recipe> recipes) throws RecipeParseException,
+      RecipeSavingException;
 }
@@ -0,0 +1,39 @@
+/*
+ *
+ */
+package interfaces;
+
+
+/**
+ * Decides after every temperature measurement how long the TemperatureController waits until the
+ * next measurement. Like the IHeaterStrategy it is chosen in the BrewingModule and keeps the state
+ * of one temperature controller.
+ */
+public interface ISamplingStrategy {
+
+  /**
+   * Returns the time until the next measurement.
+   *
+   * @param temperature the measured temperature
+   * @param distance distance of the temperature to the nearest temperature where something happens
+   *        (the desired temperature of the heater or a border of a subscribed range), infinite if
+   *        there is none
+   * @param timeMillis time of the measurement in milliseconds
+   * @return the interval in milliseconds
+   */
+  long nextInterval(float temperature, float distance, long timeMillis);
+
+  /**
+   * Returns the longest interval the strategy waits until the next measurement, the
+   * TemperatureController keeps returning a measurement at least as long.
+   *
+   * @return the maximal interval in milliseconds
+   */
+  long getMaxInterval();
+
+  /**
+   * Forgets the previous measurements (e.g. when the temperature could not be read or the desired
+   * temperature changed).
+   */
+  void reset();
+}
@@ -5,6 +5,9 @@ package interfaces;
 
 import general.HardwareStatus;
 
+import java.util.Map;
+
+import utilities.ReadingRingBuffer;
 
 /**
  * The Interface ITemperatureService.
@@ -25,6 +28,14 @@ public interface ITemperatureService {
    */
   Float getTemperature();
 
+  /**
+   * Gets the temperatures of the single sensors of the last measurement if there are several
+   * sensors (e.g. for logging).
+   *
+   * @return temperature by sensor id, empty if there is only one sensor
+   */
+  Map<String, Float> getSensorTemperatures();
+
   /**
    * whether the temperature sensor is enabled/disabled or not connected.
    *
@@ -60,4 +71,20 @@ public interface ITemperatureService {
    */
   void unsubscribe(ITemperatureEvent notify);
 
+  /**
+   * Adds a consumer which gets every temperature measured while heating in its own thread, so a
+   * slow consumer (e.g. the logging) neither delays the heater control nor the subscribers.
+   *
+   * @param name name of the thread of the consumer
+   * @param handler the handler which is called for every temperature
+   */
+  void addReadingConsumer(String name, ReadingRingBuffer.ReadingHandler handler);
+
+  /**
+   * Removes a consumer which was added before.
+   *
+   * @param handler the handler of the consumer
+   */
+  void removeReadingConsumer(ReadingRingBuffer.ReadingHandler handler);
+
 }
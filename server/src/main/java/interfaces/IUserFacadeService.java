@@ -12,6 +12,7 @@ import general.ActuatorDetails;
 import general.BrewingProcess;
 import general.BrewingProcessSummary;
 import general.BrewingState;
+import general.TemperatureHistory;
 
 import java.util.List;
 import java.util.TreeMap;
@@ -95,6 +96,17 @@ public interface IUserFacadeService extends IRecipeService, IProtocolService, IB
    */
   TreeMap<Long, Float> getTemperaturesSince(Long since) throws BrewingProcessNotFoundException;
 
+  /**
+   * Returns the temperatures of the current brewing process which are newer than or equal to the
+   * given date, without boxing every time and temperature
+   * 
+   * @param since timestamp which is used for receiving only newer temperatures, passing null
+   *        returns all temperatures
+   * @throws BrewingProcessNotFoundException - no brewing process ongoing
+   * @return temperatures ordered by time which are newer than the given time stamp
+   */
+  TemperatureHistory getTemperatureHistorySince(Long since) throws BrewingProcessNotFoundException;
+
   /**
    * Returns a summary of the current brewing process
    * 
@@ -3,27 +3,35 @@
  */
 package modules;
 
+import impl.AdaptiveSamplingStrategy;
 import impl.BrewingController;
 import impl.BrewingLogger;
 import impl.BrewingPart;
+import impl.BrewingScheduler;
 import impl.HopCooker;
+import impl.HysteresisHeaterStrategy;
 import impl.Masher;
 import impl.ProtocolManagement;
 import impl.RecipeManagement;
 import impl.StirrerService;
+import impl.SystemClock;
 import impl.TemperatureLogger;
 import impl.UserFacade;
 import interfaces.IAcousticNotifier;
 import interfaces.IBrewingController;
 import interfaces.IBrewingLogService;
+import interfaces.IBrewingScheduler;
 import interfaces.IBrewingService;
+import interfaces.IClock;
 import interfaces.IGetRecipe;
+import interfaces.IHeaterStrategy;
 import interfaces.ILogStorage;
 import interfaces.IMessageService;
 import interfaces.INetworkService;
 import interfaces.IProtocolService;
 import interfaces.IRecipeService;
 import interfaces.IRecipeStorage;
+import interfaces.ISamplingStrategy;
 import interfaces.IStirrerService;
 import interfaces.ITemperatureLogger;
 import interfaces.ITemperatureService;
@@ -67,9 +75,20 @@ public class BrewingModule extends AbstractModule {
     bind(IUserFacadeService.class).to(UserFacade.class);
     bind(ITemperatureLogger.class).to(TemperatureLogger.class);
     bind(IProtocolService.class).to(ProtocolManagement.class);
+    bind(IBrewingScheduler.class).to(BrewingScheduler.class);
+    /* bind a SimulationClock instance instead to simulate a brewing process faster */
+    bind(IClock.class).to(SystemClock.class);
+    /*
+     * bind PidHeaterStrategy instead to control the heater by a PID controller, which tunes its
+     * gains with the first rest if the HeaterAutoTuning property is set
+     */
+    bind(IHeaterStrategy.class).to(HysteresisHeaterStrategy.class);
+    /* bind FixedSamplingStrategy instead to measure the temperature in a constant interval */
+    bind(ISamplingStrategy.class).to(AdaptiveSamplingStrategy.class);
     // bind(IHeaterControl.class).to(HeaterController.class);
     // bind(IStirrerControl.class).to(components.StirrerController.class);
     // bind(IThermometerReader.class).to(components.ThermometerReader.class);
+    // bind(IThermometerReader.class).to(components.MultiThermometerReader.class);
     // bind(ISignalControl.class).to(components.SignalController.class);
     // bind(IAcousticNotifier.class).to(AcousticNotifier.class);
     bind(IAcousticNotifier.class).to(MockAcousticNotifier.class);
@@ -6,11 +6,11 @@ package network;
 import general.BrewingProcess;
 import general.BrewingProcessSummary;
 import general.BrewingState;
+import general.TemperatureHistory;
 import gson.Serializer;
 
 import java.lang.reflect.Type;
 import java.util.List;
-import java.util.Map;
 
 import messages.Message;
 
@@ -211,9 +211,10 @@ public class BrewingResource extends BaseResource {
    * Returns a list of messages which are newer than a given date
    * 
    * @param since timestamp which is used for receiving only newer messages
+   * @param format message format the client understands (optional, legacy format if not given)
    * @return List of Messages which are newer than the given time stamp
    */
-  public Result messageHistory(final Long since) throws HttpError {
+  public Result messageHistory(final Long since, final Integer format) throws HttpError {
     List<Message> messagesSince;
     try {
       messagesSince = getUserFacade().getCurrentMessagesSince(since);
@@ -221,7 +222,8 @@ public class BrewingResource extends BaseResource {
         Type listType = new TypeToken<List<Message>>() {
           /* Needs to be an empty block */
         }.getType();
-        JsonResult<List<Message>> result = new JsonResult<List<Message>>(messagesSince, listType);
+        JsonResult<List<Message>> result =
+            new JsonResult<List<Message>>(messagesSince, listType, format);
         return result;
       }
 
@@ -238,17 +240,9 @@ public class BrewingResource extends BaseResource {
    * @return Map of temperatures which are newer than the given time stamp
    */
   public Result temperatureHistory(final Long since) throws HttpError {
-    Map<Long, Float> temperaturesSince;
     try {
-      temperaturesSince = getUserFacade().getTemperaturesSince(since);
-      synchronized (temperaturesSince) {
-        Type mapType = new TypeToken<Map<Long, Float>>() {
-          /* Needs to be an empty block */
-        }.getType();
-        JsonResult<Map<Long, Float>> result =
-            new JsonResult<Map<Long, Float>>(temperaturesSince, mapType);
-        return result;
-      }
+      TemperatureHistory temperaturesSince = getUserFacade().getTemperatureHistorySince(since);
+      return new JsonResult<TemperatureHistory>(temperaturesSince, TemperatureHistory.class);
     } catch (BrewingProcessNotFoundException e) {
       returnBadRequestException(e);
     }
@@ -258,17 +252,18 @@ public class BrewingResource extends BaseResource {
   /**
    * Returns the latest push messages of the current brewing process
    * 
+   * @param format message format the client understands (optional, legacy format if not given)
    * @return list of push messages of brewing process
    * @throws HttpError
    */
-  public Result pushMessages() throws HttpError {
+  public Result pushMessages(final Integer format) throws HttpError {
     try {
       List<Message> pushMessages = getUserFacade().getPushMessages();
       Type type = new TypeToken<List<Message>>() {
         /* Needs to be an empty block */
       }.getType();
       synchronized (pushMessages) {
-        return new JsonResult<List<Message>>(pushMessages, type);
+        return new JsonResult<List<Message>>(pushMessages, type, format);
       }
 
     } catch (BrewingProcessNotFoundException e) {
@@ -64,10 +64,11 @@ public class DispatchServlet extends HttpServlet {
         new Class<?>[] {String.class}, "startBrewing");
     brewingHandler.registerRoutine(HttpMethod.POST, "temperature", new String[] {"since"},
         new Class<?>[] {Long.class}, "temperatureHistory");
-    brewingHandler.registerRoutine(HttpMethod.POST, "messages", new String[] {"since"},
-        new Class<?>[] {Long.class}, "messageHistory");
+    brewingHandler.registerRoutine(HttpMethod.POST, "messages", new String[] {"since", "format"},
+        new Class<?>[] {Long.class, Integer.class}, "messageHistory");
     brewingHandler.registerRoutine(HttpMethod.POST, "cancel", "cancel");
-    brewingHandler.registerRoutine(HttpMethod.GET, "push", "pushMessages");
+    brewingHandler.registerRoutine(HttpMethod.GET, "push", new String[] {"format"},
+        new Class<?>[] {Integer.class}, "pushMessages");
   }
 
   /**
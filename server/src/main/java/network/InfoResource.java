@@ -3,6 +3,8 @@
  */
 package network;
 
+import gson.Serializer;
+
 import java.util.Date;
 import java.util.Properties;
 
@@ -56,6 +58,7 @@ public class InfoResource extends BaseResource {
     Properties properties = PropertyUtil.getProperties();
     properties.setProperty("ProjectFolder", PropertyUtil.PROJECT_FOLDER_PATH);
     properties.setProperty("RecipePath", PropertyUtil.RECIPE_PATH);
+    properties.setProperty("MessageFormat", String.valueOf(Serializer.MESSAGE_FORMAT_FLAT));
 
     return new JsonResult<Properties>(properties, Properties.class);
   }
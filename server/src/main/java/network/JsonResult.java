@@ -30,7 +30,19 @@ public class JsonResult<T> implements Result {
    * @param clazz the type of the object
    */
   public JsonResult(final T currentObject, final Type clazz) {
-    jsonString = Serializer.getInstance().toJson(currentObject, clazz);
+    this(currentObject, clazz, null);
+  }
+
+  /**
+   * The result needs the object and type for gson to serialize. Messages are written in the
+   * message format the client asked for.
+   *
+   * @param currentObject the object which should be serialized
+   * @param clazz the type of the object
+   * @param messageFormat the message format, null for the legacy format
+   */
+  public JsonResult(final T currentObject, final Type clazz, final Integer messageFormat) {
+    jsonString = Serializer.getInstance(messageFormat).toJson(currentObject, clazz);
   }
 
   
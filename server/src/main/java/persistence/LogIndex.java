@@ -0,0 +1,278 @@
+/*
+ *
+ */
+package persistence;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import utilities.PropertyUtil;
+
+/**
+ * Index of the saved brewing logs which maps every log id to the file the log is stored in. The
+ * index is persisted next to the logs and only rebuilt (from the file names, without opening any
+ * log) if the persisted index is missing, broken or older than the log folder. Lookups, id
+ * allocation and existence checks therefore never have to touch unrelated log files. Logs which
+ * are added or removed from outside while the index is in use are picked up by {@link #refresh()},
+ * which lists the folder again whenever its modification time changed.
+ */
+public class LogIndex {
+
+  /** global logger object */
+  public static final Logger LOGGER = LogManager.getLogger();
+
+  /** separates the id and the file name of an entry in the index file */
+  private static final String SEPARATOR = "\t";
+
+  /** Folder of the indexed logs */
+  private final File folder;
+
+  /** File the index is persisted in */
+  private final File indexFile;
+
+  /** maps the log ids to the log files, sorted to allow O(1) access to the highest id */
+  private final TreeMap<Integer, File> files = new TreeMap<Integer, File>();
+
+  /** modification time of the folder when the entries were last known to be complete */
+  private long folderModified;
+
+  /**
+   * Creates the index for the given log folder and loads (or rebuilds) its entries.
+   *
+   * @param logPath folder of the logs
+   */
+  public LogIndex(final String logPath) {
+    folder = new File(logPath);
+    indexFile = new File(folder, PropertyUtil.LOG_INDEX_FILE);
+    folderModified = folder.lastModified();
+    if (!load()) {
+      rebuild();
+    }
+  }
+
+  /**
+   * Lists the folder again if its modification time changed since the entries were last known to
+   * be complete, e.g. because a log was copied into or deleted from the folder. Files the
+   * application writes into the folder change its modification time as well, so the index is only
+   * persisted again if the listed logs differ from the entries.
+   *
+   * @return true if logs were added or removed
+   */
+  public synchronized boolean refresh() {
+    long modified = folder.lastModified();
+    if (modified == folderModified) {
+      return false;
+    }
+    folderModified = modified;
+    Map<Integer, File> listed = list();
+    if (listed.equals(files)) {
+      return false;
+    }
+    files.clear();
+    files.putAll(listed);
+    LOGGER.info("Log index refreshed with " + files.size() + " entries");
+    store();
+    return true;
+  }
+
+  /**
+   * Returns the file of the log with the given id.
+   *
+   * @param id id of the log
+   * @return the file of the log or null if no log with this id exists
+   */
+  public synchronized File get(final int id) {
+    File file = files.get(id);
+    if (file != null && !file.exists()) {
+      /*
+       * the log was removed from outside, the whole index might be outdated
+       */
+      rebuild();
+      file = files.get(id);
+    }
+    return file;
+  }
+
+  /**
+   * Checks whether a log with the given id is indexed.
+   *
+   * @param id id of the log
+   * @return true if a log with this id exists
+   */
+  public boolean contains(final int id) {
+    return get(id) != null;
+  }
+
+  /**
+   * Returns all indexed log ids in ascending order.
+   *
+   * @return list of used ids
+   */
+  public synchronized List<Integer> getIds() {
+    return new ArrayList<Integer>(files.keySet());
+  }
+
+  /**
+   * Returns the indexed log files by id.
+   *
+   * @return copy of the index sorted by id
+   */
+  public synchronized Map<Integer, File> getFiles() {
+    return new TreeMap<Integer, File>(files);
+  }
+
+  /**
+   * Returns the highest indexed log id.
+   *
+   * @return highest id or 0 if no log was indexed yet
+   */
+  public synchronized int getHighestId() {
+    return files.isEmpty() ? 0 : files.lastKey();
+  }
+
+  /**
+   * Adds a newly saved log to the index and persists the index.
+   *
+   * @param id id of the log
+   * @param file file the log was saved in
+   */
+  public synchronized void put(final int id, final File file) {
+    files.put(id, file);
+    store();
+  }
+
+  /**
+   * Rebuilds the index from the names of the log files ("id_date.log") and persists it.
+   */
+  public synchronized void rebuild() {
+    folderModified = folder.lastModified();
+    files.clear();
+    files.putAll(list());
+    LOGGER.info("Log index rebuilt with " + files.size() + " entries");
+    store();
+  }
+
+  /**
+   * Lists the log files of the folder by the ids in their names ("id_date.log").
+   *
+   * @return the log files by id
+   */
+  private Map<Integer, File> list() {
+    Map<Integer, File> listed = new TreeMap<Integer, File>();
+    File[] logFiles = folder.listFiles(new FilenameFilter() {
+
+      @Override
+      public boolean accept(final File dir, final String name) {
+        return name.endsWith(PropertyUtil.LOG_FILE_EXT);
+      }
+    });
+    if (logFiles != null) {
+      for (File file : logFiles) {
+        Integer id = parseId(file.getName());
+        if (id != null && !listed.containsKey(id)) {
+          listed.put(id, file);
+        }
+      }
+    }
+    return listed;
+  }
+
+  /**
+   * Parses the id of a log from its file name.
+   *
+   * @param name name of the log file
+   * @return the id or null if the name does not start with an id
+   */
+  private Integer parseId(final String name) {
+    int end = name.indexOf('_');
+    if (end <= 0) {
+      return null;
+    }
+    try {
+      return Integer.parseInt(name.substring(0, end));
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Loads the persisted index if it is still up to date.
+   *
+   * @return true if the index was loaded, false if it has to be rebuilt
+   */
+  private boolean load() {
+    if (!indexFile.exists() || indexFile.lastModified() < folder.lastModified()) {
+      return false;
+    }
+    Map<Integer, File> loaded = new TreeMap<Integer, File>();
+    int count;
+    try (BufferedReader in =
+        new BufferedReader(new InputStreamReader(new FileInputStream(indexFile),
+            StandardCharsets.UTF_8))) {
+      /*
+       * the first line holds the number of entries, so that a partially written index is detected
+       */
+      String line = in.readLine();
+      if (line == null) {
+        return false;
+      }
+      count = Integer.parseInt(line);
+      while ((line = in.readLine()) != null) {
+        int separator = line.indexOf(SEPARATOR);
+        if (separator <= 0) {
+          return false;
+        }
+        loaded.put(Integer.parseInt(line.substring(0, separator)), new File(folder,
+            line.substring(separator + 1)));
+      }
+    } catch (IOException | NumberFormatException e) {
+      LOGGER.warn("Log index could not be read, rebuilding it", e);
+      return false;
+    }
+    if (loaded.size() != count) {
+      return false;
+    }
+    files.putAll(loaded);
+    return true;
+  }
+
+  /**
+   * Persists the index. The file is rewritten in place so that the modification time of the log
+   * folder only changes if logs are added or removed.
+   */
+  private void store() {
+    if (!folder.exists()) {
+      return;
+    }
+    try (BufferedWriter out =
+        new BufferedWriter(new OutputStreamWriter(new FileOutputStream(indexFile, false),
+            StandardCharsets.UTF_8))) {
+      out.write(String.valueOf(files.size()));
+      out.newLine();
+      for (Map.Entry<Integer, File> entry : files.entrySet()) {
+        out.write(entry.getKey() + SEPARATOR + entry.getValue().getName());
+        out.newLine();
+      }
+    } catch (IOException e) {
+      /*
+       * the index is rebuilt on the next start, so this does not lose any log
+       */
+      LOGGER.error("Log index could not be saved", e);
+    }
+  }
+}
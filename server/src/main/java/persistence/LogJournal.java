@@ -0,0 +1,319 @@
+/*
+ *
+ */
+package persistence;
+
+import general.BrewingLog;
+import general.Recipe;
+import general.TemperatureSeries;
+import gson.Serializer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import messages.Message;
+import messages.TemperatureMessage;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+
+/**
+ * Append-only journal of a running brewing process. The first line contains the recipe and the id
+ * of the log, every further line exactly one message. Messages are written as they are logged and
+ * synced to the disk in groups (after a number of messages or a time interval), so the costs per
+ * message stay constant and at most the last unsynced messages are lost if the server dies. The
+ * time interval is also kept while no messages are logged, a shared thread syncs the journals whose
+ * messages were not synced in time. After
+ * the brewing process the journal is compacted into the usual ".log" format.
+ */
+public class LogJournal {
+
+  /** global logger object */
+  public static final Logger LOGGER = LogManager.getLogger();
+
+  /** Number of messages after which the journal is synced at latest */
+  public static final int SYNC_MESSAGES = 20;
+
+  /** Syncs the journals whose messages were not synced within their time interval */
+  private static final ScheduledExecutorService SYNC_SCHEDULER = Executors
+      .newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(final Runnable runnable) {
+          Thread thread = new Thread(runnable, "LogJournalSync");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+
+  /** Name of the recipe attribute in the header and the log */
+  private static final String RECIPE = "recipe";
+
+  /** Name of the messages attribute in the log */
+  private static final String MESSAGES = "messages";
+
+  /** Name of the id attribute in the header and the log */
+  private static final String ID = "id";
+
+  /** Name of the type attribute of a message */
+  private static final String TYPE = "type";
+
+  /** The journal file */
+  private final File file;
+
+  /** Stream of the journal file, used for syncing */
+  private final FileOutputStream stream;
+
+  /** Buffered writer on top of the stream */
+  private final Writer writer;
+
+  /** Gson instance which serializes the messages (in the flat format) */
+  private final Gson gson = Serializer.getLogStorageInstance();
+
+  /** Time in milliseconds after which unsynced messages are synced at latest */
+  private final long syncMillis;
+
+  /** Number of messages written since the last sync */
+  private int unsyncedMessages = 0;
+
+  /** Time of the last sync */
+  private long lastSync = System.currentTimeMillis();
+
+  /** The periodic sync of the journal (or null if every message is synced) */
+  private final ScheduledFuture<?> periodicSync;
+
+  /** Whether the journal was closed */
+  private boolean closed = false;
+
+  /**
+   * Creates the journal for the given log and writes the header and all messages which were
+   * already logged.
+   *
+   * @param file the journal file, will be overwritten
+   * @param log the log of the running brewing process
+   * @param syncMillis time after which logged messages are synced at latest
+   * @throws IOException if the journal could not be written
+   */
+  public LogJournal(final File file, final BrewingLog log, final long syncMillis)
+      throws IOException {
+    this.file = file;
+    this.syncMillis = syncMillis;
+    file.getParentFile().mkdirs();
+    stream = new FileOutputStream(file, false);
+    writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+    JsonObject header = new JsonObject();
+    header.add(RECIPE, gson.toJsonTree(log.getRecipe(), Recipe.class));
+    header.addProperty(ID, log.getId());
+    writer.write(gson.toJson(header));
+    writer.write('\n');
+    if (log.getMessages() != null) {
+      for (Message message : log.getMessages()) {
+        writer.write(gson.toJson(message, Message.class));
+        writer.write('\n');
+      }
+    }
+    sync();
+    periodicSync = syncMillis > 0 ? SYNC_SCHEDULER.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        syncIfDue();
+      }
+    }, syncMillis, syncMillis, TimeUnit.MILLISECONDS) : null;
+  }
+
+  /**
+   * Appends a message to the journal.
+   *
+   * @param message the message
+   * @throws IOException if the message could not be written
+   */
+  public synchronized void append(final Message message) throws IOException {
+    writer.write(gson.toJson(message, Message.class));
+    writer.write('\n');
+    unsyncedMessages++;
+    if (unsyncedMessages >= SYNC_MESSAGES
+        || System.currentTimeMillis() - lastSync >= syncMillis) {
+      sync();
+    }
+  }
+
+  /**
+   * Syncs the messages which were not synced within the time interval, called by the scheduler.
+   */
+  private synchronized void syncIfDue() {
+    if (closed || unsyncedMessages == 0
+        || System.currentTimeMillis() - lastSync < syncMillis) {
+      return;
+    }
+    try {
+      sync();
+    } catch (IOException e) {
+      LOGGER.error("Journal " + file + " could not be synced", e);
+    }
+  }
+
+  /**
+   * Writes all buffered messages and forces them to the disk.
+   *
+   * @throws IOException if the journal could not be synced
+   */
+  public synchronized void sync() throws IOException {
+    writer.flush();
+    stream.getFD().sync();
+    unsyncedMessages = 0;
+    lastSync = System.currentTimeMillis();
+  }
+
+  /**
+   * Syncs and closes the journal.
+   *
+   * @throws IOException if the journal could not be closed
+   */
+  public synchronized void close() throws IOException {
+    if (periodicSync != null) {
+      periodicSync.cancel(false);
+    }
+    closed = true;
+    try {
+      sync();
+    } finally {
+      /* the file is released even if the journal cannot be synced anymore */
+      writer.close();
+    }
+  }
+
+  /**
+   * Returns the journal file.
+   *
+   * @return the file
+   */
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * Compacts a journal into the log format which is read by the PersistenceHandler. The messages
+   * are copied one by one, so the journal is never loaded completely into memory, temperature
+   * readings are collected and written as encoded temperature series next to the log. The log is
+   * written to a temporary file first and moved to its destination afterwards, so a crash never
+   * leaves a partial log behind.
+   *
+   * @param journal the (closed) journal file
+   * @param logFile the file the log is written to
+   * @param temperatureFile the file the temperature readings are written to
+   * @throws IOException if the journal could not be read or the log could not be written
+   */
+  public static void compact(final File journal, final File logFile, final File temperatureFile)
+      throws IOException {
+    Gson gson = Serializer.getLogStorageInstance();
+    TemperatureSeries temperatures = new TemperatureSeries();
+    JsonParser parser = new JsonParser();
+    File tempFile = new File(logFile.getPath() + ".tmp");
+    try (BufferedReader in =
+        new BufferedReader(new InputStreamReader(new FileInputStream(journal),
+            StandardCharsets.UTF_8));
+        JsonWriter out =
+            new JsonWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(
+                tempFile, false), Charset.defaultCharset())))) {
+      String line = in.readLine();
+      if (line == null) {
+        throw new IOException("Journal " + journal + " is empty");
+      }
+      JsonObject header;
+      try {
+        header = parser.parse(line).getAsJsonObject();
+      } catch (JsonParseException | IllegalStateException e) {
+        throw new IOException("Journal " + journal + " has no valid header", e);
+      }
+      out.beginObject();
+      out.name(RECIPE);
+      gson.toJson(header.get(RECIPE), out);
+      out.name(MESSAGES);
+      out.beginArray();
+      while ((line = in.readLine()) != null) {
+        JsonElement message;
+        try {
+          message = parser.parse(line);
+        } catch (JsonParseException e) {
+          /*
+           * only the last line can be broken (crash while writing), skip it
+           */
+          LOGGER.warn("Skipped broken message in journal " + journal);
+          continue;
+        }
+        if (isTemperatureMessage(message)) {
+          Message reading = gson.fromJson(message, Message.class);
+          if (TemperatureSeries.isReading(reading)) {
+            temperatures.add((TemperatureMessage) reading);
+            continue;
+          }
+        }
+        gson.toJson(message, out);
+      }
+      out.endArray();
+      out.name(ID).value(header.get(ID).getAsInt());
+      out.endObject();
+    }
+    PersistenceHandler.writeTemperatures(temperatures, temperatureFile);
+    Files.move(tempFile.toPath(), logFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Checks whether a journaled message is a temperature message without deserializing it.
+   *
+   * @param message the journaled message
+   * @return true if the message is a temperature message
+   */
+  private static boolean isTemperatureMessage(final JsonElement message) {
+    if (!message.isJsonObject()) {
+      return false;
+    }
+    JsonElement type = message.getAsJsonObject().get(TYPE);
+    return type != null && type.isJsonPrimitive()
+        && TemperatureMessage.class.getSimpleName().equals(type.getAsString());
+  }
+
+  /**
+   * Reads the log id from the header of a journal.
+   *
+   * @param journal the journal file
+   * @return the id of the journaled log
+   * @throws IOException if the header could not be read
+   */
+  public static int readId(final File journal) throws IOException {
+    try (BufferedReader in =
+        new BufferedReader(new InputStreamReader(new FileInputStream(journal),
+            StandardCharsets.UTF_8))) {
+      String line = in.readLine();
+      if (line == null) {
+        throw new IOException("Journal " + journal + " is empty");
+      }
+      return new JsonParser().parse(line).getAsJsonObject().get(ID).getAsInt();
+    } catch (JsonParseException | IllegalStateException | NullPointerException e) {
+      throw new IOException("Journal " + journal + " has no valid header", e);
+    }
+  }
+}
@@ -0,0 +1,255 @@
+/*
+ *
+ */
+package persistence;
+
+import general.LogSummary;
+import gson.Serializer;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import utilities.PropertyUtil;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * Index of the summaries of the saved brewing logs, persisted next to the logs. The summary of a
+ * log is created once when the log is saved and appended to the index file, so listing the
+ * protocols only reads the index instead of parsing every log. Every entry remembers the name of
+ * its log file and when it was added, so that replaced logs are detected and new entries can be
+ * merged incrementally. The index is a cache: a broken or missing entry only means that the
+ * summary of the log has to be created from the log again.
+ */
+public class LogSummaryIndex {
+
+  /**
+   * A summary of a log and when it was added to the index.
+   */
+  public static final class Entry {
+
+    /** time the summary was added in milliseconds */
+    private final long addedMillis;
+
+    /** name of the log file */
+    private final String fileName;
+
+    /** the summary of the log */
+    private final LogSummary summary;
+
+    /**
+     * Creates an entry.
+     *
+     * @param addedMillis time the summary was added in milliseconds
+     * @param fileName name of the log file
+     * @param summary the summary of the log
+     */
+    Entry(final long addedMillis, final String fileName, final LogSummary summary) {
+      this.addedMillis = addedMillis;
+      this.fileName = fileName;
+      this.summary = summary;
+    }
+
+    /**
+     * Gets the time the summary was added.
+     *
+     * @return time in milliseconds
+     */
+    public long getAddedMillis() {
+      return addedMillis;
+    }
+
+    /**
+     * Gets the summary.
+     *
+     * @return the summary of the log
+     */
+    public LogSummary getSummary() {
+      return summary;
+    }
+  }
+
+  /** global logger object */
+  public static final Logger LOGGER = LogManager.getLogger();
+
+  /** separates the fields of an entry in the index file */
+  private static final String SEPARATOR = "\t";
+
+  /** Folder of the logs */
+  private final File folder;
+
+  /** File the index is persisted in */
+  private final File indexFile;
+
+  /** Serializes the summaries */
+  private final Gson gson = Serializer.getInstance();
+
+  /** entries by the name of their log file */
+  private final Map<String, Entry> entries = new HashMap<String, Entry>();
+
+  /** number of lines in the index file */
+  private int lines = 0;
+
+  /**
+   * Creates the index for the given log folder and loads its entries.
+   *
+   * @param logPath folder of the logs
+   */
+  public LogSummaryIndex(final String logPath) {
+    folder = new File(logPath);
+    indexFile = new File(folder, PropertyUtil.LOG_SUMMARY_INDEX_FILE);
+    load();
+  }
+
+  /**
+   * Returns the entry of a log file.
+   *
+   * @param logFile the log file
+   * @return the entry or null if the log was not summarized yet
+   */
+  public synchronized Entry get(final File logFile) {
+    return entries.get(logFile.getName());
+  }
+
+  /**
+   * Adds the summary of a log and appends it to the index file.
+   *
+   * @param logFile the log file
+   * @param summary the summary of the log
+   * @param addedMillis time the summary is added in milliseconds
+   * @return the new entry
+   */
+  public synchronized Entry put(final File logFile, final LogSummary summary,
+      final long addedMillis) {
+    Entry entry = new Entry(addedMillis, logFile.getName(), summary);
+    entries.put(entry.fileName, entry);
+    if (!folder.exists()) {
+      return entry;
+    }
+    try (Writer out =
+        new BufferedWriter(new OutputStreamWriter(new FileOutputStream(indexFile, true),
+            StandardCharsets.UTF_8))) {
+      write(out, entry);
+      lines++;
+    } catch (IOException e) {
+      /*
+       * the summary is created from the log again on the next start
+       */
+      LOGGER.error("Log summary index could not be saved", e);
+    }
+    return entry;
+  }
+
+  /**
+   * Forgets the entries of logs which do not exist any more. The index file is rewritten if
+   * entries were removed or if it mostly consists of outdated or broken lines.
+   *
+   * @param logFiles the existing log files
+   */
+  public synchronized void retain(final Collection<File> logFiles) {
+    Set<String> names = new HashSet<String>();
+    for (File logFile : logFiles) {
+      names.add(logFile.getName());
+    }
+    if (entries.keySet().retainAll(names) || lines > 2 * entries.size() + 16) {
+      store();
+    }
+  }
+
+  /**
+   * Loads the entries of the index file, the last entry of a log file wins.
+   */
+  private void load() {
+    if (!indexFile.exists()) {
+      return;
+    }
+    try (BufferedReader in =
+        new BufferedReader(new InputStreamReader(new FileInputStream(indexFile),
+            StandardCharsets.UTF_8))) {
+      String line;
+      while ((line = in.readLine()) != null) {
+        lines++;
+        Entry entry = parse(line);
+        if (entry != null) {
+          entries.put(entry.fileName, entry);
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Log summary index could not be read", e);
+    }
+  }
+
+  /**
+   * Parses an entry of the index file.
+   *
+   * @param line the line of the entry
+   * @return the entry or null if the line is broken (e.g. because of a crash while appending)
+   */
+  private Entry parse(final String line) {
+    int first = line.indexOf(SEPARATOR);
+    int second = line.indexOf(SEPARATOR, first + 1);
+    if (first <= 0 || second <= first + 1) {
+      return null;
+    }
+    try {
+      LogSummary summary = gson.fromJson(line.substring(second + 1), LogSummary.class);
+      if (summary == null) {
+        return null;
+      }
+      return new Entry(Long.parseLong(line.substring(0, first)), line.substring(first + 1,
+          second), summary);
+    } catch (JsonParseException | NumberFormatException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Writes an entry as a line of the index file.
+   *
+   * @param out the writer of the index file
+   * @param entry the entry
+   * @throws IOException if the entry could not be written
+   */
+  private void write(final Writer out, final Entry entry) throws IOException {
+    out.write(entry.addedMillis + SEPARATOR + entry.fileName + SEPARATOR
+        + gson.toJson(entry.summary, LogSummary.class));
+    out.write('\n');
+  }
+
+  /**
+   * Rewrites the index file with the current entries. The file is rewritten in place so that the
+   * modification time of the log folder does not change.
+   */
+  private void store() {
+    if (!folder.exists()) {
+      return;
+    }
+    try (Writer out =
+        new BufferedWriter(new OutputStreamWriter(new FileOutputStream(indexFile, false),
+            StandardCharsets.UTF_8))) {
+      for (Entry entry : entries.values()) {
+        write(out, entry);
+      }
+      lines = entries.size();
+    } catch (IOException e) {
+      LOGGER.error("Log summary index could not be saved", e);
+    }
+  }
+}
@@ -11,30 +11,48 @@ import exceptions.RecipeNotFoundException;
 import exceptions.RecipeParseException;
 import exceptions.RecipeSavingException;
 import general.BrewingLog;
+import general.LogSummary;
+import general.Protocol;
 import general.Recipe;
 import general.RecipeSummary;
+import general.TemperatureSeries;
 import gson.Serializer;
 import interfaces.ILogStorage;
 import interfaces.IRecipeStorage;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import messages.Message;
 
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
-import parser.RecipeReader;
 import parser.RecipeWriter;
 import utilities.PropertyUtil;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonSyntaxException;
 import com.google.inject.Singleton;
 
@@ -49,27 +67,42 @@ public class PersistenceHandler implements ILogStorage, IRecipeStorage {
   /** global logger object */
   public static final Logger LOGGER = LogManager.getLogger();
 
-  /** The recipe reader, creates recipes from xml files. */
-  private final RecipeReader reader = new RecipeReader();
-
   /** formats date for use in filenames */
   private final SimpleDateFormat dateFormat = new SimpleDateFormat("dd.MM.yyyy-HH.mm.ss");
 
   /** The main class for using gson */
   private final Gson mGson;
 
+  /** Gson instance which writes logs without their temperature readings */
+  private final Gson mLogGson;
+
   /**
    * The time of the lost written update of log files, intitially MIN_VALUE + 1 because it has to be
    * after the last cache refresh time
    */
-  private long lastLogUpdateTime = 1;
+  private volatile long lastLogUpdateTime = 1;
 
   /** Folder for recipes */
   private String recipePath = PropertyUtil.RECIPE_PATH;
 
+  /** Cache of the recipes in the recipe folder, created on first access */
+  private RecipeCatalog recipeCatalog;
+
   /** Folder for logs */
   private String logPath = PropertyUtil.LOG_PATH;
 
+  /** Index of the logs in the log folder, created on first access */
+  private LogIndex logIndex;
+
+  /** Index of the summaries of the logs in the log folder, created on first access */
+  private LogSummaryIndex logSummaryIndex;
+
+  /** Journals of the logs of running brewing processes by log id */
+  private final Map<Integer, LogJournal> journals = new ConcurrentHashMap<Integer, LogJournal>();
+
+  /** Time after which journaled messages are synced to disk at latest */
+  private final long journalSyncMillis = PropertyUtil.getLogJournalSyncMillis();
+
   /**
    * This method creates an instance of the PersistenceHandler class, creates a log entry and sets
    * the Gson instance.
@@ -77,6 +110,7 @@ public class PersistenceHandler implements ILogStorage, IRecipeStorage {
   public PersistenceHandler() {
     LOGGER.info("PersistenceHandler created");
     mGson = Serializer.getInstance();
+    mLogGson = Serializer.getLogStorageInstance();
   }
 
   /**
@@ -91,11 +125,8 @@ public class PersistenceHandler implements ILogStorage, IRecipeStorage {
    */
   private File createFile(final String folder, final String name, final String ext)
       throws FileCreationException {
-    File file = new File(folder + File.separator + name + ext);
+    File file = getUnusedFile(folder, name, ext);
     try {
-      for (int i = 1; file.exists(); i++) {
-        file = new File(folder + File.separator + name + "(" + i + ")" + ext);
-      }
       file.getParentFile().mkdirs();
       file.createNewFile();
     } catch (IOException e) {
@@ -106,84 +137,52 @@ public class PersistenceHandler implements ILogStorage, IRecipeStorage {
   }
 
   /**
-   * Creates a recipe object from a file.
+   * Returns a file which does not exist yet and adds a number to the end of its name if a file with
+   * this name already exists.
    *
-   * @param file recipe file
-   * @return recipe object created from file contents
-   * @throws RecipeNotFoundException if the file does not exist
-   * @throws RecipeParseException if the file could not be parsed
+   * @param folder the folder of the file
+   * @param name name of the file (not including extension)
+   * @param ext file extension of the file
+   * @return a file object representing a not existing file
    */
-  private Recipe getRecipe(final File file) throws RecipeNotFoundException, RecipeParseException {
-    if (!file.exists()) {
-      throw new RecipeNotFoundException();
-    }
-    try {
-      Recipe recipe = reader.getRecipeByString(new String(Files.readAllBytes(file.toPath())));
-      String fileName = file.getName();
-      if (fileName != null) {
-        fileName = fileName.replace(PropertyUtil.RECIPE_FILE_EXT, "");
-      }
-      recipe.setId(fileName);
-      return recipe;
-    } catch (IOException e) {
-      LOGGER.error(e);
-      throw new RecipeParseException(e);
+  private File getUnusedFile(final String folder, final String name, final String ext) {
+    File file = new File(folder + File.separator + name + ext);
+    for (int i = 1; file.exists(); i++) {
+      file = new File(folder + File.separator + name + "(" + i + ")" + ext);
     }
+    return file;
   }
 
   @Override
   public Recipe getRecipe(final String id) throws RecipeNotFoundException, RecipeParseException {
-    File recipeFile = new File(recipePath + File.separator + id + PropertyUtil.RECIPE_FILE_EXT);
-    return getRecipe(recipeFile);
+    return getRecipeCatalog().getRecipe(id);
   }
 
   @Override
   public List<RecipeSummary> getRecipeSummaries() throws RecipeParseException {
-    File folder = new File(recipePath);
-    File[] recipeFiles = folder.listFiles(new FilenameFilter() {
-      @Override
-      public boolean accept(final File file, final String name) {
-        return name.endsWith(PropertyUtil.RECIPE_FILE_EXT);
-      }
-    });
-    if (recipeFiles == null || recipeFiles.length == 0) {
-      return new ArrayList<RecipeSummary>();
-    }
-    RecipeReader reader = new RecipeReader();
-    List<RecipeSummary> summaries = new ArrayList<RecipeSummary>();
-    for (File file : recipeFiles) {
-      try {
-        RecipeSummary summary =
-            reader.getRecipeSummaryByString(new String(Files.readAllBytes(file.toPath())));
-        String fileName = file.getName();
-        if (fileName != null) {
-          fileName = fileName.replace(PropertyUtil.RECIPE_FILE_EXT, "");
-        }
-        summary.setId(fileName);
-        summaries.add(summary);
-      } catch (IOException e) {
-        // Do nothing, broken recipe files will be ignored for summary
-        // index
-      }
-    }
-    return summaries;
+    return getRecipeCatalog().getSummaries();
   }
 
   @Override
   public File saveLog(final BrewingLog log) throws LogSavingException {
-    String json = mGson.toJson(log);
+    String json = mLogGson.toJson(log);
     FileOutputStream out;
+    /* leftover journals are recovered before the saved log replaces a journal of its id */
+    getLogIndex();
 
 
     try {
       File file =
           createFile(logPath, log.getId() + "_" + dateFormat.format((new Date()).getTime()),
               PropertyUtil.LOG_FILE_EXT);
+      writeTemperatures(log.getTemperatures(), getTemperatureFile(file));
       out = new FileOutputStream(file, false);
       out.write(json.getBytes());
       out.flush();
       out.close();
-      lastLogUpdateTime = (new Date()).getTime();
+      saveProtocol(log, getProtocolFile(file));
+      publishLog(log.getId(), file, log);
+      discardJournal(log.getId());
       return file;
     } catch (IOException | FileCreationException e) {
       LOGGER.error(e);
@@ -192,46 +191,328 @@ public class PersistenceHandler implements ILogStorage, IRecipeStorage {
 
   }
 
+  @Override
+  public void openJournal(final BrewingLog log) throws LogSavingException {
+    /* leftover journals have to be recovered before the id is reused */
+    getLogIndex();
+    File file = new File(logPath, log.getId() + PropertyUtil.LOG_JOURNAL_FILE_EXT);
+    try {
+      LogJournal previous = journals.put(log.getId(), new LogJournal(file, log, journalSyncMillis));
+      if (previous != null) {
+        previous.close();
+      }
+    } catch (IOException e) {
+      LOGGER.error(e);
+      throw new LogSavingException(e);
+    }
+  }
+
+  @Override
+  public void appendToJournal(final int id, final Message message) throws LogSavingException {
+    LogJournal journal = journals.get(id);
+    if (journal == null) {
+      throw new LogSavingException("No journal opened for log " + id);
+    }
+    try {
+      journal.append(message);
+    } catch (IOException e) {
+      LOGGER.error(e);
+      throw new LogSavingException(e);
+    }
+  }
+
+  @Override
+  public File closeJournal(final int id) throws LogSavingException {
+    LogJournal journal = journals.remove(id);
+    if (journal == null) {
+      throw new LogSavingException("No journal opened for log " + id);
+    }
+    try {
+      journal.close();
+      return compactJournal(journal.getFile(), id);
+    } catch (IOException e) {
+      LOGGER.error(e);
+      throw new LogSavingException(e);
+    }
+  }
+
+  @Override
+  public void abortJournal(final int id) {
+    LogJournal journal = journals.remove(id);
+    if (journal == null) {
+      return;
+    }
+    try {
+      journal.close();
+    } catch (IOException e) {
+      LOGGER.warn("Aborted journal " + journal.getFile() + " could not be closed", e);
+    }
+    if (journal.getFile().exists() && !journal.getFile().delete()) {
+      LOGGER.warn("Aborted journal " + journal.getFile() + " could not be deleted");
+    }
+  }
+
+  /**
+   * Deletes the journal of a log which was saved completely (e.g. because compacting the journal
+   * failed), otherwise it would be recovered as a second log of the id on the next start. An open
+   * journal is kept.
+   *
+   * @param id id of the saved log
+   */
+  private void discardJournal(final int id) {
+    if (journals.containsKey(id)) {
+      return;
+    }
+    File journal = new File(logPath, id + PropertyUtil.LOG_JOURNAL_FILE_EXT);
+    if (journal.exists() && !journal.delete()) {
+      LOGGER.warn("Journal " + journal + " of the saved log could not be deleted");
+    }
+  }
+
+  /**
+   * Compacts a closed journal into a log file, adds it to the index and removes the journal.
+   *
+   * @param journal the journal file
+   * @param id id of the journaled log
+   * @return the file of the saved log
+   * @throws IOException if the journal could not be compacted
+   */
+  private File compactJournal(final File journal, final int id) throws IOException {
+    File file =
+        getUnusedFile(logPath, id + "_" + dateFormat.format((new Date()).getTime()),
+            PropertyUtil.LOG_FILE_EXT);
+    LogJournal.compact(journal, file, getTemperatureFile(file));
+    if (!journal.delete()) {
+      LOGGER.warn("Compacted journal " + journal + " could not be deleted");
+    }
+    publishLog(id, file, null);
+    return file;
+  }
+
+  /**
+   * Compacts the journals of brewing processes which were not finished because the server
+   * stopped, so that their logs are not lost.
+   */
+  private void recoverJournals() {
+    File[] files = (new File(logPath)).listFiles(new FilenameFilter() {
+
+      @Override
+      public boolean accept(final File dir, final String name) {
+        return name.endsWith(PropertyUtil.LOG_JOURNAL_FILE_EXT);
+      }
+    });
+    if (files == null) {
+      return;
+    }
+    for (File file : files) {
+      if (isJournalOpen(file)) {
+        continue;
+      }
+      try {
+        File log = compactJournal(file, LogJournal.readId(file));
+        LOGGER.info("Recovered journal " + file + " into " + log);
+      } catch (IOException e) {
+        LOGGER.error("Journal " + file + " could not be recovered", e);
+      }
+    }
+  }
+
+  /**
+   * Checks whether a journal file belongs to a running brewing process.
+   *
+   * @param file the journal file
+   * @return true if the journal is still open
+   */
+  private boolean isJournalOpen(final File file) {
+    for (LogJournal journal : journals.values()) {
+      if (journal.getFile().getAbsoluteFile().equals(file.getAbsoluteFile())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   @Override
   public String saveRecipe(final Recipe recipe) throws RecipeParseException, RecipeSavingException {
+    return saveRecipes(Collections.singletonList(recipe)).get(0);
+  }
+
+  /**
+   * {@inheritDoc} Every recipe is streamed into a temporary file first, and only when all of them
+   * are written the files are moved into place, so a crash never leaves a truncated recipe file.
+   * If a recipe cannot be written or moved, the temporary files and the recipe files which were
+   * already moved are deleted and the ids of the recipes are not changed.
+   */
+  @Override
+  public synchronized List<String> saveRecipes(final List<Recipe> recipes)
+      throws RecipeParseException, RecipeSavingException {
     RecipeWriter recipeWriter = new RecipeWriter();
-    String id = recipe.getId();
-    if (id == null || id.isEmpty()) {
-      id = dateFormat.format((new Date()).getTime());
-      recipe.setId(id);
-    }
-    FileOutputStream out;
+    List<String> oldIds = new ArrayList<String>(recipes.size());
+    List<File> recipeFiles = new ArrayList<File>(recipes.size());
+    List<Path> tempFiles = new ArrayList<Path>(recipes.size());
+    Set<File> claimed = new HashSet<File>();
+    int moved = 0;
     try {
-      File recipeFile = new File(recipePath + File.separator + id + PropertyUtil.RECIPE_FILE_EXT);
-      String count = "";
-      for (int i = 0; recipeFile.exists(); i++) {
-        count = "(" + i + ")";
-        recipeFile =
-            new File(recipePath + File.separator + id + count + PropertyUtil.RECIPE_FILE_EXT);
+      Files.createDirectories(new File(recipePath).toPath());
+      for (Recipe recipe : recipes) {
+        String id = recipe.getId();
+        oldIds.add(id);
+        if (id == null || id.isEmpty()) {
+          id = dateFormat.format((new Date()).getTime());
+        }
+        File recipeFile = new File(recipePath + File.separator + id + PropertyUtil.RECIPE_FILE_EXT);
+        String count = "";
+        /* the recipes of this call are not in place yet, so their files are skipped as well */
+        for (int i = 0; recipeFile.exists() || claimed.contains(recipeFile); i++) {
+          count = "(" + i + ")";
+          recipeFile =
+              new File(recipePath + File.separator + id + count + PropertyUtil.RECIPE_FILE_EXT);
+        }
+        recipe.setId(id + count);
+        recipeFiles.add(recipeFile);
+        claimed.add(recipeFile);
+        tempFiles.add(recipeWriter.writeTempFile(recipe, recipeFile.toPath()));
+      }
+      for (; moved < tempFiles.size(); moved++) {
+        Files.move(tempFiles.get(moved), recipeFiles.get(moved).toPath(),
+            StandardCopyOption.ATOMIC_MOVE);
       }
-      id += count;
-      recipe.setId(id);
-      recipeFile.getParentFile().mkdirs();
-      recipeFile.createNewFile();
-      String xml = recipeWriter.convertRecipeToXml(recipe);
-      out = new FileOutputStream(recipeFile, false);
-      out.write(xml.getBytes());
-      out.close();
     } catch (IOException e) {
       LOGGER.error(e);
       throw new RecipeSavingException(e);
+    } finally {
+      if (moved < recipes.size()) {
+        discardRecipes(recipes, oldIds, tempFiles.subList(moved, tempFiles.size()),
+            recipeFiles.subList(0, moved));
+      }
+    }
+    RecipeCatalog catalog = getRecipeCatalog();
+    List<String> ids = new ArrayList<String>(recipes.size());
+    for (int i = 0; i < recipes.size(); i++) {
+      catalog.put(recipes.get(i), recipeFiles.get(i));
+      ids.add(recipes.get(i).getId());
+    }
+    return ids;
+  }
+
+  /**
+   * Undoes a call of saveRecipes which failed: deletes the written files and restores the ids of
+   * the recipes.
+   *
+   * @param recipes the recipes which should have been saved
+   * @param oldIds the ids of the recipes before they were saved
+   * @param tempFiles the temporary files which were not moved yet
+   * @param movedFiles the recipe files which were already moved into place
+   */
+  private void discardRecipes(final List<Recipe> recipes, final List<String> oldIds,
+      final List<Path> tempFiles, final List<File> movedFiles) {
+    for (int i = 0; i < oldIds.size(); i++) {
+      recipes.get(i).setId(oldIds.get(i));
+    }
+    List<Path> files = new ArrayList<Path>(tempFiles);
+    for (File file : movedFiles) {
+      files.add(file.toPath());
+    }
+    for (Path file : files) {
+      try {
+        Files.deleteIfExists(file);
+      } catch (IOException e) {
+        LOGGER.error("Recipe file " + file + " could not be deleted", e);
+      }
     }
-    return recipe.getId();
   }
 
   /** sets the directory for recipes */
-  public void setRecipePath(final String path) {
+  public synchronized void setRecipePath(final String path) {
     recipePath = path;
+    if (recipeCatalog != null) {
+      recipeCatalog.close();
+      recipeCatalog = null;
+    }
+  }
+
+  /**
+   * Returns the catalog of the current recipe folder, it is created on first access.
+   *
+   * @return catalog of the recipes
+   */
+  private synchronized RecipeCatalog getRecipeCatalog() {
+    if (recipeCatalog == null) {
+      recipeCatalog = new RecipeCatalog(recipePath);
+    }
+    return recipeCatalog;
   }
 
   /** sets the directory for logs */
-  public void setLogPath(final String path) {
+  public synchronized void setLogPath(final String path) {
     logPath = path;
+    logIndex = null;
+    logSummaryIndex = null;
+  }
+
+  /**
+   * Returns the index of the current log folder, it is loaded or rebuilt on first access and
+   * leftover journals are recovered. Later accesses refresh the index if logs were added to or
+   * removed from the folder from outside, which counts as an update of the logs.
+   *
+   * @return index of the logs
+   */
+  private synchronized LogIndex getLogIndex() {
+    if (logIndex == null) {
+      logIndex = new LogIndex(logPath);
+      recoverJournals();
+    } else if (logIndex.refresh()) {
+      lastLogUpdateTime = Math.max((new Date()).getTime(), lastLogUpdateTime + 1);
+    }
+    return logIndex;
+  }
+
+  /**
+   * Returns the summary index of the current log folder, it is loaded on first access.
+   *
+   * @return index of the log summaries
+   */
+  private synchronized LogSummaryIndex getLogSummaryIndex() {
+    if (logSummaryIndex == null) {
+      logSummaryIndex = new LogSummaryIndex(logPath);
+    }
+    return logSummaryIndex;
+  }
+
+  /**
+   * Adds a saved log to the indexes and updates the time of the last update. The update times
+   * increase strictly and the summary is added before the update time is published, so a reader of
+   * the summaries added since an update time never misses a log.
+   *
+   * @param id id of the log
+   * @param file the log file
+   * @param log the saved log (or null if it is summarized on demand)
+   */
+  private synchronized void publishLog(final int id, final File file, final BrewingLog log) {
+    long updateTime = Math.max((new Date()).getTime(), lastLogUpdateTime + 1);
+    if (log != null) {
+      summarize(file, log, updateTime);
+    }
+    getLogIndex().put(id, file);
+    lastLogUpdateTime = updateTime;
+  }
+
+  /**
+   * Adds the summary of a saved log to the summary index.
+   *
+   * @param file the log file
+   * @param log the saved log
+   * @param updateTime the update time the summary belongs to
+   * @return the entry of the summary or null if the log cannot be summarized
+   */
+  private LogSummaryIndex.Entry summarize(final File file, final BrewingLog log,
+      final long updateTime) {
+    try {
+      return getLogSummaryIndex().put(file, log.getSummary(), updateTime);
+    } catch (RuntimeException e) {
+      LOGGER.warn("Log " + file + " cannot be summarized", e);
+      return null;
+    }
   }
 
   /** gets the directory for recipes */
@@ -244,34 +525,177 @@ public class PersistenceHandler implements ILogStorage, IRecipeStorage {
     return logPath;
   }
 
-  /** Gets the time of the last written update of the log files */
+  /**
+   * Gets the time of the last written update of the log files, logs which were added or removed
+   * from outside since the last access to the index are taken into account
+   */
   @Override
   public long getLastLogUpdateTime() {
+    synchronized (this) {
+      if (logIndex != null) {
+        getLogIndex();
+      }
+    }
     return lastLogUpdateTime;
   }
 
   @Override
   public BrewingLog getLogById(final int id) throws LogNotFoundException, LogParseException {
-    File[] files = (new File(logPath)).listFiles(new FilenameFilter() {
+    File file = getLogIndex().get(id);
+    if (file == null) {
+      throw new LogNotFoundException();
+    }
+    try {
+      return readLog(file);
+    } catch (NoSuchFileException e) {
+      throw new LogNotFoundException();
+    } catch (IOException e) {
+      LOGGER.error(e);
+      throw new LogParseException(e);
+    }
+  }
 
-      @Override
-      public boolean accept(final File dir, final String name) {
-        return name.endsWith(PropertyUtil.LOG_FILE_EXT);
-      }
-    });
-    if (files != null) {
-      for (File file : files) {
-        if (file.getName().startsWith(id + "_")) {
-          try {
-            return getLogByString(new String(Files.readAllBytes(file.toPath())));
-          } catch (IOException e) {
-            LOGGER.error(e);
-            throw new LogParseException(e);
-          }
+  @Override
+  public Protocol getProtocol(final int id) throws LogNotFoundException, LogParseException {
+    File file = getLogIndex().get(id);
+    if (file == null) {
+      throw new LogNotFoundException();
+    }
+    File protocolFile = getProtocolFile(file);
+    /* a protocol which is older than its log was created from a replaced log */
+    if (protocolFile.exists() && protocolFile.lastModified() >= file.lastModified()) {
+      try {
+        Protocol protocol =
+            mGson.fromJson(new String(Files.readAllBytes(protocolFile.toPath()),
+                StandardCharsets.UTF_8), Protocol.class);
+        if (protocol != null) {
+          File temperatureFile = getTemperatureFile(file);
+          return protocol.withReadings(id, temperatureFile.exists()
+              ? readTemperatures(temperatureFile) : new TemperatureSeries());
         }
+      } catch (IOException | JsonParseException e) {
+        LOGGER.warn("Protocol " + protocolFile + " could not be read", e);
       }
     }
-    throw new LogNotFoundException();
+    try {
+      /* e.g. logs compacted from a journal, their protocol is created on the first request */
+      BrewingLog log = readLog(file);
+      saveProtocol(log, protocolFile);
+      return log.getProtocol();
+    } catch (NoSuchFileException e) {
+      throw new LogNotFoundException();
+    } catch (IOException e) {
+      LOGGER.error(e);
+      throw new LogParseException(e);
+    }
+  }
+
+  /**
+   * Writes the protocol of a log next to the log file, so that it is not created from the log
+   * again. The temperature readings are already stored next to the log, so they are left out and
+   * added again when the protocol is read. The file is written completely before it replaces an
+   * existing one. The protocol is only a cache of the log, so a protocol which cannot be written is
+   * created again when requested.
+   *
+   * @param log the log
+   * @param file the file the protocol is written to
+   */
+  private void saveProtocol(final BrewingLog log, final File file) {
+    File tempFile = new File(file.getPath() + ".tmp");
+    try {
+      Protocol protocol = new Protocol(log, new TemperatureSeries());
+      Files.write(tempFile.toPath(), mGson.toJson(protocol, Protocol.class).getBytes(
+          StandardCharsets.UTF_8));
+      Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Protocol " + file + " could not be saved", e);
+    }
+  }
+
+  /**
+   * Reads a log file and the temperature readings which are stored next to it.
+   *
+   * @param file the log file
+   * @return the log
+   * @throws IOException if the log or its readings could not be read
+   * @throws LogParseException if the log could not be parsed
+   */
+  private BrewingLog readLog(final File file) throws IOException, LogParseException {
+    BrewingLog log = getLogByString(new String(Files.readAllBytes(file.toPath())));
+    File temperatureFile = getTemperatureFile(file);
+    if (temperatureFile.exists()) {
+      log.setTemperatures(readTemperatures(temperatureFile));
+    }
+    return log;
+  }
+
+  /**
+   * Returns the file which stores the temperature readings of a log file.
+   *
+   * @param logFile the log file
+   * @return the file of the temperature readings
+   */
+  static File getTemperatureFile(final File logFile) {
+    String name = logFile.getName();
+    if (name.endsWith(PropertyUtil.LOG_FILE_EXT)) {
+      name = name.substring(0, name.length() - PropertyUtil.LOG_FILE_EXT.length());
+    }
+    return new File(logFile.getParentFile(), name + PropertyUtil.LOG_TEMPERATURE_FILE_EXT);
+  }
+
+  /**
+   * Returns the file which stores the protocol of a log file.
+   *
+   * @param logFile the log file
+   * @return the file of the protocol
+   */
+  static File getProtocolFile(final File logFile) {
+    String name = logFile.getName();
+    if (name.endsWith(PropertyUtil.LOG_FILE_EXT)) {
+      name = name.substring(0, name.length() - PropertyUtil.LOG_FILE_EXT.length());
+    }
+    return new File(logFile.getParentFile(), name + PropertyUtil.PROTOCOL_FILE_EXT);
+  }
+
+  /**
+   * Writes encoded temperature readings, the file is written completely before it replaces an
+   * existing one. No file is written if there are no readings.
+   *
+   * @param temperatures the readings
+   * @param file the file the readings are written to
+   * @throws IOException if the file could not be written
+   */
+  static void writeTemperatures(final TemperatureSeries temperatures, final File file)
+      throws IOException {
+    if (temperatures.isEmpty()) {
+      Files.deleteIfExists(file.toPath());
+      return;
+    }
+    File tempFile = new File(file.getPath() + ".tmp");
+    try (OutputStream out = new BufferedOutputStream(new FileOutputStream(tempFile, false))) {
+      temperatures.write(out);
+    }
+    Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Reads encoded temperature readings by mapping the file into memory.
+   *
+   * @param file the file of the readings
+   * @return the readings
+   * @throws IOException if the file could not be read
+   */
+  static TemperatureSeries readTemperatures(final File file) throws IOException {
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      return TemperatureSeries.read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  @Override
+  public boolean containsLog(final int id) {
+    return getLogIndex().contains(id);
   }
 
   /**
@@ -305,7 +729,7 @@ public class PersistenceHandler implements ILogStorage, IRecipeStorage {
     }
     for (File file : files) {
       try {
-        result.add(getLogByString(new String(Files.readAllBytes(file.toPath()))));
+        result.add(readLog(file));
       } catch (IOException | LogParseException e) {
         // do nothing, broken files will be ignored
       }
@@ -313,24 +737,57 @@ public class PersistenceHandler implements ILogStorage, IRecipeStorage {
     return result;
   }
 
+  /**
+   * {@inheritDoc} Logs which are not in the summary index yet (e.g. compacted journals or logs of
+   * older versions) are read once and added to it.
+   */
+  @Override
+  public List<LogSummary> getLogSummaries(final long since) {
+    List<File> files = new ArrayList<File>();
+    for (File file : getLogIndex().getFiles().values()) {
+      /* logs which were removed from outside are not listed */
+      if (file.exists()) {
+        files.add(file);
+      }
+    }
+    LogSummaryIndex summaries = getLogSummaryIndex();
+    summaries.retain(files);
+    List<LogSummary> result = new ArrayList<LogSummary>();
+    for (File file : files) {
+      LogSummaryIndex.Entry entry = summaries.get(file);
+      if (entry == null) {
+        try {
+          entry =
+              summarize(file, getLogByString(new String(Files.readAllBytes(file.toPath()))),
+                  lastLogUpdateTime);
+        } catch (IOException | LogParseException e) {
+          // do nothing, broken files will be ignored
+        }
+      }
+      if (entry != null && entry.getAddedMillis() >= since) {
+        result.add(entry.getSummary());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * {@inheritDoc} Like in {@link #getLogSummaries(long)}, logs which were removed from outside are
+   * not listed.
+   */
   @Override
   public List<Integer> getUsedIds() {
-    List<BrewingLog> logs = getLogs();
     List<Integer> ids = new ArrayList<Integer>();
-    for (BrewingLog log : logs) {
-      ids.add(log.getId());
+    for (Map.Entry<Integer, File> entry : getLogIndex().getFiles().entrySet()) {
+      if (entry.getValue().exists()) {
+        ids.add(entry.getKey());
+      }
     }
     return ids;
   }
 
   /** returns the lowest unused id, i.e. Max(getUsedIds())+1 */
   public int getLowestUnusedId() {
-    int max = 0;
-    for (Integer i : getUsedIds()) {
-      if (i > max) {
-        max = i;
-      }
-    }
-    return max + 1;
+    return getLogIndex().getHighestId() + 1;
   }
 }
@@ -0,0 +1,428 @@
+/*
+ *
+ */
+package persistence;
+
+import exceptions.RecipeNotFoundException;
+import exceptions.RecipeParseException;
+import general.Recipe;
+import general.RecipeSummary;
+import gson.Serializer;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import parser.RecipeReader;
+import utilities.PropertyUtil;
+
+import com.google.gson.Gson;
+
+/**
+ * Cache of the parsed recipes and recipe summaries of a recipe folder by recipe id. A recipe file
+ * is only read and parsed again if it was changed, so listing and fetching recipes are memory
+ * lookups. The folder is watched for changes, every change of a recipe file (also a change by the
+ * application itself) forgets the cached recipe, so it is reparsed on the next access. If the
+ * folder cannot be watched (e.g. because it does not exist yet), every access compares the
+ * modification time and length of the files with the cached entries instead.
+ */
+public class RecipeCatalog {
+
+  /**
+   * Cached state of one recipe file.
+   */
+  private static final class Entry {
+
+    /** modification time of the file when it was parsed */
+    private final long lastModified;
+
+    /** length of the file when it was parsed */
+    private final long length;
+
+    /** the parsed summary (or null if it was not needed yet) */
+    private RecipeSummary summary;
+
+    /** the parsed recipe (or null if it was not needed yet) */
+    private Recipe recipe;
+
+    /**
+     * Creates an entry for the current state of a file.
+     *
+     * @param file the recipe file
+     */
+    private Entry(final File file) {
+      lastModified = file.lastModified();
+      length = file.length();
+    }
+
+    /**
+     * Checks whether the file was not changed since the entry was created.
+     *
+     * @param file the recipe file
+     * @return true if the file has the same modification time and length
+     */
+    private boolean matches(final File file) {
+      return file.lastModified() == lastModified && file.length() == length;
+    }
+  }
+
+  /** global logger object */
+  public static final Logger LOGGER = LogManager.getLogger();
+
+  /** watch service shared by all catalogs (or null if it could not be created) */
+  private static WatchService watchService;
+
+  /** catalogs by the watch key of their folder */
+  private static final Map<WatchKey, RecipeCatalog> CATALOGS =
+      new ConcurrentHashMap<WatchKey, RecipeCatalog>();
+
+  /** Folder of the recipes */
+  private final File folder;
+
+  /** The recipe reader, creates recipes from xml files. */
+  private final RecipeReader reader = new RecipeReader();
+
+  /** Copies the recipes which are handed out, callers may change them */
+  private final Gson gson = Serializer.getInstance();
+
+  /** cached recipe files by recipe id */
+  private final TreeMap<String, Entry> entries = new TreeMap<String, Entry>();
+
+  /** whether the entries contain every recipe file of the folder */
+  private boolean listed = false;
+
+  /** key of the watched folder (or null if the folder is not watched) */
+  private WatchKey key;
+
+  /** whether the catalog was closed */
+  private boolean closed = false;
+
+  /**
+   * Creates an empty catalog for the given recipe folder.
+   *
+   * @param recipePath folder of the recipes
+   */
+  public RecipeCatalog(final String recipePath) {
+    folder = new File(recipePath);
+  }
+
+  /**
+   * Returns a copy of the recipe with the given id.
+   *
+   * @param id id of the recipe
+   * @return the recipe
+   * @throws RecipeNotFoundException if there is no recipe file with this id
+   * @throws RecipeParseException if the recipe file could not be parsed
+   */
+  public synchronized Recipe getRecipe(final String id) throws RecipeNotFoundException,
+      RecipeParseException {
+    watch();
+    File file = getFile(id);
+    Entry entry = getEntry(id, file);
+    if (entry == null) {
+      throw new RecipeNotFoundException();
+    }
+    if (entry.recipe == null) {
+      Recipe recipe = reader.getRecipeByString(read(id, file));
+      recipe.setId(id);
+      entry.recipe = recipe;
+    }
+    return copy(entry.recipe);
+  }
+
+  /**
+   * Returns the summaries of all recipes in the folder, sorted by id. Broken recipe files which
+   * cannot be read are ignored.
+   *
+   * @return the summaries
+   * @throws RecipeParseException if a recipe file could not be parsed
+   */
+  public synchronized List<RecipeSummary> getSummaries() throws RecipeParseException {
+    if (!watch() || !listed) {
+      /* set first, so a change during the scan is not lost */
+      listed = key != null;
+      scan();
+    }
+    List<RecipeSummary> summaries = new ArrayList<RecipeSummary>(entries.size());
+    Iterator<Map.Entry<String, Entry>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<String, Entry> cached = iterator.next();
+      String id = cached.getKey();
+      Entry entry = cached.getValue();
+      if (entry.summary == null) {
+        try {
+          entry.summary = reader.getRecipeSummary(getFile(id).toPath());
+        } catch (IOException e) {
+          /* broken recipe files are ignored for the summaries */
+          continue;
+        }
+        entry.summary.setId(id);
+      }
+      RecipeSummary summary = entry.summary;
+      summaries.add(new RecipeSummary(summary.getTitle(), summary.getDescription(), summary
+          .getDate(), id));
+    }
+    return summaries;
+  }
+
+  /**
+   * Caches a recipe which was just written to its file.
+   *
+   * @param recipe the saved recipe (with its id)
+   * @param file the file the recipe was written to
+   */
+  public synchronized void put(final Recipe recipe, final File file) {
+    watch();
+    Entry entry = new Entry(file);
+    entry.recipe = copy(recipe);
+    entry.summary =
+        new RecipeSummary(recipe.getName(), recipe.getDescription(), recipe.getDate(),
+            recipe.getId());
+    entries.put(recipe.getId(), entry);
+  }
+
+  /**
+   * Stops watching the folder.
+   */
+  public synchronized void close() {
+    closed = true;
+    if (key != null) {
+      CATALOGS.remove(key);
+      key.cancel();
+      key = null;
+    }
+  }
+
+  /**
+   * Returns the cached entry of a recipe file, a new one if the file is not cached or (if the
+   * folder is not watched) was changed since it was cached.
+   *
+   * @param id id of the recipe
+   * @param file the recipe file
+   * @return the entry or null if the file does not exist
+   */
+  private Entry getEntry(final String id, final File file) {
+    Entry entry = entries.get(id);
+    if (entry != null && (key != null || entry.matches(file))) {
+      return entry;
+    }
+    if (!file.exists()) {
+      entries.remove(id);
+      return null;
+    }
+    entry = new Entry(file);
+    entries.put(id, entry);
+    return entry;
+  }
+
+  /**
+   * Lists the recipe files of the folder, forgets removed ones and adds new ones. Unchanged files
+   * keep their parsed recipes and summaries.
+   */
+  private void scan() {
+    File[] files = folder.listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(final File dir, final String name) {
+        return name.endsWith(PropertyUtil.RECIPE_FILE_EXT);
+      }
+    });
+    Set<String> ids = new HashSet<String>();
+    if (files != null) {
+      for (File file : files) {
+        String id = getId(file.getName());
+        ids.add(id);
+        Entry entry = entries.get(id);
+        if (entry == null || !entry.matches(file)) {
+          entries.put(id, new Entry(file));
+        }
+      }
+    }
+    entries.keySet().retainAll(ids);
+  }
+
+  /**
+   * Starts watching the folder if it is not watched yet and exists. Changes which happened while
+   * the folder was not watched are unknown, so the entries have to be checked again.
+   *
+   * @return true if the folder is watched
+   */
+  private boolean watch() {
+    if (key != null && key.isValid()) {
+      return true;
+    }
+    if (key != null) {
+      /* the folder was removed */
+      CATALOGS.remove(key);
+      key = null;
+      listed = false;
+    }
+    WatchService service = getWatchService();
+    if (closed || service == null || !folder.isDirectory()) {
+      return false;
+    }
+    try {
+      key =
+          folder.toPath().register(service, StandardWatchEventKinds.ENTRY_CREATE,
+              StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+      CATALOGS.put(key, this);
+      listed = false;
+      /*
+       * changes while the folder was not watched are unknown, a file can change without changing
+       * its modification time and length
+       */
+      entries.clear();
+      return true;
+    } catch (IOException e) {
+      LOGGER.warn("Recipe folder " + folder + " cannot be watched", e);
+      key = null;
+      return false;
+    }
+  }
+
+  /**
+   * Handles a change of the watched folder. A changed recipe file is always forgotten, its
+   * modification time and length do not tell whether it was changed (e.g. an edit of the same
+   * length within the resolution of the modification time).
+   *
+   * @param event the change
+   */
+  private synchronized void changed(final WatchEvent<?> event) {
+    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+      entries.clear();
+      listed = false;
+      return;
+    }
+    String name = ((Path) event.context()).getFileName().toString();
+    if (!name.endsWith(PropertyUtil.RECIPE_FILE_EXT)) {
+      return;
+    }
+    String id = getId(name);
+    entries.remove(id);
+    listed = false;
+    LOGGER.debug("Recipe {} changed", id);
+  }
+
+  /**
+   * Reads the content of a recipe file, recipes are written in UTF-8 by the RecipeWriter.
+   *
+   * @param id id of the recipe
+   * @param file the recipe file
+   * @return the content
+   * @throws RecipeNotFoundException if the file does not exist any more
+   * @throws RecipeParseException if the file could not be read
+   */
+  private String read(final String id, final File file) throws RecipeNotFoundException,
+      RecipeParseException {
+    try {
+      return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    } catch (NoSuchFileException e) {
+      entries.remove(id);
+      throw new RecipeNotFoundException();
+    } catch (IOException e) {
+      LOGGER.error(e);
+      throw new RecipeParseException(e);
+    }
+  }
+
+  /**
+   * Copies a recipe, so the cached one cannot be changed by the caller.
+   *
+   * @param recipe the recipe
+   * @return the copy
+   */
+  private Recipe copy(final Recipe recipe) {
+    return gson.fromJson(gson.toJsonTree(recipe), Recipe.class);
+  }
+
+  /**
+   * Returns the file of the recipe with the given id.
+   *
+   * @param id id of the recipe
+   * @return the recipe file
+   */
+  private File getFile(final String id) {
+    return new File(folder, id + PropertyUtil.RECIPE_FILE_EXT);
+  }
+
+  /**
+   * Returns the id of the recipe in the file with the given name.
+   *
+   * @param fileName name of the recipe file
+   * @return id of the recipe
+   */
+  private static String getId(final String fileName) {
+    return fileName.substring(0, fileName.length() - PropertyUtil.RECIPE_FILE_EXT.length());
+  }
+
+  /**
+   * Returns the shared watch service and starts the thread which dispatches its events to the
+   * catalogs.
+   *
+   * @return the watch service or null if the file system cannot be watched
+   */
+  private static synchronized WatchService getWatchService() {
+    if (watchService == null) {
+      try {
+        watchService = FileSystems.getDefault().newWatchService();
+      } catch (IOException | UnsupportedOperationException e) {
+        LOGGER.warn("Recipe folders cannot be watched", e);
+        return null;
+      }
+      final WatchService service = watchService;
+      Thread thread = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          dispatch(service);
+        }
+      }, "RecipeWatcher");
+      thread.setDaemon(true);
+      thread.start();
+    }
+    return watchService;
+  }
+
+  /**
+   * Passes the events of the watch service to the catalogs of the watched folders.
+   *
+   * @param service the watch service
+   */
+  private static void dispatch(final WatchService service) {
+    try {
+      while (true) {
+        WatchKey watchKey = service.take();
+        RecipeCatalog catalog = CATALOGS.get(watchKey);
+        for (WatchEvent<?> event : watchKey.pollEvents()) {
+          if (catalog != null) {
+            catalog.changed(event);
+          }
+        }
+        if (!watchKey.reset()) {
+          CATALOGS.remove(watchKey);
+        }
+      }
+    } catch (InterruptedException | ClosedWatchServiceException e) {
+      LOGGER.info("RecipeWatcher stopped");
+    }
+  }
+}
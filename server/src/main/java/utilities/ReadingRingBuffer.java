@@ -0,0 +1,311 @@
+/*
+ *
+ */
+package utilities;
+
+import interfaces.IClock;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Bounded ring buffer of temperature readings with a single producer and several consumers. The
+ * producer never waits: every consumer reads the readings in its own executor, and a consumer which
+ * falls behind by more than the capacity skips the readings which were overwritten (they are
+ * counted as dropped). This way a slow consumer neither delays the producer nor the other
+ * consumers. The consumers run through the clock, so a simulated clock waits for them.
+ */
+public class ReadingRingBuffer {
+
+  /**
+   * Handler which is called for every reading a consumer reads.
+   */
+  public interface ReadingHandler {
+
+    /**
+     * Called (by the executor of the consumer) for every reading in the order of publication.
+     *
+     * @param reading the reading
+     */
+    void handle(float reading);
+  }
+
+  /** Log4j-Logger-Instance for logging purposes. */
+  private static final Logger LOGGER = LogManager.getLogger();
+
+  /** Seconds after which the idle thread of a consumer ends */
+  private static final long IDLE_SECONDS = 10;
+
+  /** The readings, the slot of a sequence is sequence & mask */
+  private final float[] readings;
+
+  /** capacity - 1 */
+  private final int mask;
+
+  /** Sequence of the last published reading (-1 if nothing was published yet) */
+  private volatile long cursor = -1;
+
+  /** The consumers */
+  private final List<Consumer> consumers = new CopyOnWriteArrayList<Consumer>();
+
+  /** The clock which runs the tasks of the consumers */
+  private final IClock clock;
+
+  /**
+   * Creates a ring buffer.
+   *
+   * @param capacity number of readings a consumer may fall behind, has to be a power of two
+   * @param clock the clock which runs the tasks of the consumers
+   */
+  public ReadingRingBuffer(final int capacity, final IClock clock) {
+    if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+      throw new IllegalArgumentException("The capacity has to be a power of two");
+    }
+    readings = new float[capacity];
+    mask = capacity - 1;
+    this.clock = clock;
+  }
+
+  /**
+   * Adds a consumer which reads the readings published from now on in its own thread.
+   *
+   * @param name name of the thread of the consumer
+   * @param handler the handler which is called for every reading
+   * @return the consumer
+   */
+  public Consumer addConsumer(final String name, final ReadingHandler handler) {
+    Consumer consumer = new Consumer(name, handler, cursor + 1);
+    consumers.add(consumer);
+    return consumer;
+  }
+
+  /**
+   * Removes the consumers with the given handler. A reading which is handled right now is finished,
+   * the readings which were not read yet are dropped.
+   *
+   * @param handler the handler of the consumers
+   */
+  public void removeConsumer(final ReadingHandler handler) {
+    for (Consumer consumer : consumers) {
+      if (consumer.handler == handler) {
+        consumers.remove(consumer);
+        consumer.removed = true;
+        consumer.executor.shutdown();
+      }
+    }
+  }
+
+  /**
+   * Publishes a reading (may only be called by one thread) and wakes up the consumers.
+   *
+   * @param reading the reading
+   */
+  public void publish(final float reading) {
+    long sequence = cursor + 1;
+    readings[(int) sequence & mask] = reading;
+    cursor = sequence;
+    for (Consumer consumer : consumers) {
+      consumer.wakeUp();
+    }
+  }
+
+  /**
+   * Returns the number of published readings.
+   *
+   * @return number of published readings
+   */
+  public long getPublished() {
+    return cursor + 1;
+  }
+
+  /**
+   * Returns the number of readings a consumer may fall behind.
+   *
+   * @return the capacity
+   */
+  public int getCapacity() {
+    return readings.length;
+  }
+
+  /**
+   * Stops the threads of all consumers, readings which were not read yet are dropped.
+   */
+  public void shutdown() {
+    for (Consumer consumer : consumers) {
+      consumer.executor.shutdownNow();
+      Future<?> pending = consumer.pending;
+      if (pending != null) {
+        /* a task which was dropped by the executor has to be finished for the clock */
+        pending.cancel(false);
+      }
+    }
+    consumers.clear();
+  }
+
+  /**
+   * A consumer of the readings with its own executor and its backpressure metrics.
+   */
+  public final class Consumer {
+
+    /** The handler which is called for every reading */
+    private final ReadingHandler handler;
+
+    /** The executor which reads the readings */
+    private final ExecutorService executor;
+
+    /** Whether a task which reads the readings is queued or running */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /** The last queued task which reads the readings */
+    private volatile Future<?> pending;
+
+    /** Whether the consumer was removed and must not read further readings */
+    private volatile boolean removed;
+
+    /** The task which reads the readings */
+    private final Runnable drain = new Runnable() {
+      @Override
+      public void run() {
+        drain();
+      }
+    };
+
+    /** Sequence of the next reading to read, only changed by the executor */
+    private volatile long next;
+
+    /** Number of readings which were overwritten before the consumer read them */
+    private final AtomicLong dropped = new AtomicLong();
+
+    /** Maximum number of readings the consumer was behind the producer */
+    private volatile long maxLag;
+
+    /**
+     * Creates a consumer.
+     *
+     * @param name name of the thread of the consumer
+     * @param handler the handler which is called for every reading
+     * @param next sequence of the first reading to read
+     */
+    private Consumer(final String name, final ReadingHandler handler, final long next) {
+      this.handler = handler;
+      this.next = next;
+      ThreadPoolExecutor threadPoolExecutor =
+          new ThreadPoolExecutor(1, 1, IDLE_SECONDS, TimeUnit.SECONDS,
+              new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                @Override
+                public Thread newThread(final Runnable runnable) {
+                  Thread thread = new Thread(runnable, name);
+                  thread.setDaemon(true);
+                  return thread;
+                }
+              });
+      /* the thread ends while no readings are published */
+      threadPoolExecutor.allowCoreThreadTimeOut(true);
+      executor = threadPoolExecutor;
+    }
+
+    /**
+     * Queues the task which reads the readings unless it is already queued or running.
+     */
+    private void wakeUp() {
+      if (scheduled.compareAndSet(false, true) && !executor.isShutdown()) {
+        pending = clock.submit(executor, drain);
+      }
+    }
+
+    /**
+     * Reads and handles all published readings.
+     */
+    private void drain() {
+      while (true) {
+        long available = cursor;
+        while (next <= available && !removed) {
+          long lag = available - next + 1;
+          if (lag > maxLag) {
+            maxLag = lag;
+          }
+          if (lag > readings.length) {
+            /* the oldest readings were already overwritten */
+            skip(available - readings.length + 1);
+            continue;
+          }
+          float reading = readings[(int) next & mask];
+          if (cursor - next >= readings.length) {
+            /* overwritten while it was read */
+            available = cursor;
+            continue;
+          }
+          next++;
+          try {
+            handler.handle(reading);
+          } catch (RuntimeException e) {
+            LOGGER.error("Consumer of the readings failed", e);
+          } catch (Error e) {
+            /* the task ends, the next reading queues a new task */
+            scheduled.set(false);
+            throw e;
+          }
+          if (Thread.currentThread().isInterrupted()) {
+            return;
+          }
+          available = cursor;
+        }
+        scheduled.set(false);
+        /* a reading published after the last check has to be read by this task */
+        if (next > cursor || removed || !scheduled.compareAndSet(false, true)) {
+          return;
+        }
+      }
+    }
+
+    /**
+     * Skips the readings before a sequence.
+     *
+     * @param sequence the sequence of the next reading to read
+     */
+    private void skip(final long sequence) {
+      long skipped = sequence - next;
+      dropped.addAndGet(skipped);
+      next = sequence;
+      LOGGER.warn(String.format("Consumer of the readings dropped %d readings", skipped));
+    }
+
+    /**
+     * Returns the number of readings which were overwritten before the consumer read them.
+     *
+     * @return number of dropped readings
+     */
+    public long getDropped() {
+      return dropped.get();
+    }
+
+    /**
+     * Returns the number of published readings which the consumer did not read yet.
+     *
+     * @return the current lag
+     */
+    public long getLag() {
+      return Math.min(cursor - next + 1, readings.length);
+    }
+
+    /**
+     * Returns the maximum number of readings the consumer was behind the producer.
+     *
+     * @return the maximum lag
+     */
+    public long getMaxLag() {
+      return maxLag;
+    }
+  }
+}
@@ -0,0 +1,211 @@
+/*
+ *
+ */
+package utilities;
+
+
+/**
+ * Streaming downsampler which keeps the fewest points of a series so that the straight lines
+ * between the kept points differ from every point of the series by at most the error bound
+ * (swinging door compression). From the last kept point two doors are opened to the error band of
+ * every following point; as long as a line fits through all bands, the points are suppressed. When
+ * the doors close, the line is ended at the time of the previous point, in the middle between the
+ * doors, so the kept value differs from the measured one by at most the error bound, and the next
+ * line starts there. The line is also ended once the last kept point is older than the maximal
+ * interval, so a stable temperature is still stored regularly.
+ *
+ * The downsampler only keeps primitive state and creates no objects, so offering a suppressed point
+ * costs a few comparisons. The points have to be offered by one thread, the counters may be read
+ * by any thread.
+ */
+public final class SwingingDoorDownsampler {
+
+  /** maximal distance of a point to the line between the kept points */
+  private final float errorBound;
+
+  /** maximal time between two kept points in milliseconds */
+  private final long maxIntervalMillis;
+
+  /** whether a point was kept yet */
+  private boolean started = false;
+
+  /** time of the last kept point */
+  private long keptTime;
+
+  /** value of the last kept point */
+  private float keptValue;
+
+  /** whether the previous point was not kept */
+  private boolean pending = false;
+
+  /** time of the previous point */
+  private long previousTime;
+
+  /** lowest slope of the upper door */
+  private double upperSlope;
+
+  /** highest slope of the lower door */
+  private double lowerSlope;
+
+  /** time of the point which has to be stored */
+  private long storeTime;
+
+  /** value of the point which has to be stored */
+  private float storeValue;
+
+  /** number of kept points (read by other threads) */
+  private volatile long kept = 0;
+
+  /** number of suppressed points (read by other threads) */
+  private volatile long suppressed = 0;
+
+  /**
+   * Creates a downsampler.
+   *
+   * @param errorBound maximal distance of a point to the line between the kept points
+   * @param maxIntervalMillis maximal time between two kept points in milliseconds
+   */
+  public SwingingDoorDownsampler(final float errorBound, final long maxIntervalMillis) {
+    if (errorBound < 0) {
+      throw new IllegalArgumentException("Negative error bound: " + errorBound);
+    }
+    this.errorBound = errorBound;
+    this.maxIntervalMillis = maxIntervalMillis;
+  }
+
+  /**
+   * Offers the next point of the series. If a point has to be stored, it can be read with
+   * getStoreTime() and getStoreValue(); this is the end of the line at the previous point if the
+   * new point does not fit the line any more, or the new point itself if it is the first one or
+   * follows a kept point which is too old.
+   *
+   * @param time time of the point in milliseconds, not before the previous point
+   * @param value value of the point
+   * @return true if a point has to be stored
+   */
+  public boolean offer(final long time, final float value) {
+    if (!started || !pending && time - keptTime >= maxIntervalMillis) {
+      started = true;
+      keep(time, value);
+      return true;
+    }
+    long elapsed = Math.max(time - keptTime, 1);
+    double upper = (value + errorBound - keptValue) / (double) elapsed;
+    double lower = (value - errorBound - keptValue) / (double) elapsed;
+    if (pending) {
+      upper = Math.min(upper, upperSlope);
+      lower = Math.max(lower, lowerSlope);
+    }
+    if (lower > upper || pending && time - keptTime >= maxIntervalMillis) {
+      /* the doors closed (or the line is too long), the line ends at the previous point */
+      endLine();
+      elapsed = Math.max(time - keptTime, 1);
+      upperSlope = (value + errorBound - keptValue) / (double) elapsed;
+      lowerSlope = (value - errorBound - keptValue) / (double) elapsed;
+      setPrevious(time);
+      return true;
+    }
+    upperSlope = upper;
+    lowerSlope = lower;
+    if (pending) {
+      suppressed++;
+    }
+    setPrevious(time);
+    return false;
+  }
+
+  /**
+   * Ends the current line at the last offered point, e.g. when the series ends. Without it the
+   * points since the last kept point would be lost.
+   *
+   * @return true if a point has to be stored, it can be read with getStoreTime() and
+   *         getStoreValue()
+   */
+  public boolean flush() {
+    if (!pending) {
+      return false;
+    }
+    endLine();
+    return true;
+  }
+
+  /**
+   * Keeps the end of the current line at the previous point, in the middle between the doors.
+   */
+  private void endLine() {
+    long endTime = previousTime;
+    float endValue =
+        (float) (keptValue + (upperSlope + lowerSlope) / 2 * Math.max(endTime - keptTime, 1));
+    keep(endTime, endValue);
+  }
+
+  /**
+   * Keeps a point and starts a new line at it.
+   *
+   * @param time time of the point
+   * @param value value of the point
+   */
+  private void keep(final long time, final float value) {
+    keptTime = time;
+    keptValue = value;
+    storeTime = time;
+    storeValue = value;
+    pending = false;
+    kept++;
+  }
+
+  /**
+   * Remembers the point which is not kept yet.
+   *
+   * @param time time of the point
+   */
+  private void setPrevious(final long time) {
+    previousTime = time;
+    pending = true;
+  }
+
+  /**
+   * Returns the time of the point which has to be stored after offer() returned true.
+   *
+   * @return time in milliseconds
+   */
+  public long getStoreTime() {
+    return storeTime;
+  }
+
+  /**
+   * Returns the value of the point which has to be stored after offer() returned true.
+   *
+   * @return the value
+   */
+  public float getStoreValue() {
+    return storeValue;
+  }
+
+  /**
+   * Returns the number of kept points.
+   *
+   * @return number of points
+   */
+  public long getKept() {
+    return kept;
+  }
+
+  /**
+   * Returns the number of suppressed points.
+   *
+   * @return number of points
+   */
+  public long getSuppressed() {
+    return suppressed;
+  }
+
+  /**
+   * Returns the error bound.
+   *
+   * @return maximal distance of a point to the line between the kept points
+   */
+  public float getErrorBound() {
+    return errorBound;
+  }
+}
@@ -19,6 +19,12 @@ public class TemperatureListener {
   /** The notify. */
   private final ITemperatureEvent notify;
 
+  /**
+   * Whether the listener is still subscribed, a listener which was unsubscribed while the
+   * subscribers were notified is skipped
+   */
+  private volatile boolean subscribed = true;
+
   /**
    * Instantiates a new temperature listener.
    *
@@ -59,4 +65,20 @@ public class TemperatureListener {
     return temperature;
   }
 
+  /**
+   * Checks whether the listener is still subscribed.
+   *
+   * @return true if the listener was not unsubscribed yet
+   */
+  public boolean isSubscribed() {
+    return subscribed;
+  }
+
+  /**
+   * Marks the listener as unsubscribed.
+   */
+  public void markUnsubscribed() {
+    subscribed = false;
+  }
+
 }
@@ -0,0 +1,257 @@
+/*
+ *
+ */
+package utilities;
+
+import interfaces.ITemperatureEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Immutable index of the temperature listeners by their temperature range [temperature - delta,
+ * temperature + delta]. The ranges are sorted by their lower limit and every range knows the
+ * maximum upper limit of the ranges below it in an implicit binary tree (an interval tree in an
+ * array), so finding the listeners of a temperature only visits the matching ranges and a
+ * logarithmic number of others. Subscribing and unsubscribing creates a new index, so the index can
+ * be read without locking (copy on write).
+ */
+public final class TemperatureListenerIndex {
+
+  /** The empty index */
+  public static final TemperatureListenerIndex EMPTY = new TemperatureListenerIndex(
+      Collections.<TemperatureListener>emptyList());
+
+  /** The listeners in the order they subscribed */
+  private final List<TemperatureListener> listeners;
+
+  /** Positions of the listeners (in the order they subscribed) sorted by their lower limit */
+  private final int[] positions;
+
+  /** Lower limits of the ranges, sorted */
+  private final int[] lowerLimits;
+
+  /** Upper limits of the ranges, in the order of the lower limits */
+  private final int[] upperLimits;
+
+  /** Maximum upper limit of the subtree whose root is the range at the same index */
+  private final int[] maxUpperLimits;
+
+  /** Lower and upper limits of all ranges, sorted */
+  private final int[] borders;
+
+  /**
+   * Creates the index of the given listeners.
+   *
+   * @param listeners the listeners in the order they subscribed
+   */
+  private TemperatureListenerIndex(final List<TemperatureListener> listeners) {
+    this.listeners = listeners;
+    int size = listeners.size();
+    Integer[] sorted = new Integer[size];
+    for (int i = 0; i < size; i++) {
+      sorted[i] = i;
+    }
+    Arrays.sort(sorted, new Comparator<Integer>() {
+      @Override
+      public int compare(final Integer first, final Integer second) {
+        return Integer.compare(lowerLimit(listeners.get(first)), lowerLimit(listeners.get(second)));
+      }
+    });
+    positions = new int[size];
+    lowerLimits = new int[size];
+    upperLimits = new int[size];
+    maxUpperLimits = new int[size];
+    for (int i = 0; i < size; i++) {
+      TemperatureListener listener = listeners.get(sorted[i]);
+      positions[i] = sorted[i];
+      lowerLimits[i] = lowerLimit(listener);
+      upperLimits[i] = listener.getTemperature() + listener.getDelta();
+    }
+    buildMaxUpperLimits(0, size);
+    borders = Arrays.copyOf(lowerLimits, 2 * size);
+    System.arraycopy(upperLimits, 0, borders, size, size);
+    Arrays.sort(borders);
+  }
+
+  /**
+   * Returns the lower limit of the range of a listener.
+   *
+   * @param listener the listener
+   * @return the lower limit
+   */
+  private static int lowerLimit(final TemperatureListener listener) {
+    return listener.getTemperature() - listener.getDelta();
+  }
+
+  /**
+   * Computes the maximum upper limits of the subtree of the ranges between from (inclusive) and to
+   * (exclusive), whose root is the range in the middle.
+   *
+   * @param from first range of the subtree
+   * @param to end of the subtree
+   * @return the maximum upper limit of the subtree
+   */
+  private int buildMaxUpperLimits(final int from, final int to) {
+    if (from >= to) {
+      return Integer.MIN_VALUE;
+    }
+    int middle = (from + to) >>> 1;
+    int max =
+        Math.max(upperLimits[middle],
+            Math.max(buildMaxUpperLimits(from, middle), buildMaxUpperLimits(middle + 1, to)));
+    maxUpperLimits[middle] = max;
+    return max;
+  }
+
+  /**
+   * Returns the number of listeners.
+   *
+   * @return number of listeners
+   */
+  public int size() {
+    return listeners.size();
+  }
+
+  /**
+   * Returns the listeners in the order they subscribed.
+   *
+   * @return the listeners
+   */
+  public List<TemperatureListener> getListeners() {
+    return listeners;
+  }
+
+  /**
+   * Creates an index which contains the listeners of this index and a new one.
+   *
+   * @param listener the new listener
+   * @return the new index
+   */
+  public TemperatureListenerIndex with(final TemperatureListener listener) {
+    List<TemperatureListener> newListeners = new ArrayList<TemperatureListener>(size() + 1);
+    newListeners.addAll(listeners);
+    newListeners.add(listener);
+    return new TemperatureListenerIndex(Collections.unmodifiableList(newListeners));
+  }
+
+  /**
+   * Creates an index without the given listeners.
+   *
+   * @param removed the listeners to remove
+   * @return the new index (or this one if none of the listeners is contained)
+   */
+  public TemperatureListenerIndex without(final List<TemperatureListener> removed) {
+    Set<TemperatureListener> removedSet = new HashSet<TemperatureListener>(removed);
+    List<TemperatureListener> newListeners = new ArrayList<TemperatureListener>(size());
+    for (TemperatureListener listener : listeners) {
+      if (!removedSet.contains(listener)) {
+        newListeners.add(listener);
+      }
+    }
+    if (newListeners.size() == size()) {
+      return this;
+    }
+    return new TemperatureListenerIndex(Collections.unmodifiableList(newListeners));
+  }
+
+  /**
+   * Returns the listeners which were subscribed with the given notify.
+   *
+   * @param notify the notify
+   * @return the listeners (usually one or none)
+   */
+  public List<TemperatureListener> find(final ITemperatureEvent notify) {
+    List<TemperatureListener> found = new ArrayList<TemperatureListener>(1);
+    for (TemperatureListener listener : listeners) {
+      if (listener.getNotify() == notify) {
+        found.add(listener);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Returns the listeners whose range contains the temperature, in the order they subscribed.
+   *
+   * @param temperature the temperature
+   * @return the matching listeners
+   */
+  public List<TemperatureListener> find(final float temperature) {
+    List<Integer> matches = find(temperature, 0, size(), null);
+    if (matches == null) {
+      return Collections.emptyList();
+    }
+    Collections.sort(matches);
+    List<TemperatureListener> found = new ArrayList<TemperatureListener>(matches.size());
+    for (int position : matches) {
+      found.add(listeners.get(position));
+    }
+    return found;
+  }
+
+  /**
+   * Collects the positions of the listeners in the subtree between from (inclusive) and to
+   * (exclusive) whose range contains the temperature. Usually only a few listeners match, so the
+   * list is only created for the first match.
+   *
+   * @param temperature the temperature
+   * @param from first range of the subtree
+   * @param to end of the subtree
+   * @param matches the positions found so far or null if none was found yet
+   * @return the positions found or null if none was found
+   */
+  private List<Integer> find(final float temperature, final int from, final int to,
+      final List<Integer> matches) {
+    if (from >= to) {
+      return matches;
+    }
+    int middle = (from + to) >>> 1;
+    if (maxUpperLimits[middle] < temperature) {
+      /* every range of the subtree ends below the temperature */
+      return matches;
+    }
+    List<Integer> found = find(temperature, from, middle, matches);
+    if (lowerLimits[middle] > temperature) {
+      /* the ranges behind the middle start even later */
+      return found;
+    }
+    if (temperature <= upperLimits[middle]) {
+      if (found == null) {
+        found = new ArrayList<Integer>(2);
+      }
+      found.add(positions[middle]);
+    }
+    return find(temperature, middle + 1, to, found);
+  }
+
+  /**
+   * Returns the distance of the temperature to the nearest lower or upper limit of a range, where
+   * a listener starts or stops being notified.
+   *
+   * @param temperature the temperature
+   * @return the distance in degrees (infinite if there is no listener)
+   */
+  public float distanceToBorder(final float temperature) {
+    if (borders.length == 0) {
+      return Float.POSITIVE_INFINITY;
+    }
+    int ceiling = Arrays.binarySearch(borders, (int) Math.ceil(temperature));
+    if (ceiling < 0) {
+      ceiling = -ceiling - 1;
+    }
+    float distance = Float.POSITIVE_INFINITY;
+    if (ceiling < borders.length) {
+      distance = borders[ceiling] - temperature;
+    }
+    if (ceiling > 0) {
+      distance = Math.min(distance, temperature - borders[ceiling - 1]);
+    }
+    return distance;
+  }
+}
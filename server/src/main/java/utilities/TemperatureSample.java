@@ -0,0 +1,79 @@
+/*
+ *
+ */
+package utilities;
+
+import general.HardwareStatus;
+
+
+/**
+ * Immutable result of one measurement of the temperature sensor. The latest sample is published by
+ * the sampling loop of the TemperatureController, so the temperature can be read without waiting
+ * for the sensor.
+ */
+public final class TemperatureSample {
+
+  /** The measured temperature (or null if the sensor could not be read) */
+  private final Float temperature;
+
+  /** Time of the measurement in milliseconds */
+  private final long timeMillis;
+
+  /** Status of the sensor after the measurement */
+  private final HardwareStatus status;
+
+  /** Number of the measurement, increases with every measurement */
+  private final long sequence;
+
+  /**
+   * Creates a sample.
+   *
+   * @param temperature the measured temperature (or null if the sensor could not be read)
+   * @param timeMillis time of the measurement in milliseconds
+   * @param status status of the sensor after the measurement
+   * @param sequence number of the measurement
+   */
+  public TemperatureSample(final Float temperature, final long timeMillis,
+      final HardwareStatus status, final long sequence) {
+    this.temperature = temperature;
+    this.timeMillis = timeMillis;
+    this.status = status;
+    this.sequence = sequence;
+  }
+
+  /**
+   * Gets the measured temperature.
+   *
+   * @return the temperature (or null if the sensor could not be read)
+   */
+  public Float getTemperature() {
+    return temperature;
+  }
+
+  /**
+   * Gets the time of the measurement.
+   *
+   * @return time in milliseconds
+   */
+  public long getTimeMillis() {
+    return timeMillis;
+  }
+
+  /**
+   * Gets the status of the sensor after the measurement.
+   *
+   * @return the status
+   */
+  public HardwareStatus getStatus() {
+    return status;
+  }
+
+  /**
+   * Gets the number of the measurement.
+   *
+   * @return the sequence number
+   */
+  public long getSequence() {
+    return sequence;
+  }
+}
@@ -0,0 +1,220 @@
+/*
+ *
+ */
+package utilities;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Schedules timeouts by key and calls a handler exactly once when a timeout is reached. The
+ * deadlines are kept in a DelayQueue, so the thread of the scheduler sleeps until the next deadline
+ * instead of polling. Cancelling a timeout only removes its key; the queued deadline is skipped
+ * when it expires.
+ *
+ * @param <K> type of the keys (e.g. the ingredient additions a response is expected for)
+ */
+public class TimeoutScheduler<K> {
+
+  /**
+   * Handler which is called when a timeout is reached.
+   *
+   * @param <K> type of the keys
+   */
+  public interface TimeoutHandler<K> {
+
+    /**
+     * Called (by the thread of the scheduler) when the timeout of a key is reached.
+     *
+     * @param key the key
+     */
+    void timeout(K key);
+  }
+
+  /** Log4j-Logger-Instance for logging purposes. */
+  private static final Logger LOGGER = LogManager.getLogger();
+
+  /** Deadlines of the pending timeouts (cancelled ones are skipped when they expire) */
+  private final DelayQueue<Deadline<K>> queue = new DelayQueue<Deadline<K>>();
+
+  /** The pending timeouts by key */
+  private final ConcurrentMap<K, Deadline<K>> pending = new ConcurrentHashMap<K, Deadline<K>>();
+
+  /** Name of the thread */
+  private final String name;
+
+  /** The handler which is called when a timeout is reached */
+  private final TimeoutHandler<K> handler;
+
+  /** The thread which waits for the deadlines, started with the first timeout */
+  private Thread worker;
+
+  /** whether the scheduler was shut down */
+  private boolean shutdown;
+
+  /**
+   * Creates a scheduler.
+   *
+   * @param name name of the thread of the scheduler
+   * @param handler the handler which is called when a timeout is reached
+   */
+  public TimeoutScheduler(final String name, final TimeoutHandler<K> handler) {
+    this.name = name;
+    this.handler = handler;
+  }
+
+  /**
+   * Schedules the timeout of a key unless there is already one pending for it.
+   *
+   * @param key the key
+   * @param delayMillis time in milliseconds until the timeout is reached
+   * @return true if the timeout was scheduled, false if there is already one pending or the
+   *         scheduler was shut down
+   */
+  public boolean schedule(final K key, final long delayMillis) {
+    Deadline<K> deadline =
+        new Deadline<K>(key, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delayMillis));
+    synchronized (this) {
+      if (shutdown || pending.putIfAbsent(key, deadline) != null) {
+        return false;
+      }
+      if (worker == null) {
+        worker = new Thread(new Runnable() {
+          @Override
+          public void run() {
+            waitForDeadlines();
+          }
+        }, name);
+        worker.setDaemon(true);
+        worker.start();
+      }
+    }
+    queue.add(deadline);
+    return true;
+  }
+
+  /**
+   * Cancels the pending timeout of a key.
+   *
+   * @param key the key
+   * @return true if a timeout was pending
+   */
+  public boolean cancel(final K key) {
+    return pending.remove(key) != null;
+  }
+
+  /**
+   * Cancels all pending timeouts.
+   */
+  public void cancelAll() {
+    pending.clear();
+    queue.clear();
+  }
+
+  /**
+   * Returns whether a timeout is pending for a key.
+   *
+   * @param key the key
+   * @return true if a timeout is pending
+   */
+  public boolean isScheduled(final K key) {
+    return pending.containsKey(key);
+  }
+
+  /**
+   * Returns the number of pending timeouts.
+   *
+   * @return number of pending timeouts
+   */
+  public int size() {
+    return pending.size();
+  }
+
+  /**
+   * Returns whether the scheduler was shut down.
+   *
+   * @return true if the scheduler was shut down
+   */
+  public synchronized boolean isShutdown() {
+    return shutdown;
+  }
+
+  /**
+   * Cancels all pending timeouts and interrupts the thread of the scheduler. No timeouts can be
+   * scheduled afterwards.
+   */
+  public synchronized void shutdown() {
+    shutdown = true;
+    cancelAll();
+    /* a handler which shuts the scheduler down is interrupted as well, so it does not block */
+    if (worker != null) {
+      worker.interrupt();
+    }
+  }
+
+  /**
+   * Waits for the deadlines and calls the handler for every timeout which was not cancelled.
+   */
+  private void waitForDeadlines() {
+    while (!isShutdown()) {
+      Deadline<K> deadline;
+      try {
+        deadline = queue.take();
+      } catch (InterruptedException e) {
+        return;
+      }
+      /* removing the exact deadline makes sure that cancelled or replaced ones never fire */
+      if (pending.remove(deadline.key, deadline)) {
+        try {
+          handler.timeout(deadline.key);
+        } catch (RuntimeException e) {
+          LOGGER.error("Timeout handler of " + name + " failed for " + deadline.key, e);
+        }
+      }
+    }
+  }
+
+  /**
+   * Deadline of a key.
+   *
+   * @param <K> type of the key
+   */
+  private static final class Deadline<K> implements Delayed {
+
+    /** the key */
+    private final K key;
+
+    /** the deadline (System.nanoTime()) */
+    private final long deadlineNanos;
+
+    /**
+     * Creates a deadline.
+     *
+     * @param key the key
+     * @param deadlineNanos the deadline (System.nanoTime())
+     */
+    Deadline(final K key, final long deadlineNanos) {
+      this.key = key;
+      this.deadlineNanos = deadlineNanos;
+    }
+
+    @Override
+    public long getDelay(final TimeUnit unit) {
+      return unit.convert(deadlineNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public int compareTo(final Delayed other) {
+      if (other instanceof Deadline) {
+        return Long.compare(deadlineNanos, ((Deadline<?>) other).deadlineNanos);
+      }
+      return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+    }
+  }
+}
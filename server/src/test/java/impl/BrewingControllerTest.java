@@ -79,6 +79,32 @@ public class BrewingControllerTest {
     return Application.get(IBrewingController.class);
   }
 
+  /**
+   * Waits until the current brewing process of the brewing controller reaches the given state, so
+   * tests do not have to sleep for the longest time the process could take.
+   * 
+   * @param brewingController the brewing controller
+   * @param type the type of the state
+   * @param state the state
+   * @param position the position of the state
+   * @param timeoutMillis maximum time to wait
+   * @throws InterruptedException
+   */
+  public static void waitForState(final IBrewingController brewingController, final Type type,
+      final State state, final Position position, final long timeoutMillis)
+      throws InterruptedException {
+    long end = System.currentTimeMillis() + timeoutMillis;
+    while (System.currentTimeMillis() < end) {
+      if (brewingController.getCurrentBrewingProcess() != null
+          && brewingController.getCurrentBrewingProcess().getState() != null
+          && brewingController.getCurrentBrewingProcess().getState()
+              .equals(type, state, position)) {
+        return;
+      }
+      Thread.sleep(10);
+    }
+  }
+
   Provider<IUserFacadeService> provider = new Provider<IUserFacadeService>() {
 
     @Override
@@ -108,7 +134,7 @@ public class BrewingControllerTest {
         new BrewingController(temperatureServiceMockup, brewingLogServiceMockup,
             stirrerServiceMockup, masher, hopCooker,
             new TemperatureLogger(brewingLogServiceMockup), acousticNotifier, provider,
-            persistenceHandler);
+            persistenceHandler, new SystemClock());
     return brewingController;
   }
 
@@ -134,7 +160,7 @@ public class BrewingControllerTest {
         new BrewingController(temperatureServiceMockup, brewingLogServiceMockup,
             stirrerServiceMockup, masher, hopCooker,
             new TemperatureLogger(brewingLogServiceMockup), acousticNotifier, provider,
-            persistenceHandler);
+            persistenceHandler, new SystemClock());
     brewingController.startBrewing(DummyBuilder.createValidTestRecipe());
 
     BrewingState state = new BrewingState(Type.NORMAL, State.FINISHED, Position.ADDING); // this is
@@ -190,6 +190,69 @@ public class BrewingLoggerTest {
     logger.finishLog();
   }
 
+  /**
+   * Tests that every logged message is journaled and that the journal is closed (instead of saving
+   * the whole log) when the log is finished.
+   *
+   * @throws LogSavingException
+   * @throws BrewingProcessException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testJournaling() throws LogSavingException, BrewingProcessException {
+    BrewingProcess process = new BrewingProcess(mock(Recipe.class), 4);
+    logger.startLog(process);
+    logger.log(mock);
+    logger.log(mock);
+    logger.finishLog();
+    Mockito.verify(logStorage).openJournal(process.getBrewingLog());
+    Mockito.verify(logStorage, Mockito.times(2)).appendToJournal(4, mock);
+    Mockito.verify(logStorage).closeJournal(4);
+    Mockito.verify(logStorage, Mockito.never()).saveLog(Mockito.any(BrewingLog.class));
+  }
+
+  /**
+   * Tests that the whole log is saved if the journal could not be opened.
+   *
+   * @throws LogSavingException
+   * @throws BrewingProcessException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testJournalFallback() throws LogSavingException, BrewingProcessException {
+    BrewingProcess process = new BrewingProcess(mock(Recipe.class), 5);
+    Mockito.doThrow(new LogSavingException("Journal could not be opened")).when(logStorage)
+        .openJournal(process.getBrewingLog());
+    logger.startLog(process);
+    logger.log(mock);
+    logger.finishLog();
+    Mockito.verify(logStorage, Mockito.never()).appendToJournal(5, mock);
+    Mockito.verify(logStorage).saveLog(process.getBrewingLog());
+  }
+
+  /**
+   * Tests that the journal is aborted once appending to it failed and that the whole log is saved
+   * instead.
+   *
+   * @throws LogSavingException
+   * @throws BrewingProcessException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testJournalAppendFailure() throws LogSavingException, BrewingProcessException {
+    BrewingProcess process = new BrewingProcess(mock(Recipe.class), 6);
+    Mockito.doThrow(new LogSavingException("Journal could not be written")).when(logStorage)
+        .appendToJournal(6, mock);
+    logger.startLog(process);
+    logger.log(mock);
+    logger.log(mock);
+    logger.finishLog();
+    Mockito.verify(logStorage).appendToJournal(6, mock);
+    Mockito.verify(logStorage).abortJournal(6);
+    Mockito.verify(logStorage, Mockito.never()).closeJournal(6);
+    Mockito.verify(logStorage).saveLog(process.getBrewingLog());
+  }
+
   /**
    * Tests if no exception is thrown when correctly initialized.
    *
@@ -0,0 +1,197 @@
+/*
+ *
+ */
+package impl;
+
+import interfaces.IHeaterStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import junit.framework.Assert;
+import mocks.HeaterSimulation;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import categories.UnitTest;
+import exceptions.TemperatureNotReadableException;
+
+/**
+ * Tests the heater strategies and compares them in a simulation.
+ */
+public class HeaterStrategyTest {
+
+  /** Logger which reports the simulated rests */
+  private static final Logger LOGGER = LogManager.getLogger();
+
+  /** Simulated time of a mash rest */
+  private static final long REST_MILLIS = 60 * 60 * 1000;
+
+  /** Temperature of the simulated mash rest */
+  private static final float REST_TEMPERATURE = 62;
+
+  /** How much the temperature may differ from the rest once it settled */
+  private static final float TOLERANCE = 4;
+
+  /** Number of simulated rests per strategy, the MockHeatableThermometer heats up randomly */
+  private static final int SIMULATION_RUNS = 10;
+
+  /**
+   * Tests that the hysteresis strategy keeps the state of the heater inside its band.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testHysteresis() {
+    HysteresisHeaterStrategy strategy = new HysteresisHeaterStrategy(2);
+    Assert.assertTrue(strategy.isHeating(57.9f, 60, false, 0));
+    Assert.assertTrue(strategy.isHeating(61, 60, true, 0));
+    Assert.assertFalse(strategy.isHeating(61, 60, false, 0));
+    Assert.assertFalse(strategy.isHeating(62.1f, 60, true, 0));
+  }
+
+  /**
+   * Tests the time-proportional output and that the integral does not wind up while the heater
+   * heats up at full power.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testPidOutputAndAntiWindup() {
+    PidHeaterStrategy strategy = new PidHeaterStrategy(0.1, 0.01, 0, 10000);
+    long time = 0;
+    /* heat up for an hour far below the target, the output is saturated */
+    for (; time < 60 * 60 * 1000; time += 1000) {
+      Assert.assertTrue(strategy.isHeating(20, 60, true, time));
+    }
+    Assert.assertEquals(1.0, strategy.getOutput());
+
+    /* the integral did not grow, so the heater does not overshoot at the target */
+    Assert.assertFalse(strategy.isHeating(60, 60, true, time));
+    Assert.assertEquals(0.0, strategy.getOutput());
+  }
+
+  /**
+   * Tests that the heater is switched on for the share of the window given by the output.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testPidTimeProportionalOutput() {
+    PidHeaterStrategy strategy = new PidHeaterStrategy(0.1, 0, 0, 10000);
+    Assert.assertTrue(strategy.isHeating(55, 60, false, 0));
+    Assert.assertEquals(0.5, strategy.getOutput(), 0.0001);
+    Assert.assertTrue(strategy.isHeating(55, 60, true, 4999));
+    Assert.assertFalse(strategy.isHeating(55, 60, true, 5000));
+    Assert.assertFalse(strategy.isHeating(55, 60, false, 9999));
+    /* the next window starts */
+    Assert.assertTrue(strategy.isHeating(58, 60, false, 10000));
+    Assert.assertEquals(0.2, strategy.getOutput(), 0.0001);
+    /* closer to the target the heater is switched off earlier */
+    Assert.assertFalse(strategy.isHeating(59, 60, true, 11000));
+    Assert.assertFalse(strategy.isHeating(61, 60, false, 20000));
+  }
+
+  /**
+   * Tests that the auto-tuning finds gains with the simulated heater.
+   *
+   * @throws TemperatureNotReadableException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testAutoTuning() throws TemperatureNotReadableException {
+    PidHeaterStrategy strategy = new PidHeaterStrategy();
+    strategy.startAutoTuning();
+    new HeaterSimulation(strategy, TOLERANCE).run(REST_TEMPERATURE, REST_MILLIS);
+    Assert.assertFalse(strategy.isTuning());
+    Assert.assertTrue(strategy.getProportionalGain() > 0);
+    Assert.assertTrue(strategy.getIntegralGain() > 0);
+  }
+
+  /**
+   * Simulates mash rests with a strategy and reports every rest.
+   *
+   * @param strategy the strategy
+   * @return the simulations
+   * @throws TemperatureNotReadableException
+   */
+  private List<HeaterSimulation> simulate(final IHeaterStrategy strategy)
+      throws TemperatureNotReadableException {
+    List<HeaterSimulation> simulations = new ArrayList<HeaterSimulation>(SIMULATION_RUNS);
+    for (int run = 0; run < SIMULATION_RUNS; run++) {
+      HeaterSimulation simulation =
+          new HeaterSimulation(strategy, TOLERANCE).run(REST_TEMPERATURE, REST_MILLIS);
+      LOGGER.info(simulation.toString());
+      simulations.add(simulation);
+    }
+    return simulations;
+  }
+
+  /**
+   * Returns the mean overshoot of simulations.
+   *
+   * @param simulations the simulations
+   * @return the mean overshoot in degrees
+   */
+  private float meanOvershoot(final List<HeaterSimulation> simulations) {
+    float sum = 0;
+    for (HeaterSimulation simulation : simulations) {
+      sum += simulation.getOvershoot();
+    }
+    return sum / simulations.size();
+  }
+
+  /**
+   * Returns the mean steady-state error of simulations.
+   *
+   * @param simulations the simulations
+   * @return the mean steady-state error in degrees
+   */
+  private float meanSteadyStateError(final List<HeaterSimulation> simulations) {
+    float sum = 0;
+    for (HeaterSimulation simulation : simulations) {
+      sum += simulation.getSteadyStateError();
+    }
+    return sum / simulations.size();
+  }
+
+  /**
+   * Simulates mash rests with every strategy, reports the overshoot, the settling time and the
+   * relay switches of every rest and checks that the PID controller holds the rest closer than the
+   * hysteresis.
+   *
+   * @throws TemperatureNotReadableException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testSimulation() throws TemperatureNotReadableException {
+    List<HeaterSimulation> hysteresis = simulate(new HysteresisHeaterStrategy(2));
+    List<HeaterSimulation> pid = simulate(new PidHeaterStrategy());
+    PidHeaterStrategy tunedStrategy = new PidHeaterStrategy();
+    tunedStrategy.startAutoTuning();
+    new HeaterSimulation(tunedStrategy, TOLERANCE).run(REST_TEMPERATURE, REST_MILLIS);
+    List<HeaterSimulation> tuned = simulate(tunedStrategy);
+
+    /*
+     * the MockHeatableThermometer changes by up to 4°C per measurement, the strategies only have to
+     * keep the overshoot within a few measurements. Once the rest is reached, the temperature
+     * stays within the tolerance on average
+     */
+    List<HeaterSimulation> all = new ArrayList<HeaterSimulation>(hysteresis);
+    all.addAll(pid);
+    all.addAll(tuned);
+    for (HeaterSimulation simulation : all) {
+      Assert.assertTrue(simulation.toString(), simulation.getOvershoot() < 4 * 4);
+      Assert.assertTrue(simulation.toString(), simulation.getSteadyStateError() < TOLERANCE);
+    }
+
+    /*
+     * the PID controller switches the heater off before the rest is reached and holds it closer.
+     * The single rests overlap as the thermometer is random, their means do not. With the
+     * MockHeatableThermometer, which has no thermal inertia, the time-proportional output switches
+     * the relay more often than the hysteresis, so the switches are only reported
+     */
+    Assert.assertTrue(meanOvershoot(pid) < meanOvershoot(hysteresis));
+    Assert.assertTrue(meanSteadyStateError(pid) < meanSteadyStateError(hysteresis));
+  }
+}
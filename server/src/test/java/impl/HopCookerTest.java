@@ -93,7 +93,8 @@ public class HopCookerTest {
     Recipe usedRecipe = DummyBuilder.createValidTestRecipe();
     brewingController.startBrewing(usedRecipe);
     try {
-      Thread.sleep(20 * 1000);
+      BrewingControllerTest.waitForState(brewingController, Type.REQUEST, State.WHIRLPOOL,
+          Position.END, 20 * 1000);
     } catch (InterruptedException e) {
       throw new RuntimeException(
           "Test failed: Could not sleep to wait for internal Threads to finish.");
@@ -186,8 +186,9 @@ public class MasherTest {
     userFacadeProvider.setUserFacade(userFacadeService);
 
     brewingController.startBrewing(new Recipe());
-    // give the mashing thread enough time to perform its actions
-    Thread.sleep(1 * 1000);
+    // give the masher enough time to perform its actions
+    BrewingControllerTest.waitForState(brewingController, Type.REQUEST, State.LAUTERING,
+        Position.END, 1 * 1000);
     Assert.assertEquals(
         true,
         brewingController.getCurrentBrewingProcess().getState()
@@ -275,13 +276,15 @@ public class MasherTest {
     brewingController.startBrewing(recipe);
     BrewingState state = new BrewingState(Type.REQUEST, State.MASHING, Position.START);
     brewingController.confirmStep(state);
-    Thread.sleep(2000);
+    BrewingControllerTest.waitForState(brewingController, Type.REQUEST, State.MASHING,
+        Position.ADDING, 2000);
     state = new BrewingState(Type.REQUEST, State.MASHING, Position.ADDING);
     ArrayList<MaltAddition> data = new ArrayList<MaltAddition>(1);
     data.add(maltAddition);
     state.setData(data);
     brewingController.confirmStep(state);
-    Thread.sleep(2000);
+    BrewingControllerTest.waitForState(brewingController, Type.REQUEST, State.MASHING,
+        Position.IODINE, 2000);
     state = new BrewingState(Type.REQUEST, State.MASHING, Position.IODINE);
     state.setData(new IodineTest(10));
     long timeBeforeConfirmation = System.currentTimeMillis();
@@ -345,8 +348,9 @@ public class MasherTest {
     Recipe usedRecipe = DummyBuilder.createValidTestRecipe();
     brewingController.startBrewing(usedRecipe);
 
-    // give the mashing thread enough time to perform its actions
-    Thread.sleep(10 * 1000);
+    // give the masher enough time to perform its actions
+    BrewingControllerTest.waitForState(brewingController, Type.REQUEST, State.LAUTERING,
+        Position.END, 10 * 1000);
     BrewingState currentBrewingState = brewingController.getCurrentBrewingProcess().getState();
     Assert.assertEquals(true,
         currentBrewingState.equals(Type.REQUEST, State.LAUTERING, Position.END));
@@ -4,6 +4,8 @@
 package impl;
 
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import exceptions.LogNotFoundException;
 import exceptions.LogParseException;
@@ -17,6 +19,8 @@ import interfaces.ILogStorage;
 
 import java.io.File;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import junit.framework.Assert;
@@ -58,10 +62,11 @@ public class ProtocolManagementTest {
     logStorage = mock(ILogStorage.class);
 
     // cache is updated if updateTime > refreshTime
-    List<BrewingLog> logs = new ArrayList<BrewingLog>();
-    logs.add(DummyBuilder.getBrewingLog());
+    List<LogSummary> summaries = new ArrayList<LogSummary>();
+    summaries.add(DummyBuilder.getBrewingLog().getSummary());
     when(logStorage.getLastLogUpdateTime()).thenReturn(Long.MAX_VALUE);
-    when(logStorage.getLogs()).thenReturn(logs);
+    when(logStorage.getLogSummaries(Mockito.anyLong())).thenReturn(summaries);
+    when(logStorage.getUsedIds()).thenReturn(getIds(summaries));
     protocolManagement = new ProtocolManagement(logStorage);
     long oldRefresh = protocolManagement.getLastRefresh();
     Assert.assertTrue(protocolManagement.getLastRefresh() < logStorage.getLastLogUpdateTime());
@@ -86,7 +91,8 @@ public class ProtocolManagementTest {
   public void testProtocolContent() throws LogNotFoundException, LogParseException,
       ProtocolNotFoundException, ProtocolParsingException {
     logStorage = mock(ILogStorage.class);
-    when(logStorage.getLogById(Mockito.anyInt())).thenReturn(DummyBuilder.getBrewingLog());
+    when(logStorage.getProtocol(Mockito.anyInt())).thenReturn(
+        DummyBuilder.getBrewingLog().getProtocol());
     protocolManagement = new ProtocolManagement(logStorage);
     Protocol protocol = protocolManagement.getProtocolContent(1);
     Assert.assertNotNull(protocol);
@@ -99,11 +105,12 @@ public class ProtocolManagementTest {
   @Test
   public void testProtocolIndex() {
     logStorage = mock(ILogStorage.class);
-    List<BrewingLog> logs = new ArrayList<BrewingLog>();
+    List<LogSummary> summaries = new ArrayList<LogSummary>();
     for (int i = 0; i < 10; i++) {
-      logs.add(DummyBuilder.getBrewingLog());
+      summaries.add(DummyBuilder.getBrewingLog().getSummary());
     }
-    when(logStorage.getLogs()).thenReturn(logs);
+    when(logStorage.getLogSummaries(Mockito.anyLong())).thenReturn(summaries);
+    when(logStorage.getUsedIds()).thenReturn(getIds(summaries));
     when(logStorage.getLastLogUpdateTime()).thenReturn(Long.MAX_VALUE);
     protocolManagement = new ProtocolManagement(logStorage);
     List<LogSummary> index = protocolManagement.getProtocolIndex();
@@ -115,7 +122,69 @@ public class ProtocolManagementTest {
   }
 
   /**
-   * Tests that cache is refreshed on first run, and again after the PersistenceHandler saved a new log.
+   * Tests that only the summaries which were added since the last refresh are requested and merged
+   * into the index.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testIncrementalProtocolIndex() {
+    logStorage = mock(ILogStorage.class);
+    List<LogSummary> summaries = new ArrayList<LogSummary>();
+    summaries.add(DummyBuilder.getBrewingLog().getSummary());
+    summaries.add(DummyBuilder.getBrewingLog().getSummary());
+    when(logStorage.getLastLogUpdateTime()).thenReturn(1000L);
+    when(logStorage.getLogSummaries(0)).thenReturn(summaries);
+    when(logStorage.getUsedIds()).thenReturn(getIds(summaries));
+    protocolManagement = new ProtocolManagement(logStorage);
+    Assert.assertEquals(summaries, protocolManagement.getProtocolIndex());
+
+    LogSummary added = DummyBuilder.getBrewingLog().getSummary();
+    List<LogSummary> all = new ArrayList<LogSummary>(summaries);
+    all.add(added);
+    when(logStorage.getUsedIds()).thenReturn(getIds(all));
+    when(logStorage.getLastLogUpdateTime()).thenReturn(Long.MAX_VALUE);
+    when(logStorage.getLogSummaries(1000L)).thenReturn(Collections.singletonList(added));
+    List<LogSummary> index = protocolManagement.getProtocolIndex();
+    Assert.assertEquals(3, index.size());
+    Assert.assertTrue(index.containsAll(summaries));
+    Assert.assertTrue(index.contains(added));
+    verify(logStorage, never()).getLogs();
+  }
+
+  /**
+   * Tests that a log which is saved with the id of a listed log replaces it in the index and that
+   * removed logs are dropped from the index.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testOneProtocolPerLogId() {
+    logStorage = mock(ILogStorage.class);
+    LogSummary first = DummyBuilder.getBrewingLog().getSummary();
+    LogSummary second = DummyBuilder.getBrewingLog().getSummary();
+    when(logStorage.getLastLogUpdateTime()).thenReturn(1000L);
+    when(logStorage.getLogSummaries(0)).thenReturn(Arrays.asList(first, second));
+    when(logStorage.getUsedIds()).thenReturn(Arrays.asList(first.getId(), second.getId()));
+    protocolManagement = new ProtocolManagement(logStorage);
+    Assert.assertEquals(2, protocolManagement.getProtocolIndex().size());
+
+    /* a new log with the id of the first log */
+    LogSummary replaced =
+        new LogSummary("replaced", first.getDescription(), first.getDate() + 1, first.getId(),
+            first.getRecipeId());
+    when(logStorage.getLastLogUpdateTime()).thenReturn(2000L);
+    when(logStorage.getLogSummaries(1000L)).thenReturn(Collections.singletonList(replaced));
+    Assert.assertEquals(Arrays.asList(replaced, second), protocolManagement.getProtocolIndex());
+
+    /* the second log was removed */
+    when(logStorage.getLastLogUpdateTime()).thenReturn(3000L);
+    when(logStorage.getLogSummaries(2000L)).thenReturn(new ArrayList<LogSummary>());
+    when(logStorage.getUsedIds()).thenReturn(Collections.singletonList(first.getId()));
+    Assert.assertEquals(Collections.singletonList(replaced), protocolManagement.getProtocolIndex());
+  }
+
+  /**
+   * Tests that cache is refreshed on first run, and again after the PersistenceHandler saved a new
+   * log. A log saved with the id of a listed log replaces it.
  * @throws LogSavingException 
    */
   @Category(IntegrationTest.class)
@@ -128,13 +197,37 @@ public class ProtocolManagementTest {
     int protocols = pm.getProtocolIndex().size();
     Assert.assertTrue(pm.getLastRefresh() > refresh);
    
-    File file = ph.saveLog(DummyBuilder.getBrewingLog());
+    BrewingLog log = DummyBuilder.getBrewingLog();
+    log.setId(ph.getLowestUnusedId());
+    File file = ph.saveLog(log);
     Assert.assertTrue(ph.getLastLogUpdateTime() >= pm.getLastRefresh());
     Assert.assertTrue(protocols + 1 == pm.getProtocolIndex().size());
     Assert.assertTrue(ph.getLastLogUpdateTime() < pm.getLastRefresh());
+
+    BrewingLog replacing = DummyBuilder.getBrewingLog();
+    replacing.setId(log.getId());
+    File replacingFile = ph.saveLog(replacing);
+    List<LogSummary> index = pm.getProtocolIndex();
+    Assert.assertEquals(protocols + 1, index.size());
+    Assert.assertTrue(index.contains(replacing.getSummary()));
     Assert.assertTrue(file.delete());
+    Assert.assertTrue(replacingFile.delete());
     
    
   }
 
+  /**
+   * Gets the log ids of the given summaries.
+   *
+   * @param summaries the summaries
+   * @return the ids of the summaries
+   */
+  private List<Integer> getIds(final List<LogSummary> summaries) {
+    List<Integer> ids = new ArrayList<Integer>();
+    for (LogSummary summary : summaries) {
+      ids.add(summary.getId());
+    }
+    return ids;
+  }
+
 }
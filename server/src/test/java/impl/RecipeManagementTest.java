@@ -98,6 +98,37 @@ public class RecipeManagementTest {
     Assert.assertEquals(id, "1337");
   }
 
+  /**
+   * Tests that several recipes are imported in one call to the storage and that nothing is saved
+   * if one of them is not valid.
+   *
+   * @throws RecipeParseException the recipe parse exception (should not occur in this test)
+   * @throws RecipeSavingException the recipe saving exception (should not occur in this test)
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testImportRecipes() throws RecipeParseException, RecipeSavingException {
+    List<Recipe> recipes = new ArrayList<Recipe>();
+    recipes.add(recipe);
+    recipes.add(DummyBuilder.getRealisticRecipe());
+    List<String> ids = new ArrayList<String>();
+    ids.add("1337");
+    ids.add("1338");
+    when(recipeStorage.saveRecipes(recipes)).thenReturn(ids);
+    Assert.assertEquals(ids, recipeService.importRecipes(recipes));
+    Assert.assertEquals("1338", recipes.get(1).getId());
+
+    Recipe invalidRecipe = mock(Recipe.class);
+    when(invalidRecipe.getErrorMessage()).thenReturn("invalid");
+    recipes.add(invalidRecipe);
+    try {
+      recipeService.importRecipes(recipes);
+      Assert.fail("An invalid recipe was imported");
+    } catch (RecipeSavingException e) {
+      verify(recipeStorage).saveRecipes(recipes);
+    }
+  }
+
   /**
    * Test to receive a not valid recipe - just redirection.
    *
@@ -0,0 +1,140 @@
+/*
+ *
+ */
+package impl;
+
+import exceptions.TemperatureNotReadableException;
+import interfaces.IThermometerReader;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import junit.framework.Assert;
+import mocks.MockHeatableThermometer;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import utilities.PropertyUtil;
+
+import categories.IntegrationTest;
+import categories.UnitTest;
+
+/**
+ * Tests the sampling strategies and the adaptive sampling of the TemperatureController.
+ */
+public class SamplingStrategyTest {
+
+  /**
+   * Tests that the adaptive strategy backs off while the temperature is stable and far away from
+   * a border and measures fast near a border.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testAdaptiveBackOff() {
+    AdaptiveSamplingStrategy strategy = new AdaptiveSamplingStrategy(750, 12000);
+    long time = 0;
+    Assert.assertEquals(750, strategy.nextInterval(20, Float.POSITIVE_INFINITY, time));
+    long[] expected = {1500, 3000, 6000, 12000, 12000};
+    for (long interval : expected) {
+      time += strategy.getInterval();
+      Assert.assertEquals(interval, strategy.nextInterval(20, Float.POSITIVE_INFINITY, time));
+    }
+
+    /* near a border the minimal interval is used */
+    time += strategy.getInterval();
+    Assert.assertEquals(750, strategy.nextInterval(20, 2, time));
+  }
+
+  /**
+   * Tests that the interval shrinks while the temperature changes and that a border is not passed
+   * between two measurements.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testAdaptiveRamping() {
+    AdaptiveSamplingStrategy strategy = new AdaptiveSamplingStrategy(750, 12000);
+    strategy.nextInterval(20, 40, 0);
+    strategy.nextInterval(20, 40, 750);
+    strategy.nextInterval(20, 40, 2250);
+    Assert.assertEquals(6000, strategy.nextInterval(20, 40, 5250));
+
+    /* 1 degree in 6 s, the border 10 degrees away is reached in 60 s */
+    Assert.assertEquals(3000, strategy.nextInterval(21, 10, 11250));
+    /* 2 degrees in 3 s, the border 4 degrees away is reached in 6 s */
+    Assert.assertEquals(1500, strategy.nextInterval(23, 4, 14250));
+
+    strategy.reset();
+    Assert.assertEquals(750, strategy.nextInterval(23, 40, 15750));
+  }
+
+  /**
+   * Tests that the TemperatureController measures less often while idling at a stable temperature
+   * than while holding a temperature near the desired one, with the heatable mock.
+   *
+   * @throws InterruptedException
+   */
+  @Category(IntegrationTest.class)
+  @Test
+  public void testAdaptiveSamplingOfTheController() throws InterruptedException {
+    final MockHeatableThermometer heaterThermometer = new MockHeatableThermometer();
+    heaterThermometer.setInstantHeatup(true, 20.0f);
+    final AtomicInteger measurements = new AtomicInteger();
+    IThermometerReader countingReader = new IThermometerReader() {
+      @Override
+      public float getTemperature() throws TemperatureNotReadableException {
+        measurements.incrementAndGet();
+        return heaterThermometer.getTemperature();
+      }
+    };
+    /* 100 s of the clock pass per second */
+    TemperatureController ftc =
+        new TemperatureController(countingReader, heaterThermometer, new SimulationClock(100),
+            new HysteresisHeaterStrategy(2), new AdaptiveSamplingStrategy(750, 12000));
+
+    ftc.getTemperature();
+    Thread.sleep(1000);
+    int idleMeasurements = measurements.getAndSet(0);
+
+    ftc.heatUp(22);
+    Thread.sleep(1000);
+    int heatingMeasurements = measurements.get();
+    ftc.stop();
+
+    Assert.assertTrue(idleMeasurements < 20);
+    Assert.assertTrue(heatingMeasurements > 4 * idleMeasurements);
+  }
+
+  /**
+   * Tests that the TemperatureController still returns a temperature while the adaptive strategy
+   * measures in its maximal interval, which is longer than the default maximal sample age.
+   *
+   * @throws InterruptedException
+   */
+  @Category(IntegrationTest.class)
+  @Test
+  public void testTemperatureAvailableAtMaxBackOff() throws InterruptedException {
+    final MockHeatableThermometer heaterThermometer = new MockHeatableThermometer();
+    heaterThermometer.setInstantHeatup(true, 20.0f);
+    AdaptiveSamplingStrategy strategy = new AdaptiveSamplingStrategy(750, 12000);
+    /* 100 s of the clock pass per second */
+    TemperatureController ftc =
+        new TemperatureController(heaterThermometer, heaterThermometer, new SimulationClock(100),
+            new HysteresisHeaterStrategy(2), strategy);
+    Assert.assertTrue(strategy.getMaxInterval() > PropertyUtil.getTemperatureMaxSampleAgeMillis());
+
+    ftc.getTemperature();
+    long deadline = System.currentTimeMillis() + 5000;
+    while (strategy.getInterval() < strategy.getMaxInterval()
+        && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+    Assert.assertEquals(strategy.getMaxInterval(), strategy.getInterval());
+
+    /* several measurements in the maximal interval */
+    for (int i = 0; i < 50; i++) {
+      Assert.assertNotNull(ftc.getTemperature());
+      Thread.sleep(10);
+    }
+    ftc.stop();
+  }
+}
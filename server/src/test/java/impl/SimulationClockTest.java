@@ -0,0 +1,270 @@
+/*
+ *
+ */
+package impl;
+
+import static org.mockito.Mockito.mock;
+import general.BrewingState;
+import general.BrewingState.Position;
+import general.BrewingState.State;
+import general.BrewingState.Type;
+import general.HopAddition;
+import general.HopCookingPlan;
+import general.MaltAddition;
+import general.MashingPlan;
+import general.Recipe;
+import general.TemperatureLevel;
+import general.Unit;
+import interfaces.IAcousticNotifier;
+import interfaces.IBrewingController;
+import interfaces.IBrewingLogService;
+import interfaces.IBrewingScheduler;
+import interfaces.IStirrerService;
+import interfaces.ITemperatureService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import junit.framework.Assert;
+import mocks.MockHeatableThermometer;
+import mocks.MockUserFacadeWithAutoConfirm;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import persistence.PersistenceHandler;
+import utilities.UserFacadeProvider;
+import categories.IntegrationTest;
+import categories.UnitTest;
+
+import com.google.inject.Provider;
+
+import exceptions.BrewingProcessException;
+
+/**
+ * Tests the simulation clock and uses it for a dry run of a whole recipe.
+ */
+public class SimulationClockTest {
+
+  /** Speed of the simulated brewing process */
+  private static final double SPEED = 1000;
+
+  /** One minute in milliseconds */
+  private static final long MINUTE = 60 * 1000;
+
+  /**
+   * Tests that the clock runs faster than real time by its speed.
+   *
+   * @throws InterruptedException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testSpeed() throws InterruptedException {
+    SimulationClock clock = new SimulationClock(SPEED);
+    long start = clock.currentTimeMillis();
+    long realStart = System.currentTimeMillis();
+    clock.sleep(10 * 1000);
+    long realTime = System.currentTimeMillis() - realStart;
+    clock.close();
+    Assert.assertTrue(clock.currentTimeMillis() - start >= 10 * 1000);
+    Assert.assertTrue(realTime < 1000);
+    Assert.assertEquals(15, clock.toRealMillis(15 * 1000));
+    Assert.assertEquals(1, clock.toRealMillis(1));
+  }
+
+  /**
+   * Tests that the clock advances to the deadline of a scheduled task if nothing else happens and
+   * that a cancelled task is not run.
+   *
+   * @throws InterruptedException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testScheduleAdvancesToDeadline() throws InterruptedException {
+    final SimulationClock clock = new SimulationClock(SPEED, true);
+    final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    final AtomicBoolean cancelledRan = new AtomicBoolean();
+    final AtomicBoolean cancelled = new AtomicBoolean();
+    final CountDownLatch done = new CountDownLatch(1);
+    final long start = clock.currentTimeMillis();
+    /* the clock does not advance while a task is running, so the tasks are scheduled by a task */
+    clock.schedule(executor, new Runnable() {
+      @Override
+      public void run() {
+        Future<?> step = clock.schedule(executor, new Runnable() {
+          @Override
+          public void run() {
+            cancelledRan.set(true);
+          }
+        }, 30 * MINUTE);
+        clock.schedule(executor, new Runnable() {
+          @Override
+          public void run() {
+            done.countDown();
+          }
+        }, 60 * MINUTE);
+        cancelled.set(step.cancel(false) && step.isCancelled());
+      }
+    }, 0);
+    /* running at its speed only, the clock would need 3.6 s for an hour */
+    Assert.assertTrue(done.await(1, TimeUnit.SECONDS));
+    Assert.assertTrue(clock.currentTimeMillis() - start >= 60 * MINUTE);
+    Assert.assertTrue(cancelled.get());
+    Assert.assertFalse(cancelledRan.get());
+    executor.shutdown();
+    clock.close();
+  }
+
+  /**
+   * Creates a recipe with the durations of a real brewing process (about two and a half hours
+   * including heating).
+   *
+   * @return the recipe
+   */
+  private Recipe createRealisticRecipe() {
+    MashingPlan mashingPlan = new MashingPlan();
+    List<TemperatureLevel> temperatureLevels = new ArrayList<TemperatureLevel>();
+    temperatureLevels.add(new TemperatureLevel(20 * MINUTE, 0, 45.0f));
+    temperatureLevels.add(new TemperatureLevel(40 * MINUTE, 20 * MINUTE, 62.0f));
+    temperatureLevels.add(new TemperatureLevel(20 * MINUTE, 60 * MINUTE, 72.0f));
+    mashingPlan.setTemperatureLevels(temperatureLevels);
+    List<MaltAddition> maltAdditions = new ArrayList<MaltAddition>();
+    maltAdditions.add(new MaltAddition(4.0f, Unit.kg, "Pilsner Malz", 0));
+    maltAdditions.add(new MaltAddition(0.5f, Unit.kg, "Karamellmalz", 20 * MINUTE));
+    mashingPlan.setMaltAdditions(maltAdditions);
+
+    HopCookingPlan hopCookingPlan = new HopCookingPlan();
+    hopCookingPlan.setDuration(60 * MINUTE);
+    hopCookingPlan.getHopAdditions().add(new HopAddition(30, Unit.g, "Magnum", 0));
+    hopCookingPlan.getHopAdditions().add(new HopAddition(20, Unit.g, "Tettnanger", 30 * MINUTE));
+    hopCookingPlan.getHopAdditions().add(new HopAddition(20, Unit.g, "Saazer", 55 * MINUTE));
+    return new Recipe("dryrun", "Dry run", "Pils", System.currentTimeMillis(), mashingPlan,
+        hopCookingPlan);
+  }
+
+  /**
+   * Brews a recipe with the real brewing parts, a heatable thermometer and a user who confirms
+   * every request, but with a simulation clock which advances to the next deadline. The brewing
+   * process has to reach its end in a few seconds instead of hours.
+   *
+   * @throws BrewingProcessException
+   * @throws InterruptedException
+   */
+  @Category(IntegrationTest.class)
+  @Test
+  public void testDryRun() throws BrewingProcessException, InterruptedException {
+    SimulationClock clock = new SimulationClock(SPEED, true);
+    MockHeatableThermometer thermometer = new MockHeatableThermometer();
+    ITemperatureService temperatureService =
+        new TemperatureController(thermometer, thermometer, clock);
+    IBrewingScheduler scheduler = new BrewingScheduler(clock);
+    IBrewingLogService logService = mock(IBrewingLogService.class);
+    IStirrerService stirrerService = mock(IStirrerService.class);
+    final List<IBrewingController> controllers = new ArrayList<IBrewingController>();
+    Provider<IBrewingController> controllerProvider = new Provider<IBrewingController>() {
+      @Override
+      public IBrewingController get() {
+        return controllers.get(0);
+      }
+    };
+    UserFacadeProvider userFacadeProvider = new UserFacadeProvider();
+    BrewingController brewingController =
+        new BrewingController(temperatureService, logService, stirrerService, new Masher(
+            temperatureService, stirrerService, logService, controllerProvider, scheduler),
+            new HopCooker(temperatureService, logService, controllerProvider, scheduler),
+            new TemperatureLogger(logService), mock(IAcousticNotifier.class), userFacadeProvider,
+            mock(PersistenceHandler.class), clock);
+    controllers.add(brewingController);
+    userFacadeProvider.setUserFacade(new MockUserFacadeWithAutoConfirm(brewingController,
+        new BrewingState(Type.REQUEST, State.FINISHED, Position.END), 0));
+
+    try {
+      long simulationStart = clock.currentTimeMillis();
+      brewingController.startBrewing(createRealisticRecipe());
+      BrewingControllerTest.waitForState(brewingController, Type.REQUEST, State.FINISHED,
+          Position.END, 60 * 1000);
+      long simulatedTime = clock.currentTimeMillis() - simulationStart;
+      Assert.assertTrue(brewingController.getCurrentBrewingProcess().getState()
+          .equals(Type.REQUEST, State.FINISHED, Position.END));
+      /* the recipe itself takes 140 minutes */
+      Assert.assertTrue(simulatedTime >= 140 * MINUTE);
+      brewingController.confirmStep(new BrewingState(Type.REQUEST, State.FINISHED, Position.END));
+    } finally {
+      /* stops the thread which advances the clock */
+      clock.close();
+    }
+  }
+
+  /**
+   * Tests that closing the clock stops the thread which advances it and cancels the pending tasks,
+   * while a task which was submitted keeps the clock from advancing until it has finished.
+   *
+   * @throws Exception
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testSubmittedTaskBlocksAdvanceAndClose() throws Exception {
+    final SimulationClock clock = new SimulationClock(SPEED, true);
+    ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor();
+    final CountDownLatch release = new CountDownLatch(1);
+    final long start = clock.currentTimeMillis();
+    Future<?> busy = clock.submit(executor, new Runnable() {
+      @Override
+      public void run() {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+    Future<?> timer = clock.schedule(executor, new Runnable() {
+      @Override
+      public void run() {}
+    }, 60 * MINUTE);
+    Thread.sleep(100);
+    /* at its speed only, the clock passes 100 seconds in 100 milliseconds */
+    Assert.assertTrue(clock.currentTimeMillis() - start < 10 * MINUTE);
+    release.countDown();
+    busy.get(1, TimeUnit.SECONDS);
+    timer.get(1, TimeUnit.SECONDS);
+    Assert.assertTrue(clock.currentTimeMillis() - start >= 60 * MINUTE);
+
+    /* the clock must not reach the deadline of the pending task before it is closed */
+    final CountDownLatch hold = new CountDownLatch(1);
+    clock.submit(executor, new Runnable() {
+      @Override
+      public void run() {
+        try {
+          hold.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+    Future<?> pending = clock.schedule(executor, new Runnable() {
+      @Override
+      public void run() {}
+    }, 60 * MINUTE);
+    clock.close();
+    hold.countDown();
+    Assert.assertTrue(pending.isCancelled());
+    try {
+      clock.schedule(executor, new Runnable() {
+        @Override
+        public void run() {}
+      }, 0);
+      Assert.fail("A closed clock must not schedule tasks");
+    } catch (RejectedExecutionException e) {
+      /* expected */
+    }
+    executor.shutdown();
+  }
+}
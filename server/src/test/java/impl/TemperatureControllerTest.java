@@ -7,9 +7,19 @@ import static org.mockito.Mockito.after;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import exceptions.TemperatureNotReadableException;
+import general.HardwareStatus;
+import interfaces.IHeaterControl;
 import interfaces.ITemperatureEvent;
 import interfaces.ITemperatureEvent.SubscribeStatus;
 import interfaces.ITemperatureService;
+import interfaces.IThermometerReader;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
 import junit.framework.Assert;
 import mocks.MockHeatableThermometer;
 
@@ -19,6 +29,9 @@ import org.junit.runner.RunWith;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import utilities.ReadingRingBuffer.ReadingHandler;
+import utilities.TemperatureSample;
+
 import categories.IntegrationTest;
 
 
@@ -106,4 +119,204 @@ public class TemperatureControllerTest {
     Assert.assertTrue(v.tempReached);
 
   }
+
+  /**
+   * Verifies that a slow subscriber does not delay the measurements and the heater control, the
+   * readings are queued for the subscribers instead.
+   *
+   * @throws InterruptedException
+   */
+  @Category(IntegrationTest.class)
+  @Test
+  public void testThatSlowSubscriberDoesNotDelayHeaterControl() throws InterruptedException {
+    final MockHeatableThermometer heaterThermometer = new MockHeatableThermometer();
+    final AtomicInteger measurements = new AtomicInteger();
+    IThermometerReader countingReader = new IThermometerReader() {
+      @Override
+      public float getTemperature() throws TemperatureNotReadableException {
+        measurements.incrementAndGet();
+        return heaterThermometer.getTemperature();
+      }
+    };
+    /* measures every 15 ms */
+    TemperatureController ftc =
+        new TemperatureController(countingReader, heaterThermometer, new SimulationClock(100));
+
+    final AtomicInteger notifications = new AtomicInteger();
+    final AtomicReference<Thread> consumer = new AtomicReference<Thread>();
+    ftc.subscribe(0, 100, new ITemperatureEvent() {
+      @Override
+      public SubscribeStatus temperatureReached(final float temperature) {
+        consumer.set(Thread.currentThread());
+        notifications.incrementAndGet();
+        try {
+          Thread.sleep(500);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        return SubscribeStatus.SUBSCRIBE;
+      }
+    });
+    ftc.heatUp(45);
+    Thread.sleep(1000);
+    ftc.stop();
+
+    Assert.assertTrue(measurements.get() > 20);
+    Assert.assertTrue(notifications.get() <= 3);
+    Assert.assertTrue(ftc.getSubscriberNotifications().getMaxLag() > 1);
+
+    /* the consumer which notifies the subscribers ends with stop() */
+    consumer.get().join(1000);
+    Assert.assertFalse(consumer.get().isAlive());
+  }
+
+  /**
+   * Verifies that a slow consumer of the readings (like the logging) reads them in its own thread
+   * and neither delays the subscribers nor gets readings after it was removed.
+   *
+   * @throws InterruptedException
+   */
+  @Category(IntegrationTest.class)
+  @Test
+  public void testThatSlowReadingConsumerDoesNotDelaySubscribers() throws InterruptedException {
+    MockHeatableThermometer heaterThermometer = new MockHeatableThermometer();
+    /* measures every 15 ms */
+    TemperatureController ftc =
+        new TemperatureController(heaterThermometer, heaterThermometer, new SimulationClock(100));
+
+    final AtomicInteger notifications = new AtomicInteger();
+    final AtomicReference<Thread> subscriber = new AtomicReference<Thread>();
+    ftc.subscribe(0, 100, new ITemperatureEvent() {
+      @Override
+      public SubscribeStatus temperatureReached(final float temperature) {
+        subscriber.set(Thread.currentThread());
+        notifications.incrementAndGet();
+        return SubscribeStatus.SUBSCRIBE;
+      }
+    });
+    final AtomicInteger readings = new AtomicInteger();
+    final AtomicReference<Thread> consumer = new AtomicReference<Thread>();
+    ReadingHandler slowConsumer = new ReadingHandler() {
+      @Override
+      public void handle(final float reading) {
+        consumer.set(Thread.currentThread());
+        readings.incrementAndGet();
+        try {
+          Thread.sleep(500);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    };
+    ftc.addReadingConsumer("SlowConsumer", slowConsumer);
+    ftc.heatUp(45);
+    Thread.sleep(1000);
+
+    Assert.assertTrue(notifications.get() > 20);
+    Assert.assertTrue(readings.get() <= 3);
+    Assert.assertNotSame(subscriber.get(), consumer.get());
+    Assert.assertEquals("SlowConsumer", consumer.get().getName());
+
+    ftc.removeReadingConsumer(slowConsumer);
+    consumer.get().join(2000);
+    int removed = readings.get();
+    Thread.sleep(200);
+    Assert.assertEquals(removed, readings.get());
+    ftc.stop();
+  }
+
+  /**
+   * Verifies that the temperature is sampled without heating and returned without waiting for the
+   * sensor, and that no temperature is returned once the sensor hangs.
+   *
+   * @throws InterruptedException
+   */
+  @Category(IntegrationTest.class)
+  @Test
+  public void testThatTemperatureIsReadWithoutWaitingForTheSensor() throws InterruptedException {
+    final CountDownLatch sensorHangs = new CountDownLatch(1);
+    final CountDownLatch sensorReleased = new CountDownLatch(1);
+    IThermometerReader slowReader = new IThermometerReader() {
+      @Override
+      public float getTemperature() throws TemperatureNotReadableException {
+        try {
+          /* a conversion of the sensor takes 200 ms */
+          Thread.sleep(200);
+          if (sensorHangs.getCount() == 0) {
+            sensorReleased.await();
+          }
+        } catch (InterruptedException e) {
+          throw new TemperatureNotReadableException(e);
+        }
+        return 50.0f;
+      }
+    };
+    TemperatureController ftc =
+        new TemperatureController(slowReader, mock(IHeaterControl.class), new SimulationClock(100));
+
+    long start = System.nanoTime();
+    ftc.getTemperature();
+    Assert.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+
+    /* the sensor is sampled although no heatUp is active */
+    long deadline = System.currentTimeMillis() + 5000;
+    while (ftc.getLatestSample() == null && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+    TemperatureSample sample = ftc.getLatestSample();
+    Assert.assertNotNull(sample);
+    Assert.assertEquals(HardwareStatus.ENABLED, sample.getStatus());
+    Assert.assertEquals(50.0f, ftc.getTemperature());
+
+    start = System.nanoTime();
+    for (int i = 0; i < 1000; i++) {
+      ftc.getTemperature();
+    }
+    Assert.assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+
+    /* the last sample is too old once the sensor hangs */
+    sensorHangs.countDown();
+    Thread.sleep(1000);
+    Assert.assertNull(ftc.getTemperature());
+    sensorReleased.countDown();
+    Assert.assertTrue(ftc.getLatestSample().getSequence() >= sample.getSequence());
+  }
+
+  /**
+   * Verifies that stop() ends the thread which samples the sensor and that the sampling is started
+   * again by the next use of the controller.
+   *
+   * @throws InterruptedException
+   */
+  @Category(IntegrationTest.class)
+  @Test
+  public void testThatStopEndsTheSampling() throws InterruptedException {
+    final MockHeatableThermometer heaterThermometer = new MockHeatableThermometer();
+    final AtomicInteger measurements = new AtomicInteger();
+    final AtomicReference<Thread> sampler = new AtomicReference<Thread>();
+    IThermometerReader countingReader = new IThermometerReader() {
+      @Override
+      public float getTemperature() throws TemperatureNotReadableException {
+        sampler.set(Thread.currentThread());
+        measurements.incrementAndGet();
+        return heaterThermometer.getTemperature();
+      }
+    };
+    TemperatureController ftc =
+        new TemperatureController(countingReader, heaterThermometer, new SimulationClock(100));
+    ftc.heatUp(45);
+    Thread.sleep(200);
+    ftc.stop();
+
+    Assert.assertFalse(sampler.get().isAlive());
+    Assert.assertFalse(heaterThermometer.isSwitchedOn());
+    int stopped = measurements.get();
+    Thread.sleep(200);
+    Assert.assertEquals(stopped, measurements.get());
+
+    ftc.getTemperature();
+    Thread.sleep(200);
+    Assert.assertTrue(measurements.get() > stopped);
+    ftc.stop();
+  }
 }
@@ -54,6 +54,8 @@ public class TemperatureLoggerTest {
      * Wait until the it's heated up
      */
     Thread.sleep(TIME_TO_HEAT_UP);
+    /* the end of the logged curve is written when the logger unsubscribes */
+    temperatureLogger.unsubscribe();
 
     int messagesSizeBefore = 0;
     int messagesSizeAfter = 0;
@@ -79,7 +81,6 @@ public class TemperatureLoggerTest {
     /*
      * heat up to 80° and wait until it is heated up
      */
-    temperatureLogger.unsubscribe();
     temperatureService.heatUp(80);
     Thread.sleep(TIME_TO_HEAT_UP);
 
@@ -12,6 +12,7 @@ import general.BrewingProcess;
 import general.BrewingState;
 import general.Recipe;
 import general.RecipeSummary;
+import general.TemperatureSeries;
 import interfaces.IBrewingController;
 import interfaces.IMessageService;
 import interfaces.IProtocolService;
@@ -190,10 +191,10 @@ public class UserFacadeTest {
   @Test
   public void testMessagesSince() throws BrewingProcessNotFoundException {
     BrewingProcess process = mock(BrewingProcess.class);
-    BrewingLog log = mock(BrewingLog.class);
+    BrewingLog log = new BrewingLog(DummyBuilder.getRealisticRecipe(), 1);
     List<Message> messages = new ArrayList<>();
     when(process.getBrewingLog()).thenReturn(log);
-    when(log.getMessages()).thenReturn(messages);
+    log.setMessages(messages);
     when(brewingController.getCurrentBrewingProcess()).thenReturn(process);
 
     /*
@@ -207,7 +208,7 @@ public class UserFacadeTest {
      * message, it shouldnt return any element
      */
     Message message = DummyBuilder.getMessage(6);
-    messages.add(message);
+    log.log(message);
     Assert.assertEquals(1, userFacade.getTemperaturesSince(0l).size());
     Assert.assertEquals(0, userFacade.getTemperaturesSince(message.getTime() + 1).size());
 
@@ -218,7 +219,7 @@ public class UserFacadeTest {
     /*
      * another message which isnt a temperature-message is added - should be ignored
      */
-    messages.add(DummyBuilder.getMessage(2));
+    log.log(DummyBuilder.getMessage(2));
     Assert.assertEquals(1, userFacade.getTemperaturesSince(0l).size());
     Assert.assertEquals(1, userFacade.getTemperaturesSince(message.getTime()).size());
     Assert.assertEquals(0, userFacade.getTemperaturesSince(message.getTime() + 1).size());
@@ -227,7 +228,7 @@ public class UserFacadeTest {
      * another temperature-messsage is added
      */
     Message message2 = DummyBuilder.getMessage(6);
-    messages.add(message2);
+    log.log(message2);
     Assert.assertEquals(2, userFacade.getTemperaturesSince(0l).size());
 
     /*
@@ -236,17 +237,40 @@ public class UserFacadeTest {
     Assert.assertEquals(message2.getTime() < message.getTime() ? 1 : 2, userFacade
         .getTemperaturesSince(message.getTime()).size());
 
-    messages.clear();
-
     /*
-     * every map-element must be younger than the given date
+     * every map-element must be younger than the given date and no younger message is missing
      */
-    messages.addAll(DummyBuilder.getMessages());
+    List<Message> randomMessages = DummyBuilder.getMessages();
+    log.setMessages(randomMessages);
     long selectedDate = new Date().getTime() - (1000 * 60 * 200);
     map = userFacade.getTemperaturesSince(selectedDate);
     for (Long date : map.keySet()) {
       Assert.assertTrue(date >= selectedDate);
     }
+    int younger = 0;
+    for (Message randomMessage : randomMessages) {
+      if (randomMessage.getTime() >= selectedDate) {
+        younger++;
+        Assert.assertTrue(!(randomMessage instanceof TemperatureMessage)
+            || map.containsKey(randomMessage.getTime()));
+      }
+    }
+    Assert.assertEquals(younger, userFacade.getCurrentMessagesSince(selectedDate).size());
+
+    /*
+     * temperature readings are read from the temperature series of the log
+     */
+    log.setMessages(new ArrayList<Message>());
+    TemperatureMessage reading = new TemperatureMessage(42f);
+    reading.setMessage(TemperatureSeries.describe(42f));
+    log.log(reading);
+    Assert.assertEquals(0, log.getNonReadingMessages().size());
+    Assert.assertEquals(1, log.getTemperatures().size());
+    map = userFacade.getTemperaturesSince(reading.getTime());
+    Assert.assertEquals(1, map.size());
+    Assert.assertEquals(42f, map.get(reading.getTime()));
+    Assert.assertEquals(0, userFacade.getTemperaturesSince(reading.getTime() + 1).size());
+    Assert.assertEquals(1, userFacade.getCurrentMessagesSince(reading.getTime()).size());
 
   }
 
@@ -0,0 +1,138 @@
+/*
+ *
+ */
+package mocks;
+
+import impl.TemperatureController;
+import interfaces.IHeaterStrategy;
+import exceptions.TemperatureNotReadableException;
+
+/**
+ * Simulates how a heater strategy reaches and holds a temperature with a MockHeatableThermometer.
+ * The measurements are taken in the interval of the TemperatureController, but without waiting, and
+ * the simulation reports the overshoot, the settling time, the steady-state error and how often the
+ * relay was switched.
+ */
+public class HeaterSimulation {
+
+  /** The simulated thermometer and heater */
+  private final MockHeatableThermometer thermometer = new MockHeatableThermometer();
+
+  /** The strategy */
+  private final IHeaterStrategy strategy;
+
+  /** How much the temperature may differ from the target once it settled */
+  private final float tolerance;
+
+  /** Highest temperature above the target */
+  private float overshoot;
+
+  /** Time until the temperature stayed within the tolerance (or -1 if it never settled) */
+  private long settlingMillis = -1;
+
+  /** Mean difference to the target in the second half of the simulated time */
+  private float steadyStateError;
+
+  /** Number of times the relay was switched */
+  private int switches;
+
+  /**
+   * Creates a simulation.
+   *
+   * @param strategy the strategy
+   * @param tolerance how much the temperature may differ from the target once it settled
+   */
+  public HeaterSimulation(final IHeaterStrategy strategy, final float tolerance) {
+    this.strategy = strategy;
+    this.tolerance = tolerance;
+  }
+
+  /**
+   * Heats up to a temperature and holds it.
+   *
+   * @param targetTemperature the temperature
+   * @param durationMillis the simulated time
+   * @return this simulation
+   * @throws TemperatureNotReadableException
+   */
+  public HeaterSimulation run(final float targetTemperature, final long durationMillis)
+      throws TemperatureNotReadableException {
+    strategy.reset();
+    long settledSince = -1;
+    double errorSum = 0;
+    int errorCount = 0;
+    for (long time = 0; time < durationMillis; time += TemperatureController.MEASUREMENT_INTERVAL) {
+      float temperature = thermometer.getTemperature();
+      overshoot = Math.max(overshoot, temperature - targetTemperature);
+      if (Math.abs(temperature - targetTemperature) <= tolerance) {
+        if (settledSince < 0) {
+          settledSince = time;
+        }
+      } else {
+        settledSince = -1;
+      }
+      if (time >= durationMillis / 2) {
+        errorSum += Math.abs(temperature - targetTemperature);
+        errorCount++;
+      }
+      boolean switchedOn = thermometer.isSwitchedOn();
+      boolean heating = strategy.isHeating(temperature, targetTemperature, switchedOn, time);
+      if (heating != switchedOn) {
+        switches++;
+      }
+      if (heating) {
+        thermometer.switchOn();
+      } else {
+        thermometer.switchOff();
+      }
+    }
+    settlingMillis = settledSince;
+    steadyStateError = errorCount > 0 ? (float) (errorSum / errorCount) : 0;
+    return this;
+  }
+
+  /**
+   * Returns the highest temperature above the target.
+   *
+   * @return the overshoot in degrees
+   */
+  public float getOvershoot() {
+    return overshoot;
+  }
+
+  /**
+   * Returns the time until the temperature stayed within the tolerance until the end.
+   *
+   * @return the settling time in milliseconds (or -1 if it did not settle)
+   */
+  public long getSettlingMillis() {
+    return settlingMillis;
+  }
+
+  /**
+   * Returns the mean difference to the target in the second half of the simulated time.
+   *
+   * @return the steady-state error in degrees
+   */
+  public float getSteadyStateError() {
+    return steadyStateError;
+  }
+
+  /**
+   * Returns how often the relay was switched.
+   *
+   * @return number of switches
+   */
+  public int getSwitches() {
+    return switches;
+  }
+
+  @Override
+  public String toString() {
+    String settling =
+        settlingMillis < 0 ? "not settled" : String.format("settling time %.1f s",
+            settlingMillis / 1000.0);
+    return String.format("%s: overshoot %.2f°C, %s, steady-state error %.2f°C, %d relay switches",
+        strategy.getClass().getSimpleName(), overshoot, settling, steadyStateError, switches);
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ *
+ */
+package mocks;
+
+import interfaces.IBrewingScheduler;
+
+import java.util.PriorityQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Scheduler with a virtual time for tests. The tasks are run one after another in the order of
+ * their (virtual) times without waiting, the virtual time jumps to the time of every task that is
+ * run. This way the waiting periods of the brewing parts do not slow down the tests.
+ */
+public class MockBrewingScheduler implements IBrewingScheduler {
+
+  private static final Logger LOGGER = LogManager.getLogger();
+
+  /** the pending tasks, ordered by their times */
+  private final PriorityQueue<VirtualTask> tasks = new PriorityQueue<VirtualTask>();
+
+  /** the current virtual time in milliseconds */
+  private long now = System.currentTimeMillis();
+
+  /** number of scheduled tasks, keeps tasks with the same time in their order */
+  private long sequence = 0;
+
+  /** the thread which runs the tasks, started with the first task */
+  private Thread worker;
+
+  @Override
+  public synchronized Future<?> schedule(final Runnable task, final long delayMillis) {
+    VirtualTask virtualTask = new VirtualTask(task, now + Math.max(delayMillis, 0), sequence++);
+    tasks.add(virtualTask);
+    if (worker == null) {
+      worker = new Thread(new Runnable() {
+        @Override
+        public void run() {
+          runTasks();
+        }
+      }, "MockBrewingScheduler");
+      worker.setDaemon(true);
+      worker.start();
+    }
+    notifyAll();
+    return virtualTask;
+  }
+
+  @Override
+  public synchronized long currentTimeMillis() {
+    return now;
+  }
+
+  /**
+   * Runs the tasks in the order of their times and advances the virtual time.
+   */
+  private void runTasks() {
+    while (true) {
+      VirtualTask task;
+      synchronized (this) {
+        while (tasks.isEmpty()) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            LOGGER.warn("MockBrewingScheduler was interrupted", e);
+            return;
+          }
+        }
+        task = tasks.poll();
+        if (task.isCancelled()) {
+          /* cancelled tasks do not advance the time */
+          continue;
+        }
+        now = Math.max(now, task.time);
+      }
+      task.run();
+    }
+  }
+
+  /**
+   * A task with its virtual time.
+   */
+  private static final class VirtualTask extends FutureTask<Void> implements
+      Comparable<VirtualTask> {
+
+    /** the virtual time of the task */
+    private final long time;
+
+    /** the position of the task among the tasks with the same time */
+    private final long sequence;
+
+    /**
+     * Creates a task.
+     *
+     * @param task the task
+     * @param time the virtual time of the task
+     * @param sequence the position of the task among the tasks with the same time
+     */
+    VirtualTask(final Runnable task, final long time, final long sequence) {
+      super(task, null);
+      this.time = time;
+      this.sequence = sequence;
+    }
+
+    @Override
+    protected void done() {
+      try {
+        if (!isCancelled()) {
+          get();
+        }
+      } catch (Exception e) {
+        LOGGER.error("Scheduled brewing step failed", e);
+      }
+    }
+
+    @Override
+    public int compareTo(final VirtualTask other) {
+      if (time != other.time) {
+        return Long.compare(time, other.time);
+      }
+      return Long.compare(sequence, other.sequence);
+    }
+  }
+}
@@ -4,13 +4,20 @@
 package mocks;
 
 import general.HardwareStatus;
+import impl.SystemClock;
 import impl.TemperatureController;
+import interfaces.IClock;
 import interfaces.ITemperatureEvent;
 import interfaces.ITemperatureService;
 
+import java.util.Map;
+
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import utilities.ReadingRingBuffer.ReadingHandler;
+
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
 
 
@@ -40,9 +47,29 @@ public class MockTemperatureController implements ITemperatureService {
    * @param thermo
    */
   public MockTemperatureController(final MockHeatableThermometer thermo) {
+    this(thermo, new SystemClock());
+  }
+
+  /**
+   * Constructs a new MockTemperatureController which measures the temperature in the interval of
+   * the given clock.
+   * @param clock
+   */
+  @Inject
+  public MockTemperatureController(final IClock clock) {
+    this(new MockHeatableThermometer(), clock);
+  }
+
+  /**
+   * Constructs a new MockTemperatureController with the MockHeatableThermometer and the clock to
+   * be used.
+   * @param thermo
+   * @param clock
+   */
+  public MockTemperatureController(final MockHeatableThermometer thermo, final IClock clock) {
   	LOGGER.info("MOCK: Constructed MOCK TemperatureController");
   	this.thermo = thermo;
-  	this.temperatureService = new TemperatureController(this.thermo, this.thermo);
+  	this.temperatureService = new TemperatureController(this.thermo, this.thermo, clock);
     this.lastHeatupTemperature = null;
   }
   
@@ -71,6 +98,11 @@ public class MockTemperatureController implements ITemperatureService {
     return temperatureService.getTemperature();
   }
   
+  @Override
+  public Map<String, Float> getSensorTemperatures() {
+    return temperatureService.getSensorTemperatures();
+  }
+
   @Override
   public HardwareStatus getTemperatureSensorStatus() {
     return HardwareStatus.ENABLED;
@@ -120,5 +152,15 @@ public class MockTemperatureController implements ITemperatureService {
   public void unsubscribe(final ITemperatureEvent notify) {
     this.temperatureService.unsubscribe(notify);
   }
+
+  @Override
+  public void addReadingConsumer(final String name, final ReadingHandler handler) {
+    this.temperatureService.addReadingConsumer(name, handler);
+  }
+
+  @Override
+  public void removeReadingConsumer(final ReadingHandler handler) {
+    this.temperatureService.removeReadingConsumer(handler);
+  }
   
 }
@@ -18,6 +18,7 @@ import general.MaltAddition;
 import general.Protocol;
 import general.Recipe;
 import general.RecipeSummary;
+import general.TemperatureHistory;
 import interfaces.IBrewingController;
 import interfaces.IUserFacadeService;
 
@@ -219,12 +220,28 @@ public class MockUserFacadeWithAutoConfirm implements IUserFacadeService {
     throw new BrewingProcessNotFoundException("No BrewingProcess currently ongoing");
   }
 
+  @Override
+  public TemperatureHistory getTemperatureHistorySince(final Long since)
+      throws BrewingProcessNotFoundException {
+    BrewingProcess process = brewingController.getCurrentBrewingProcess();
+    if (process != null) {
+      return process.getBrewingLog().getTemperaturesSince(since != null ? since : -1);
+    }
+    throw new BrewingProcessNotFoundException("No BrewingProcess currently ongoing");
+  }
+
   @Override
   public String importRecipe(final Recipe recipe) throws RecipeParseException,
       RecipeSavingException {
     return null;
   }
 
+  @Override
+  public List<String> importRecipes(final List<Recipe> recipes) throws RecipeParseException,
+      RecipeSavingException {
+    return null;
+  }
+
   public boolean isShouldConfirmNothing() {
     return shouldConfirmNothing;
   }
@@ -9,10 +9,12 @@ import impl.BrewingController;
 import impl.BrewingPart;
 import impl.HopCooker;
 import impl.Masher;
+import impl.SystemClock;
 import impl.TemperatureLogger;
 import interfaces.IAcousticNotifier;
 import interfaces.IBrewingController;
 import interfaces.IBrewingLogService;
+import interfaces.IBrewingScheduler;
 import interfaces.IGetRecipe;
 import interfaces.IHeaterControl;
 import interfaces.ILogStorage;
@@ -26,6 +28,7 @@ import interfaces.IStirrerService;
 import interfaces.ITemperatureLogger;
 import interfaces.ITemperatureService;
 import interfaces.IThermometerReader;
+import mocks.MockBrewingScheduler;
 import mocks.MockTemperatureController;
 
 import org.mockito.Mockito;
@@ -57,9 +60,11 @@ public class BrewingControllerTestModule extends AbstractModule {
 
   static ITemperatureService temperatureService = new MockTemperatureController();
 
+  static IBrewingScheduler brewingScheduler = new MockBrewingScheduler();
+
   IBrewingController bc = new BrewingController(getTemperatureService(), getLogService(),
       getStirrerService(), getMasher(), getHopCooker(), getTemperatureLogger(), getAcousticNotifier(),
-      getAwesomeProvider(), new PersistenceHandler());
+      getAwesomeProvider(), new PersistenceHandler(), new SystemClock());
 
   @Override
   protected void configure() {}
@@ -131,10 +136,23 @@ public class BrewingControllerTestModule extends AbstractModule {
   @Named("HopCooker")
   public BrewingPart getHopCooker() {
     BrewingPart part =
-        new HopCooker(getTemperatureService(), getLogService(), getBrewingControllerProvider());
+        new HopCooker(getTemperatureService(), getLogService(), getBrewingControllerProvider(),
+            getBrewingScheduler());
     return part;
   }
 
+  /**
+   * This method returns a scheduler with a virtual time, so the brewing parts do not wait in real
+   * time.
+   *
+   * @return the scheduler of the brewing parts
+   */
+  @Provides
+  @Singleton
+  public IBrewingScheduler getBrewingScheduler() {
+    return brewingScheduler;
+  }
+
   /**
    * This method deals with brewing logs and returns dummy objects.
    *
@@ -171,7 +189,7 @@ public class BrewingControllerTestModule extends AbstractModule {
   public BrewingPart getMasher() {
     BrewingPart part =
         new Masher(getTemperatureService(), getStirrerService(), getLogService(),
-            getBrewingControllerProvider());
+            getBrewingControllerProvider(), getBrewingScheduler());
     return part;
   }
 
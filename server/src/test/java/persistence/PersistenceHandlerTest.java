@@ -5,8 +5,14 @@
 package persistence;
 
 import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.HashSet;
 import java.util.List;
 
 import junit.framework.Assert;
@@ -16,11 +22,13 @@ import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.junit.runner.RunWith;
+import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
 import utilities.DummyBuilder;
 import utilities.PropertyUtil;
 import categories.UnitTest;
+import exceptions.BrewingProcessException;
 import exceptions.LogNotFoundException;
 import exceptions.LogParseException;
 import exceptions.LogSavingException;
@@ -28,8 +36,18 @@ import exceptions.RecipeNotFoundException;
 import exceptions.RecipeParseException;
 import exceptions.RecipeSavingException;
 import general.BrewingLog;
+import general.BrewingProcess;
+import general.BrewingState.State;
+import general.Protocol;
 import general.Recipe;
 import general.RecipeSummary;
+import general.TemperatureSeries;
+import gson.Serializer;
+import impl.BrewingLogger;
+import messages.Message;
+import messages.StartMessage;
+import messages.TemperatureMessage;
+import parser.RecipeWriter;
 
 
 /**
@@ -149,6 +167,60 @@ public class PersistenceHandlerTest {
   }
 
 
+  /**
+   * Tests that the summaries of saved logs are kept in the summary index, that only the summaries
+   * added since an update time are returned and that logs without a summary are summarized from
+   * the log file.
+   *
+   * @throws LogSavingException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testLogSummaryIndex() throws LogSavingException {
+    BrewingLog log = DummyBuilder.getBrewingLog();
+    log.setId(persistenceHandler.getLowestUnusedId());
+    long updateTime = persistenceHandler.getLastLogUpdateTime();
+    File file = persistenceHandler.saveLog(log);
+    Assert.assertTrue(persistenceHandler.getLogSummaries(0).contains(log.getSummary()));
+    Assert.assertEquals(Collections.singletonList(log.getSummary()),
+        persistenceHandler.getLogSummaries(updateTime + 1));
+
+    File summaryFile =
+        new File(persistenceHandler.getLogPath(), PropertyUtil.LOG_SUMMARY_INDEX_FILE);
+    Assert.assertTrue(summaryFile.exists());
+    PersistenceHandler restarted = new PersistenceHandler();
+    restarted.setLogPath(persistenceHandler.getLogPath());
+    Assert.assertTrue(restarted.getLogSummaries(0).contains(log.getSummary()));
+
+    Assert.assertTrue(summaryFile.delete());
+    restarted = new PersistenceHandler();
+    restarted.setLogPath(persistenceHandler.getLogPath());
+    Assert.assertTrue(restarted.getLogSummaries(0).contains(log.getSummary()));
+    Assert.assertTrue(summaryFile.exists());
+
+    Assert.assertTrue(file.delete());
+    Assert.assertFalse(restarted.getLogSummaries(0).contains(log.getSummary()));
+  }
+
+  /**
+   * Tests that logs which were saved with messages in the legacy format can still be read.
+   *
+   * @throws LogSavingException
+   * @throws LogParseException
+   * @throws LogNotFoundException
+   * @throws IOException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testLegacyLog() throws LogSavingException, LogNotFoundException,
+      LogParseException, IOException {
+    BrewingLog log = DummyBuilder.getBrewingLog();
+    log.setId(persistenceHandler.getLowestUnusedId());
+    File file = persistenceHandler.saveLog(log);
+    Files.write(file.toPath(), Serializer.getInstance().toJson(log).getBytes());
+    Assert.assertEquals(log, persistenceHandler.getLogById(log.getId()));
+    Assert.assertTrue(file.delete());
+  }
 
   /**
    * Tests that {@link LogNotFoundException} is thrown
@@ -162,6 +234,261 @@ public class PersistenceHandlerTest {
     persistenceHandler.getLogById(-1);
   }
 
+  /**
+   * Tests that saved logs are found through the log index, that ids are allocated above the highest
+   * saved id and that the index is rebuilt if the persisted index file is lost.
+   *
+   * @throws LogSavingException
+   * @throws LogParseException
+   * @throws LogNotFoundException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testLogIndex() throws LogSavingException, LogNotFoundException, LogParseException {
+    BrewingLog log = DummyBuilder.getBrewingLog();
+    log.setId(persistenceHandler.getLowestUnusedId());
+    File file = persistenceHandler.saveLog(log);
+    Assert.assertTrue(persistenceHandler.containsLog(log.getId()));
+    Assert.assertTrue(persistenceHandler.getUsedIds().contains(log.getId()));
+    Assert.assertEquals(log.getId() + 1, persistenceHandler.getLowestUnusedId());
+
+    File indexFile = new File(persistenceHandler.getLogPath(), PropertyUtil.LOG_INDEX_FILE);
+    Assert.assertTrue(indexFile.exists());
+    Assert.assertTrue(indexFile.delete());
+    persistenceHandler.setLogPath(persistenceHandler.getLogPath());
+    Assert.assertEquals(log, persistenceHandler.getLogById(log.getId()));
+    Assert.assertTrue(indexFile.exists());
+
+    Assert.assertTrue(file.delete());
+    Assert.assertFalse(persistenceHandler.containsLog(log.getId()));
+  }
+
+  /**
+   * Tests that logs which are copied into or deleted from the log folder while the index is in use
+   * are picked up as an update of the logs.
+   *
+   * @throws IOException
+   * @throws LogSavingException
+   * @throws LogParseException
+   * @throws LogNotFoundException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testLogsChangedFromOutside() throws IOException, LogSavingException,
+      LogNotFoundException, LogParseException {
+    BrewingLog log = DummyBuilder.getBrewingLog();
+    log.setId(persistenceHandler.getLowestUnusedId());
+    File file = persistenceHandler.saveLog(log);
+    File folder = new File(persistenceHandler.getLogPath());
+
+    /* a log is copied into the folder, e.g. from a backup */
+    BrewingLog copied = DummyBuilder.getBrewingLog();
+    copied.setId(log.getId() + 1);
+    File copiedFile = new File(folder, copied.getId() + "_copied" + PropertyUtil.LOG_FILE_EXT);
+    long updateTime = persistenceHandler.getLastLogUpdateTime();
+    Files.write(copiedFile.toPath(),
+        Serializer.getLogStorageInstance().toJson(copied).getBytes(StandardCharsets.UTF_8));
+    /* the file system might not resolve the modification time finer than the copy */
+    Assert.assertTrue(folder.setLastModified(folder.lastModified() + 2000));
+    Assert.assertTrue(persistenceHandler.getLastLogUpdateTime() > updateTime);
+    Assert.assertTrue(persistenceHandler.getUsedIds().contains(copied.getId()));
+    Assert.assertEquals(copied.getId() + 1, persistenceHandler.getLowestUnusedId());
+    Assert.assertEquals(copied.getId(), persistenceHandler.getLogById(copied.getId()).getId());
+
+    /* both logs are deleted */
+    updateTime = persistenceHandler.getLastLogUpdateTime();
+    Assert.assertTrue(copiedFile.delete());
+    Assert.assertTrue(file.delete());
+    Assert.assertTrue(folder.setLastModified(folder.lastModified() + 2000));
+    Assert.assertTrue(persistenceHandler.getLastLogUpdateTime() > updateTime);
+    Assert.assertFalse(persistenceHandler.getUsedIds().contains(log.getId()));
+    Assert.assertFalse(persistenceHandler.getUsedIds().contains(copied.getId()));
+  }
+
+  /**
+   * Tests that a journaled log is compacted into the same log which would have been saved at once.
+   *
+   * @throws LogSavingException
+   * @throws LogParseException
+   * @throws LogNotFoundException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testJournal() throws LogSavingException, LogNotFoundException, LogParseException {
+    BrewingLog log = DummyBuilder.getBrewingLog();
+    log.setId(persistenceHandler.getLowestUnusedId());
+    List<Message> messages = log.getMessages();
+    log.setMessages(new ArrayList<Message>(messages.subList(0, messages.size() / 2)));
+    persistenceHandler.openJournal(log);
+    for (Message message : messages.subList(messages.size() / 2, messages.size())) {
+      log.log(message);
+      persistenceHandler.appendToJournal(log.getId(), message);
+    }
+    TemperatureMessage reading = new TemperatureMessage(55f);
+    reading.setMessage(TemperatureSeries.describe(55f));
+    log.log(reading);
+    persistenceHandler.appendToJournal(log.getId(), reading);
+    File file = persistenceHandler.closeJournal(log.getId());
+    Assert.assertTrue(file.getName().endsWith(PropertyUtil.LOG_FILE_EXT));
+    File temperatureFile = PersistenceHandler.getTemperatureFile(file);
+    Assert.assertTrue(temperatureFile.exists());
+    Assert.assertFalse(new File(persistenceHandler.getLogPath(), log.getId()
+        + PropertyUtil.LOG_JOURNAL_FILE_EXT).exists());
+    Assert.assertEquals(log, persistenceHandler.getLogById(log.getId()));
+    Assert.assertTrue(file.delete());
+    Assert.assertTrue(temperatureFile.delete());
+  }
+
+  /**
+   * Tests that a journal which was not closed (server stopped during brewing) is recovered into a
+   * log as soon as the log folder is indexed again.
+   *
+   * @throws IOException
+   * @throws LogParseException
+   * @throws LogNotFoundException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testJournalRecovery() throws IOException, LogNotFoundException, LogParseException {
+    BrewingLog log = DummyBuilder.getBrewingLog();
+    log.setId(persistenceHandler.getLowestUnusedId());
+    File journalFile =
+        new File(persistenceHandler.getLogPath(), log.getId() + PropertyUtil.LOG_JOURNAL_FILE_EXT);
+    LogJournal journal = new LogJournal(journalFile, log, 0);
+    journal.close();
+
+    persistenceHandler.setLogPath(persistenceHandler.getLogPath());
+    Assert.assertTrue(persistenceHandler.containsLog(log.getId()));
+    Assert.assertFalse(journalFile.exists());
+    Assert.assertEquals(log, persistenceHandler.getLogById(log.getId()));
+    Assert.assertEquals(log.getId() + 1, persistenceHandler.getLowestUnusedId());
+  }
+
+  /**
+   * Tests that logged messages are synced after the time interval of the journal even if no
+   * further message is logged.
+   *
+   * @throws IOException
+   * @throws InterruptedException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testJournalSyncedWhileIdle() throws IOException, InterruptedException {
+    BrewingLog log = DummyBuilder.getBrewingLog();
+    log.setId(persistenceHandler.getLowestUnusedId());
+    File journalFile =
+        new File(persistenceHandler.getLogPath(), log.getId() + PropertyUtil.LOG_JOURNAL_FILE_EXT);
+    LogJournal journal = new LogJournal(journalFile, log, 50);
+    long length = journalFile.length();
+    journal.append(new Message("idle"));
+    long deadline = System.currentTimeMillis() + 2000;
+    while (journalFile.length() == length && System.currentTimeMillis() < deadline) {
+      Thread.sleep(20);
+    }
+    Assert.assertTrue(journalFile.length() > length);
+    journal.close();
+    Assert.assertTrue(journalFile.delete());
+  }
+
+  /**
+   * Tests that the journal of a log is deleted once the whole log was saved instead (e.g. because
+   * the journal could not be compacted), so it is not recovered as a second log.
+   *
+   * @throws IOException
+   * @throws LogSavingException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testJournalDiscardedAfterSave() throws IOException, LogSavingException {
+    BrewingLog log = DummyBuilder.getBrewingLog();
+    log.setId(persistenceHandler.getLowestUnusedId());
+    File journalFile =
+        new File(persistenceHandler.getLogPath(), log.getId() + PropertyUtil.LOG_JOURNAL_FILE_EXT);
+    new LogJournal(journalFile, log, 0).close();
+
+    File file = persistenceHandler.saveLog(log);
+    Assert.assertFalse(journalFile.exists());
+    persistenceHandler.setLogPath(persistenceHandler.getLogPath());
+    Assert.assertEquals(log.getId() + 1, persistenceHandler.getLowestUnusedId());
+    Assert.assertTrue(file.exists());
+  }
+
+  /**
+   * Tests that a journal which could not be appended to is dropped, so that the whole log which is
+   * saved instead is the only log of the id after the journals are recovered on the next start.
+   *
+   * @throws LogSavingException
+   * @throws BrewingProcessException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testFailedJournalNotRecovered() throws LogSavingException, BrewingProcessException {
+    File folder = new File(persistenceHandler.getLogPath(), "failedJournal");
+    PersistenceHandler handler = new PersistenceHandler();
+    handler.setLogPath(folder.getPath());
+    PersistenceHandler storage = Mockito.spy(handler);
+    Mockito.doThrow(new LogSavingException("Journal could not be written")).when(storage)
+        .appendToJournal(Mockito.anyInt(), Mockito.any(Message.class));
+    BrewingLogger logger = new BrewingLogger(storage);
+    BrewingProcess process = new BrewingProcess(DummyBuilder.getRealisticRecipe(), 1);
+    logger.startLog(process);
+    logger.log(new Message("journaled"));
+    logger.finishLog();
+    Assert.assertFalse(new File(folder, 1 + PropertyUtil.LOG_JOURNAL_FILE_EXT).exists());
+
+    /* the journals are recovered by a new handler, like after a restart */
+    PersistenceHandler restarted = new PersistenceHandler();
+    restarted.setLogPath(folder.getPath());
+    Assert.assertEquals(Collections.singletonList(1), restarted.getUsedIds());
+    File[] logs = folder.listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(final File dir, final String name) {
+        return name.endsWith(PropertyUtil.LOG_FILE_EXT);
+      }
+    });
+    Assert.assertEquals(1, logs.length);
+    for (File file : folder.listFiles()) {
+      Assert.assertTrue(file.delete());
+    }
+    Assert.assertTrue(folder.delete());
+  }
+
+
+  /**
+   * Tests that the temperature readings of a log are stored in a separate encoded file which is
+   * much smaller than the readings in the log itself and that they are read back with the log.
+   *
+   * @throws LogSavingException
+   * @throws LogParseException
+   * @throws LogNotFoundException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testTemperatureFile() throws LogSavingException, LogNotFoundException,
+      LogParseException {
+    BrewingLog log = DummyBuilder.getBrewingLog();
+    log.setId(persistenceHandler.getLowestUnusedId());
+    long time = new Date().getTime();
+    for (int i = 0; i < 1000; i++) {
+      float temperature = 20 + (i / 10) * 0.0625f;
+      TemperatureMessage reading = new TemperatureMessage(temperature);
+      reading.setTime(time + i * 2000);
+      reading.setMessage(TemperatureSeries.describe(temperature));
+      log.log(reading);
+    }
+    File file = persistenceHandler.saveLog(log);
+    File temperatureFile = PersistenceHandler.getTemperatureFile(file);
+    Assert.assertTrue(temperatureFile.exists());
+    Assert.assertTrue(temperatureFile.length() * 10 < Serializer.getInstance().toJson(log)
+        .length()
+        - Serializer.getLogStorageInstance().toJson(log).length());
+    BrewingLog parsedLog = persistenceHandler.getLogById(log.getId());
+    Assert.assertEquals(log, parsedLog);
+    Assert.assertEquals(1000, parsedLog.getTemperatures().size());
+    Assert.assertTrue(file.delete());
+    Assert.assertTrue(temperatureFile.delete());
+  }
+
   /**
    * Tests that saving recipes with same id works.
    *
@@ -180,6 +507,71 @@ public class PersistenceHandlerTest {
     Assert.assertFalse(recipe.getId() == recipe2.getId());
   }
 
+  /**
+   * Tests that several recipes are saved at once, each one in a complete UTF-8 encoded file
+   * without leftover temporary files.
+   *
+   * @throws Exception if the recipes could not be saved or read
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testSaveRecipes() throws Exception {
+    List<Recipe> recipes = new ArrayList<Recipe>();
+    for (int i = 0; i < 3; i++) {
+      Recipe recipe = DummyBuilder.getRealisticRecipe();
+      recipe.setId("bulkID");
+      recipes.add(recipe);
+    }
+    List<String> ids = persistenceHandler.saveRecipes(recipes);
+    Assert.assertEquals(3, ids.size());
+    Assert.assertEquals(3, new HashSet<String>(ids).size());
+    for (int i = 0; i < ids.size(); i++) {
+      Assert.assertEquals(ids.get(i), recipes.get(i).getId());
+      File file =
+          new File(persistenceHandler.getRecipePath() + File.separator + ids.get(i)
+              + PropertyUtil.RECIPE_FILE_EXT);
+      String xml = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+      Assert.assertTrue(xml.contains(recipes.get(i).getDescription()));
+      Assert.assertFalse(new File(file.getPath() + ".tmp").exists());
+      Assert.assertEquals(recipes.get(i), persistenceHandler.getRecipe(ids.get(i)));
+      Assert.assertTrue(file.delete());
+    }
+  }
+
+  /**
+   * Tests that no recipe is saved and no id is changed if one of several recipes cannot be saved.
+   *
+   * @throws IOException
+   * @throws RecipeParseException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testSaveRecipesAllOrNothing() throws IOException, RecipeParseException {
+    List<Recipe> recipes = new ArrayList<Recipe>();
+    for (String id : new String[] {"atomicA", "atomicB"}) {
+      Recipe recipe = DummyBuilder.getRecipe();
+      recipe.setId(id);
+      recipes.add(recipe);
+    }
+    String path = persistenceHandler.getRecipePath() + File.separator;
+    /* the temporary file of the second recipe cannot be created */
+    File blocking = new File(path + "atomicB" + PropertyUtil.RECIPE_FILE_EXT + ".tmp");
+    Files.createDirectories(blocking.toPath());
+    try {
+      persistenceHandler.saveRecipes(recipes);
+      Assert.fail("the recipes were saved");
+    } catch (RecipeSavingException e) {
+      // the second recipe cannot be saved
+    } finally {
+      Files.deleteIfExists(blocking.toPath());
+    }
+    Assert.assertEquals("atomicA", recipes.get(0).getId());
+    Assert.assertEquals("atomicB", recipes.get(1).getId());
+    Assert.assertFalse(new File(path + "atomicA" + PropertyUtil.RECIPE_FILE_EXT).exists());
+    Assert.assertFalse(new File(path + "atomicA" + PropertyUtil.RECIPE_FILE_EXT + ".tmp").exists());
+    Assert.assertFalse(new File(path + "atomicB" + PropertyUtil.RECIPE_FILE_EXT).exists());
+  }
+
   /**
    * Test recipe handling.
    *
@@ -211,4 +603,146 @@ public class PersistenceHandlerTest {
     Assert.assertTrue(file.exists());
     Assert.assertTrue(file.delete());
   }
+
+  /**
+   * Tests that recipes with umlauts are written and read as UTF-8, independent of the default
+   * charset of the platform.
+   *
+   * @throws Exception if the recipe could not be saved or read
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testRecipeUmlauts() throws Exception {
+    Recipe recipe = DummyBuilder.getRecipe();
+    recipe.setName("Weißbier mit Hüpfern");
+    String id = "umlauts";
+    File file =
+        new File(persistenceHandler.getRecipePath() + File.separator + id
+            + PropertyUtil.RECIPE_FILE_EXT);
+    /* written like the handler does, but not cached, so the file has to be read */
+    new RecipeWriter().writeRecipe(recipe, file.toPath());
+    String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    Assert.assertTrue(content.contains(recipe.getName()));
+    Assert.assertEquals(recipe.getName(), persistenceHandler.getRecipe(id).getName());
+    Assert.assertTrue(file.delete());
+  }
+
+  /**
+   * Tests that cached recipes cannot be changed by the caller and that a recipe which is edited
+   * or removed outside the application is noticed.
+   *
+   * @throws Exception if the recipe could not be saved or read
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testRecipeEditedOutside() throws Exception {
+    Recipe recipe = DummyBuilder.getRecipe();
+    recipe.setId("catalogID");
+    String id = persistenceHandler.saveRecipe(recipe);
+    Recipe loadedRecipe = persistenceHandler.getRecipe(id);
+    loadedRecipe.setName("changed by the caller");
+    Assert.assertEquals(recipe, persistenceHandler.getRecipe(id));
+
+    File file =
+        new File(persistenceHandler.getRecipePath() + File.separator + id
+            + PropertyUtil.RECIPE_FILE_EXT);
+    recipe.setName("edited outside of the application");
+    Files.write(file.toPath(), new RecipeWriter().convertRecipeToXml(recipe).getBytes());
+    long end = System.currentTimeMillis() + 5000;
+    while (!recipe.getName().equals(persistenceHandler.getRecipe(id).getName())
+        && System.currentTimeMillis() < end) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(recipe, persistenceHandler.getRecipe(id));
+    boolean contains = false;
+    for (RecipeSummary summary : persistenceHandler.getRecipeSummaries()) {
+      contains = contains || recipe.getName().equals(summary.getTitle());
+    }
+    Assert.assertTrue(contains);
+
+    Assert.assertTrue(file.delete());
+    end = System.currentTimeMillis() + 5000;
+    boolean removed = false;
+    while (!removed && System.currentTimeMillis() < end) {
+      try {
+        persistenceHandler.getRecipe(id);
+        Thread.sleep(10);
+      } catch (RecipeNotFoundException e) {
+        removed = true;
+      }
+    }
+    Assert.assertTrue(removed);
+  }
+
+  /**
+   * Tests that a recipe file which is edited outside of the application is reparsed even if its
+   * length and modification time did not change.
+   *
+   * @throws Exception
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testRecipeEditedWithSameLengthAndTime() throws Exception {
+    Recipe recipe = DummyBuilder.getRecipe();
+    recipe.setId("sameLengthID");
+    recipe.setName("name A");
+    String id = persistenceHandler.saveRecipe(recipe);
+    Assert.assertEquals("name A", persistenceHandler.getRecipe(id).getName());
+
+    File file =
+        new File(persistenceHandler.getRecipePath() + File.separator + id
+            + PropertyUtil.RECIPE_FILE_EXT);
+    long lastModified = file.lastModified();
+    long length = file.length();
+    recipe.setName("name B");
+    Files.write(file.toPath(), new RecipeWriter().convertRecipeToXml(recipe).getBytes());
+    Assert.assertTrue(file.setLastModified(lastModified));
+    Assert.assertEquals(length, file.length());
+
+    long end = System.currentTimeMillis() + 5000;
+    while (!"name B".equals(persistenceHandler.getRecipe(id).getName())
+        && System.currentTimeMillis() < end) {
+      Thread.sleep(10);
+    }
+    Assert.assertEquals("name B", persistenceHandler.getRecipe(id).getName());
+    Assert.assertTrue(file.delete());
+  }
+
+  /**
+   * Tests that the protocol of a saved log is stored next to the log without the temperature
+   * readings, that the read protocol contains the readings and cannot be modified and that a
+   * missing protocol is created from the log again.
+   *
+   * @throws LogSavingException
+   * @throws LogParseException
+   * @throws LogNotFoundException
+   * @throws IOException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testProtocolFile() throws LogSavingException, LogNotFoundException,
+      LogParseException, IOException {
+    BrewingLog log = DummyBuilder.getBrewingLog();
+    log.setId(persistenceHandler.getLowestUnusedId());
+    log.log(new StartMessage(State.MASHING));
+    log.getTemperatures().add((new Date()).getTime() + 1000, 55f);
+    File file = persistenceHandler.saveLog(log);
+    File protocolFile = PersistenceHandler.getProtocolFile(file);
+    Assert.assertTrue(protocolFile.exists());
+    String stored = new String(Files.readAllBytes(protocolFile.toPath()), StandardCharsets.UTF_8);
+    Assert.assertFalse(stored.contains(TemperatureSeries.describe(55f)));
+    Protocol protocol = persistenceHandler.getProtocol(log.getId());
+    Assert.assertEquals(log.getProtocol(), protocol);
+    Assert.assertEquals(log.getProtocol().getAllMessages(), protocol.getAllMessages());
+    try {
+      protocol.getRequests().add(null);
+      Assert.fail("the protocol can be modified");
+    } catch (UnsupportedOperationException e) {
+      // the read protocol is unmodifiable like the protocol of the log
+    }
+
+    Assert.assertTrue(protocolFile.delete());
+    Assert.assertEquals(protocol, persistenceHandler.getProtocol(log.getId()));
+    Assert.assertTrue(protocolFile.exists());
+  }
 }
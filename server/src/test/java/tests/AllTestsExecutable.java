@@ -3,10 +3,13 @@ package tests;
 import impl.ApplicationTest;
 import impl.BrewingControllerTest;
 import impl.BrewingLoggerTest;
+import impl.HeaterStrategyTest;
 import impl.HopCookerTest;
 import impl.MasherTest;
 import impl.ProtocolManagementTest;
 import impl.RecipeManagementTest;
+import impl.SamplingStrategyTest;
+import impl.SimulationClockTest;
 import impl.StirrerServiceTest;
 import impl.TemperatureControllerTest;
 import impl.TemperatureLoggerTest;
@@ -25,6 +28,10 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite.SuiteClasses;
 
 import persistence.PersistenceHandlerTest;
+import utilities.ReadingRingBufferTest;
+import utilities.SwingingDoorDownsamplerTest;
+import utilities.TemperatureListenerIndexTest;
+import utilities.TimeoutSchedulerTest;
 
 /**
  * Runs all tests of the project
@@ -36,7 +43,10 @@ import persistence.PersistenceHandlerTest;
     TemperatureLoggerTest.class, UserFacadeTest.class, ActuatorResourceTest.class,
     BrewingResourceTest.class, InfoResourceTest.class, NetworkControllerTest.class,
     ProtocolResourceTest.class, PushResourceTest.class, PushServiceTest.class,
-    RecipeResourceTest.class, PersistenceHandlerTest.class})//, BrewingProcessTest.class})
+    RecipeResourceTest.class, PersistenceHandlerTest.class, TimeoutSchedulerTest.class,
+    SimulationClockTest.class, TemperatureListenerIndexTest.class,
+    ReadingRingBufferTest.class, HeaterStrategyTest.class,
+    SamplingStrategyTest.class, SwingingDoorDownsamplerTest.class})//, BrewingProcessTest.class})
 public class AllTestsExecutable {
   /* has to be empty */
 }
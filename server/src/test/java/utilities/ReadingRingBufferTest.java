@@ -0,0 +1,142 @@
+/*
+ *
+ */
+package utilities;
+
+import impl.SystemClock;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.Assert;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import utilities.ReadingRingBuffer.Consumer;
+import utilities.ReadingRingBuffer.ReadingHandler;
+import categories.UnitTest;
+
+/**
+ * Tests the order of the readings and the backpressure of slow consumers of the ring buffer.
+ */
+public class ReadingRingBufferTest {
+
+  /** The tested ring buffer */
+  private final ReadingRingBuffer buffer = new ReadingRingBuffer(8, new SystemClock());
+
+  /**
+   * Stops the consumers.
+   */
+  @After
+  public void tearDown() {
+    buffer.shutdown();
+  }
+
+  /**
+   * Waits until the consumer read all published readings.
+   *
+   * @param consumer the consumer
+   * @throws InterruptedException
+   */
+  private void waitForConsumer(final Consumer consumer) throws InterruptedException {
+    long end = System.currentTimeMillis() + 5000;
+    while (consumer.getLag() > 0 && System.currentTimeMillis() < end) {
+      Thread.sleep(10);
+    }
+  }
+
+  /**
+   * Tests that every consumer gets all readings in the order they were published.
+   *
+   * @throws InterruptedException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testAllConsumersGetReadingsInOrder() throws InterruptedException {
+    final List<Float> first = new CopyOnWriteArrayList<Float>();
+    final List<Float> second = new CopyOnWriteArrayList<Float>();
+    Consumer firstConsumer = buffer.addConsumer("first", new ReadingHandler() {
+      @Override
+      public void handle(final float reading) {
+        first.add(reading);
+      }
+    });
+    Consumer secondConsumer = buffer.addConsumer("second", new ReadingHandler() {
+      @Override
+      public void handle(final float reading) {
+        second.add(reading);
+      }
+    });
+    for (int i = 0; i < 100; i++) {
+      buffer.publish(i);
+      if (i % 4 == 0) {
+        /* keep the consumers within the capacity */
+        waitForConsumer(firstConsumer);
+        waitForConsumer(secondConsumer);
+      }
+    }
+    waitForConsumer(firstConsumer);
+    waitForConsumer(secondConsumer);
+    Assert.assertEquals(100, buffer.getPublished());
+    Assert.assertEquals(100, first.size());
+    Assert.assertEquals(first, second);
+    for (int i = 0; i < 100; i++) {
+      Assert.assertEquals((float) i, first.get(i));
+    }
+    Assert.assertEquals(0, firstConsumer.getDropped());
+  }
+
+  /**
+   * Tests that a blocked consumer neither blocks the producer nor the other consumers, and that it
+   * skips the overwritten readings once it continues.
+   *
+   * @throws InterruptedException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testSlowConsumerDropsReadings() throws InterruptedException {
+    final CountDownLatch blocked = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<Float> slow = new CopyOnWriteArrayList<Float>();
+    final List<Float> fast = new CopyOnWriteArrayList<Float>();
+    Consumer slowConsumer = buffer.addConsumer("slow", new ReadingHandler() {
+      @Override
+      public void handle(final float reading) {
+        slow.add(reading);
+        blocked.countDown();
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+    });
+    Consumer fastConsumer = buffer.addConsumer("fast", new ReadingHandler() {
+      @Override
+      public void handle(final float reading) {
+        fast.add(reading);
+      }
+    });
+    buffer.publish(0);
+    Assert.assertTrue(blocked.await(5, TimeUnit.SECONDS));
+    for (int i = 1; i <= 20; i++) {
+      buffer.publish(i);
+      waitForConsumer(fastConsumer);
+    }
+    Assert.assertEquals(21, fast.size());
+    Assert.assertEquals(8, slowConsumer.getLag());
+
+    release.countDown();
+    waitForConsumer(slowConsumer);
+    /* the slow consumer continues with the oldest reading which was not overwritten */
+    Assert.assertEquals(12, slowConsumer.getDropped());
+    Assert.assertEquals(9, slow.size());
+    Assert.assertEquals(13.0f, slow.get(1));
+    Assert.assertEquals(20.0f, slow.get(8));
+    Assert.assertTrue(slowConsumer.getMaxLag() >= 8);
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ *
+ */
+package utilities;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import categories.UnitTest;
+
+/**
+ * Tests that the downsampled temperature curve stays within the error bound of every measured
+ * temperature.
+ */
+public class SwingingDoorDownsamplerTest {
+
+  /** Interval of the measurements */
+  private static final long INTERVAL = 1500;
+
+  /** Maximal time between two kept points */
+  private static final long MAX_INTERVAL = 60 * 1000;
+
+  /**
+   * Downsamples the values and checks that the lines between the kept points differ from every
+   * value by at most the error bound.
+   *
+   * @param values the measured values, one per interval
+   * @param errorBound the error bound
+   * @return the downsampler
+   */
+  private SwingingDoorDownsampler checkErrorBound(final float[] values, final float errorBound) {
+    SwingingDoorDownsampler downsampler = new SwingingDoorDownsampler(errorBound, MAX_INTERVAL);
+    List<Long> keptTimes = new ArrayList<Long>();
+    List<Float> keptValues = new ArrayList<Float>();
+    for (int i = 0; i < values.length; i++) {
+      if (downsampler.offer(i * INTERVAL, values[i])) {
+        keptTimes.add(downsampler.getStoreTime());
+        keptValues.add(downsampler.getStoreValue());
+      }
+    }
+    /* the end of the series is stored as well */
+    if (downsampler.flush()) {
+      keptTimes.add(downsampler.getStoreTime());
+      keptValues.add(downsampler.getStoreValue());
+    }
+    Assert.assertFalse(downsampler.flush());
+    Assert.assertEquals(keptTimes.size(), downsampler.getKept());
+    Assert.assertEquals(values.length, downsampler.getKept() + downsampler.getSuppressed());
+    Assert.assertEquals((values.length - 1) * INTERVAL, (long) keptTimes.get(keptTimes.size() - 1));
+
+    int line = 0;
+    for (int i = 0; i < values.length; i++) {
+      long time = i * INTERVAL;
+      while (line + 1 < keptTimes.size() && keptTimes.get(line + 1) < time) {
+        line++;
+      }
+      float value;
+      if (keptTimes.get(line) == time || line + 1 == keptTimes.size()) {
+        value = keptValues.get(line);
+      } else {
+        long start = keptTimes.get(line);
+        long end = keptTimes.get(line + 1);
+        value =
+            keptValues.get(line) + (keptValues.get(line + 1) - keptValues.get(line))
+                * (time - start) / (end - start);
+      }
+      Assert.assertEquals("value " + i, values[i], value, errorBound + 0.001f);
+    }
+    return downsampler;
+  }
+
+  /**
+   * Tests that a ramp and a rest are stored with a few points.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testRampAndRest() {
+    float[] values = new float[1200];
+    for (int i = 0; i < values.length; i++) {
+      /* heat up by 1 degree per minute to 62 degrees and hold it */
+      values[i] = Math.min(20 + i * INTERVAL / 60000f, 62);
+    }
+    SwingingDoorDownsampler downsampler = checkErrorBound(values, 0.5f);
+    /* the ramp is one line, the rest is stored every minute */
+    Assert.assertTrue(downsampler.getKept() <= 3 + values.length * INTERVAL / MAX_INTERVAL);
+    Assert.assertTrue(downsampler.getSuppressed() > values.length * 9 / 10);
+  }
+
+  /**
+   * Tests that a noisy temperature stays within the error bound.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testNoisyTemperature() {
+    Random random = new Random(4711);
+    float[] values = new float[5000];
+    float temperature = 20;
+    for (int i = 0; i < values.length; i++) {
+      temperature += random.nextFloat() - 0.4f;
+      values[i] = temperature + (random.nextFloat() - 0.5f) * 0.5f;
+    }
+    SwingingDoorDownsampler downsampler = checkErrorBound(values, 1.0f);
+    Assert.assertTrue(downsampler.getKept() < values.length / 2);
+
+    /* without an error bound every change of the slope is kept */
+    checkErrorBound(values, 0);
+  }
+}
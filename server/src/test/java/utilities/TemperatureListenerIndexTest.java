@@ -0,0 +1,144 @@
+/*
+ *
+ */
+package utilities;
+
+import interfaces.ITemperatureEvent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import junit.framework.Assert;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import categories.UnitTest;
+
+/**
+ * Tests that the temperature listener index finds the same listeners as checking every listener.
+ */
+public class TemperatureListenerIndexTest {
+
+  /** Listener which is never notified in these tests */
+  private static final ITemperatureEvent NOTIFY = new ITemperatureEvent() {
+    @Override
+    public SubscribeStatus temperatureReached(final float temperature) {
+      return SubscribeStatus.SUBSCRIBE;
+    }
+  };
+
+  /**
+   * Finds the listeners whose range contains the temperature by checking every listener.
+   *
+   * @param listeners the listeners
+   * @param temperature the temperature
+   * @return the matching listeners in their order
+   */
+  private List<TemperatureListener> findAll(final List<TemperatureListener> listeners,
+      final float temperature) {
+    List<TemperatureListener> found = new ArrayList<TemperatureListener>();
+    for (TemperatureListener listener : listeners) {
+      if (listener.getTemperature() - listener.getDelta() <= temperature
+          && temperature <= listener.getTemperature() + listener.getDelta()) {
+        found.add(listener);
+      }
+    }
+    return found;
+  }
+
+  /**
+   * Creates an index of random listeners.
+   *
+   * @param random the random numbers
+   * @param count number of listeners
+   * @param listeners the list the listeners are added to
+   * @return the index
+   */
+  private TemperatureListenerIndex createIndex(final Random random, final int count,
+      final List<TemperatureListener> listeners) {
+    TemperatureListenerIndex index = TemperatureListenerIndex.EMPTY;
+    for (int i = 0; i < count; i++) {
+      TemperatureListener listener =
+          new TemperatureListener(random.nextInt(100), random.nextInt(5), NOTIFY);
+      listeners.add(listener);
+      index = index.with(listener);
+    }
+    return index;
+  }
+
+  /**
+   * Tests the borders of the ranges and that the listeners keep the order they subscribed in.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testBordersAndOrder() {
+    TemperatureListener wide = new TemperatureListener(50, 10, NOTIFY);
+    TemperatureListener narrow = new TemperatureListener(45, 0, NOTIFY);
+    TemperatureListener low = new TemperatureListener(39, 1, NOTIFY);
+    TemperatureListenerIndex index =
+        TemperatureListenerIndex.EMPTY.with(wide).with(narrow).with(low);
+    Assert.assertEquals(Arrays.asList(wide, narrow), index.find(45.0f));
+    Assert.assertEquals(Arrays.asList(wide, low), index.find(40.0f));
+    Assert.assertEquals(Arrays.asList(low), index.find(38.5f));
+    Assert.assertEquals(Arrays.asList(wide), index.find(60.0f));
+    Assert.assertTrue(index.find(60.1f).isEmpty());
+
+    TemperatureListenerIndex removed = index.without(Arrays.asList(wide));
+    Assert.assertEquals(Arrays.asList(narrow), removed.find(45.0f));
+    Assert.assertEquals(3, index.size());
+    Assert.assertSame(removed, removed.without(Arrays.asList(wide)));
+  }
+
+  /**
+   * Tests the distance to the nearest border of a range.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testDistanceToBorder() {
+    Assert.assertEquals(Float.POSITIVE_INFINITY,
+        TemperatureListenerIndex.EMPTY.distanceToBorder(50));
+    TemperatureListenerIndex index =
+        TemperatureListenerIndex.EMPTY.with(new TemperatureListener(50, 10, NOTIFY)).with(
+            new TemperatureListener(45, 0, NOTIFY));
+    Assert.assertEquals(20.0f, index.distanceToBorder(20));
+    Assert.assertEquals(0.5f, index.distanceToBorder(44.5f));
+    Assert.assertEquals(0.0f, index.distanceToBorder(45));
+    Assert.assertEquals(3.0f, index.distanceToBorder(57));
+    Assert.assertEquals(0.25f, index.distanceToBorder(60.25f));
+  }
+
+  /**
+   * Compares the index with checking every listener for random listeners and temperatures.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testRandomListeners() {
+    Random random = new Random(42);
+    for (int count = 0; count < 50; count++) {
+      List<TemperatureListener> listeners = new ArrayList<TemperatureListener>();
+      TemperatureListenerIndex index = createIndex(random, count, listeners);
+      for (int i = 0; i < 100; i++) {
+        float temperature = random.nextFloat() * 110 - 5;
+        Assert.assertEquals(findAll(listeners, temperature), index.find(temperature));
+      }
+    }
+  }
+
+  /**
+   * Compares the index with checking every listener for many listeners.
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testManyListeners() {
+    Random random = new Random(42);
+    List<TemperatureListener> listeners = new ArrayList<TemperatureListener>();
+    TemperatureListenerIndex index = createIndex(random, 2000, listeners);
+    for (int i = 0; i < 1000; i++) {
+      float temperature = random.nextFloat() * 100;
+      Assert.assertEquals(findAll(listeners, temperature), index.find(temperature));
+    }
+  }
+}
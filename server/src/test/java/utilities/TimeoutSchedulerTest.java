@@ -0,0 +1,218 @@
+/*
+ *
+ */
+package utilities;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import junit.framework.Assert;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import utilities.TimeoutScheduler.TimeoutHandler;
+import categories.PerformanceTest;
+import categories.UnitTest;
+
+/**
+ * Tests the deadlines, cancellation and idle behaviour of the timeout scheduler.
+ */
+public class TimeoutSchedulerTest {
+
+  /** Logger which reports the measurements */
+  private static final Logger LOGGER = LogManager.getLogger();
+
+  /** Name of the thread of the tested scheduler */
+  private static final String THREAD_NAME = "TimeoutSchedulerTest";
+
+  /** Keys in the order their timeouts fired */
+  private final List<String> fired = new CopyOnWriteArrayList<String>();
+
+  /** Time (System.nanoTime()) at which the timeouts fired */
+  private final Map<String, Long> firedAt = new ConcurrentHashMap<String, Long>();
+
+  /** The tested scheduler */
+  private TimeoutScheduler<String> scheduler;
+
+  /**
+   * Creates the scheduler which records the timeouts.
+   */
+  @Before
+  public void setUp() {
+    scheduler = new TimeoutScheduler<String>(THREAD_NAME, new TimeoutHandler<String>() {
+      @Override
+      public void timeout(final String key) {
+        firedAt.put(key, System.nanoTime());
+        fired.add(key);
+      }
+    });
+  }
+
+  /**
+   * Stops the scheduler.
+   */
+  @After
+  public void tearDown() {
+    scheduler.shutdown();
+  }
+
+  /**
+   * Tests that every timeout fires once, in the order of the deadlines and not before its deadline.
+   *
+   * @throws InterruptedException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testDeadlines() throws InterruptedException {
+    long start = System.nanoTime();
+    Assert.assertTrue(scheduler.schedule("late", 300));
+    Assert.assertTrue(scheduler.schedule("early", 100));
+    Assert.assertTrue(scheduler.schedule("middle", 200));
+    Assert.assertFalse(scheduler.schedule("early", 10));
+    Assert.assertEquals(3, scheduler.size());
+    Thread.sleep(600);
+    Assert.assertEquals(3, fired.size());
+    Assert.assertEquals("early", fired.get(0));
+    Assert.assertEquals("middle", fired.get(1));
+    Assert.assertEquals("late", fired.get(2));
+    Assert.assertTrue(firedAt.get("early") - start >= 100 * 1000000L);
+    Assert.assertTrue(firedAt.get("late") - start >= 300 * 1000000L);
+    Assert.assertEquals(0, scheduler.size());
+  }
+
+  /**
+   * Tests that cancelled timeouts do not fire and that a key can be scheduled again.
+   *
+   * @throws InterruptedException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testCancel() throws InterruptedException {
+    scheduler.schedule("cancelled", 100);
+    scheduler.schedule("rescheduled", 100);
+    scheduler.schedule("kept", 150);
+    Assert.assertTrue(scheduler.cancel("cancelled"));
+    Assert.assertFalse(scheduler.cancel("cancelled"));
+    Assert.assertTrue(scheduler.cancel("rescheduled"));
+    Assert.assertTrue(scheduler.schedule("rescheduled", 250));
+    Assert.assertFalse(scheduler.isScheduled("cancelled"));
+    Thread.sleep(200);
+    Assert.assertEquals(1, fired.size());
+    Assert.assertEquals("kept", fired.get(0));
+    Thread.sleep(200);
+    Assert.assertEquals(2, fired.size());
+    Assert.assertEquals("rescheduled", fired.get(1));
+  }
+
+  /**
+   * Tests that no timeouts fire or can be scheduled after a shutdown, even if the handler shuts the
+   * scheduler down itself.
+   *
+   * @throws InterruptedException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testShutdown() throws InterruptedException {
+    final List<TimeoutScheduler<String>> self = new ArrayList<TimeoutScheduler<String>>();
+    TimeoutScheduler<String> selfStopping =
+        new TimeoutScheduler<String>(THREAD_NAME + "Self", new TimeoutHandler<String>() {
+          @Override
+          public void timeout(final String key) {
+            fired.add(key);
+            self.get(0).shutdown();
+          }
+        });
+    self.add(selfStopping);
+    selfStopping.schedule("first", 50);
+    selfStopping.schedule("second", 100);
+    Thread.sleep(200);
+    Assert.assertEquals(1, fired.size());
+    Assert.assertEquals(0, selfStopping.size());
+    Assert.assertFalse(selfStopping.schedule("third", 10));
+
+    scheduler.schedule("stopping", 50);
+    scheduler.shutdown();
+    Thread.sleep(100);
+    Assert.assertEquals(1, fired.size());
+  }
+
+  /**
+   * Tests that the timeouts fire in order and not before their deadlines, and that the thread of
+   * the scheduler waits while no deadline is reached.
+   *
+   * @throws InterruptedException
+   */
+  @Category(UnitTest.class)
+  @Test
+  public void testOrderAndIdleWaiting() throws InterruptedException {
+    long start = System.nanoTime();
+    List<String> expected = new ArrayList<String>();
+    for (int i = 1; i <= 20; i++) {
+      scheduler.schedule("timeout" + i, i * 50);
+      expected.add("timeout" + i);
+    }
+    scheduler.schedule("idle", 60 * 60 * 1000);
+    Thread.sleep(1100);
+    Assert.assertEquals(expected, fired);
+    for (int i = 1; i <= 20; i++) {
+      Assert.assertTrue(firedAt.get("timeout" + i) - start >= i * 50 * 1000000L);
+    }
+
+    boolean found = false;
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      if (THREAD_NAME.equals(thread.getName())) {
+        found = true;
+        Assert.assertEquals(Thread.State.TIMED_WAITING, thread.getState());
+      }
+    }
+    Assert.assertTrue(found);
+  }
+
+  /**
+   * Measures how precisely the timeouts fire and how much CPU time the waiting thread uses while no
+   * deadline is reached. Only a report, the lateness depends on the machine.
+   *
+   * @throws InterruptedException
+   */
+  @Category(PerformanceTest.class)
+  @Test
+  public void testAccuracyAndIdleCpu() throws InterruptedException {
+    long start = System.nanoTime();
+    for (int i = 1; i <= 20; i++) {
+      scheduler.schedule("timeout" + i, i * 50);
+    }
+    scheduler.schedule("idle", 60 * 60 * 1000);
+    Thread.sleep(1100);
+    long maxLateness = 0;
+    long totalLateness = 0;
+    for (int i = 1; i <= 20; i++) {
+      long lateness = firedAt.get("timeout" + i) - start - i * 50 * 1000000L;
+      maxLateness = Math.max(maxLateness, lateness);
+      totalLateness += lateness;
+    }
+
+    ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    long threadId = -1;
+    for (Thread thread : Thread.getAllStackTraces().keySet()) {
+      if (THREAD_NAME.equals(thread.getName())) {
+        threadId = thread.getId();
+      }
+    }
+    long cpuBefore = threads.getThreadCpuTime(threadId);
+    Thread.sleep(1000);
+    long idleCpu = threads.getThreadCpuTime(threadId) - cpuBefore;
+    LOGGER.info(String.format(
+        "Timeouts fired %.2f ms late on average, at most %.2f ms, idle CPU %.3f ms/s",
+        totalLateness / 20 / 1e6, maxLateness / 1e6, idleCpu / 1e6));
+  }
+}